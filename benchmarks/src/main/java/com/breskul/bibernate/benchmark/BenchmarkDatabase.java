@@ -0,0 +1,140 @@
+package com.breskul.bibernate.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * <p>In-memory H2 database shared by the benchmarks of one fork. The tables are created from 'schema.sql' and filled
+ * with {@link #ROW_COUNT} narrow and wide rows and two authors with {@link #SMALL_AUTHOR_BOOKS} and
+ * {@link #LARGE_AUTHOR_BOOKS} books.</p>
+ */
+public final class BenchmarkDatabase {
+
+    public static final int ROW_COUNT = 10_000;
+    public static final long SMALL_AUTHOR_ID = 1L;
+    public static final long LARGE_AUTHOR_ID = 2L;
+    public static final int SMALL_AUTHOR_BOOKS = 10;
+    public static final int LARGE_AUTHOR_BOOKS = 100;
+    public static final int DEFAULT_POOL_SIZE = 10;
+    private static final String URL = "jdbc:h2:mem:benchmarks;DB_CLOSE_DELAY=-1";
+    private static final int WIDE_COLUMN_COUNT = 15;
+
+    private static HikariDataSource dataSource;
+    private static boolean initialized;
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * @return pooled {@link DataSource} of the filled database shared by the benchmarks
+     */
+    public static synchronized DataSource getDataSource() {
+        if (dataSource == null) {
+            dataSource = createDataSource(DEFAULT_POOL_SIZE, null);
+        }
+        return dataSource;
+    }
+
+    /**
+     * <p>Creates a new pool of the database, filling the database on the first call.</p>
+     *
+     * @param maximumPoolSize       max number of connections of the pool
+     * @param metricsTrackerFactory {@link MetricsTrackerFactory} of the pool, null for none
+     * @return started {@link HikariDataSource}
+     */
+    public static synchronized HikariDataSource createDataSource(int maximumPoolSize, MetricsTrackerFactory metricsTrackerFactory) {
+        var hikariDataSource = new HikariDataSource();
+        hikariDataSource.setJdbcUrl(URL);
+        hikariDataSource.setUsername("sa");
+        hikariDataSource.setMaximumPoolSize(maximumPoolSize);
+        if (metricsTrackerFactory != null) {
+            hikariDataSource.setMetricsTrackerFactory(metricsTrackerFactory);
+        }
+        try (Connection connection = hikariDataSource.getConnection()) {
+            if (!initialized) {
+                createSchema(connection);
+                insertRows(connection);
+                insertAuthor(connection, SMALL_AUTHOR_ID, SMALL_AUTHOR_BOOKS);
+                insertAuthor(connection, LARGE_AUTHOR_ID, LARGE_AUTHOR_BOOKS);
+                initialized = true;
+            }
+        } catch (SQLException | IOException e) {
+            hikariDataSource.close();
+            throw new IllegalStateException("Can not create the benchmark database", e);
+        }
+        return hikariDataSource;
+    }
+
+    private static void createSchema(Connection connection) throws IOException, SQLException {
+        try (InputStream input = BenchmarkDatabase.class.getClassLoader().getResourceAsStream("schema.sql");
+             Statement statement = connection.createStatement()) {
+            statement.execute(new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void insertRows(Connection connection) throws SQLException {
+        var createdAt = Timestamp.valueOf(LocalDateTime.of(2023, 1, 1, 0, 0));
+        try (PreparedStatement narrow = connection.prepareStatement(
+                "INSERT INTO narrow_rows (id, name, amount, created_at) VALUES (?, ?, ?, ?)");
+             PreparedStatement wide = connection.prepareStatement(buildWideInsert())) {
+            for (long id = 1; id <= ROW_COUNT; id++) {
+                narrow.setLong(1, id);
+                narrow.setString(2, "name" + id);
+                narrow.setInt(3, (int) id);
+                narrow.setTimestamp(4, createdAt);
+                narrow.addBatch();
+                wide.setLong(1, id);
+                for (int column = 1; column <= WIDE_COLUMN_COUNT; column++) {
+                    switch (column % 4) {
+                        case 1 -> wide.setString(column + 1, "value" + id);
+                        case 2 -> wide.setInt(column + 1, (int) id);
+                        case 3 -> wide.setLong(column + 1, id);
+                        default -> wide.setTimestamp(column + 1, createdAt);
+                    }
+                }
+                wide.addBatch();
+            }
+            narrow.executeBatch();
+            wide.executeBatch();
+        }
+    }
+
+    private static String buildWideInsert() {
+        var columns = new StringBuilder("id");
+        var values = new StringBuilder("?");
+        for (int column = 1; column <= WIDE_COLUMN_COUNT; column++) {
+            columns.append(", column").append(column);
+            values.append(", ?");
+        }
+        return "INSERT INTO wide_rows (%s) VALUES (%s)".formatted(columns, values);
+    }
+
+    private static void insertAuthor(Connection connection, long authorId, int bookCount) throws SQLException {
+        try (PreparedStatement author = connection.prepareStatement("INSERT INTO authors (id, name) VALUES (?, ?)");
+             PreparedStatement book = connection.prepareStatement("INSERT INTO books (title, author_id) VALUES (?, ?)")) {
+            author.setLong(1, authorId);
+            author.setString(2, "author" + authorId);
+            author.executeUpdate();
+            for (int i = 0; i < bookCount; i++) {
+                book.setString(1, "book" + i);
+                book.setLong(2, authorId);
+                book.addBatch();
+            }
+            book.executeBatch();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE authors ALTER COLUMN id RESTART WITH 1000");
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.breskul.bibernate.benchmark;
+
+import com.breskul.bibernate.benchmark.model.NarrowRow;
+import com.breskul.bibernate.persistence.EntityManager;
+import com.breskul.bibernate.persistence.EntityManagerImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Find by identifier served by the first level cache and, after clearing the persistence context, by the
+ * database.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FindBenchmark {
+
+    private static final long ID = 1L;
+
+    private EntityManager entityManager;
+
+    @Setup(Level.Trial)
+    public void begin() {
+        entityManager = new EntityManagerImpl(BenchmarkDatabase.getDataSource());
+        entityManager.getTransaction().begin();
+        entityManager.find(NarrowRow.class, ID);
+    }
+
+    @TearDown(Level.Trial)
+    public void rollback() {
+        entityManager.getTransaction().rollback();
+        entityManager.close();
+    }
+
+    @Benchmark
+    public NarrowRow findCacheHit() {
+        return entityManager.find(NarrowRow.class, ID);
+    }
+
+    @Benchmark
+    public NarrowRow findCacheMiss() {
+        entityManager.clear();
+        return entityManager.find(NarrowRow.class, ID);
+    }
+}
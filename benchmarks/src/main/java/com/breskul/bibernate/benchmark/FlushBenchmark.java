@@ -0,0 +1,55 @@
+package com.breskul.bibernate.benchmark;
+
+import com.breskul.bibernate.benchmark.model.NarrowRow;
+import com.breskul.bibernate.persistence.EntityManager;
+import com.breskul.bibernate.persistence.EntityManagerImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * <p>Flush of a persistence context holding the given number of managed entities. Clean entities measure the
+ * snapshot comparison alone, dirty entities are all changed before every flush and written by one batch update.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FlushBenchmark {
+
+    @Param({"100", "1000"})
+    private int entities;
+
+    @Param({"false", "true"})
+    private boolean dirty;
+
+    private EntityManager entityManager;
+    private List<NarrowRow> rows;
+
+    @Setup(Level.Iteration)
+    public void load() {
+        entityManager = new EntityManagerImpl(BenchmarkDatabase.getDataSource());
+        entityManager.getTransaction().begin();
+        rows = entityManager.findMultiple(NarrowRow.class, LongStream.rangeClosed(1, entities).boxed().toList());
+    }
+
+    @TearDown(Level.Iteration)
+    public void rollback() {
+        entityManager.getTransaction().rollback();
+        entityManager.close();
+    }
+
+    @Benchmark
+    public void flush() {
+        if (dirty) {
+            for (NarrowRow row : rows) {
+                row.setAmount(row.getAmount() + 1);
+            }
+        }
+        entityManager.flush();
+    }
+}
@@ -0,0 +1,62 @@
+package com.breskul.bibernate.benchmark;
+
+import com.breskul.bibernate.benchmark.model.NarrowRow;
+import com.breskul.bibernate.benchmark.model.WideRow;
+import com.breskul.bibernate.persistence.JdbcDao;
+import com.breskul.bibernate.persistence.PersistenceContext;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>{@link JdbcDao#createEntityFromResultSet} over a result set cached in memory, so the time is spent creating the
+ * entities and converting the column values rather than in the database. The narrow entity has 4 columns, the wide
+ * entity 16.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HydrationBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int rows;
+
+    @Param({"narrow", "wide"})
+    private String width;
+
+    private JdbcDao jdbcDao;
+    private CachedRowSet rowSet;
+    private Class<?> entityType;
+
+    @Setup(Level.Trial)
+    public void load() throws SQLException {
+        jdbcDao = new JdbcDao(new PersistenceContext());
+        entityType = "wide".equals(width) ? WideRow.class : NarrowRow.class;
+        var table = "wide".equals(width) ? "wide_rows" : "narrow_rows";
+        try (Connection connection = BenchmarkDatabase.getDataSource().getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(
+                     "SELECT * FROM %s WHERE id <= ? ORDER BY id".formatted(table))) {
+            preparedStatement.setInt(1, rows);
+            rowSet = RowSetProvider.newFactory().createCachedRowSet();
+            rowSet.populate(preparedStatement.executeQuery());
+        }
+    }
+
+    @Benchmark
+    public void hydrate(Blackhole blackhole) throws SQLException {
+        rowSet.beforeFirst();
+        while (rowSet.next()) {
+            blackhole.consume(jdbcDao.createEntityFromResultSet(entityType, rowSet, Set.of()));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.breskul.bibernate.benchmark;
+
+import com.breskul.bibernate.benchmark.model.Author;
+import com.breskul.bibernate.persistence.EntityManager;
+import com.breskul.bibernate.persistence.EntityManagerImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Initialization of the lazy books collection of an author. Every invocation clears the persistence context and
+ * finds the author again, compare with {@link FindBenchmark#findCacheMiss()} for the cost of the find.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LazyListBenchmark {
+
+    @Param({"10", "100"})
+    private int books;
+
+    private EntityManager entityManager;
+    private long authorId;
+
+    @Setup(Level.Trial)
+    public void begin() {
+        authorId = books == BenchmarkDatabase.LARGE_AUTHOR_BOOKS ? BenchmarkDatabase.LARGE_AUTHOR_ID
+                : BenchmarkDatabase.SMALL_AUTHOR_ID;
+        entityManager = new EntityManagerImpl(BenchmarkDatabase.getDataSource());
+        entityManager.getTransaction().begin();
+    }
+
+    @TearDown(Level.Trial)
+    public void rollback() {
+        entityManager.getTransaction().rollback();
+        entityManager.close();
+    }
+
+    @Benchmark
+    public int initialize() {
+        entityManager.clear();
+        return entityManager.find(Author.class, authorId).getBooks().size();
+    }
+}
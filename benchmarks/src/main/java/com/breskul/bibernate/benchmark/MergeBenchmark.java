@@ -0,0 +1,48 @@
+package com.breskul.bibernate.benchmark;
+
+import com.breskul.bibernate.benchmark.model.NarrowRow;
+import com.breskul.bibernate.persistence.EntityManager;
+import com.breskul.bibernate.persistence.EntityManagerImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Merge of a detached entity into an empty persistence context, which loads the managed copy and copies the
+ * state of the detached entity to it.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MergeBenchmark {
+
+    private EntityManager entityManager;
+    private NarrowRow detached;
+
+    @Setup(Level.Trial)
+    public void begin() {
+        entityManager = new EntityManagerImpl(BenchmarkDatabase.getDataSource());
+        entityManager.getTransaction().begin();
+        detached = new NarrowRow();
+        detached.setId(1L);
+        detached.setName("merged");
+        detached.setAmount(1);
+        detached.setCreatedAt(LocalDateTime.of(2023, 1, 1, 0, 0));
+    }
+
+    @TearDown(Level.Trial)
+    public void rollback() {
+        entityManager.getTransaction().rollback();
+        entityManager.close();
+    }
+
+    @Benchmark
+    public NarrowRow merge() {
+        entityManager.clear();
+        return entityManager.merge(detached);
+    }
+}
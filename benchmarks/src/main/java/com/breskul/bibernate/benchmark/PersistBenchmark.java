@@ -0,0 +1,53 @@
+package com.breskul.bibernate.benchmark;
+
+import com.breskul.bibernate.benchmark.model.Author;
+import com.breskul.bibernate.benchmark.model.Book;
+import com.breskul.bibernate.persistence.EntityManager;
+import com.breskul.bibernate.persistence.EntityManagerImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Persist of an author alone and cascaded to its books. Identifiers are generated by identity columns, so every
+ * entity is inserted by its own statement. The transaction is rolled back after each iteration.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PersistBenchmark {
+
+    @Param({"0", "10"})
+    private int books;
+
+    private EntityManager entityManager;
+
+    @Setup(Level.Iteration)
+    public void begin() {
+        entityManager = new EntityManagerImpl(BenchmarkDatabase.getDataSource());
+        entityManager.getTransaction().begin();
+    }
+
+    @TearDown(Level.Iteration)
+    public void rollback() {
+        entityManager.getTransaction().rollback();
+        entityManager.close();
+    }
+
+    @Benchmark
+    public Author persist() {
+        entityManager.clear();
+        var author = new Author();
+        author.setName("author");
+        for (int i = 0; i < books; i++) {
+            var book = new Book();
+            book.setTitle("book" + i);
+            author.addBook(book);
+        }
+        entityManager.persist(author);
+        return author;
+    }
+}
@@ -0,0 +1,176 @@
+package com.breskul.bibernate.benchmark.load;
+
+import com.breskul.bibernate.benchmark.BenchmarkDatabase;
+import com.breskul.bibernate.persistence.EntityManagerFactoryImpl;
+import com.breskul.bibernate.persistence.metrics.LatencySnapshot;
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * <p>Load test of one entity manager factory. Every thread runs operations picked at random by the weights of the mix
+ * until the end of the test, each operation in a transaction of its own entity manager. Threads are virtual when the
+ * JDK provides them (21+), platform threads otherwise. Operations finished during the warmup are not recorded.</p>
+ * <p>The report lists throughput, latency percentiles and error rates per operation, the time spent waiting for a
+ * connection of the pool and the number of entity managers left open, which must be 0.</p>
+ */
+public class LoadTest {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final long SAMPLE_INTERVAL_MILLIS = 10;
+
+    private final LoadTestOptions options;
+    private final EntityManagerFactoryImpl factory;
+    private final PoolWaitTracker poolWaitTracker;
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final OperationStats total = new OperationStats();
+    private final LongAccumulator peakPendingThreads = new LongAccumulator(Long::max, 0);
+    private boolean virtualThreads;
+
+    LoadTest(LoadTestOptions options, EntityManagerFactoryImpl factory, PoolWaitTracker poolWaitTracker) {
+        this.options = options;
+        this.factory = factory;
+        this.poolWaitTracker = poolWaitTracker;
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        var options = LoadTestOptions.parse(args);
+        var poolWaitTracker = new PoolWaitTracker();
+        try (HikariDataSource dataSource = BenchmarkDatabase.createDataSource(options.poolSize(), poolWaitTracker)) {
+            var factory = new EntityManagerFactoryImpl(dataSource);
+            var loadTest = new LoadTest(options, factory, poolWaitTracker);
+            long measuredNanos = loadTest.run();
+            loadTest.report(measuredNanos);
+            factory.close();
+        }
+    }
+
+    /**
+     * @return nanoseconds from the end of the warmup to the end of the last operation
+     */
+    long run() throws InterruptedException {
+        long start = System.nanoTime();
+        long measureStart = start + options.warmup().toNanos();
+        long end = measureStart + options.duration().toNanos();
+        var sampler = startPendingThreadSampler(measureStart, end);
+        ExecutorService executor = newThreadPerTaskExecutor();
+        try {
+            for (int i = 0; i < options.threads(); i++) {
+                executor.execute(() -> work(measureStart, end));
+            }
+            Thread.sleep(options.warmup().toMillis());
+            poolWaitTracker.startMeasurement();
+            executor.shutdown();
+            if (!executor.awaitTermination(options.duration().toMillis() + TimeUnit.MINUTES.toMillis(1), TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Operations did not finish a minute after the end of the test");
+            }
+        } finally {
+            executor.shutdownNow();
+            sampler.interrupt();
+        }
+        return System.nanoTime() - measureStart;
+    }
+
+    private void work(long measureStart, long end) {
+        var random = ThreadLocalRandom.current();
+        long operationStart;
+        while ((operationStart = System.nanoTime()) < end) {
+            var operation = options.pick(random);
+            var entityManager = factory.createEntityManager();
+            try {
+                entityManager.getTransaction().begin();
+                operation.run(entityManager, random);
+                entityManager.getTransaction().commit();
+                if (operationStart >= measureStart) {
+                    long nanos = System.nanoTime() - operationStart;
+                    stats.get(operation).recordSuccess(nanos);
+                    total.recordSuccess(nanos);
+                }
+            } catch (Exception exception) {
+                if (operationStart >= measureStart) {
+                    stats.get(operation).recordError(exception);
+                    total.recordError(exception);
+                }
+            } finally {
+                entityManager.close();
+            }
+        }
+    }
+
+    private Thread startPendingThreadSampler(long measureStart, long end) {
+        var sampler = new Thread(() -> {
+            try {
+                while (System.nanoTime() < end) {
+                    if (System.nanoTime() >= measureStart) {
+                        peakPendingThreads.accumulate(poolWaitTracker.getPendingThreads());
+                    }
+                    Thread.sleep(SAMPLE_INTERVAL_MILLIS);
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }, "load-test-pool-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+        return sampler;
+    }
+
+    private ExecutorService newThreadPerTaskExecutor() {
+        try {
+            var executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            virtualThreads = true;
+            return executor;
+        } catch (ReflectiveOperationException exception) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    private void report(long measuredNanos) {
+        double seconds = measuredNanos / 1_000_000_000.0;
+        System.out.printf("Load test: %d %s threads, pool size %d, warmup %ds, measured %.1fs, mix %s%n",
+                options.threads(), virtualThreads ? "virtual" : "platform", options.poolSize(),
+                options.warmup().toSeconds(), seconds, options.mix());
+        System.out.printf("%-10s %10s %10s %8s %8s %9s %9s %9s %9s%n",
+                "operation", "ops", "ops/s", "errors", "error %", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        stats.forEach((operation, operationStats) -> printRow(operation.name(), operationStats, seconds));
+        printRow("TOTAL", total, seconds);
+
+        var waitTimes = poolWaitTracker.getWaitTimes();
+        System.out.printf("Pool wait: %d acquisitions, p50 %.3f ms, p99 %.3f ms, p99.9 %.3f ms, max %.3f ms, "
+                        + "%d timeouts, peak %d waiting threads%n",
+                waitTimes.count(), toMillis(waitTimes.p50Nanos()), toMillis(waitTimes.p99Nanos()),
+                toMillis(waitTimes.p999Nanos()), toMillis(waitTimes.maxNanos()), poolWaitTracker.getTimeoutCount(),
+                peakPendingThreads.get());
+        stats.forEach((operation, operationStats) -> {
+            if (operationStats.getErrorCount() > 0) {
+                System.out.printf("Errors of %s: %s%n", operation, operationStats.getErrorsByType());
+            }
+        });
+        System.out.printf("Open entity managers after the run: %d%n", factory.getOpenEntityManagerCount());
+    }
+
+    private static void printRow(String name, OperationStats operationStats, double seconds) {
+        LatencySnapshot latencies = operationStats.getLatencies();
+        long errors = operationStats.getErrorCount();
+        long operations = latencies.count() + errors;
+        if (operations == 0) {
+            return;
+        }
+        System.out.printf("%-10s %10d %10.0f %8d %8.2f %9.3f %9.3f %9.3f %9.3f%n", name, operations,
+                operations / seconds, errors, 100.0 * errors / operations, toMillis(latencies.p50Nanos()),
+                toMillis(latencies.p99Nanos()), toMillis(latencies.p999Nanos()), toMillis(latencies.maxNanos()));
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / NANOS_PER_MILLI;
+    }
+}
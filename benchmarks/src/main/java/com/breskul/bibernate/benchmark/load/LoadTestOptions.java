@@ -0,0 +1,76 @@
+package com.breskul.bibernate.benchmark.load;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * <p>Options of the load test, parsed from '--name=value' arguments.</p>
+ *
+ * @param threads  number of concurrent threads, each running one operation after another
+ * @param warmup   time before the measurement starts
+ * @param duration time of the measurement
+ * @param poolSize max number of connections of the pool
+ * @param mix      weights of the operations
+ */
+record LoadTestOptions(int threads, Duration warmup, Duration duration, int poolSize, Map<Operation, Integer> mix) {
+
+    static final String USAGE = "Options: --threads=1000 --warmup=5 --duration=30 --pool-size=10 "
+            + "--mix=find:60,update:20,persist:10,lazy_load:10 (durations in seconds)";
+
+    static LoadTestOptions parse(String[] args) {
+        int threads = 1000;
+        long warmup = 5;
+        long duration = 30;
+        int poolSize = 10;
+        var mix = parseMix("find:60,update:20,persist:10,lazy_load:10");
+        for (String arg : args) {
+            var separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Unknown argument '%s'. %s".formatted(arg, USAGE));
+            }
+            var value = arg.substring(separator + 1);
+            switch (arg.substring(2, separator)) {
+                case "threads" -> threads = Integer.parseInt(value);
+                case "warmup" -> warmup = Long.parseLong(value);
+                case "duration" -> duration = Long.parseLong(value);
+                case "pool-size" -> poolSize = Integer.parseInt(value);
+                case "mix" -> mix = parseMix(value);
+                default -> throw new IllegalArgumentException("Unknown argument '%s'. %s".formatted(arg, USAGE));
+            }
+        }
+        return new LoadTestOptions(threads, Duration.ofSeconds(warmup), Duration.ofSeconds(duration), poolSize, mix);
+    }
+
+    private static Map<Operation, Integer> parseMix(String value) {
+        var mix = new EnumMap<Operation, Integer>(Operation.class);
+        for (String entry : value.split(",")) {
+            var parts = entry.split(":");
+            var weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("Mix '%s' has no operation with a positive weight. %s".formatted(value, USAGE));
+        }
+        return mix;
+    }
+
+    /**
+     * @return operation chosen at random with the probability of its weight
+     */
+    Operation pick(ThreadLocalRandom random) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int point = random.nextInt(total);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            point -= entry.getValue();
+            if (point < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Weights of the mix changed");
+    }
+}
@@ -0,0 +1,67 @@
+package com.breskul.bibernate.benchmark.load;
+
+import com.breskul.bibernate.benchmark.BenchmarkDatabase;
+import com.breskul.bibernate.benchmark.model.Author;
+import com.breskul.bibernate.benchmark.model.Book;
+import com.breskul.bibernate.benchmark.model.NarrowRow;
+import com.breskul.bibernate.persistence.EntityManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * <p>Unit of work of the load test, executed inside a transaction of a new entity manager.</p>
+ */
+public enum Operation {
+
+    /**
+     * Finds a random narrow row.
+     */
+    FIND {
+        @Override
+        void run(EntityManager entityManager, ThreadLocalRandom random) {
+            entityManager.find(NarrowRow.class, randomRowId(random));
+        }
+    },
+    /**
+     * Finds a random narrow row and changes it, the row is updated by the flush on commit.
+     */
+    UPDATE {
+        @Override
+        void run(EntityManager entityManager, ThreadLocalRandom random) {
+            var row = entityManager.find(NarrowRow.class, randomRowId(random));
+            row.setAmount(row.getAmount() + 1);
+        }
+    },
+    /**
+     * Persists a new author with two books.
+     */
+    PERSIST {
+        @Override
+        void run(EntityManager entityManager, ThreadLocalRandom random) {
+            var author = new Author();
+            author.setName("load");
+            for (int i = 0; i < 2; i++) {
+                var book = new Book();
+                book.setTitle("load" + i);
+                author.addBook(book);
+            }
+            entityManager.persist(author);
+        }
+    },
+    /**
+     * Finds an author and initializes the lazy collection of its books.
+     */
+    LAZY_LOAD {
+        @Override
+        void run(EntityManager entityManager, ThreadLocalRandom random) {
+            var authorId = random.nextBoolean() ? BenchmarkDatabase.SMALL_AUTHOR_ID : BenchmarkDatabase.LARGE_AUTHOR_ID;
+            entityManager.find(Author.class, authorId).getBooks().size();
+        }
+    };
+
+    abstract void run(EntityManager entityManager, ThreadLocalRandom random);
+
+    private static long randomRowId(ThreadLocalRandom random) {
+        return random.nextLong(1, BenchmarkDatabase.ROW_COUNT + 1);
+    }
+}
@@ -0,0 +1,49 @@
+package com.breskul.bibernate.benchmark.load;
+
+import com.breskul.bibernate.persistence.metrics.LatencyHistogram;
+import com.breskul.bibernate.persistence.metrics.LatencySnapshot;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Latencies of the successful executions of one {@link Operation} and the failures grouped by exception class.</p>
+ */
+class OperationStats {
+
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder errorCount = new LongAdder();
+    private final Map<String, LongAdder> errorsByType = new ConcurrentHashMap<>();
+
+    void recordSuccess(long nanos) {
+        latencies.record(nanos);
+    }
+
+    void recordError(Exception exception) {
+        errorCount.increment();
+        errorsByType.computeIfAbsent(rootCause(exception).getClass().getSimpleName(), type -> new LongAdder()).increment();
+    }
+
+    LatencySnapshot getLatencies() {
+        return latencies.snapshot();
+    }
+
+    long getErrorCount() {
+        return errorCount.sum();
+    }
+
+    Map<String, Long> getErrorsByType() {
+        var errors = new TreeMap<String, Long>();
+        errorsByType.forEach((type, count) -> errors.put(type, count.sum()));
+        return errors;
+    }
+
+    private static Throwable rootCause(Throwable throwable) {
+        while (throwable.getCause() != null && throwable.getCause() != throwable) {
+            throwable = throwable.getCause();
+        }
+        return throwable;
+    }
+}
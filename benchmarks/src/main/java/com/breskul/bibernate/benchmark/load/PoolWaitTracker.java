@@ -0,0 +1,61 @@
+package com.breskul.bibernate.benchmark.load;
+
+import com.breskul.bibernate.persistence.metrics.LatencyHistogram;
+import com.breskul.bibernate.persistence.metrics.LatencySnapshot;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Hikari metrics tracker which records the time spent waiting for a connection of the pool and the number of
+ * acquisitions which timed out. Nothing is recorded until {@link #startMeasurement()}.</p>
+ */
+class PoolWaitTracker implements MetricsTrackerFactory {
+
+    private final LatencyHistogram waitTimes = new LatencyHistogram();
+    private final LongAdder timeoutCount = new LongAdder();
+    private volatile boolean measuring;
+    private volatile PoolStats poolStats;
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                if (measuring) {
+                    waitTimes.record(elapsedAcquiredNanos);
+                }
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                if (measuring) {
+                    timeoutCount.increment();
+                }
+            }
+        };
+    }
+
+    void startMeasurement() {
+        measuring = true;
+    }
+
+    LatencySnapshot getWaitTimes() {
+        return waitTimes.snapshot();
+    }
+
+    long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    /**
+     * @return threads waiting for a connection at the moment
+     */
+    int getPendingThreads() {
+        var stats = poolStats;
+        return stats == null ? 0 : stats.getPendingThreads();
+    }
+}
@@ -0,0 +1,32 @@
+package com.breskul.bibernate.benchmark.model;
+
+import com.breskul.bibernate.annotation.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.breskul.bibernate.annotation.enums.Strategy.IDENTITY;
+
+@Entity
+@Data
+@Table(name = "authors")
+@EqualsAndHashCode(exclude = "books")
+@ToString(exclude = "books")
+public class Author {
+
+    @Id
+    @GeneratedValue(strategy = IDENTITY)
+    private Long id;
+    private String name;
+
+    @OneToMany
+    private List<Book> books = new ArrayList<>();
+
+    public void addBook(Book book) {
+        book.setAuthor(this);
+        books.add(book);
+    }
+}
@@ -0,0 +1,25 @@
+package com.breskul.bibernate.benchmark.model;
+
+import com.breskul.bibernate.annotation.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import static com.breskul.bibernate.annotation.enums.Strategy.IDENTITY;
+
+@Entity
+@Data
+@Table(name = "books")
+@EqualsAndHashCode(exclude = "author")
+@ToString(exclude = "author")
+public class Book {
+
+    @Id
+    @GeneratedValue(strategy = IDENTITY)
+    private Long id;
+    private String title;
+
+    @ManyToOne
+    @JoinColumn(name = "author_id")
+    private Author author;
+}
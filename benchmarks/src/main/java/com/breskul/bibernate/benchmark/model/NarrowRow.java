@@ -0,0 +1,20 @@
+package com.breskul.bibernate.benchmark.model;
+
+import com.breskul.bibernate.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@Table(name = "narrow_rows")
+public class NarrowRow {
+
+    @Id
+    private Long id;
+    private String name;
+    private Integer amount;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,30 @@
+package com.breskul.bibernate.benchmark.model;
+
+import com.breskul.bibernate.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@Table(name = "wide_rows")
+public class WideRow {
+
+    @Id
+    private Long id;
+    private String column1;
+    private Integer column2;
+    private Long column3;
+    private LocalDateTime column4;
+    private String column5;
+    private Integer column6;
+    private Long column7;
+    private LocalDateTime column8;
+    private String column9;
+    private Integer column10;
+    private Long column11;
+    private LocalDateTime column12;
+    private String column13;
+    private Integer column14;
+    private Long column15;
+}
@@ -0,0 +1,41 @@
+CREATE TABLE IF NOT EXISTS authors
+(
+    id   BIGINT AUTO_INCREMENT NOT NULL PRIMARY KEY,
+    name VARCHAR(255)          NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS books
+(
+    id        BIGINT AUTO_INCREMENT NOT NULL PRIMARY KEY,
+    title     VARCHAR(255)          NOT NULL,
+    author_id BIGINT
+        CONSTRAINT book_author_FK references authors (id)
+);
+
+CREATE TABLE IF NOT EXISTS narrow_rows
+(
+    id         BIGINT       NOT NULL PRIMARY KEY,
+    name       VARCHAR(255) NOT NULL,
+    amount     INT,
+    created_at TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS wide_rows
+(
+    id      BIGINT NOT NULL PRIMARY KEY,
+    column1 VARCHAR(255),
+    column2 INT,
+    column3 BIGINT,
+    column4 TIMESTAMP,
+    column5 VARCHAR(255),
+    column6 INT,
+    column7 BIGINT,
+    column8 TIMESTAMP,
+    column9 VARCHAR(255),
+    column10 INT,
+    column11 BIGINT,
+    column12 TIMESTAMP,
+    column13 VARCHAR(255),
+    column14 INT,
+    column15 BIGINT
+);
@@ -0,0 +1,17 @@
+package com.breskul.bibernate.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Specifies the batch size for loading of lazy {@link OneToMany} collections.
+ * When one lazy collection is initialized, up to <code>size</code> uninitialized collections of the same role
+ * from the persistence context are loaded with a single <code>WHERE fk IN (...)</code> query.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface BatchSize {
+    int size();
+}
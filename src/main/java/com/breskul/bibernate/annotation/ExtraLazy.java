@@ -0,0 +1,18 @@
+package com.breskul.bibernate.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a lazy {@link OneToMany} collection as extra lazy. Until the collection is fully loaded,
+ * <code>size()</code> and <code>isEmpty()</code> run <code>SELECT COUNT(*)</code>, <code>contains()</code> and
+ * <code>get(index)</code> run targeted queries, and iteration loads the elements in pages of <code>pageSize</code>
+ * ordered by the identifier. Any other operation loads the whole collection.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExtraLazy {
+    int pageSize() default 100;
+}
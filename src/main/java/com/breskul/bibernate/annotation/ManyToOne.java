@@ -1,5 +1,7 @@
 package com.breskul.bibernate.annotation;
 
+import com.breskul.bibernate.annotation.enums.FetchType;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -17,4 +19,12 @@ public @interface ManyToOne {
      * to false then a non-null relationship must always exist.
      */
     boolean optional() default true;
+
+    /**
+     * (Optional) Whether the association should be lazily loaded or
+     * must be eagerly fetched. With the LAZY strategy the field is populated
+     * with a proxy which holds only the foreign key and loads the target
+     * entity on the first access to a non-identifier property.
+     */
+    FetchType fetch() default FetchType.EAGER;
 }
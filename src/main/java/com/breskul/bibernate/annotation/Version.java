@@ -0,0 +1,24 @@
+package com.breskul.bibernate.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Specifies the version field of an entity used for optimistic locking. The field may be <code>Short</code>,
+ * <code>Integer</code>, <code>Long</code>, their primitives or <code>LocalDateTime</code>.
+ * The version is checked by the <code>WHERE</code> clause of the update and delete statements and incremented
+ * by every update, a statement which does not find the row fails with
+ * {@link com.breskul.bibernate.exception.OptimisticLockException}.
+ * A <code>LocalDateTime</code> version is truncated to the {@link #precision()} of its column, so the version
+ * kept by the entity is the one stored in the row.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Version {
+    /**
+     * Fractional seconds precision of the timestamp version column, from 0 to 9, e.g. 3 for <code>TIMESTAMP(3)</code>
+     */
+    int precision() default 6;
+}
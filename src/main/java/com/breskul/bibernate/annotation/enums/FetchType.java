@@ -1,6 +1,8 @@
 package com.breskul.bibernate.annotation.enums;
 
+import com.breskul.bibernate.annotation.ManyToOne;
 import com.breskul.bibernate.annotation.OneToMany;
+import com.breskul.bibernate.annotation.OneToOne;
 
 /**
  * Defines strategies for fetching data from the database.
@@ -13,6 +15,8 @@ import com.breskul.bibernate.annotation.OneToMany;
  * specified.
  *
  * @see OneToMany
+ * @see ManyToOne
+ * @see OneToOne
  */
 public enum FetchType {
 
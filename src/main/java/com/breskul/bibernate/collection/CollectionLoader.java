@@ -0,0 +1,40 @@
+package com.breskul.bibernate.collection;
+
+import java.util.List;
+
+/**
+ * Queries of one extra lazy collection used by {@link ExtraLazyList} before the collection is loaded
+ *
+ * @param <T> type of the collection elements
+ */
+public interface CollectionLoader<T> {
+
+    /**
+     * @return all elements of the collection
+     */
+    List<T> loadAll();
+
+    /**
+     * @return number of elements of the collection
+     */
+    int count();
+
+    /**
+     * @param element element to look for
+     * @return true if the element with the identifier of the given element belongs to the collection
+     */
+    boolean contains(Object element);
+
+    /**
+     * @param index position of the element in the identifier order
+     * @return the element or null if the index is out of the collection
+     */
+    T get(int index);
+
+    /**
+     * @param last last element of the previous page or null for the first page
+     * @param pageSize maximum number of elements of the page
+     * @return elements which follow the last element in the identifier order
+     */
+    List<T> loadPage(T last, int pageSize);
+}
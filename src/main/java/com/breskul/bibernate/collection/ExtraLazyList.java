@@ -0,0 +1,116 @@
+package com.breskul.bibernate.collection;
+
+import com.breskul.bibernate.exception.LazyInitializationException;
+import com.breskul.bibernate.exception.TransactionException;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy List which answers size, contains, get and iteration by queries until it is fully loaded
+ *
+ * @see com.breskul.bibernate.annotation.ExtraLazy
+ */
+public class ExtraLazyList<T> extends LazyList<T> {
+
+    private final CollectionLoader<T> loader;
+    private final int pageSize;
+
+    public ExtraLazyList(CollectionLoader<T> loader, int pageSize) {
+        super(() -> (List<?>) loader.loadAll());
+        this.loader = loader;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public int size() {
+        return isLoaded() ? super.size() : query(loader::count);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return isLoaded() ? super.contains(o) : query(() -> loader.contains(o));
+    }
+
+    @Override
+    public T get(int index) {
+        if (isLoaded()) {
+            return super.get(index);
+        }
+        if (index < 0) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        T element = query(() -> loader.get(index));
+        if (element == null) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return element;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return isLoaded() ? super.iterator() : new PageIterator();
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return isLoaded() ? super.spliterator() : Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED);
+    }
+
+    @Override
+    public Stream<T> stream() {
+        return isLoaded() ? super.stream() : StreamSupport.stream(spliterator(), false);
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        iterator().forEachRemaining(action);
+    }
+
+    private <R> R query(Supplier<R> supplier) {
+        try {
+            return supplier.get();
+        } catch (TransactionException e) {
+            throw new LazyInitializationException(e);
+        }
+    }
+
+    /**
+     * Iterator which loads the next page when the current page is exhausted
+     */
+    private class PageIterator implements Iterator<T> {
+        private List<T> page;
+        private int position;
+        private T last;
+
+        @Override
+        public boolean hasNext() {
+            if (page == null || (position == page.size() && page.size() == pageSize)) {
+                page = query(() -> loader.loadPage(last, pageSize));
+                position = 0;
+            }
+            return position < page.size();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            last = page.get(position++);
+            return last;
+        }
+    }
+}
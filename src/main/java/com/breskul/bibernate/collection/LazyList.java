@@ -14,7 +14,7 @@ import java.util.stream.Stream;
  */
 public class LazyList<T> implements List<T> {
 
-    private final Supplier<List<?>> collectionSupplier;
+    private Supplier<List<?>> collectionSupplier;
     private List<T> internalList;
 
     public LazyList(Supplier<List<?>> collectionSupplier) {
@@ -36,6 +36,30 @@ public class LazyList<T> implements List<T> {
         return internalList != null;
     }
 
+    /**
+     * Initialize the list with elements loaded outside of it, e.g. by a batch query together with other collections.
+     * Does nothing if the list has been already loaded.
+     *
+     * @param elements loaded elements of the collection
+     */
+    public void initialize(List<?> elements) {
+        if (internalList == null) {
+            internalList = (List<T>) elements;
+        }
+    }
+
+    /**
+     * Replace the loader of the list, e.g. by one which returns elements prefetched in the background.
+     * Does nothing if the list has been already loaded.
+     *
+     * @param supplier loader of the collection elements
+     */
+    public void loadWith(Supplier<List<?>> supplier) {
+        if (internalList == null) {
+            collectionSupplier = supplier;
+        }
+    }
+
     @Override
     public int size() {
         return getInternalList().size();
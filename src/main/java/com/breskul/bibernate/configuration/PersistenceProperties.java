@@ -24,6 +24,13 @@ public class PersistenceProperties {
         return instance;
     }
 
+    /**
+     * @return true if PersistenceProperties has been initialized
+     */
+    public static synchronized boolean isInitialized() {
+        return instance != null;
+    }
+
     private PersistenceProperties(String propertiesFile) {
         loadProperties(propertiesFile);
     }
@@ -8,4 +8,8 @@ public class EntityManagerException extends CommonException {
     public EntityManagerException(String cause, String suggestedSolution) {
         super(cause, suggestedSolution);
     }
+
+    public EntityManagerException(String cause, String suggestedSolution, Throwable e) {
+        super(cause, suggestedSolution, e);
+    }
 }
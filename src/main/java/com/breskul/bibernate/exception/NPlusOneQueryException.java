@@ -0,0 +1,13 @@
+package com.breskul.bibernate.exception;
+
+/**
+ * NPlusOneQueryException throws in strict mode when a SQL shape is executed with more different parameters than the budget allows
+ */
+public class NPlusOneQueryException extends CommonException {
+    private static final String CAUSE = "Query %s was executed with %d different parameters, the budget is %d, association: %s, caller: %s";
+    private static final String SUGGESTED_SOLUTION = "Load the association with an entity graph, @BatchSize or prefetch instead of one query per entity";
+
+    public NPlusOneQueryException(String sqlShape, int distinctParameters, int budget, String association, String caller) {
+        super(CAUSE.formatted(sqlShape, distinctParameters, budget, association, caller), SUGGESTED_SOLUTION);
+    }
+}
@@ -0,0 +1,13 @@
+package com.breskul.bibernate.exception;
+
+/**
+ * OptimisticLockException throws when the versioned row has been changed or removed by another transaction
+ */
+public class OptimisticLockException extends CommonException {
+    private static final String CAUSE = "Row of %s with id %s was updated or deleted by another transaction";
+    private static final String SUGGESTED_SOLUTION = "Reload the entity and repeat the change in a new transaction";
+
+    public OptimisticLockException(String entityName, Object id) {
+        super(CAUSE.formatted(entityName, id), SUGGESTED_SOLUTION);
+    }
+}
@@ -1,7 +1,7 @@
 package com.breskul.bibernate.exception;
 
 /**
- * Throws when the 'persistence.properties' file is not found or can't be loaded
+ * Throws when the 'persistence.properties' file is not found, can't be loaded or has an invalid property value
  *
  */
 public class PersistencePropertiesException extends CommonException {
@@ -12,6 +12,9 @@ public class PersistencePropertiesException extends CommonException {
     private static final String CAN_NOT_LOAD_CAUSE = "Unable to load '%s' file";
     private static final String CAN_NOT_LOAD_SUGGESTION = "The '%s' file should be the correct Properties file";
 
+    private static final String INVALID_VALUE_CAUSE = "Invalid value '%s' of the '%s' property";
+    private static final String INVALID_VALUE_SUGGESTION = "Set the '%s' property to one of: %s";
+
     public PersistencePropertiesException(String propertiesFile) {
         super(String.format(CAN_NOT_FIND_CAUSE, propertiesFile), String.format(CAN_NOT_FIND_SUGGESTION, propertiesFile));
     }
@@ -19,4 +22,8 @@ public class PersistencePropertiesException extends CommonException {
     public PersistencePropertiesException(String propertiesFile, Throwable e) {
         super(String.format(CAN_NOT_LOAD_CAUSE, propertiesFile), String.format(CAN_NOT_LOAD_SUGGESTION, propertiesFile), e);
     }
+
+    public PersistencePropertiesException(String property, String value, String allowedValues) {
+        super(String.format(INVALID_VALUE_CAUSE, value, property), String.format(INVALID_VALUE_SUGGESTION, property, allowedValues));
+    }
 }
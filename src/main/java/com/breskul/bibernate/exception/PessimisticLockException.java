@@ -0,0 +1,13 @@
+package com.breskul.bibernate.exception;
+
+/**
+ * PessimisticLockException throws when the rows can not be locked in the lock mode within the lock timeout
+ */
+public class PessimisticLockException extends CommonException {
+    private static final String CAUSE = "Rows of %s could not be locked";
+    private static final String SUGGESTED_SOLUTION = "Retry later, increase the lock timeout or use SKIP_LOCKED mode";
+
+    public PessimisticLockException(String entityName, Throwable e) {
+        super(CAUSE.formatted(entityName), SUGGESTED_SOLUTION, e);
+    }
+}
@@ -1,6 +1,17 @@
 package com.breskul.bibernate.persistence;
 
+import com.breskul.bibernate.persistence.diagnostics.NPlusOneDetector;
+import com.breskul.bibernate.persistence.graph.EntityGraph;
+import com.breskul.bibernate.persistence.lock.LockOptions;
+import com.breskul.bibernate.persistence.projection.Projection;
+import com.breskul.bibernate.persistence.query.Keyset;
+import com.breskul.bibernate.persistence.query.Page;
+import com.breskul.bibernate.persistence.query.Query;
+
 import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 import java.util.Map;
 
 /**
@@ -50,6 +61,134 @@ public interface EntityManager extends AutoCloseable {
      */
     <T> T find(Class<T> entityClass, Object primaryKey);
 
+    /**
+     * <p>Finds the entity with the given primary key loading its associations as defined by the entity graph.
+     * Join fetched associations are loaded by the same query, batch fetched and lazy ones on the first access.
+     * Associations which are not named in the graph are loaded as defined by their annotations.</p>
+     * <p>If the entity is contained in the persistence context, it is returned from there.</p>
+     * @param entityClass {@link Class} - class of the entity to be found
+     * @param primaryKey {@link Object} - identifier value of the given entity
+     * @param entityGraph {@link EntityGraph} - fetch plan for this call
+     * @return entity {@link Object} - generated entity form the database row record
+     */
+    <T> T find(Class<T> entityClass, Object primaryKey, EntityGraph<T> entityGraph);
+
+    /**
+     * <p>Finds the entity with the given primary key and locks its row until the end of the transaction.
+     * The row is always read from the database, an entity contained in the persistence context is returned from there.</p>
+     * @param entityClass {@link Class} - class of the entity to be found
+     * @param primaryKey {@link Object} - identifier value of the given entity
+     * @param lockOptions {@link LockOptions} - lock mode and timeout
+     * @return entity {@link Object} - locked entity, null if it does not exist or is skipped in SKIP_LOCKED mode
+     * @throws com.breskul.bibernate.exception.PessimisticLockException if the row can not be locked
+     */
+    <T> T find(Class<T> entityClass, Object primaryKey, LockOptions lockOptions);
+
+    /**
+     * <p>Finds the entities with the given primary keys. Entities contained in the persistence context are returned from there,
+     * the rest are fetched from the database with chunked <code>WHERE id IN (...)</code> queries.</p>
+     * <p>Equivalent to {@code findMultiple(entityClass, primaryKeys, false)}.</p>
+     * @param entityClass {@link Class} - class of the entities to be found
+     * @param primaryKeys {@link Collection} - identifier values of the entities
+     * @return {@link List} of entities in the order of the given primary keys, null for not existing entities
+     */
+    <T> List<T> findMultiple(Class<T> entityClass, Collection<?> primaryKeys);
+
+    /**
+     * <p>Finds the entities with the given primary keys. Entities contained in the persistence context are returned from there,
+     * the rest are fetched from the database with chunked <code>WHERE id IN (...)</code> queries.</p>
+     * @param entityClass {@link Class} - class of the entities to be found
+     * @param primaryKeys {@link Collection} - identifier values of the entities
+     * @param skipMissing if true not existing entities are omitted from the result, otherwise null is returned in their positions
+     * @return {@link List} of entities in the order of the given primary keys
+     */
+    <T> List<T> findMultiple(Class<T> entityClass, Collection<?> primaryKeys, boolean skipMissing);
+
+    /**
+     * <p>Starts loading the lazy collections of the entity concurrently in the background, each by a separate connection
+     * of the data source. The elements are added to the collections and to the persistence context on the first access
+     * to the collection. Collections which are already loaded are skipped.</p>
+     * <p>The background queries do not see the changes of the current transaction which are not committed yet.</p>
+     * @param entity {@link Object} - managed entity
+     * @param attributes {@link String} - names of the lazy collection fields
+     */
+    void prefetch(Object entity, String... attributes);
+
+    /**
+     * <p>Finds the entities matching the typed query. The query is compiled once per shape, repeated executions
+     * of queries which differ only by the values reuse the cached plan. Entities which are already managed are returned
+     * as they are, the other found entities become managed.</p>
+     * @param query {@link Query} - predicates, ordering, paging and fetch graph of the query
+     * @return {@link List} of the found entities
+     */
+    <T> List<T> findAll(Query<T> query);
+
+    /**
+     * <p>Claims up to count entities of the query for the current transaction, e.g. the next tasks of a queue table.
+     * The rows are locked in SKIP_LOCKED mode, so concurrent consumers get different entities without waiting for each
+     * other. Databases without <code>SKIP LOCKED</code> lock the candidates one by one with the shortest lock timeout,
+     * or wait for the lock of each candidate if they can not set the lock timeout either.
+     * The limit and offset of the query are ignored.</p>
+     * @param query {@link Query} - predicates and ordering of the claimed entities
+     * @param count maximum number of the claimed entities
+     * @return {@link List} of the locked managed entities
+     */
+    <T> List<T> claim(Query<T> query, int count);
+
+    /**
+     * <p>Finds one page of the query entities ordered by the keyset and starting after its key values.
+     * Entities of the page are not added to the persistence context, already managed entities are returned as they are.</p>
+     * @param query {@link Query} - predicates and fetch graph of the query, without ordering and paging
+     * @param keyset {@link Keyset} - sort key and the key of the last seen entity
+     * @param pageSize maximum number of entities of the page
+     * @return {@link Page} of the entities with the keyset of the next page
+     */
+    <T> Page<T> findPage(Query<T> query, Keyset keyset, int pageSize);
+
+    /**
+     * <p>Streams all the query entities in the keyset order loading them page by page.
+     * Entities are not added to the persistence context, so the memory used does not grow with the number of entities.</p>
+     * @param query {@link Query} - predicates and fetch graph of the query, without ordering and paging
+     * @param keyset {@link Keyset} - sort key and the key of the last seen entity
+     * @param pageSize number of entities loaded by one query
+     * @return {@link Stream} of the entities
+     */
+    <T> Stream<T> stream(Query<T> query, Keyset keyset, int pageSize);
+
+    /**
+     * <p>Selects only the projected columns of all rows of the entity table and maps them straight to records or DTOs.
+     * Entities are not created and the persistence context is not used.</p>
+     * @param projection {@link Projection} - projected entity, attributes and result type
+     * @return {@link List} of projection results
+     */
+    <R> List<R> findProjections(Projection<R> projection);
+
+    /**
+     * <p>Selects only the projected columns of the rows which attribute is equal to the value
+     * and maps them straight to records or DTOs. Entities are not created and the persistence context is not used.</p>
+     * @param projection {@link Projection} - projected entity, attributes and result type
+     * @param attribute {@link String} - entity field name of the condition
+     * @param value {@link Object} - value of the condition
+     * @return {@link List} of projection results
+     */
+    <R> List<R> findProjections(Projection<R> projection, String attribute, Object value);
+
+    /**
+     * <p>Switch on or off the parallel hydration of the collections loaded by this entity manager. The rows are read by
+     * the calling thread and the entities are created in parallel by the common fork-join pool, which pays off for
+     * collections of many thousands of elements. The order of the elements does not change.</p>
+     * @param parallelHydration true to hydrate loaded collections in parallel
+     */
+    void setParallelHydration(boolean parallelHydration);
+
+    /**
+     * <p>Returns the N+1 query detector of this entity manager. Once enabled, it reports SQL shapes executed with many
+     * different parameters inside one transaction together with the association which issued them, in strict mode
+     * it fails the query which exceeds the budget.</p>
+     * @return {@link NPlusOneDetector} of this entity manager
+     */
+    NPlusOneDetector getNPlusOneDetector();
+
     /**
      * Flush run dirty checking and update all entities changed during transaction
      */
@@ -1,5 +1,7 @@
 package com.breskul.bibernate.persistence;
 
+import com.breskul.bibernate.persistence.metrics.Statistics;
+
 /**
  * Interface used to interact with the entity manager factory for the persistence unit.
  * When the application has finished using the entity manager factory, and/or at application shutdown,
@@ -23,6 +25,13 @@ public interface EntityManagerFactory {
      */
     boolean isOpen();
 
+    /**
+     * Access the statistics of the entity managers created by the factory.
+     * Statistics are collected only after they have been enabled by <code>setEnabled(true)</code>.
+     * @return statistics of the factory
+     */
+    Statistics getStatistics();
+
     /**
      * Close the factory, releasing any resources that it holds.
      */
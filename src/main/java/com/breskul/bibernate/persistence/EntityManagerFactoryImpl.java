@@ -1,27 +1,209 @@
 package com.breskul.bibernate.persistence;
 
+import com.breskul.bibernate.exception.EntityManagerException;
+import com.breskul.bibernate.persistence.dialect.Dialect;
+import com.breskul.bibernate.persistence.dialect.DialectResolver;
+import com.breskul.bibernate.persistence.jmx.EntityManagerFactoryMonitor;
+import com.breskul.bibernate.persistence.metrics.ConnectionMetrics;
+import com.breskul.bibernate.persistence.metrics.Statistics;
+import com.breskul.bibernate.persistence.query.QueryPlanCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
 import javax.sql.DataSource;
-import java.util.ArrayList;
-import java.util.List;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.sql.Connection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * <p>Entity manager factory safe for concurrent use. Open entity managers are tracked by weak references which are
+ * removed when the entity manager is closed, so neither closed entity managers nor entity managers dropped without
+ * closing are retained by the factory. An entity manager garbage collected without closing is counted as leaked.</p>
+ */
 public class EntityManagerFactoryImpl implements EntityManagerFactory {
+    private static final Logger logger = LoggerFactory.getLogger(EntityManagerFactoryImpl.class);
     private final DataSource dataSource;
-    private final List<EntityManager> entityManagers = new ArrayList<>();
+    private final Set<Reference<EntityManager>> entityManagers = ConcurrentHashMap.newKeySet();
+    private final ReferenceQueue<EntityManager> collectedEntityManagers = new ReferenceQueue<>();
+    private final LongAdder openCount = new LongAdder();
+    private final LongAdder leakedCount = new LongAdder();
+    private final QueryPlanCache queryPlanCache;
+    private final ConnectionMetrics connectionMetrics = new ConnectionMetrics();
+    private final Statistics statistics = new Statistics();
 
-    private boolean isOpen;
+    private volatile Dialect dialect;
+    private volatile boolean isOpen;
+    private ObjectName mBeanName;
 
     public EntityManagerFactoryImpl(DataSource dataSource) {
+        this(dataSource, QueryPlanCache.DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param dataSource data source of the entity managers
+     * @param queryPlanCacheSize maximum number of compiled query plans shared by the entity managers
+     */
+    public EntityManagerFactoryImpl(DataSource dataSource, int queryPlanCacheSize) {
         this.dataSource = dataSource;
+        this.queryPlanCache = new QueryPlanCache(queryPlanCacheSize);
         this.isOpen = true;
     }
 
     @Override
     public EntityManager createEntityManager() {
-        EntityManager entityManager = new EntityManagerImpl(dataSource);
-        entityManagers.add(entityManager);
+        validateFactory();
+        expungeCollectedEntityManagers();
+        var entityManager = new EntityManagerImpl(dataSource, queryPlanCache, connectionMetrics, statistics, this::getDialect);
+        var reference = new WeakReference<EntityManager>(entityManager, collectedEntityManagers);
+        entityManager.setCloseListener(() -> {
+            if (entityManagers.remove(reference)) {
+                openCount.decrement();
+            }
+        });
+        entityManagers.add(reference);
+        openCount.increment();
+        if (!isOpen) {
+            entityManager.close();
+            validateFactory();
+        }
         return entityManager;
     }
 
+    /**
+     * <p>Resolves the dialect by the connection of the first entity manager which needs it, the entity managers
+     * created later share the resolved dialect.</p>
+     * @param connection connection of the entity manager
+     * @return {@link Dialect} of the database
+     */
+    private Dialect getDialect(Connection connection) {
+        var resolved = dialect;
+        if (Objects.isNull(resolved)) {
+            resolved = DialectResolver.resolve(connection);
+            dialect = resolved;
+        }
+        return resolved;
+    }
+
+    private void validateFactory() {
+        if (!isOpen) {
+            throw new EntityManagerException("Entity manager factory closed", "Need to create new EntityManagerFactory instance");
+        }
+    }
+
+    private void expungeCollectedEntityManagers() {
+        Reference<? extends EntityManager> reference;
+        while ((reference = collectedEntityManagers.poll()) != null) {
+            if (entityManagers.remove(reference)) {
+                openCount.decrement();
+                leakedCount.increment();
+                logger.warn("Entity manager was garbage collected without being closed");
+            }
+        }
+    }
+
+    /**
+     * <p>Returns the number of entity managers created by this factory and not closed yet. Entity managers dropped
+     * without closing are counted until they are garbage collected.</p>
+     * @return number of open entity managers
+     */
+    public long getOpenEntityManagerCount() {
+        expungeCollectedEntityManagers();
+        return openCount.sum();
+    }
+
+    /**
+     * <p>Returns the number of entity managers which were garbage collected without being closed.</p>
+     * @return number of leaked entity managers
+     */
+    public long getLeakedEntityManagerCount() {
+        expungeCollectedEntityManagers();
+        return leakedCount.sum();
+    }
+
+    /**
+     * <p>Returns the number of open entity managers which are still referenced by the application. The difference
+     * to {@link #getOpenEntityManagerCount()} is the number of entity managers dropped without closing and not
+     * collected yet.</p>
+     * @return number of live entity managers
+     */
+    public long getLiveEntityManagerCount() {
+        expungeCollectedEntityManagers();
+        return entityManagers.stream().filter(reference -> reference.get() != null).count();
+    }
+
+    /**
+     * <p>Returns the number of entities in the first level caches of the live entity managers. The caches are read
+     * without locking, so the number is approximate while the entity managers are in use.</p>
+     * @return number of managed entities
+     */
+    public long getManagedEntityCount() {
+        expungeCollectedEntityManagers();
+        return entityManagers.stream()
+                .map(Reference::get)
+                .filter(entityManager -> entityManager instanceof EntityManagerImpl)
+                .mapToLong(entityManager -> ((EntityManagerImpl) entityManager).getManagedEntityCount())
+                .sum();
+    }
+
+    /**
+     * <p>Registers the {@link com.breskul.bibernate.persistence.jmx.EntityManagerFactoryMXBean} of this factory in the
+     * platform MBean server under 'com.breskul.bibernate:type=EntityManagerFactory,name=&lt;name&gt;'. The MBean is
+     * unregistered when the factory is closed.</p>
+     * @param name name of the factory unique within the JVM
+     * @return {@link ObjectName} of the registered MBean
+     */
+    public synchronized ObjectName registerMBean(String name) {
+        validateFactory();
+        if (Objects.nonNull(mBeanName)) {
+            throw new EntityManagerException("MBean of the factory is already registered as " + mBeanName,
+                    "Register the MBean of a factory once");
+        }
+        try {
+            var objectName = new ObjectName("com.breskul.bibernate:type=EntityManagerFactory,name=" + ObjectName.quote(name));
+            var monitor = new EntityManagerFactoryMonitor(this, queryPlanCache, dataSource);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(monitor, objectName);
+            mBeanName = objectName;
+            return objectName;
+        } catch (JMException exception) {
+            throw new EntityManagerException("Can not register MBean of the factory '%s'".formatted(name),
+                    "Use a name which is not registered by another factory", exception);
+        }
+    }
+
+    private synchronized void unregisterMBean() {
+        if (Objects.isNull(mBeanName)) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(mBeanName);
+        } catch (JMException exception) {
+            throw new EntityManagerException("Can not unregister MBean " + mBeanName, "Check the platform MBean server", exception);
+        } finally {
+            mBeanName = null;
+        }
+    }
+
+    /**
+     * <p>Returns connection hold time metrics of the transactions of all entity managers created by this factory.</p>
+     * @return {@link ConnectionMetrics} of this factory
+     */
+    public ConnectionMetrics getConnectionMetrics() {
+        return connectionMetrics;
+    }
+
+    @Override
+    public Statistics getStatistics() {
+        return statistics;
+    }
+
     @Override
     public boolean isOpen() {
         return isOpen;
@@ -29,8 +211,14 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory {
 
     @Override
     public void close() {
-        entityManagers.forEach(EntityManager::close);
-        entityManagers.clear();
         this.isOpen = false;
+        for (Reference<EntityManager> reference : entityManagers) {
+            EntityManager entityManager = reference.get();
+            if (entityManager != null) {
+                entityManager.close();
+            }
+        }
+        expungeCollectedEntityManagers();
+        unregisterMBean();
     }
 }
@@ -1,14 +1,35 @@
 package com.breskul.bibernate.persistence;
 
+import com.breskul.bibernate.collection.ExtraLazyList;
+import com.breskul.bibernate.collection.LazyList;
 import com.breskul.bibernate.exception.EntityManagerException;
+import com.breskul.bibernate.persistence.dialect.Dialect;
+import com.breskul.bibernate.persistence.dialect.DialectResolver;
+import com.breskul.bibernate.persistence.diagnostics.NPlusOneDetector;
+import com.breskul.bibernate.persistence.graph.EntityGraph;
+import com.breskul.bibernate.persistence.jfr.EntityOperationEvent;
+import com.breskul.bibernate.persistence.lock.LockMode;
+import com.breskul.bibernate.persistence.lock.LockOptions;
+import com.breskul.bibernate.persistence.metrics.ConnectionMetrics;
+import com.breskul.bibernate.persistence.metrics.Statistics;
 import com.breskul.bibernate.persistence.model.EntityKey;
+import com.breskul.bibernate.persistence.projection.Projection;
+import com.breskul.bibernate.persistence.projection.ProjectionMapper;
+import com.breskul.bibernate.persistence.query.Keyset;
+import com.breskul.bibernate.persistence.query.Page;
+import com.breskul.bibernate.persistence.query.Query;
+import com.breskul.bibernate.persistence.query.QueryPlanCache;
 import com.breskul.bibernate.persistence.util.CacheUtils;
 import com.breskul.bibernate.persistence.util.DaoUtils;
+import com.breskul.bibernate.proxy.ProxyFactory;
 
 import javax.sql.DataSource;
 import java.lang.reflect.Field;
+import java.sql.Connection;
 import java.util.*;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static com.breskul.bibernate.validate.EntityValidation.validateFetchEntity;
 import static com.breskul.bibernate.validate.EntityValidation.validatePersistEntity;
@@ -19,16 +40,40 @@ public class EntityManagerImpl implements EntityManager {
 
     private transient EntityTransactionImpl entityTransaction;
     private final PersistenceContext context;
+    private final QueryPlanCache queryPlanCache;
+    private final ConnectionMetrics connectionMetrics;
 
     private boolean isOpen;
+    private Runnable closeListener = () -> {};
 
     public EntityManagerImpl(DataSource dataSource) {
+        this(dataSource, new QueryPlanCache(), new ConnectionMetrics(), new Statistics(), DialectResolver::resolve);
+    }
+
+    EntityManagerImpl(DataSource dataSource, QueryPlanCache queryPlanCache, ConnectionMetrics connectionMetrics,
+                      Statistics statistics, Function<Connection, Dialect> dialectResolver) {
         this.dataSource = dataSource;
+        this.queryPlanCache = queryPlanCache;
+        this.connectionMetrics = connectionMetrics;
         this.context = new PersistenceContext();
-        this.jdbcDao = new JdbcDao(context);
+        this.jdbcDao = new JdbcDao(context, dataSource, statistics, dialectResolver);
         this.isOpen = true;
     }
 
+    /**
+     * @param closeListener {@link Runnable} called once when the entity manager is closed
+     */
+    void setCloseListener(Runnable closeListener) {
+        this.closeListener = closeListener;
+    }
+
+    /**
+     * @return number of entities in the first level cache, read without synchronization by the monitoring threads
+     */
+    int getManagedEntityCount() {
+        return context.getCache().size();
+    }
+
     private void validateSession() {
         if (!this.isOpen) {
             throw new EntityManagerException("Entity manager closed", "Need to create new EntityManager instance");
@@ -38,7 +83,9 @@ public class EntityManagerImpl implements EntityManager {
     public void persist(Object entity) {
         validateSession();
         validatePersistEntity(entity, context.getCache());
+        var event = EntityOperationEvent.start(EntityOperationEvent.PERSIST);
         this.jdbcDao.persist(entity);
+        event.finish(entity.getClass());
     }
 
     @Override
@@ -49,17 +96,25 @@ public class EntityManagerImpl implements EntityManager {
             throw new EntityManagerException("Attempt to merge null entity", "Check entity");
         }
 
+        if (ProxyFactory.isUninitializedProxy(entity)) {
+            return entity;
+        }
+        entity = (T) ProxyFactory.unproxy(entity);
+
         Object id = DaoUtils.getIdentifierValue(entity);
         if (context.getCache().containsKey(EntityKey.of(entity.getClass(), id))) {
             return entity;
         }
 
+        var event = EntityOperationEvent.start(EntityOperationEvent.MERGE);
         if (id == null) {
             persist(entity);
             detach(entity);
         }
 
-        return mergeEntity(entity);
+        var merged = mergeEntity(entity);
+        event.finish(entity.getClass());
+        return merged;
     }
 
     private <T> T mergeEntity(T entity) {
@@ -111,7 +166,10 @@ public class EntityManagerImpl implements EntityManager {
     @Override
     public void remove(Object entity) {
         validateSession();
-        this.jdbcDao.remove(entity);
+        var event = EntityOperationEvent.start(EntityOperationEvent.REMOVE);
+        var unproxied = ProxyFactory.unproxy(entity);
+        this.jdbcDao.remove(unproxied);
+        event.finish(unproxied.getClass());
     }
 
     @Override
@@ -119,16 +177,195 @@ public class EntityManagerImpl implements EntityManager {
         validateSession();
         validateFetchEntity(entityClass);
         String tableName = DaoUtils.getClassTableName(entityClass);
-        Supplier<?> fetchSupplier = () -> jdbcDao.findByIdentifier(entityClass, tableName, primaryKey);
+        return find(entityClass, primaryKey, () -> jdbcDao.findByIdentifier(entityClass, tableName, primaryKey));
+    }
+
+    @Override
+    public <T> T find(Class<T> entityClass, Object primaryKey, EntityGraph<T> entityGraph) {
+        validateSession();
+        validateFetchEntity(entityClass);
+        if (!entityGraph.getRootType().equals(entityClass)) {
+            throw new EntityManagerException("Entity graph of %s is passed to find %s"
+                    .formatted(entityGraph.getRootType().getSimpleName(), entityClass.getSimpleName()),
+                    "Create entity graph for the found entity class");
+        }
+        var fetchPlan = queryPlanCache.getFetchPlan(entityGraph);
+        return find(entityClass, primaryKey, () -> jdbcDao.findByIdentifier(entityClass, primaryKey, fetchPlan));
+    }
+
+    @Override
+    public <T> T find(Class<T> entityClass, Object primaryKey, LockOptions lockOptions) {
+        var idField = DaoUtils.getIdentifierField(entityClass);
+        var result = findAll(Query.from(entityClass).where(idField.getName(), primaryKey).lock(lockOptions));
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    private <T> T find(Class<T> entityClass, Object primaryKey, Supplier<?> fetchSupplier) {
+        var event = EntityOperationEvent.start(EntityOperationEvent.FIND);
         EntityKey<?> entityKey = EntityKey.of(entityClass, primaryKey);
-        Object result = CacheUtils.processCache(entityKey, context.getCache(), fetchSupplier);
+        Object result = CacheUtils.processCache(entityKey, context.getCache(), jdbcDao.getStatistics(), fetchSupplier);
         if (Objects.nonNull(result)) {
             String snapshotValues = DaoUtils.getSqlFieldValues(result);
             context.addToSnapshot(result, primaryKey, snapshotValues);
         }
+        event.finish(entityClass);
         return entityClass.cast(result);
     }
 
+    @Override
+    public <T> List<T> findMultiple(Class<T> entityClass, Collection<?> primaryKeys) {
+        return findMultiple(entityClass, primaryKeys, false);
+    }
+
+    @Override
+    public <T> List<T> findMultiple(Class<T> entityClass, Collection<?> primaryKeys, boolean skipMissing) {
+        validateSession();
+        validateFetchEntity(entityClass);
+        Map<Object, T> entities = new HashMap<>();
+        Set<Object> notCachedKeys = new LinkedHashSet<>();
+        for (Object primaryKey : primaryKeys) {
+            Object cached = context.getCache().get(EntityKey.of(entityClass, primaryKey));
+            if (Objects.nonNull(cached)) {
+                entities.put(primaryKey, entityClass.cast(cached));
+            } else if (Objects.nonNull(primaryKey)) {
+                notCachedKeys.add(primaryKey);
+            }
+        }
+        if (!notCachedKeys.isEmpty()) {
+            String tableName = DaoUtils.getClassTableName(entityClass);
+            jdbcDao.findAllByIdentifiers(entityClass, tableName, notCachedKeys).forEach((primaryKey, entity) -> {
+                context.addToCache(entity, primaryKey);
+                context.addToSnapshot(entity, primaryKey, DaoUtils.getSqlFieldValues(entity));
+                entities.put(primaryKey, entity);
+            });
+        }
+        List<T> result = new ArrayList<>(primaryKeys.size());
+        for (Object primaryKey : primaryKeys) {
+            T entity = entities.get(primaryKey);
+            if (Objects.nonNull(entity) || !skipMissing) {
+                result.add(entity);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void prefetch(Object entity, String... attributes) {
+        validateSession();
+        var entityClass = ProxyFactory.getEntityClass(entity.getClass());
+        var target = ProxyFactory.unproxy(entity);
+        for (String attribute : attributes) {
+            var field = Arrays.stream(entityClass.getDeclaredFields())
+                    .filter(declaredField -> declaredField.getName().equals(attribute) && DaoUtils.isEntityCollectionField(declaredField))
+                    .findFirst()
+                    .orElseThrow(() -> new EntityManagerException("There is no collection '%s' in %s"
+                            .formatted(attribute, entityClass.getSimpleName()), "Use the name of a collection field to prefetch"));
+            if (DaoUtils.getFieldValue(target, field) instanceof LazyList<?> lazyList
+                    && !lazyList.isLoaded() && !(lazyList instanceof ExtraLazyList<?>)) {
+                jdbcDao.prefetchCollection(dataSource, target, field, lazyList);
+            }
+        }
+    }
+
+    @Override
+    public <T> List<T> findAll(Query<T> query) {
+        validateSession();
+        validateFetchEntity(query.getRootType());
+        var plan = queryPlanCache.getPlan(query.getShape());
+        if (Objects.nonNull(query.getLockOptions())) {
+            return jdbcDao.findAllLocked(query.getRootType(), plan, query.getParameterValues(), query.getLockOptions());
+        }
+        return jdbcDao.findAll(query.getRootType(), plan, query.getParameterValues(), false);
+    }
+
+    @Override
+    public <T> List<T> claim(Query<T> query, int count) {
+        validateSession();
+        validateFetchEntity(query.getRootType());
+        if (count < 1) {
+            throw new EntityManagerException("Claimed count must be positive", "Pass count greater than zero");
+        }
+        var dialect = jdbcDao.getDialect();
+        var skipLocked = LockOptions.of(LockMode.SKIP_LOCKED);
+        if (dialect.isSkipLockedSupported()) {
+            return findAll(query.limit(count).offset(0).lock(skipLocked));
+        }
+        var candidateLock = dialect.isLockTimeoutSupported() ? skipLocked : LockOptions.of(LockMode.PESSIMISTIC_WRITE);
+        var idName = DaoUtils.getIdentifierField(query.getRootType()).getName();
+        List<T> claimed = new ArrayList<>();
+        for (int offset = 0; claimed.size() < count; offset += count) {
+            var candidatesQuery = query.limit(count).offset(offset);
+            var plan = queryPlanCache.getPlan(candidatesQuery.getShape());
+            var candidates = jdbcDao.findAll(query.getRootType(), plan, candidatesQuery.getParameterValues(), true);
+            if (candidates.isEmpty()) {
+                break;
+            }
+            for (T candidate : candidates) {
+                var id = DaoUtils.getIdentifierValue(candidate);
+                var locked = findAll(query.where(idName, id).limit(1).offset(0).lock(candidateLock));
+                if (!locked.isEmpty() && !claimed.contains(locked.get(0)) && claimed.size() < count) {
+                    claimed.add(locked.get(0));
+                }
+            }
+        }
+        return claimed;
+    }
+
+    @Override
+    public <T> Page<T> findPage(Query<T> query, Keyset keyset, int pageSize) {
+        validateSession();
+        validateFetchEntity(query.getRootType());
+        if (pageSize < 1) {
+            throw new EntityManagerException("Page size must be positive", "Pass page size greater than zero");
+        }
+        if (Objects.nonNull(query.getLockOptions())) {
+            throw new EntityManagerException("Keyset pages can not be locked", "Use findAll or claim to lock the entities");
+        }
+        var pageQuery = query.seek(keyset).limit(pageSize);
+        var plan = queryPlanCache.getPlan(pageQuery.getShape());
+        var content = jdbcDao.findAll(query.getRootType(), plan, pageQuery.getParameterValues(), true);
+        var next = content.size() < pageSize ? null : keyset.after(content.get(content.size() - 1));
+        return new Page<>(content, next);
+    }
+
+    @Override
+    public <T> Stream<T> stream(Query<T> query, Keyset keyset, int pageSize) {
+        return Stream.iterate(findPage(query, keyset, pageSize), Objects::nonNull,
+                        page -> page.hasNext() ? findPage(query, page.next(), pageSize) : null)
+                .flatMap(page -> page.content().stream());
+    }
+
+    @Override
+    public <R> List<R> findProjections(Projection<R> projection) {
+        validateSession();
+        var tableName = DaoUtils.getClassTableName(projection.entityType());
+        return jdbcDao.findAllProjected(ProjectionMapper.of(projection), tableName, null, null);
+    }
+
+    @Override
+    public <R> List<R> findProjections(Projection<R> projection, String attribute, Object value) {
+        validateSession();
+        var entityType = projection.entityType();
+        var field = Arrays.stream(entityType.getDeclaredFields())
+                .filter(declaredField -> declaredField.getName().equals(attribute) && !DaoUtils.isCollectionField(declaredField))
+                .findFirst()
+                .orElseThrow(() -> new EntityManagerException("There is no column attribute '%s' in %s"
+                        .formatted(attribute, entityType.getSimpleName()), "Use the name of an entity column field in the condition"));
+        var tableName = DaoUtils.getClassTableName(entityType);
+        return jdbcDao.findAllProjected(ProjectionMapper.of(projection), tableName, field, value);
+    }
+
+    @Override
+    public void setParallelHydration(boolean parallelHydration) {
+        validateSession();
+        jdbcDao.setParallelHydration(parallelHydration);
+    }
+
+    @Override
+    public NPlusOneDetector getNPlusOneDetector() {
+        return jdbcDao.getNPlusOneDetector();
+    }
+
     @Override
     public void flush() {
         jdbcDao.compareSnapshots();
@@ -142,23 +379,32 @@ public class EntityManagerImpl implements EntityManager {
     @Override
     public void detach(Object entity) {
         Object id = DaoUtils.getIdentifierValue(entity);
-        context.removeFromCache(entity.getClass(), id);
-        context.removeSnapshot(entity.getClass(), id);
+        Class<?> entityClass = ProxyFactory.getEntityClass(entity.getClass());
+        context.removeFromCache(entityClass, id);
+        context.removeSnapshot(entityClass, id);
     }
 
     @Override
     public boolean contains(Object entity) {
         Object id = DaoUtils.getIdentifierValue(entity);
-        EntityKey<?> entityKey = EntityKey.of(entity.getClass(), id);
+        EntityKey<?> entityKey = EntityKey.of(ProxyFactory.getEntityClass(entity.getClass()), id);
         return context.getCache().containsKey(entityKey);
     }
 
     @Override
     public void close() {
+        if (!this.isOpen) {
+            return;
+        }
         context.clear();
         this.isOpen = false;
-        if (entityTransaction != null && entityTransaction.isActive()){
-            entityTransaction.rollback();
+        try {
+            if (entityTransaction != null && entityTransaction.isActive()){
+                entityTransaction.rollback();
+            }
+        } finally {
+            jdbcDao.close();
+            closeListener.run();
         }
     }
 
@@ -175,7 +421,7 @@ public class EntityManagerImpl implements EntityManager {
 
     private EntityTransaction accessTransaction() {
         if (this.entityTransaction == null) {
-            this.entityTransaction = new EntityTransactionImpl(this.dataSource, this.jdbcDao, context);
+            this.entityTransaction = new EntityTransactionImpl(this.dataSource, this.jdbcDao, context, connectionMetrics);
         }
         return this.entityTransaction;
     }
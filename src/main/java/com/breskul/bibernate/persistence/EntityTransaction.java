@@ -2,6 +2,8 @@ package com.breskul.bibernate.persistence;
 
 import com.breskul.bibernate.exception.TransactionException;
 
+import java.time.Duration;
+
 /**
  * Interface used to control transactions on resource-local entity managers.
  * The EntityManager.getTransaction() method returns the EntityTransaction interface.
@@ -44,4 +46,38 @@ public interface EntityTransaction {
      * @return return boolean value for transaction status
      **/
     boolean isActive();
+
+    /**
+     * Set read-only mode. A read-only transaction takes a read connection, which is a replica connection when the
+     * data source routes reads to replicas, skips dirty checking on commit and rejects writes.
+     * @param readOnly true to start read-only transactions
+     * @throws TransactionException if transaction have been already opened
+     **/
+    void setReadOnly(boolean readOnly);
+
+    /**
+     * Get read-only mode.
+     * @return return boolean value for indication mode
+     **/
+    boolean isReadOnly();
+
+    /**
+     * Set lazy connection mode. In this mode begin only marks the transaction as active and the connection
+     * is taken from the data source by the first SQL statement of the transaction.
+     * @param lazyConnection true to take the connection on the first SQL statement
+     * @throws TransactionException if transaction have been already opened
+     **/
+    void setLazyConnection(boolean lazyConnection);
+
+    /**
+     * Get lazy connection mode.
+     * @return return boolean value for indication mode
+     **/
+    boolean isLazyConnection();
+
+    /**
+     * Get connection hold time of the current transaction, or of the last finished one if no transaction is active.
+     * @return time since the connection was taken, zero if the transaction did not take a connection
+     **/
+    Duration getConnectionHoldTime();
 }
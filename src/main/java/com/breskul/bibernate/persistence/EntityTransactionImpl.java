@@ -1,24 +1,38 @@
 package com.breskul.bibernate.persistence;
 
 import com.breskul.bibernate.exception.TransactionException;
+import com.breskul.bibernate.persistence.metrics.ConnectionMetrics;
+import com.breskul.bibernate.repository.RoutingDataSource;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.Duration;
 
 public class EntityTransactionImpl implements EntityTransaction {
 
     private final PersistenceContext context;
     private final DataSource dataSource;
     private final JdbcDao jdbcDao;
+    private final ConnectionMetrics connectionMetrics;
     private Connection connection;
+    private long connectionAcquiredAt;
+    private long connectionHoldNanos;
     private boolean isActive;
     private boolean isRollbackOnly;
+    private boolean isLazyConnection;
+    private boolean isReadOnly;
 
     public EntityTransactionImpl(DataSource dataSource, JdbcDao jdbcDao, PersistenceContext context) {
+        this(dataSource, jdbcDao, context, new ConnectionMetrics());
+    }
+
+    public EntityTransactionImpl(DataSource dataSource, JdbcDao jdbcDao, PersistenceContext context,
+                                 ConnectionMetrics connectionMetrics) {
         this.dataSource = dataSource;
         this.jdbcDao = jdbcDao;
         this.context = context;
+        this.connectionMetrics = connectionMetrics;
     }
 
     @Override
@@ -28,13 +42,15 @@ public class EntityTransactionImpl implements EntityTransaction {
             isActive = false;
             throw new TransactionException("Transaction have been already opened", "Can be open only one transaction");
         }
-        try {
+        connectionHoldNanos = 0;
+        jdbcDao.getNPlusOneDetector().reset();
+        jdbcDao.setReadOnly(isReadOnly);
+        if (isLazyConnection) {
+            jdbcDao.setConnectionProvider(this::openConnection);
+        } else {
             openConnection();
-            connection.setAutoCommit(false);
-            isActive = true;
-        } catch (SQLException exception) {
-            throw new TransactionException("Can not begin transaction", "Check db server health", exception);
         }
+        isActive = true;
     }
 
     @Override
@@ -48,8 +64,12 @@ public class EntityTransactionImpl implements EntityTransaction {
             rollback();
         } else {
             try {
-                jdbcDao.compareSnapshots();
-                connection.commit();
+                if (!isReadOnly) {
+                    jdbcDao.compareSnapshots();
+                }
+                if (connection != null) {
+                    connection.commit();
+                }
                 closeConnection();
             } catch (SQLException exception) {
                 throw new TransactionException("Can not commit transaction", "Check db server health", exception);
@@ -66,7 +86,9 @@ public class EntityTransactionImpl implements EntityTransaction {
                     "Before rollback transaction should be open");
         }
         try {
-            connection.rollback();
+            if (connection != null) {
+                connection.rollback();
+            }
             closeConnection();
             context.clear();
         } catch (SQLException exception) {
@@ -101,17 +123,73 @@ public class EntityTransactionImpl implements EntityTransaction {
         return this.isActive;
     }
 
-    private void openConnection() throws SQLException {
-        this.connection = dataSource.getConnection();
+    @Override
+    public void setReadOnly(boolean readOnly) {
+        if (isActive()) {
+            throw new TransactionException(
+                    "Transaction have been already opened",
+                    "Set the read-only mode before transaction begin");
+        }
+        this.isReadOnly = readOnly;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return isReadOnly;
+    }
+
+    @Override
+    public void setLazyConnection(boolean lazyConnection) {
+        if (isActive()) {
+            throw new TransactionException(
+                    "Transaction have been already opened",
+                    "Set the connection mode before transaction begin");
+        }
+        this.isLazyConnection = lazyConnection;
+    }
+
+    @Override
+    public boolean isLazyConnection() {
+        return isLazyConnection;
+    }
+
+    @Override
+    public Duration getConnectionHoldTime() {
+        long holdNanos = connection != null ? System.nanoTime() - connectionAcquiredAt : connectionHoldNanos;
+        return Duration.ofNanos(holdNanos);
+    }
+
+    private Connection openConnection() {
+        try {
+            long acquisitionStart = System.nanoTime();
+            this.connection = isReadOnly ? RoutingDataSource.getReadConnection(dataSource) : dataSource.getConnection();
+            this.connectionAcquiredAt = System.nanoTime();
+            jdbcDao.getStatistics().recordConnectionAcquisition(connectionAcquiredAt - acquisitionStart);
+            connection.setAutoCommit(false);
+            connection.setReadOnly(isReadOnly);
+        } catch (SQLException exception) {
+            throw new TransactionException("Can not begin transaction", "Check db server health", exception);
+        }
         this.jdbcDao.setConnection(connection);
+        return connection;
     }
 
     private void closeConnection() {
+        this.jdbcDao.setConnectionProvider(null);
+        this.jdbcDao.setReadOnly(false);
+        if (this.connection == null) {
+            connectionMetrics.recordWithoutConnection();
+            return;
+        }
         try {
             this.connection.close();
         } catch (SQLException exception) {
             throw new TransactionException("Cannot close connection", "Check db server health", exception);
+        } finally {
+            this.connectionHoldNanos = System.nanoTime() - connectionAcquiredAt;
+            connectionMetrics.recordConnection(connectionHoldNanos);
+            this.connection = null;
+            this.jdbcDao.setConnection(null);
         }
-        this.jdbcDao.setConnection(null);
     }
 }
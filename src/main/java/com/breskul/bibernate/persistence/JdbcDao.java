@@ -2,78 +2,215 @@ package com.breskul.bibernate.persistence;
 
 import com.breskul.bibernate.annotation.enums.CascadeType;
 import com.breskul.bibernate.annotation.enums.Strategy;
+import com.breskul.bibernate.collection.CollectionLoader;
+import com.breskul.bibernate.collection.ExtraLazyList;
 import com.breskul.bibernate.collection.LazyList;
+import com.breskul.bibernate.exception.CommonException;
 import com.breskul.bibernate.exception.InternalException;
 import com.breskul.bibernate.exception.JdbcDaoException;
+import com.breskul.bibernate.exception.OptimisticLockException;
+import com.breskul.bibernate.exception.PessimisticLockException;
 import com.breskul.bibernate.exception.TransactionException;
+import com.breskul.bibernate.persistence.diagnostics.NPlusOneDetector;
+import com.breskul.bibernate.persistence.dialect.Dialect;
+import com.breskul.bibernate.persistence.dialect.DialectResolver;
+import com.breskul.bibernate.persistence.graph.AttributeNode;
+import com.breskul.bibernate.persistence.graph.FetchMode;
+import com.breskul.bibernate.persistence.graph.FetchPlan;
+import com.breskul.bibernate.persistence.graph.JoinMapping;
+import com.breskul.bibernate.persistence.graph.TableMapping;
+import com.breskul.bibernate.persistence.jfr.CollectionInitializationEvent;
+import com.breskul.bibernate.persistence.jfr.FlushEvent;
+import com.breskul.bibernate.persistence.jfr.HydrationEvent;
+import com.breskul.bibernate.persistence.jfr.StatementExecutionEvent;
+import com.breskul.bibernate.persistence.lock.LockMode;
+import com.breskul.bibernate.persistence.lock.LockOptions;
+import com.breskul.bibernate.persistence.metrics.Statistics;
+import com.breskul.bibernate.persistence.model.CollectionRole;
 import com.breskul.bibernate.persistence.model.EntityKey;
 import com.breskul.bibernate.persistence.model.EntityNode;
 import com.breskul.bibernate.persistence.model.Snapshot;
+import com.breskul.bibernate.persistence.projection.ProjectionMapper;
+import com.breskul.bibernate.persistence.query.ParameterBinder;
+import com.breskul.bibernate.persistence.query.QueryPlan;
+import com.breskul.bibernate.persistence.util.AsyncUtils;
 import com.breskul.bibernate.persistence.util.DaoUtils;
+import com.breskul.bibernate.persistence.util.CacheUtils;
 import com.breskul.bibernate.persistence.util.QueryUtils;
+import com.breskul.bibernate.proxy.EntityProxy;
+import com.breskul.bibernate.proxy.ProxyFactory;
+import com.breskul.bibernate.repository.LockFailureExceptionOverride;
+import com.breskul.bibernate.repository.RoutingDataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.sql.DataSource;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetProvider;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.sql.*;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 import static com.breskul.bibernate.persistence.util.DaoUtils.*;
 
 public class JdbcDao {
     private static final Logger logger = LoggerFactory.getLogger(JdbcDao.class);
+    private static final int[] IN_CLAUSE_PADDING_SIZES = {1, 4, 16, 64, 256};
+    private static final int HYDRATION_CHUNK_SIZE = 1024;
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+    private static final int MAX_IN_CLAUSE_SIZE = IN_CLAUSE_PADDING_SIZES[IN_CLAUSE_PADDING_SIZES.length - 1];
+    private static final int MAX_INSERT_ROWS = 256;
+    private static final Object[] NO_PARAMETERS = new Object[0];
 
     private Connection connection;
+    private Supplier<Connection> connectionProvider;
+    private Connection readConnection;
+    private int readConnectionDepth;
+    private boolean closed;
+    private boolean readOnly;
+    private Dialect dialect;
+    private boolean parallelHydration;
     private final PersistenceContext context;
+    private final DataSource dataSource;
+    private final Statistics statistics;
+    private final Function<Connection, Dialect> dialectResolver;
+    private final NPlusOneDetector nPlusOneDetector = new NPlusOneDetector();
+    private String association;
 
     public JdbcDao(PersistenceContext context) {
+        this(context, null);
+    }
+
+    public JdbcDao(PersistenceContext context, DataSource dataSource) {
+        this(context, dataSource, new Statistics());
+    }
+
+    /**
+     * @param context    {@link PersistenceContext} of the entity manager
+     * @param dataSource {@link DataSource} used by the reads issued outside of transaction, null to require a transaction
+     * @param statistics {@link Statistics} of the entity manager factory
+     */
+    public JdbcDao(PersistenceContext context, DataSource dataSource, Statistics statistics) {
+        this(context, dataSource, statistics, DialectResolver::resolve);
+    }
+
+    /**
+     * @param context         {@link PersistenceContext} of the entity manager
+     * @param dataSource      {@link DataSource} used by the reads issued outside of transaction, null to require a transaction
+     * @param statistics      {@link Statistics} of the entity manager factory
+     * @param dialectResolver resolves the {@link Dialect} by the connection once it is needed, e.g. the dialect cached by the factory
+     */
+    public JdbcDao(PersistenceContext context, DataSource dataSource, Statistics statistics,
+                   Function<Connection, Dialect> dialectResolver) {
         this.context = context;
+        this.dataSource = dataSource;
+        this.statistics = statistics;
+        this.dialectResolver = dialectResolver;
+    }
+
+    public Statistics getStatistics() {
+        return statistics;
+    }
+
+    public NPlusOneDetector getNPlusOneDetector() {
+        return nPlusOneDetector;
     }
 
     /**
      * <p>This method persists the given entity along with all of its dependent entities into the database. The entity to persist is passed as a parameter to this method.</p>
+     * <p>The tree of the dependent entities is inserted level by level, so the parents are inserted before their childes.
+     * The entities of one level identified by {@link Strategy#IDENTITY} are inserted by one multi-row insert per entity class.</p>
      *
      * @param parentEntity {@link Object} the JPA entity for which the list of column names should be returned.
      */
     public void persist(Object parentEntity) {
         EntityNode parentEntityToInsertNode = buildTreeDependencyFromParentEntity(parentEntity);
-        var queue = new ArrayDeque<EntityNode>();
-        queue.add(parentEntityToInsertNode);
-        while (!queue.isEmpty()) {
-            var node = queue.poll();
-            var entity = node.entity();
-            var tableName = DaoUtils.resolveTableName(entity);
-            var sqlFieldNames = DaoUtils.getSqlFieldNamesWithoutId(entity);
-            var sqlFieldValues = DaoUtils.getSqlFieldValuesWithoutId(entity);
-
-            var identifierField = DaoUtils.getIdentifierField(entity.getClass());
-            var strategy = getStrategy(entity);
-            Object id;
-            if (strategy.equals(Strategy.SEQUENCE)) {
-                var sequenceQuery = QueryUtils.buildSequenceQuery(tableName);
-                id = getSequenceId(sequenceQuery);
-                sqlFieldNames = identifierField.getName() + "," + sqlFieldNames;
-                sqlFieldValues = id + "," + sqlFieldValues;
-                setValueToField(entity, identifierField, id);
-                insertEntity(tableName, sqlFieldNames, sqlFieldValues);
-            } else if (strategy.equals(Strategy.IDENTITY)) {
-                id = insertEntity(tableName, sqlFieldNames, sqlFieldValues);
-                sqlFieldValues = id + "," + sqlFieldValues;
+        var sequenceIds = prefetchSequenceIds(parentEntityToInsertNode);
+        List<EntityNode> level = List.of(parentEntityToInsertNode);
+        while (!level.isEmpty()) {
+            List<EntityNode> nextLevel = new ArrayList<>();
+            Map<Class<?>, List<Object>> identityEntities = new LinkedHashMap<>();
+            for (var node : level) {
+                var entity = node.entity();
+                if (getStrategy(entity).equals(Strategy.IDENTITY)) {
+                    identityEntities.computeIfAbsent(entity.getClass(), type -> new ArrayList<>()).add(entity);
+                } else {
+                    persistEntity(entity, sequenceIds);
+                }
+                nextLevel.addAll(node.childes());
+            }
+            identityEntities.values().forEach(this::persistIdentityEntities);
+            level = nextLevel;
+        }
+    }
+
+    /**
+     * <p>Inserts the entity identified by {@link Strategy#SEQUENCE} or by the assigned identifier.</p>
+     *
+     * @param entity      {@link Object} entity to insert
+     * @param sequenceIds prefetched sequence identifiers by table name
+     */
+    private void persistEntity(Object entity, Map<String, Deque<Object>> sequenceIds) {
+        var tableName = DaoUtils.resolveTableName(entity);
+        initializeVersion(entity);
+        var sqlFieldNames = DaoUtils.getSqlFieldNamesWithoutId(entity);
+        var sqlFieldValues = DaoUtils.getSqlFieldValuesWithoutId(entity);
+        var identifierField = DaoUtils.getIdentifierField(entity.getClass());
+        Object id;
+        if (getStrategy(entity).equals(Strategy.SEQUENCE)) {
+            var prefetchedIds = sequenceIds.getOrDefault(tableName, new ArrayDeque<>());
+            id = prefetchedIds.isEmpty() ? getSequenceId(getDialect().buildSequenceQuery(getSequenceName(tableName)))
+                    : prefetchedIds.poll();
+            setValueToField(entity, identifierField, id);
+        } else {
+            id = getIdentifierValue(entity);
+        }
+        sqlFieldNames = identifierField.getName() + "," + sqlFieldNames;
+        sqlFieldValues = id + "," + sqlFieldValues;
+        insertEntity(tableName, sqlFieldNames, sqlFieldValues);
+        statistics.recordEntityInserted(entity.getClass());
+        context.addToSnapshot(entity, id, sqlFieldValues);
+        context.addToCache(entity, id);
+    }
+
+    /**
+     * <p>Inserts the entities of one class identified by {@link Strategy#IDENTITY} by multi-row inserts of up to
+     * {@value #MAX_INSERT_ROWS} rows and assigns the generated identifiers to the entities in the order of the rows.
+     * When the {@link Dialect} can not read the identifiers generated by a multi-row insert, the entities are inserted
+     * one by one.</p>
+     *
+     * @param entities {@link List} entities of the same class
+     */
+    private void persistIdentityEntities(List<Object> entities) {
+        var entityType = entities.get(0).getClass();
+        var tableName = DaoUtils.resolveTableName(entities.get(0));
+        var identifierField = DaoUtils.getIdentifierField(entityType);
+        var chunkSize = getDialect().isMultiRowIdentityInsertSupported() ? MAX_INSERT_ROWS : 1;
+        for (int from = 0; from < entities.size(); from += chunkSize) {
+            var chunk = entities.subList(from, Math.min(from + chunkSize, entities.size()));
+            chunk.forEach(JdbcDao::initializeVersion);
+            var sqlFieldValues = chunk.stream().map(DaoUtils::getSqlFieldValuesWithoutId).toList();
+            var ids = insertIdentityEntities(tableName, DaoUtils.getSqlFieldNamesWithoutId(chunk.get(0)), sqlFieldValues,
+                    DaoUtils.getColumnName(identifierField));
+            for (int i = 0; i < chunk.size(); i++) {
+                var entity = chunk.get(i);
+                var id = ids.get(i);
                 setValueToField(entity, identifierField, id);
-            } else {
-                String idName = getIdentifierFieldName(entity.getClass());
-                id = getIdentifierValue(entity);
-                sqlFieldNames = idName + "," + sqlFieldNames;
-                sqlFieldValues = id + "," + sqlFieldValues;
-                insertEntity(tableName, sqlFieldNames, sqlFieldValues);
-            }
-            context.addToSnapshot(entity, id, sqlFieldValues);
-            context.addToCache(entity, id);
-            queue.addAll(node.childes());
+                statistics.recordEntityInserted(entityType);
+                context.addToSnapshot(entity, id, id + "," + sqlFieldValues.get(i));
+                context.addToCache(entity, id);
+            }
         }
     }
 
@@ -122,6 +259,53 @@ public class JdbcDao {
         return parentEntityNode;
     }
 
+    /**
+     * <p>Fetches the identifiers of the entities of the tree identified by {@link Strategy#SEQUENCE} in one query per
+     * table, when the table has several entities to insert and the {@link Dialect} fetches sequence values in batch.</p>
+     *
+     * @param parentEntityNode {@link EntityNode} the root of the tree of the entities to insert
+     * @return ascending prefetched identifiers by table name
+     */
+    private Map<String, Deque<Object>> prefetchSequenceIds(EntityNode parentEntityNode) {
+        Map<String, Integer> counts = new HashMap<>();
+        var queue = new ArrayDeque<EntityNode>();
+        queue.add(parentEntityNode);
+        while (!queue.isEmpty()) {
+            var node = queue.poll();
+            if (getStrategy(node.entity()).equals(Strategy.SEQUENCE)) {
+                counts.merge(DaoUtils.resolveTableName(node.entity()), 1, Integer::sum);
+            }
+            queue.addAll(node.childes());
+        }
+        Map<String, Deque<Object>> sequenceIds = new HashMap<>();
+        counts.forEach((tableName, count) -> {
+            var batchQuery = count > 1 ? getDialect().buildSequenceBatchQuery(getSequenceName(tableName), count) : null;
+            if (Objects.nonNull(batchQuery)) {
+                sequenceIds.put(tableName, getSequenceIds(batchQuery));
+            }
+        });
+        return sequenceIds;
+    }
+
+    private static String getSequenceName(String tableName) {
+        return tableName + "_seq";
+    }
+
+    private Deque<Object> getSequenceIds(String sequenceBatchQuery) {
+        try (PreparedStatement preparedStatement = prepareStatement(getWriteConnection(), sequenceBatchQuery)) {
+            ResultSet resultSet = executeQuery(preparedStatement, sequenceBatchQuery);
+            List<Long> ids = new ArrayList<>();
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong(1));
+            }
+            statistics.recordRowsRead(ids.size());
+            Collections.sort(ids);
+            return new ArrayDeque<>(ids);
+        } catch (SQLException e) {
+            throw new JdbcDaoException("Can't execute query %s".formatted(sequenceBatchQuery), "Make sure that sequence match the pattern 'tableName_seq'", e);
+        }
+    }
+
     /**
      * <p>This method executes the given sequence query and returns the next value from the sequence.</p>
      *
@@ -129,9 +313,10 @@ public class JdbcDao {
      * @return id {@link Object} from database
      */
     public Object getSequenceId(String sequenceQuery) {
-        try (PreparedStatement preparedStatement = getConnection().prepareStatement(sequenceQuery)) {
-            ResultSet resultSet = preparedStatement.executeQuery();
+        try (PreparedStatement preparedStatement = prepareStatement(getWriteConnection(), sequenceQuery)) {
+            ResultSet resultSet = executeQuery(preparedStatement, sequenceQuery);
             resultSet.next();
+            statistics.recordRowsRead(1);
             return resultSet.getObject(1);
         } catch (SQLException e) {
             throw new JdbcDaoException("Can't execute query %s".formatted(sequenceQuery), "Make sure that sequence match the pattern 'tableName_seq'", e);
@@ -139,26 +324,79 @@ public class JdbcDao {
     }
 
     /**
-     * <p>This method inserts an entity into the specified table in the database and returns the generated identifier value.</p>
+     * <p>This method inserts an entity into the specified table in the database.</p>
      *
      * @param tableName      {@link String} - name of the table
      * @param sqlFieldNames  {@link String} - name of the sql field names for the given entity
      * @param sqlFieldValues {@link String} - values of the sql field names for the given entity
-     * @return id {@link Object} - identifier for the inserted entity
      */
-    private Object insertEntity(String tableName, String sqlFieldNames, String sqlFieldValues) {
+    private void insertEntity(String tableName, String sqlFieldNames, String sqlFieldValues) {
         var insertQuery = QueryUtils.buildInsertQuery(tableName, sqlFieldNames, sqlFieldValues);
-        try (PreparedStatement preparedStatement = getConnection().prepareStatement(insertQuery, Statement.RETURN_GENERATED_KEYS)) {
+        try (PreparedStatement preparedStatement = prepareStatement(getWriteConnection(), insertQuery)) {
+            logger.info("SQL: {}", preparedStatement);
+            var event = StatementExecutionEvent.start();
+            long start = System.nanoTime();
+            int inserted = preparedStatement.executeUpdate();
+            long nanos = System.nanoTime() - start;
+            var sqlShape = isSqlShapeNeeded(event, nanos) ? QueryUtils.buildInsertShape(tableName, sqlFieldNames) : null;
+            recordExecutionTime(sqlShape, preparedStatement, nanos, event, 1, inserted);
+        } catch (SQLException e) {
+            throw new JdbcDaoException("Can not insert into " + tableName, e);
+        }
+    }
+
+    /**
+     * <p>This method inserts the rows of the entities identified by {@link Strategy#IDENTITY} by one insert query and
+     * returns the generated identifier values in the order in which the database returns them, which is the order of
+     * the inserted rows. The identifiers are returned by the insert query itself when the {@link Dialect} supports it,
+     * otherwise they are read by {@link Statement#getGeneratedKeys()}.</p>
+     *
+     * @param tableName        {@link String} - name of the table
+     * @param sqlFieldNames    {@link String} - name of the sql field names of the entities
+     * @param sqlFieldValues   {@link List} - values of the sql field names of each entity
+     * @param identifierColumn {@link String} - generated identifier column
+     * @return ids {@link List} - identifiers of the inserted entities
+     */
+    private List<Object> insertIdentityEntities(String tableName, String sqlFieldNames, List<String> sqlFieldValues,
+                                                String identifierColumn) {
+        var insertQuery = getDialect().buildMultiRowInsertQuery(tableName, sqlFieldNames, sqlFieldValues);
+        var returningQuery = getDialect().buildInsertReturningQuery(insertQuery, identifierColumn);
+        var connection = getWriteConnection();
+        try (PreparedStatement preparedStatement = Objects.nonNull(returningQuery) ? connection.prepareStatement(returningQuery)
+                : connection.prepareStatement(insertQuery, Statement.RETURN_GENERATED_KEYS)) {
+            statistics.recordStatementPrepared();
             logger.info("SQL: {}", preparedStatement);
-            preparedStatement.executeUpdate();
-            preparedStatement.getGeneratedKeys().next();
-            return preparedStatement.getGeneratedKeys().getObject(1);
+            var event = StatementExecutionEvent.start();
+            long start = System.nanoTime();
+            ResultSet generatedKeys;
+            if (Objects.nonNull(returningQuery)) {
+                generatedKeys = preparedStatement.executeQuery();
+            } else {
+                preparedStatement.executeUpdate();
+                generatedKeys = preparedStatement.getGeneratedKeys();
+            }
+            long nanos = System.nanoTime() - start;
+            var sqlShape = isSqlShapeNeeded(event, nanos) ? QueryUtils.buildInsertShape(tableName, sqlFieldNames) : null;
+            recordExecutionTime(sqlShape, preparedStatement, nanos, event, 1, sqlFieldValues.size());
+            List<Object> ids = new ArrayList<>(sqlFieldValues.size());
+            while (generatedKeys.next()) {
+                ids.add(generatedKeys.getObject(1));
+            }
+            if (ids.size() != sqlFieldValues.size()) {
+                throw new JdbcDaoException("%d generated keys returned for %d rows inserted into %s"
+                        .formatted(ids.size(), sqlFieldValues.size(), tableName),
+                        "Set 'db.dialect' to the dialect of the database, the standard dialect inserts one row at a time");
+            }
+            return ids;
         } catch (SQLException e) {
-            throw new RuntimeException(e);
+            throw new JdbcDaoException("Can not insert into " + tableName, e);
         }
     }
 
     private Connection getConnection() {
+        if (Objects.isNull(connection) && Objects.nonNull(connectionProvider)) {
+            connection = connectionProvider.get();
+        }
         if (Objects.isNull(connection)) {
             throw new TransactionException("Transaction was not open", "Begin transaction before persist operations");
         }
@@ -169,6 +407,212 @@ public class JdbcDao {
         this.connection = connection;
     }
 
+    private Connection getWriteConnection() {
+        if (readOnly) {
+            throw new TransactionException("Transaction is read-only", "Begin a transaction which is not read-only to change the data");
+        }
+        return getConnection();
+    }
+
+    /**
+     * @param readOnly true while a read-only transaction is active
+     */
+    public void setReadOnly(boolean readOnly) {
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * <p>Returns the connection for a read statement. Inside of transaction it is the transaction connection. Outside of
+     * transaction a read connection, a replica one if the data source routes reads, is borrowed in auto-commit
+     * read-only mode and returned when the outermost read is finished, reads nested into the row hydration share it.</p>
+     *
+     * @return {@link ReadConnection} to close after the statement
+     * @throws SQLException if the connection can not be borrowed
+     */
+    private ReadConnection openReadConnection() throws SQLException {
+        if (Objects.nonNull(connection) || Objects.nonNull(connectionProvider) || Objects.isNull(dataSource)) {
+            return new ReadConnection(getConnection(), false);
+        }
+        if (closed) {
+            throw new TransactionException("Entity manager closed", "Load lazy associations before closing entity manager");
+        }
+        if (Objects.isNull(readConnection)) {
+            readConnection = borrowReadConnection(dataSource);
+        }
+        readConnectionDepth++;
+        return new ReadConnection(readConnection, true);
+    }
+
+    /**
+     * <p>Borrows a connection of a replica, or of the primary without replicas, in auto-commit read-only mode.</p>
+     *
+     * @param dataSource {@link DataSource} of the entity manager
+     * @return read-only connection to close after the reads
+     * @throws SQLException if the connection can not be borrowed
+     */
+    private Connection borrowReadConnection(DataSource dataSource) throws SQLException {
+        long acquisitionStart = System.nanoTime();
+        Connection borrowed = RoutingDataSource.getReadConnection(dataSource);
+        statistics.recordConnectionAcquisition(System.nanoTime() - acquisitionStart);
+        try {
+            borrowed.setAutoCommit(true);
+            borrowed.setReadOnly(true);
+        } catch (SQLException exception) {
+            borrowed.close();
+            throw exception;
+        }
+        return borrowed;
+    }
+
+    /**
+     * <p>Stops reads outside of transaction once the entity manager is closed.</p>
+     */
+    public void close() {
+        this.closed = true;
+    }
+
+    private PreparedStatement prepareStatement(Connection connection, String query) throws SQLException {
+        PreparedStatement preparedStatement = connection.prepareStatement(query);
+        statistics.recordStatementPrepared();
+        return preparedStatement;
+    }
+
+    private void recordFetch(String sql, Class<?> entityType, int rows, long fetchStart, HydrationEvent event) {
+        event.finish(entityType, rows);
+        statistics.recordRowsRead(rows);
+        statistics.recordQueryFetch(sql, System.nanoTime() - fetchStart);
+    }
+
+    private ResultSet executeQuery(PreparedStatement preparedStatement, String sql) throws SQLException {
+        return executeQuery(preparedStatement, sql, NO_PARAMETERS);
+    }
+
+    /**
+     * <p>Executes the query of one bind value, which is copied for the {@link NPlusOneDetector} only if it records.</p>
+     */
+    private ResultSet executeQuery(PreparedStatement preparedStatement, String sql, Object parameter) throws SQLException {
+        var parameters = nPlusOneDetector.isRecording() ? new Object[]{parameter} : NO_PARAMETERS;
+        return executeQuery(preparedStatement, sql, parameters);
+    }
+
+    private ResultSet executeQuery(PreparedStatement preparedStatement, String sql, Object[] parameters) throws SQLException {
+        nPlusOneDetector.record(sql, association, parameters, JdbcDao::findCaller);
+        var event = StatementExecutionEvent.start();
+        long start = System.nanoTime();
+        ResultSet resultSet = preparedStatement.executeQuery();
+        recordExecution(sql, preparedStatement, start, event, 1, -1);
+        return resultSet;
+    }
+
+    /**
+     * <p>Runs the loader of the association declared by the field, so the queries it issues are reported by the
+     * {@link NPlusOneDetector} together with the association.</p>
+     */
+    private <R> R loadAssociation(Field field, Supplier<R> loader) {
+        var previous = association;
+        association = field.getDeclaringClass().getSimpleName() + "." + field.getName();
+        try {
+            return loader.get();
+        } finally {
+            association = previous;
+        }
+    }
+
+    /**
+     * <p>Records the execute time of the SQL shape and logs the statement if it is slower than the slow query
+     * threshold. The statement is logged as rendered by the driver, which includes the bind values.</p>
+     */
+    private void recordExecution(String sqlShape, Object statement, long start, StatementExecutionEvent event,
+                                 int batchSize, long updatedRows) {
+        recordExecutionTime(sqlShape, statement, System.nanoTime() - start, event, batchSize, updatedRows);
+    }
+
+    /**
+     * <p>Checks whether the SQL shape of the executed statement is read by the statistics, the JFR event or the slow
+     * query log, so the shape of a statement with inlined values is built only when it is needed.</p>
+     */
+    private boolean isSqlShapeNeeded(StatementExecutionEvent event, long nanos) {
+        event.end();
+        return statistics.isEnabled() || event.shouldCommit() || statistics.isSlowQuery(nanos);
+    }
+
+    private void recordExecutionTime(String sqlShape, Object statement, long nanos, StatementExecutionEvent event,
+                                     int batchSize, long updatedRows) {
+        recordExecutionTime(sqlShape, statement, nanos, event, batchSize, updatedRows, JdbcDao::findCaller);
+    }
+
+    /**
+     * <p>Records the execution of the statement. The caller of the slow query log is supplied by the thread which
+     * issued the statement, e.g. the application thread of a background query.</p>
+     */
+    private void recordExecutionTime(String sqlShape, Object statement, long nanos, StatementExecutionEvent event,
+                                     int batchSize, long updatedRows, Supplier<String> caller) {
+        event.finish(sqlShape, batchSize, updatedRows);
+        statistics.recordStatementsExecuted(batchSize);
+        if (sqlShape == null) {
+            return;
+        }
+        statistics.recordQueryExecution(sqlShape, nanos);
+        if (statistics.isSlowQuery(nanos)) {
+            logger.warn("Slow query ({} ms): {} | statement: {} | caller: {}",
+                    TimeUnit.NANOSECONDS.toMillis(nanos), sqlShape, statement, caller.get());
+        }
+    }
+
+    /**
+     * @return the first stack frame outside the bibernate classes and entity proxies, or 'unknown' for the background threads
+     */
+    private static String findCaller() {
+        var libraryLocation = getCodeLocation(JdbcDao.class);
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> !EntityProxy.class.isAssignableFrom(frame.getDeclaringClass()))
+                .filter(frame -> {
+                    var location = getCodeLocation(frame.getDeclaringClass());
+                    return Objects.nonNull(location) && !location.equals(libraryLocation);
+                })
+                .findFirst()
+                .map(frame -> frame.toStackTraceElement().toString())
+                .orElse("unknown"));
+    }
+
+    private static String getCodeLocation(Class<?> type) {
+        var codeSource = type.getProtectionDomain().getCodeSource();
+        return Objects.isNull(codeSource) || Objects.isNull(codeSource.getLocation()) ? null : codeSource.getLocation().toString();
+    }
+
+    private final class ReadConnection implements AutoCloseable {
+        private final Connection connection;
+        private final boolean borrowed;
+
+        private ReadConnection(Connection connection, boolean borrowed) {
+            this.connection = connection;
+            this.borrowed = borrowed;
+        }
+
+        private Connection get() {
+            return connection;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (borrowed && --readConnectionDepth == 0) {
+                readConnection = null;
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * @param connectionProvider {@link Supplier} of the connection called by the first statement when no connection is set
+     */
+    public void setConnectionProvider(Supplier<Connection> connectionProvider) {
+        this.connectionProvider = connectionProvider;
+    }
+
+    public void setParallelHydration(boolean parallelHydration) {
+        this.parallelHydration = parallelHydration;
+    }
+
     /**
      * <p>Finds an entity by its identifier</p>
      *
@@ -183,6 +627,282 @@ public class JdbcDao {
         return findOneBy(entityType, tableName, idField, identifier);
     }
 
+    /**
+     * <p>Finds an entity by its identifier using the compiled fetch plan of an entity graph.
+     * Join fetched associations are loaded by the same query and added to the persistence context.</p>
+     *
+     * @param entityType {@link Class} the class of the entity to find
+     * @param identifier {@link Object} the identifier of the entity to find
+     * @param plan       {@link FetchPlan} compiled plan of the entity graph
+     * @param <T>        the type of the entity to find
+     * @return the entity if found, null otherwise
+     */
+    public <T> T findByIdentifier(Class<T> entityType, Object identifier, FetchPlan plan) {
+        var root = plan.root();
+        var idColumn = DaoUtils.getColumnName(DaoUtils.getIdentifierField(entityType));
+        var selectQuery = QueryUtils.buildWhereColumnQuery(plan.selectQuery(), root.tableAlias(), idColumn);
+        List<T> resultList = findAllByPlan(entityType, plan, selectQuery, List.of(ParameterBinder.of(0)),
+                new Object[]{identifier}, true, null);
+        return resultList.isEmpty() ? null : resultList.get(0);
+    }
+
+    /**
+     * <p>Executes the compiled query plan. Root entities which are already managed are returned as they are,
+     * new root entities are added to the persistence context together with their join fetched associations
+     * unless the query is read only.</p>
+     *
+     * @param entityType {@link Class} the class of the queried entities
+     * @param plan       {@link QueryPlan} compiled plan of the query shape
+     * @param values     parameter values of the query
+     * @param readOnly   true to leave new root entities and their associations out of the persistence context
+     * @param <T>        the type of the queried entities
+     * @return a list {@link List} of distinct root entities in the order of the result set
+     */
+    public <T> List<T> findAll(Class<T> entityType, QueryPlan plan, Object[] values, boolean readOnly) {
+        return findAllByPlan(entityType, plan.fetchPlan(), plan.sql(), plan.binders(), values, !readOnly, null);
+    }
+
+    /**
+     * <p>Executes the compiled query plan locking the rows of the root entities until the end of the transaction.
+     * Found entities become managed. In {@link LockMode#SKIP_LOCKED} mode rows locked by other transactions are
+     * left out of the result, which for the databases without <code>SKIP LOCKED</code> means that the result is empty
+     * when any of the rows is locked.</p>
+     *
+     * @param entityType  {@link Class} the class of the queried entities
+     * @param plan        {@link QueryPlan} compiled plan of the query shape
+     * @param values      parameter values of the query
+     * @param lockOptions {@link LockOptions} lock mode and timeout
+     * @param <T>         the type of the queried entities
+     * @return a list {@link List} of distinct locked root entities in the order of the result set
+     * @throws PessimisticLockException if the rows can not be locked
+     */
+    public <T> List<T> findAllLocked(Class<T> entityType, QueryPlan plan, Object[] values, LockOptions lockOptions) {
+        return findAllByPlan(entityType, plan.fetchPlan(), plan.sql(), plan.binders(), values, true, lockOptions);
+    }
+
+    /**
+     * @return {@link Dialect} of the database of the transaction connection
+     */
+    public Dialect getDialect() {
+        return getDialect(getConnection());
+    }
+
+    private Dialect getDialect(Connection connection) {
+        if (Objects.isNull(dialect)) {
+            dialect = dialectResolver.apply(connection);
+        }
+        return dialect;
+    }
+
+    /**
+     * <p>Returns the lock timeout of the locked query: the timeout of the options, or the shortest one which emulates
+     * <code>NOWAIT</code> and <code>SKIP LOCKED</code> on the databases without them.</p>
+     *
+     * @throws JdbcDaoException if the database can not set the lock timeout the options need
+     */
+    private static Duration getLockTimeout(Dialect dialect, LockOptions lockOptions) {
+        var timeout = lockOptions.timeout();
+        if (!dialect.isSkipLockedSupported()
+                && (lockOptions.mode() == LockMode.NOWAIT || lockOptions.mode() == LockMode.SKIP_LOCKED)) {
+            timeout = Duration.ZERO;
+        }
+        if (Objects.nonNull(timeout) && !dialect.isLockTimeoutSupported()) {
+            throw new JdbcDaoException("%s lock%s is not supported by %s".formatted(lockOptions.mode(),
+                    Objects.isNull(lockOptions.timeout()) ? "" : " with timeout", dialect.getClass().getSimpleName()),
+                    "Lock in PESSIMISTIC_READ or PESSIMISTIC_WRITE mode without timeout");
+        }
+        return timeout;
+    }
+
+    /**
+     * <p>Executes the locked query with the lock timeout of the options. The lock timeout is restored after the query,
+     * a failure to restore it after the failed query is suppressed, so the lock failure reaches the caller.</p>
+     */
+    private ResultSet executeLocked(PreparedStatement preparedStatement, String sql, Object[] parameters,
+                                    LockOptions lockOptions) throws SQLException {
+        var dialect = getDialect();
+        var timeout = getLockTimeout(dialect, lockOptions);
+        if (Objects.isNull(timeout)) {
+            return executeQuery(preparedStatement, sql, parameters);
+        }
+        var timeoutStatement = dialect.buildLockTimeoutStatement(timeout);
+        var connection = preparedStatement.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            Object previousTimeout = null;
+            var timeoutQuery = dialect.buildLockTimeoutQuery();
+            if (Objects.nonNull(timeoutQuery)) {
+                ResultSet resultSet = statement.executeQuery(timeoutQuery);
+                resultSet.next();
+                previousTimeout = resultSet.getObject(1);
+            }
+            statement.execute(timeoutStatement);
+            var resetStatement = dialect.buildLockTimeoutResetStatement(previousTimeout);
+            ResultSet resultSet;
+            try {
+                resultSet = executeQuery(preparedStatement, sql, parameters);
+            } catch (SQLException exception) {
+                try {
+                    statement.execute(resetStatement);
+                } catch (SQLException resetException) {
+                    exception.addSuppressed(resetException);
+                }
+                throw exception;
+            }
+            statement.execute(resetStatement);
+            return resultSet;
+        }
+    }
+
+    /**
+     * <p>Executes the select query built from the fetch plan and hydrates distinct root entities together with
+     * their join fetched associations. Rows of a join fetched collection are collected into the list of their owner.</p>
+     *
+     * @param entityType  {@link Class} the class of the root entities
+     * @param plan        {@link FetchPlan} compiled plan of the entity graph
+     * @param selectQuery {@link String} select query of the plan with the condition
+     * @param binders     {@link List} binders of the query parameters
+     * @param values      values of the query parameters
+     * @param attach      true to add new root entities to the persistence context
+     * @param <T>         the type of the root entities
+     * @return a list {@link List} of distinct root entities in the order of the result set
+     */
+    private <T> List<T> findAllByPlan(Class<T> entityType, FetchPlan plan, String selectQuery, List<ParameterBinder> binders,
+                                      Object[] values, boolean attach, LockOptions lockOptions) {
+        var idLabel = plan.root().label(DaoUtils.getColumnName(DaoUtils.getIdentifierField(entityType)));
+        Map<Object, T> roots = new LinkedHashMap<>();
+        Set<Object> managedIds = new HashSet<>();
+        if (Objects.nonNull(lockOptions)) {
+            var dialect = getDialect(getWriteConnection());
+            getLockTimeout(dialect, lockOptions);
+            selectQuery = selectQuery + " " + dialect.buildLockClause(lockOptions.mode(), plan.root().tableAlias());
+        }
+        try (ReadConnection readConnection = Objects.isNull(lockOptions) ? openReadConnection()
+                : new ReadConnection(getWriteConnection(), false);
+             PreparedStatement preparedStatement = prepareStatement(readConnection.get(), selectQuery)) {
+            for (int i = 0; i < binders.size(); i++) {
+                binders.get(i).bind(preparedStatement, i + 1, values);
+            }
+            logger.info("SQL: {}", preparedStatement);
+            ResultSet resultSet = Objects.isNull(lockOptions) ? executeQuery(preparedStatement, selectQuery, values)
+                    : executeLocked(preparedStatement, selectQuery, values, lockOptions);
+            var hydrationEvent = HydrationEvent.start();
+            long fetchStart = System.nanoTime();
+            int rows = 0;
+            while (resultSet.next()) {
+                rows++;
+                var rootId = resultSet.getObject(idLabel);
+                if (managedIds.contains(rootId)) {
+                    continue;
+                }
+                T entity = roots.get(rootId);
+                if (entity == null) {
+                    var managed = context.getCache().get(EntityKey.of(entityType, rootId));
+                    if (Objects.nonNull(managed)) {
+                        roots.put(rootId, entityType.cast(managed));
+                        managedIds.add(rootId);
+                        continue;
+                    }
+                    entity = createEntityFromResultSet(entityType, resultSet, Collections.emptySet(), plan.root(),
+                            plan.attributes(), attach);
+                    for (JoinMapping join : plan.joins()) {
+                        var value = join.collection() ? new ArrayList<>() : createJoinedEntity(resultSet, join, null, attach);
+                        setValueToField(entity, join.field(), value);
+                    }
+                    roots.put(rootId, entity);
+                    if (attach) {
+                        addEntityToContext(entity);
+                    }
+                }
+                for (JoinMapping join : plan.joins()) {
+                    if (join.collection()) {
+                        addJoinedElement(resultSet, join, entity, attach);
+                    }
+                }
+            }
+            recordFetch(selectQuery, entityType, rows, fetchStart, hydrationEvent);
+        } catch (SQLException exception) {
+            if (Objects.nonNull(lockOptions) && LockFailureExceptionOverride.isLockFailure(exception)) {
+                if (lockOptions.mode() == LockMode.SKIP_LOCKED) {
+                    return new ArrayList<>();
+                }
+                throw new PessimisticLockException(entityType.getSimpleName(), exception);
+            }
+            throw new JdbcDaoException("Error occurred while executing fetch plan query", exception);
+        }
+        return new ArrayList<>(roots.values());
+    }
+
+    private void addJoinedElement(ResultSet resultSet, JoinMapping join, Object owner, boolean attach) throws SQLException {
+        var element = createJoinedEntity(resultSet, join, owner, attach);
+        if (Objects.nonNull(element)) {
+            var elements = (List<Object>) DaoUtils.getFieldValue(owner, join.field());
+            if (elements.stream().noneMatch(existing -> existing == element)) {
+                elements.add(element);
+            }
+        }
+    }
+
+    /**
+     * <p>Creates the joined entity from the columns of the joined table, returning the managed instance if the entity
+     * is already in the persistence context. New entities are added to the persistence context if the root is attached.</p>
+     *
+     * @param resultSet {@link ResultSet} current row of the fetch plan query
+     * @param join      {@link JoinMapping} the join fetched association
+     * @param owner     {@link Object} the owner of the collection element or null for to-one associations
+     * @param attach    true to add the new joined entity to the persistence context
+     * @return joined entity or null if the row has no joined entity
+     */
+    private Object createJoinedEntity(ResultSet resultSet, JoinMapping join, Object owner, boolean attach) throws SQLException {
+        var table = join.table();
+        var joinedType = table.entityType();
+        var joinedId = resultSet.getObject(table.label(DaoUtils.getColumnName(DaoUtils.getIdentifierField(joinedType))));
+        if (Objects.isNull(joinedId)) {
+            return null;
+        }
+        var entityKey = EntityKey.of(joinedType, joinedId);
+        if (context.getCache().containsKey(entityKey)) {
+            return context.getCache().get(entityKey);
+        }
+        Set<Field> fieldsToSkip = join.collection() ? Collections.singleton(join.backReference()) : Collections.emptySet();
+        var joinedEntity = createEntityFromResultSet(joinedType, resultSet, fieldsToSkip, table, Map.of(), attach);
+        if (join.collection()) {
+            setValueToField(joinedEntity, join.backReference(), owner);
+        }
+        if (attach) {
+            addEntityToContext(joinedEntity);
+        }
+        return joinedEntity;
+    }
+
+    /**
+     * <p>Finds entities by their identifiers using chunked <code>WHERE id IN (...)</code> queries.
+     * The number of parameters of each query is padded to one of a few fixed sizes, so only a few different statements are used.</p>
+     *
+     * @param entityType  {@link Class} the class of the entities to find
+     * @param tableName   {@link String} the name of the table in which to search for the entities
+     * @param identifiers {@link Collection} distinct identifiers of the entities to find
+     * @param <T>         the type of the entities to find
+     * @return a map {@link Map} of the identifiers to the found entities, missing identifiers are absent
+     */
+    public <T> Map<Object, T> findAllByIdentifiers(Class<T> entityType, String tableName, Collection<?> identifiers) {
+        Field idField = DaoUtils.getIdentifierField(entityType);
+        List<Object> identifierList = new ArrayList<>(identifiers);
+        Map<Object, T> result = new HashMap<>();
+        for (int from = 0; from < identifierList.size(); from += MAX_IN_CLAUSE_SIZE) {
+            var chunk = identifierList.subList(from, Math.min(from + MAX_IN_CLAUSE_SIZE, identifierList.size()));
+            findAllByIn(entityType, tableName, idField, chunk, getPaddedSize(chunk.size()), Collections.emptySet())
+                    .forEach((id, entities) -> result.put(id, entityType.cast(entities.get(0))));
+        }
+        return result;
+    }
+
+    private static int getPaddedSize(int size) {
+        return Arrays.stream(IN_CLAUSE_PADDING_SIZES)
+                .filter(paddedSize -> paddedSize >= size)
+                .findFirst()
+                .orElse(MAX_IN_CLAUSE_SIZE);
+    }
+
     /**
      * <p>Finds all entities of the given class that have a field with a given value</p>
      *
@@ -195,23 +915,180 @@ public class JdbcDao {
      * @return a list {@link List} of entities that have the given value in the given field
      */
     public <T> List<T> findAllBy(Class<T> entityType, String tableName, Field field, Object columnValue, Set<Field> fieldsToSkip) {
+        return findAllBy(entityType, tableName, field, columnValue, fieldsToSkip, true);
+    }
+
+    /**
+     * <p>Finds all entities of the given class that have a field with a given value. Associations of entities which are
+     * not attached are loaded without registering them in the persistence context.</p>
+     *
+     * @param entityType   {@link Class} the class of the entity to find
+     * @param tableName    {@link String} the name of the table in which to search for the entities
+     * @param field        {@link Field} the field in which to search for the value
+     * @param columnValue  {@link Object} the value to search for
+     * @param fieldsToSkip set of {@link Field}s to skip from loading to exclude circular dependency.
+     * @param attach       false if the found entities and their associations stay out of the persistence context
+     * @param <T>          the type of the entity to find
+     * @return a list {@link List} of entities that have the given value in the given field
+     */
+    private <T> List<T> findAllBy(Class<T> entityType, String tableName, Field field, Object columnValue,
+                                  Set<Field> fieldsToSkip, boolean attach) {
         var columnName = DaoUtils.getColumnName(field);
         String selectQuery = QueryUtils.buildSelectQuery(tableName, columnName);
         final var cause = String.format("Error occurred while executing 'SELECT BY %s' statement", columnName);
         var list = new ArrayList<T>();
-        try (PreparedStatement preparedStatement = getConnection().prepareStatement(selectQuery)) {
+        try (ReadConnection readConnection = openReadConnection();
+             PreparedStatement preparedStatement = prepareStatement(readConnection.get(), selectQuery)) {
             preparedStatement.setObject(1, columnValue);
-            ResultSet resultSet = preparedStatement.executeQuery();
+            ResultSet resultSet = executeQuery(preparedStatement, selectQuery, columnValue);
+            var hydrationEvent = HydrationEvent.start();
+            long fetchStart = System.nanoTime();
+            if (parallelHydration) {
+                var entities = hydrateInParallel(entityType, resultSet, fieldsToSkip, attach);
+                recordFetch(selectQuery, entityType, entities.size(), fetchStart, hydrationEvent);
+                return entities;
+            }
             while (resultSet.next()) {
-                var entity = createEntityFromResultSet(entityType, resultSet, fieldsToSkip);
+                var entity = createEntityFromResultSet(entityType, resultSet, fieldsToSkip,
+                        TableMapping.direct(entityType), Map.of(), attach);
                 list.add(entity);
             }
+            recordFetch(selectQuery, entityType, list.size(), fetchStart, hydrationEvent);
         } catch (SQLException exception) {
             throw new JdbcDaoException(cause, exception);
         }
         return list;
     }
 
+    /**
+     * <p>Hydrates the rows of the result set in three stages. The calling thread reads raw column values of every row
+     * and hands them over in chunks to the common fork-join pool, which creates the entities and converts their column
+     * values in parallel while the next rows are read. Associations are then resolved on the calling thread in the row
+     * order, because they use the connection and the persistence context. Only the foreign keys of the raw rows are
+     * kept until then, so the raw values of a chunk are released once its entities are created.</p>
+     *
+     * @param entityType   {@link Class} the class of the entities
+     * @param resultSet    {@link ResultSet} rows of the entity table
+     * @param fieldsToSkip set of {@link Field}s to skip from loading to exclude circular dependency.
+     * @param attach       false if the associations of the entities stay out of the persistence context
+     * @param <T>          the type of the entities
+     * @return a list {@link List} of the entities in the order of the result set
+     */
+    private <T> List<T> hydrateInParallel(Class<T> entityType, ResultSet resultSet, Set<Field> fieldsToSkip,
+                                          boolean attach) throws SQLException {
+        var fields = Arrays.stream(entityType.getDeclaredFields())
+                .filter(field -> fieldsToSkip == null || !fieldsToSkip.contains(field))
+                .filter(field -> !isEntityCollectionField(field))
+                .toList();
+        fields.forEach(field -> field.setAccessible(true));
+        var columnLabels = fields.stream()
+                .map(field -> isEntityField(field) ? DaoUtils.resolveFieldName(field) : DaoUtils.getColumnName(field))
+                .toArray(String[]::new);
+        var foreignKeyIndexes = IntStream.range(0, fields.size()).filter(i -> isEntityField(fields.get(i))).toArray();
+        List<Object[]> foreignKeys = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        List<CompletableFuture<List<T>>> chunks = new ArrayList<>();
+        while (resultSet.next()) {
+            var row = new Object[columnLabels.length];
+            for (int i = 0; i < columnLabels.length; i++) {
+                row[i] = resultSet.getObject(columnLabels[i]);
+            }
+            if (foreignKeyIndexes.length > 0) {
+                var keys = new Object[foreignKeyIndexes.length];
+                for (int i = 0; i < foreignKeyIndexes.length; i++) {
+                    keys[i] = row[foreignKeyIndexes[i]];
+                }
+                foreignKeys.add(keys);
+            }
+            rows.add(row);
+            if (rows.size() == HYDRATION_CHUNK_SIZE) {
+                chunks.add(hydrateChunk(entityType, fields, rows));
+                rows = new ArrayList<>();
+            }
+        }
+        if (!rows.isEmpty()) {
+            chunks.add(hydrateChunk(entityType, fields, rows));
+        }
+        var entities = new ArrayList<T>();
+        for (CompletableFuture<List<T>> chunk : chunks) {
+            try {
+                entities.addAll(chunk.join());
+            } catch (CompletionException exception) {
+                if (exception.getCause() instanceof CommonException commonException) {
+                    throw commonException;
+                }
+                throw exception;
+            }
+        }
+        statistics.recordEntitiesLoaded(entityType, entities.size());
+        for (int row = 0; row < entities.size(); row++) {
+            var entity = entities.get(row);
+            for (int i = 0; i < foreignKeyIndexes.length; i++) {
+                var field = fields.get(foreignKeyIndexes[i]);
+                setValueToField(entity, field, getSingleEntityFieldValue(field, foreignKeys.get(row)[i], null, attach));
+            }
+            for (var field : entityType.getDeclaredFields()) {
+                if (isEntityCollectionField(field) && (fieldsToSkip == null || !fieldsToSkip.contains(field))) {
+                    field.setAccessible(true);
+                    setValueToField(entity, field, getCollectionEntityFieldValue(entityType, entity, field, null, attach));
+                }
+            }
+        }
+        return entities;
+    }
+
+    private static <T> CompletableFuture<List<T>> hydrateChunk(Class<T> entityType, List<Field> fields, List<Object[]> rows) {
+        return CompletableFuture.supplyAsync(() -> rows.parallelStream()
+                .map(row -> createEntityFromColumns(entityType, fields, row))
+                .toList());
+    }
+
+    private static <T> T createEntityFromColumns(Class<T> entityType, List<Field> fields, Object[] row) {
+        T entity = DaoUtils.createEntityInstance(entityType);
+        for (int i = 0; i < fields.size(); i++) {
+            var field = fields.get(i);
+            if (DaoUtils.isRegularField(field)) {
+                setValueToField(entity, field, convertColumnValue(field, row[i]));
+            }
+        }
+        return entity;
+    }
+
+    /**
+     * <p>Selects only the projected columns and maps each row straight to the projection result.
+     * No entities are created and the persistence context is not touched.</p>
+     *
+     * @param mapper      {@link ProjectionMapper} compiled projection
+     * @param tableName   {@link String} the name of the table of the projected entity
+     * @param field       {@link Field} the field in which to search for the value, null to select all rows
+     * @param columnValue {@link Object} the value to search for
+     * @param <R>         the type of the projection result
+     * @return a list {@link List} of projection results
+     */
+    public <R> List<R> findAllProjected(ProjectionMapper<R> mapper, String tableName, Field field, Object columnValue) {
+        var columnName = field == null ? null : DaoUtils.getColumnName(field);
+        String selectQuery = QueryUtils.buildSelectColumnsQuery(mapper.getSelectColumns(), tableName, columnName);
+        var list = new ArrayList<R>();
+        try (ReadConnection readConnection = openReadConnection();
+             PreparedStatement preparedStatement = prepareStatement(readConnection.get(), selectQuery)) {
+            if (field != null) {
+                preparedStatement.setObject(1, columnValue);
+            }
+            logger.info("SQL: {}", preparedStatement);
+            ResultSet resultSet = field == null ? executeQuery(preparedStatement, selectQuery)
+                    : executeQuery(preparedStatement, selectQuery, columnValue);
+            var hydrationEvent = HydrationEvent.start();
+            long fetchStart = System.nanoTime();
+            while (resultSet.next()) {
+                list.add(mapper.map(resultSet));
+            }
+            recordFetch(selectQuery, null, list.size(), fetchStart, hydrationEvent);
+        } catch (SQLException exception) {
+            throw new JdbcDaoException("Error occurred while executing projection query", exception);
+        }
+        return list;
+    }
+
     /**
      * <p>Finds an entity of the given class that has a field with a given value</p>
      *
@@ -247,13 +1124,26 @@ public class JdbcDao {
             var tableName = DaoUtils.getClassTableName(entity.getClass());
             var identifierName = DaoUtils.getIdentifierFieldName(entity.getClass());
             var identifierValue = DaoUtils.getIdentifierValue(entity);
-            var deleteQuery = QueryUtils.buildDeleteQuery(tableName, identifierName);
-            try (PreparedStatement preparedStatement = getConnection().prepareStatement(deleteQuery)) {
+            var versionField = DaoUtils.getVersionField(entity.getClass());
+            var deleteQuery = versionField == null ? QueryUtils.buildDeleteQuery(tableName, identifierName)
+                    : QueryUtils.buildDeleteQuery(tableName, identifierName, DaoUtils.getColumnName(versionField));
+            try (PreparedStatement preparedStatement = prepareStatement(getWriteConnection(), deleteQuery)) {
                 preparedStatement.setObject(1, identifierValue);
+                if (versionField != null) {
+                    preparedStatement.setObject(2, DaoUtils.getFieldValue(entity, versionField));
+                }
                 logger.info("SQL: {}", preparedStatement);
-                if (preparedStatement.executeUpdate() != 1) {
+                var event = StatementExecutionEvent.start();
+                long start = System.nanoTime();
+                int deleted = preparedStatement.executeUpdate();
+                recordExecution(deleteQuery, preparedStatement, start, event, 1, deleted);
+                if (deleted != 1) {
+                    if (versionField != null) {
+                        throw new OptimisticLockException(entity.getClass().getSimpleName(), identifierValue);
+                    }
                     throw new JdbcDaoException(cause);
                 }
+                statistics.recordEntityDeleted(entity.getClass());
                 context.removeFromCache(entity.getClass(), identifierValue);
                 context.removeSnapshot(entity.getClass(), identifierValue);
             } catch (SQLException exception) {
@@ -294,25 +1184,47 @@ public class JdbcDao {
      * @return {@link Object} returns the entity representation of the sql row entry in database
      */
     public <T> T createEntityFromResultSet(Class<T> entityType, ResultSet resultSet, Set<Field> fieldsToSkip) throws SQLException {
+        return createEntityFromResultSet(entityType, resultSet, fieldsToSkip, TableMapping.direct(entityType), Map.of(), true);
+    }
+
+    /**
+     * <p>creates a Java object of a given entity class from the columns of one table in the ResultSet.
+     * Associations named in the attributes are loaded as defined by their fetch mode, join fetched associations are skipped
+     * and have to be set by the caller.</p>
+     *
+     * @param entityType   {@link Class} A class object representing the type of the entity to be created.
+     * @param resultSet    {@link ResultSet} object representing the result set obtained from a database query.
+     * @param fieldsToSkip set of {@link Field}s to skip from loading to exclude circular dependency.
+     * @param table        {@link TableMapping} labels of the entity columns in the result set
+     * @param attributes   {@link Map} entity graph attributes by association names
+     * @param attach       false if the associations stay out of the persistence context, e.g. of the streamed entities
+     * @return {@link Object} returns the entity representation of the sql row entry in database
+     */
+    private <T> T createEntityFromResultSet(Class<T> entityType, ResultSet resultSet, Set<Field> fieldsToSkip,
+                                            TableMapping table, Map<String, AttributeNode> attributes,
+                                            boolean attach) throws SQLException {
         T entity;
         try {
             Constructor<T> constructor = entityType.getConstructor();
             entity = constructor.newInstance();
             for (var field : entityType.getDeclaredFields()) {
-                if (fieldsToSkip == null || fieldsToSkip.isEmpty() || !fieldsToSkip.contains(field)) {
+                var node = attributes.get(field.getName());
+                var isJoinFetched = node != null && node.mode() == FetchMode.JOIN;
+                if ((fieldsToSkip == null || fieldsToSkip.isEmpty() || !fieldsToSkip.contains(field)) && !isJoinFetched) {
                     field.setAccessible(true);
                     if (DaoUtils.isRegularField(field)) {
                         logger.debug("Setting regular column field");
-                        field.set(entity, setSimpleFieldValue(resultSet, field));
+                        field.set(entity, setSimpleFieldValue(resultSet, field, table));
                     } else if (isEntityField(field)) {
                         logger.debug("Setting toOne related entity");
-                        field.set(entity, getSingleEntityFieldValue(resultSet, field));
+                        field.set(entity, getSingleEntityFieldValue(resultSet, field, table, node, attach));
                     } else if (isEntityCollectionField(field)) {
                         logger.debug("Setting lazy list for toMany related entities");
-                        field.set(entity, getCollectionEntityFieldValue(entityType, entity, field));
+                        field.set(entity, getCollectionEntityFieldValue(entityType, entity, field, node, attach));
                     }
                 }
             }
+            statistics.recordEntitiesLoaded(entityType, 1);
         } catch (InstantiationException exception) {
             throw new RuntimeException("It's not possible to create an instance of a class", exception);
         } catch (IllegalAccessException exception) {
@@ -326,10 +1238,13 @@ public class JdbcDao {
         return entity;
     }
 
-    private static Object setSimpleFieldValue(ResultSet resultSet, Field field) throws SQLException {
-        Object result;
+    private static Object setSimpleFieldValue(ResultSet resultSet, Field field, TableMapping table) throws SQLException {
         var columnName = DaoUtils.getColumnName(field);
-        Object columnValue = resultSet.getObject(columnName);
+        return convertColumnValue(field, resultSet.getObject(table.label(columnName)));
+    }
+
+    private static Object convertColumnValue(Field field, Object columnValue) {
+        Object result;
         if (columnValue instanceof Timestamp tms) {
             Class<?> fieldType = field.getType();
             if (fieldType == LocalDateTime.class) {
@@ -345,38 +1260,388 @@ public class JdbcDao {
         return result;
     }
 
-    private Object getSingleEntityFieldValue(ResultSet resultSet, Field field) throws SQLException {
+    private Object getSingleEntityFieldValue(ResultSet resultSet, Field field, TableMapping table, AttributeNode node,
+                                             boolean attach) throws SQLException {
+        var joinColumnName = DaoUtils.resolveFieldName(field);
+        return getSingleEntityFieldValue(field, resultSet.getObject(table.label(joinColumnName)), node, attach);
+    }
+
+    private Object getSingleEntityFieldValue(Field field, Object joinColumnValue, AttributeNode node, boolean attach) {
         var relatedEntityType = field.getType();
         var relatedEntityTableName = DaoUtils.getClassTableName(relatedEntityType);
-        var joinColumnName = DaoUtils.resolveFieldName(field);
-        var joinColumnValue = resultSet.getObject(joinColumnName);
-        Object relatedEntity = findByIdentifier(relatedEntityType, relatedEntityTableName, joinColumnValue);
-        String snapshotValues = DaoUtils.getSqlFieldValues(relatedEntity);
-        context.addToSnapshot(relatedEntity, joinColumnValue, snapshotValues);
-        context.addToCache(relatedEntity, joinColumnValue);
-        return relatedEntity;
+        var isLazy = node != null ? node.mode() == FetchMode.LAZY : DaoUtils.isEntityFieldIsLazy(field);
+        if (isLazy) {
+            return getLazyEntityFieldValue(field, relatedEntityTableName, joinColumnValue, attach);
+        }
+        if (Objects.isNull(joinColumnValue)) {
+            return null;
+        }
+        if (!attach) {
+            return findDetachedEntity(field, relatedEntityTableName, joinColumnValue);
+        }
+        return CacheUtils.processCache(EntityKey.of(relatedEntityType, joinColumnValue), context.getCache(), statistics, () -> {
+            Object relatedEntity = loadAssociation(field, () -> findByIdentifier(relatedEntityType, relatedEntityTableName, joinColumnValue));
+            if (Objects.nonNull(relatedEntity)) {
+                context.addToSnapshot(relatedEntity, joinColumnValue, DaoUtils.getSqlFieldValues(relatedEntity));
+            }
+            return relatedEntity;
+        });
+    }
+
+    /**
+     * <p>Returns the entity from the persistence context if it is already there, otherwise a proxy which holds only the foreign key.
+     * The proxy loads the entity from the persistence context or the database on the first access to a non-id property.</p>
+     *
+     * @param field                  {@link Field} the to-one field of the owner entity
+     * @param relatedEntityTableName {@link String} the table of the related entity
+     * @param joinColumnValue        {@link Object} the foreign key value
+     * @param attach                 false if the proxy of the not attached owner loads the entity out of the persistence context
+     * @return managed entity, proxy or null if the foreign key is null
+     */
+    private Object getLazyEntityFieldValue(Field field, String relatedEntityTableName, Object joinColumnValue, boolean attach) {
+        var relatedEntityType = field.getType();
+        if (Objects.isNull(joinColumnValue)) {
+            return null;
+        }
+        var entityKey = EntityKey.of(relatedEntityType, joinColumnValue);
+        if (context.getCache().containsKey(entityKey)) {
+            return context.getCache().get(entityKey);
+        }
+        if (!attach) {
+            return ProxyFactory.createProxy(relatedEntityType, joinColumnValue,
+                    () -> findDetachedEntity(field, relatedEntityTableName, joinColumnValue));
+        }
+        return ProxyFactory.createProxy(relatedEntityType, joinColumnValue, () -> CacheUtils.processCache(entityKey, context.getCache(), statistics, () -> {
+            Object relatedEntity = loadAssociation(field, () -> findByIdentifier(relatedEntityType, relatedEntityTableName, joinColumnValue));
+            if (Objects.nonNull(relatedEntity)) {
+                context.addToSnapshot(relatedEntity, joinColumnValue, DaoUtils.getSqlFieldValues(relatedEntity));
+            }
+            return relatedEntity;
+        }));
+    }
+
+    /**
+     * <p>Returns the entity referenced by the to-one field of a not attached owner. The managed entity is returned if it
+     * is in the persistence context, otherwise the entity is loaded without adding it to the persistence context.</p>
+     *
+     * @param field                  {@link Field} the to-one field of the owner entity
+     * @param relatedEntityTableName {@link String} the table of the related entity
+     * @param joinColumnValue        {@link Object} the foreign key value
+     * @return related entity or null if it is not found
+     */
+    private Object findDetachedEntity(Field field, String relatedEntityTableName, Object joinColumnValue) {
+        var relatedEntityType = field.getType();
+        var managed = context.getCache().get(EntityKey.of(relatedEntityType, joinColumnValue));
+        if (Objects.nonNull(managed)) {
+            return managed;
+        }
+        var idField = DaoUtils.getIdentifierField(relatedEntityType);
+        List<?> resultList = loadAssociation(field, () -> findAllBy(relatedEntityType, relatedEntityTableName, idField,
+                joinColumnValue, Collections.emptySet(), false));
+        return resultList.isEmpty() ? null : resultList.get(0);
     }
 
-    private <T> List<T> getCollectionEntityFieldValue(Class<T> entityType, T entity, Field field) {
+    private <T> List<T> getCollectionEntityFieldValue(Class<T> entityType, T entity, Field field, AttributeNode node,
+                                                      boolean attach) {
         List<T> resultList;
         var relatedEntityType = DaoUtils.getEntityCollectionElementType(field);
         var relatedEntityTableName = DaoUtils.getClassTableName(relatedEntityType);
         var entityFieldInRelatedEntity = DaoUtils.getRelatedEntityField(entityType, relatedEntityType);
         var entityId = DaoUtils.getIdentifierValue(entity);
         var relatedEntityFieldsToSkip = Collections.singleton(entityFieldInRelatedEntity);
-        if (DaoUtils.isEntityCollectionFieldIsLazy(field)) {
+        var isLazy = node != null || DaoUtils.isEntityCollectionFieldIsLazy(field);
+        var batchSize = node != null ? node.batchSize() : DaoUtils.getBatchSize(field);
+        var pageSize = node != null ? 0 : DaoUtils.getExtraLazyPageSize(field);
+        if (isLazy && pageSize > 0) {
+            var loader = new ExtraLazyCollectionLoader(relatedEntityType, relatedEntityTableName, entityFieldInRelatedEntity,
+                    entityId, relatedEntityFieldsToSkip);
+            resultList = (List<T>) new ExtraLazyList<>(loader, pageSize);
+        } else if (isLazy && batchSize > 1 && attach) {
+            var role = new CollectionRole(entityType, field.getName());
+            var lazyList = new LazyList<T>(() -> loadAssociation(field, () -> findAllInBatch(role, entityId, batchSize,
+                    relatedEntityType, relatedEntityTableName, entityFieldInRelatedEntity, relatedEntityFieldsToSkip)));
+            context.addPendingCollection(role, entityId, lazyList);
+            resultList = lazyList;
+        } else if (isLazy) {
             resultList = new LazyList<>(() -> {
-                List<?> entities = findAllBy(relatedEntityType, relatedEntityTableName, entityFieldInRelatedEntity, entityId, relatedEntityFieldsToSkip);
-                entities.forEach(this::addEntityToContext);
+                var event = CollectionInitializationEvent.start();
+                List<?> entities = loadAssociation(field, () -> findAllBy(relatedEntityType, relatedEntityTableName,
+                        entityFieldInRelatedEntity, entityId, relatedEntityFieldsToSkip, attach));
+                if (attach) {
+                    entities.forEach(this::addEntityToContext);
+                }
+                event.finish(relatedEntityType, 1, entities.size());
+                statistics.recordCollectionsInitialized(1);
                 return entities;
             });
         } else {
-            resultList = (List<T>) findAllBy(relatedEntityType, relatedEntityTableName, entityFieldInRelatedEntity, entityId, relatedEntityFieldsToSkip);
-            resultList.forEach(this::addEntityToContext);
+            resultList = (List<T>) findAllBy(relatedEntityType, relatedEntityTableName, entityFieldInRelatedEntity, entityId,
+                    relatedEntityFieldsToSkip, attach);
+            if (attach) {
+                resultList.forEach(this::addEntityToContext);
+            }
         }
         return resultList;
     }
 
+    /**
+     * <p>Loads the collection of the owner together with up to batchSize - 1 other not loaded collections of the same role
+     * using a single query. Loaded rows are distributed to the lazy lists of their owners.</p>
+     *
+     * @param role         {@link CollectionRole} role of the collection
+     * @param ownerId      {@link Object} identifier of the entity which collection is initialized
+     * @param batchSize    max number of collections loaded by one query
+     * @param entityType   {@link Class} the class of the collection elements
+     * @param tableName    {@link String} the table of the collection elements
+     * @param field        {@link Field} the field of the collection elements which references the owner
+     * @param fieldsToSkip set of {@link Field}s to skip from loading to exclude circular dependency.
+     * @return elements of the owner collection
+     */
+    private List<?> findAllInBatch(CollectionRole role, Object ownerId, int batchSize, Class<?> entityType,
+                                   String tableName, Field field, Set<Field> fieldsToSkip) {
+        var event = CollectionInitializationEvent.start();
+        var batch = context.getPendingCollections(role, ownerId, batchSize);
+        var ownerIds = new ArrayList<>(batch.keySet());
+        Map<Object, List<Object>> elementsByOwner = findAllByIn(entityType, tableName, field, ownerIds, batchSize, fieldsToSkip);
+        elementsByOwner.values().forEach(elements -> elements.forEach(this::addEntityToContext));
+        batch.forEach((id, lazyList) -> {
+            if (!id.equals(ownerId)) {
+                lazyList.initialize(elementsByOwner.getOrDefault(id, new ArrayList<>()));
+            }
+        });
+        context.removePendingCollections(role, ownerIds);
+        event.finish(entityType, batch.size(), elementsByOwner.values().stream().mapToInt(List::size).sum());
+        statistics.recordCollectionsInitialized(batch.size());
+        return elementsByOwner.getOrDefault(ownerId, new ArrayList<>());
+    }
+
+    /**
+     * <p>Finds all entities of the given class which field value is one of the given values and groups them by this value.
+     * The number of query parameters is padded to parametersCount by repeating the last value, so the same statement is reused.</p>
+     *
+     * @param entityType      {@link Class} the class of the entities to find
+     * @param tableName       {@link String} the name of the table in which to search for the entities
+     * @param field           {@link Field} the field in which to search for the values
+     * @param columnValues    {@link List} the values to search for
+     * @param parametersCount number of parameters of the generated query
+     * @param fieldsToSkip    set of {@link Field}s to skip from loading to exclude circular dependency.
+     * @return a map {@link Map} of the column values to the lists of found entities
+     */
+    private Map<Object, List<Object>> findAllByIn(Class<?> entityType, String tableName, Field field, List<Object> columnValues,
+                                                  int parametersCount, Set<Field> fieldsToSkip) {
+        var columnName = DaoUtils.getColumnName(field);
+        var columnValueType = columnValues.get(0).getClass();
+        String selectQuery = QueryUtils.buildSelectInQuery(tableName, columnName, parametersCount);
+        final var cause = String.format("Error occurred while executing 'SELECT BY %s IN' statement", columnName);
+        Map<Object, List<Object>> result = new HashMap<>();
+        try (ReadConnection readConnection = openReadConnection();
+             PreparedStatement preparedStatement = prepareStatement(readConnection.get(), selectQuery)) {
+            for (int i = 0; i < parametersCount; i++) {
+                preparedStatement.setObject(i + 1, columnValues.get(Math.min(i, columnValues.size() - 1)));
+            }
+            logger.info("SQL: {}", preparedStatement);
+            ResultSet resultSet = executeQuery(preparedStatement, selectQuery,
+                    nPlusOneDetector.isRecording() ? columnValues.toArray() : NO_PARAMETERS);
+            var hydrationEvent = HydrationEvent.start();
+            long fetchStart = System.nanoTime();
+            int rows = 0;
+            while (resultSet.next()) {
+                rows++;
+                var columnValue = resultSet.getObject(columnName, columnValueType);
+                var entity = createEntityFromResultSet(entityType, resultSet, fieldsToSkip);
+                result.computeIfAbsent(columnValue, key -> new ArrayList<>()).add(entity);
+            }
+            recordFetch(selectQuery, entityType, rows, fetchStart, hydrationEvent);
+        } catch (SQLException exception) {
+            throw new JdbcDaoException(cause, exception);
+        }
+        return result;
+    }
+
+    /**
+     * <p>Executes the select query and returns the managed instances of the found entities.
+     * Entities which are not in the persistence context yet are added to it.</p>
+     *
+     * @param entityType   {@link Class} the class of the entities to find
+     * @param selectQuery  {@link String} select query of all entity columns
+     * @param fieldsToSkip set of {@link Field}s to skip from loading to exclude circular dependency.
+     * @param parameters   values of the query parameters
+     * @return a list {@link List} of managed entities in the order of the result set
+     */
+    private List<Object> findAllManaged(Class<?> entityType, String selectQuery, Set<Field> fieldsToSkip, Object... parameters) {
+        try (ReadConnection readConnection = openReadConnection();
+             PreparedStatement preparedStatement = prepareStatement(readConnection.get(), selectQuery)) {
+            for (int i = 0; i < parameters.length; i++) {
+                preparedStatement.setObject(i + 1, parameters[i]);
+            }
+            logger.info("SQL: {}", preparedStatement);
+            ResultSet resultSet = executeQuery(preparedStatement, selectQuery, parameters);
+            var hydrationEvent = HydrationEvent.start();
+            long fetchStart = System.nanoTime();
+            var entities = readManaged(entityType, resultSet, fieldsToSkip);
+            recordFetch(selectQuery, entityType, entities.size(), fetchStart, hydrationEvent);
+            return entities;
+        } catch (SQLException exception) {
+            throw new JdbcDaoException("Error occurred while executing collection query", exception);
+        }
+    }
+
+    private List<Object> readManaged(Class<?> entityType, ResultSet resultSet, Set<Field> fieldsToSkip) throws SQLException {
+        var idColumn = DaoUtils.getColumnName(DaoUtils.getIdentifierField(entityType));
+        var list = new ArrayList<>();
+        while (resultSet.next()) {
+            var managed = context.getCache().get(EntityKey.of(entityType, resultSet.getObject(idColumn)));
+            if (Objects.nonNull(managed)) {
+                list.add(managed);
+            } else {
+                var entity = createEntityFromResultSet(entityType, resultSet, fieldsToSkip);
+                addEntityToContext(entity);
+                list.add(entity);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * <p>Starts loading the rows of the lazy collection in the background using a separate read connection of the data
+     * source, which is a replica connection if the data source has replicas. The rows are buffered in memory, the
+     * elements are created and added to the persistence context by the thread which first accesses the collection.
+     * Already managed elements are reused. The query is reported to the {@link NPlusOneDetector} by the calling thread.</p>
+     * <p>The background query does not see the changes which are not committed yet.</p>
+     *
+     * @param dataSource {@link DataSource} source of the separate connection
+     * @param owner      {@link Object} the owner of the collection
+     * @param field      {@link Field} the collection field
+     * @param lazyList   {@link LazyList} not loaded collection of the owner
+     */
+    public void prefetchCollection(DataSource dataSource, Object owner, Field field, LazyList<?> lazyList) {
+        var ownerType = ProxyFactory.getEntityClass(owner.getClass());
+        var elementType = DaoUtils.getEntityCollectionElementType(field);
+        var ownerField = DaoUtils.getRelatedEntityField(ownerType, elementType);
+        var ownerId = DaoUtils.getIdentifierValue(owner);
+        var selectQuery = QueryUtils.buildSelectQuery(DaoUtils.getClassTableName(elementType), DaoUtils.getColumnName(ownerField));
+        if (nPlusOneDetector.isRecording()) {
+            var association = field.getDeclaringClass().getSimpleName() + "." + field.getName();
+            nPlusOneDetector.record(selectQuery, association, new Object[]{ownerId}, JdbcDao::findCaller);
+        }
+        var caller = Objects.isNull(statistics.getSlowQueryThreshold()) ? null : findCaller();
+        CompletableFuture<CachedRowSet> rows = AsyncUtils.supplyAsync(() -> {
+            try (Connection prefetchConnection = borrowReadConnection(dataSource);
+                 PreparedStatement preparedStatement = prepareStatement(prefetchConnection, selectQuery)) {
+                preparedStatement.setObject(1, ownerId);
+                logger.info("SQL: {}", preparedStatement);
+                CachedRowSet rowSet = RowSetProvider.newFactory().createCachedRowSet();
+                var event = StatementExecutionEvent.start();
+                long start = System.nanoTime();
+                ResultSet resultSet = preparedStatement.executeQuery();
+                recordExecutionTime(selectQuery, preparedStatement, System.nanoTime() - start, event, 1, -1, () -> caller);
+                var hydrationEvent = HydrationEvent.start();
+                long fetchStart = System.nanoTime();
+                rowSet.populate(resultSet);
+                recordFetch(selectQuery, elementType, rowSet.size(), fetchStart, hydrationEvent);
+                return rowSet;
+            } catch (SQLException exception) {
+                throw new JdbcDaoException("Error occurred while prefetching collection " + field.getName(), exception);
+            }
+        });
+        lazyList.loadWith(() -> {
+            try {
+                var event = CollectionInitializationEvent.start();
+                var elements = readManaged(elementType, rows.join(), Collections.singleton(ownerField));
+                event.finish(elementType, 1, elements.size());
+                statistics.recordCollectionsInitialized(1);
+                return elements;
+            } catch (CompletionException exception) {
+                if (exception.getCause() instanceof JdbcDaoException jdbcDaoException) {
+                    throw jdbcDaoException;
+                }
+                throw new JdbcDaoException("Error occurred while prefetching collection " + field.getName(), exception.getCause());
+            } catch (SQLException exception) {
+                throw new JdbcDaoException("Error occurred while reading prefetched collection " + field.getName(), exception);
+            }
+        });
+    }
+
+    private int count(String countQuery, Object... parameters) {
+        try (ReadConnection readConnection = openReadConnection();
+             PreparedStatement preparedStatement = prepareStatement(readConnection.get(), countQuery)) {
+            for (int i = 0; i < parameters.length; i++) {
+                preparedStatement.setObject(i + 1, parameters[i]);
+            }
+            logger.info("SQL: {}", preparedStatement);
+            ResultSet resultSet = executeQuery(preparedStatement, countQuery, parameters);
+            resultSet.next();
+            statistics.recordRowsRead(1);
+            return resultSet.getInt(1);
+        } catch (SQLException exception) {
+            throw new JdbcDaoException("Error occurred while executing count query", exception);
+        }
+    }
+
+    /**
+     * Queries of the extra lazy collection of one owner. Elements are ordered by their identifiers.
+     */
+    private class ExtraLazyCollectionLoader implements CollectionLoader<Object> {
+        private final Class<?> elementType;
+        private final String tableName;
+        private final Set<Field> fieldsToSkip;
+        private final Object ownerId;
+        private final String ownerColumn;
+        private final String idColumn;
+        private final Field idField;
+
+        private ExtraLazyCollectionLoader(Class<?> elementType, String tableName, Field ownerField, Object ownerId,
+                                          Set<Field> fieldsToSkip) {
+            this.elementType = elementType;
+            this.tableName = tableName;
+            this.fieldsToSkip = fieldsToSkip;
+            this.ownerId = ownerId;
+            this.ownerColumn = DaoUtils.getColumnName(ownerField);
+            this.idField = DaoUtils.getIdentifierField(elementType);
+            this.idColumn = DaoUtils.getColumnName(idField);
+        }
+
+        @Override
+        public List<Object> loadAll() {
+            return findAllManaged(elementType, QueryUtils.buildSelectOrderedQuery(tableName, ownerColumn, idColumn),
+                    fieldsToSkip, ownerId);
+        }
+
+        @Override
+        public int count() {
+            return JdbcDao.this.count(QueryUtils.buildCountQuery(tableName, List.of(ownerColumn)), ownerId);
+        }
+
+        @Override
+        public boolean contains(Object element) {
+            if (Objects.isNull(element) || !elementType.equals(ProxyFactory.getEntityClass(element.getClass()))) {
+                return false;
+            }
+            var elementId = DaoUtils.getFieldValue(element, idField);
+            if (Objects.isNull(elementId)) {
+                return false;
+            }
+            return JdbcDao.this.count(QueryUtils.buildCountQuery(tableName, List.of(ownerColumn, idColumn)), ownerId, elementId) > 0;
+        }
+
+        @Override
+        public Object get(int index) {
+            var elements = findAllManaged(elementType, QueryUtils.buildSelectElementAtQuery(tableName, ownerColumn, idColumn),
+                    fieldsToSkip, ownerId, index);
+            return elements.isEmpty() ? null : elements.get(0);
+        }
+
+        @Override
+        public List<Object> loadPage(Object last, int pageSize) {
+            if (Objects.isNull(last)) {
+                return findAllManaged(elementType, QueryUtils.buildSelectPageQuery(tableName, ownerColumn, idColumn, false),
+                        fieldsToSkip, ownerId, pageSize);
+            }
+            return findAllManaged(elementType, QueryUtils.buildSelectPageQuery(tableName, ownerColumn, idColumn, true),
+                    fieldsToSkip, ownerId, DaoUtils.getFieldValue(last, idField), pageSize);
+        }
+    }
+
     private void addEntityToContext(Object entity) {
         var valueId = DaoUtils.getIdentifierValue(entity);
         String snapshotValues = DaoUtils.getSqlFieldValues(entity);
@@ -390,23 +1655,52 @@ public class JdbcDao {
      * After process all persist changes snapshot will update with new changes.
      */
     public void compareSnapshots() {
+        var event = FlushEvent.start();
+        long flushStart = System.nanoTime();
+        int updated = 0;
+        try {
+            updated = flushChanges();
+        } finally {
+            event.finish(context.getCache().size(), updated);
+            statistics.recordFlush(System.nanoTime() - flushStart);
+        }
+    }
+
+    /**
+     * @return number of the updated entities
+     */
+    private int flushChanges() {
         List<Object> objects = context.getCache().values().stream().toList();
         objects.forEach(this::updateCollectionEntities);
-        Map<EntityKey<?>, Snapshot> updateSnapshots = new HashMap<>();
+        Map<EntityKey<?>, Object> changedEntities = new LinkedHashMap<>();
         context.getSnapshots().entrySet().stream()
                 .filter(entry -> !entry.getValue().getStatus().equals(Snapshot.Status.REMOVED))
-                .forEach(entry -> processUpdate(entry, updateSnapshots));
+                .forEach(entry -> processUpdate(entry, changedEntities));
+        if (changedEntities.isEmpty()) {
+            return 0;
+        }
+        update(List.copyOf(changedEntities.values()));
+        Map<EntityKey<?>, Snapshot> updateSnapshots = new HashMap<>();
+        changedEntities.forEach((entityKey, entity) ->
+                updateSnapshots.put(entityKey, new Snapshot(DaoUtils.getSqlFieldValues(entity), Snapshot.Status.ACTUAL)));
         context.getSnapshots().putAll(updateSnapshots);
+        return changedEntities.size();
     }
 
-    private void processUpdate(Map.Entry<EntityKey<?>, Snapshot> entry, Map<EntityKey<?>, Snapshot> updateSnapshots) {
+    private void processUpdate(Map.Entry<EntityKey<?>, Snapshot> entry, Map<EntityKey<?>, Object> changedEntities) {
         Snapshot snapshot = entry.getValue();
         EntityKey<?> entityKey = entry.getKey();
         Object entity = context.getCache().get(entry.getKey());
         String values = DaoUtils.getSqlFieldValues(entity);
         if (!values.equals(snapshot.getValue())) {
-            update(entity);
-            updateSnapshots.put(entityKey, new Snapshot(values, Snapshot.Status.ACTUAL));
+            changedEntities.put(entityKey, entity);
+        }
+    }
+
+    private static void initializeVersion(Object entity) {
+        var versionField = DaoUtils.getVersionField(entity.getClass());
+        if (versionField != null && DaoUtils.getFieldValue(entity, versionField) == null) {
+            setValueToField(entity, versionField, DaoUtils.getNextVersion(versionField, null));
         }
     }
 
@@ -428,12 +1722,75 @@ public class JdbcDao {
         }
     }
 
-    private void update(Object entity) {
-        String query = QueryUtils.buildUpdateQuery(entity);
-        try (PreparedStatement preparedStatement = getConnection().prepareStatement(query)) {
-            preparedStatement.executeUpdate();
+    /**
+     * <p>Updates the changed entities by one batch per entity class, so the execute time of each batch is recorded by
+     * the shape of its update query. The version of a versioned entity is incremented and the row is
+     * updated only if it still has the previous version, otherwise the versions of the entities are restored and
+     * {@link OptimisticLockException} is thrown.</p>
+     *
+     * @param entities list {@link List} of the changed entities
+     */
+    private void update(List<Object> entities) {
+        var previousVersions = new Object[entities.size()];
+        var versioned = new boolean[entities.size()];
+        Map<Class<?>, List<Integer>> indexesByType = new LinkedHashMap<>();
+        for (int i = 0; i < entities.size(); i++) {
+            indexesByType.computeIfAbsent(entities.get(i).getClass(), type -> new ArrayList<>()).add(i);
+        }
+        try (Statement statement = getWriteConnection().createStatement()) {
+            statistics.recordStatementPrepared();
+            for (var entry : indexesByType.entrySet()) {
+                var versionField = DaoUtils.getVersionField(entry.getKey());
+                var versionColumn = versionField == null ? null : DaoUtils.getColumnName(versionField);
+                var indexes = entry.getValue();
+                String firstQuery = null;
+                for (int i : indexes) {
+                    var entity = entities.get(i);
+                    String query;
+                    if (versionField == null) {
+                        query = QueryUtils.buildUpdateQuery(entity);
+                    } else {
+                        versioned[i] = true;
+                        previousVersions[i] = DaoUtils.getFieldValue(entity, versionField);
+                        var expectedVersion = DaoUtils.getString(entity, versionField);
+                        setValueToField(entity, versionField, DaoUtils.getNextVersion(versionField, previousVersions[i]));
+                        query = QueryUtils.buildUpdateQuery(entity, versionColumn, expectedVersion);
+                    }
+                    logger.info("SQL: {}", query);
+                    statement.addBatch(query);
+                    if (firstQuery == null) {
+                        firstQuery = query;
+                    }
+                }
+                var event = StatementExecutionEvent.start();
+                long start = System.nanoTime();
+                int[] updateCounts = statement.executeBatch();
+                long nanos = System.nanoTime() - start;
+                var sqlShape = isSqlShapeNeeded(event, nanos)
+                        ? QueryUtils.buildUpdateShape(entities.get(indexes.get(0)), versionColumn) : null;
+                recordExecutionTime(sqlShape, firstQuery, nanos, event, updateCounts.length,
+                        Arrays.stream(updateCounts).filter(count -> count > 0).asLongStream().sum());
+                for (int k = 0; k < indexes.size(); k++) {
+                    int i = indexes.get(k);
+                    if (versioned[i] && updateCounts[k] == 0) {
+                        var entity = entities.get(i);
+                        restoreVersions(entities, versioned, previousVersions);
+                        throw new OptimisticLockException(entity.getClass().getSimpleName(), DaoUtils.getIdentifierValue(entity));
+                    }
+                }
+            }
+            entities.forEach(entity -> statistics.recordEntityUpdated(entity.getClass()));
         } catch (SQLException exception) {
-            throw new JdbcDaoException("Can not update entity: " + entity.getClass().getSimpleName(), exception);
+            restoreVersions(entities, versioned, previousVersions);
+            throw new JdbcDaoException("Can not update entities", exception);
+        }
+    }
+
+    private static void restoreVersions(List<Object> entities, boolean[] versioned, Object[] previousVersions) {
+        for (int i = 0; i < entities.size(); i++) {
+            if (versioned[i]) {
+                setValueToField(entities.get(i), DaoUtils.getVersionField(entities.get(i).getClass()), previousVersions[i]);
+            }
         }
     }
 }
@@ -1,16 +1,20 @@
 package com.breskul.bibernate.persistence;
 
+import com.breskul.bibernate.collection.LazyList;
+import com.breskul.bibernate.persistence.model.CollectionRole;
 import com.breskul.bibernate.persistence.model.EntityKey;
 import com.breskul.bibernate.persistence.model.Snapshot;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 
 /**
- * Context contain cache and snapshots for session and provide methods for them.
+ * Context contain cache, snapshots and not loaded batch fetched collections for session and provide methods for them.
  */
 @Getter
 @Setter
@@ -18,10 +22,12 @@ public class PersistenceContext {
 
     private final Map<EntityKey<?>, Object> cache;
     private final Map<EntityKey<?>, Snapshot> snapshots;
+    private final Map<CollectionRole, Map<Object, LazyList<?>>> pendingCollections;
 
     public PersistenceContext() {
         this.cache = new HashMap<>();
         this.snapshots = new HashMap<>();
+        this.pendingCollections = new HashMap<>();
     }
 
     /**
@@ -67,10 +73,56 @@ public class PersistenceContext {
     }
 
     /**
-     * Clear snapshots and cache
+     * Register not loaded lazy collection which can be loaded in batch with other collections of the same role
+     * @param role collection role
+     * @param ownerId identifier of the entity which owns the collection
+     * @param collection not loaded lazy collection
+     */
+    public void addPendingCollection(CollectionRole role, Object ownerId, LazyList<?> collection) {
+        pendingCollections.computeIfAbsent(role, key -> new LinkedHashMap<>()).put(ownerId, collection);
+    }
+
+    /**
+     * Collect not loaded lazy collections of the role for batch loading.
+     * The collection of the given owner goes first, then others in registration order.
+     * @param role collection role
+     * @param ownerId identifier of the entity which collection initializes the batch
+     * @param batchSize max number of collections in the batch
+     * @return owner identifiers mapped to not loaded collections
+     */
+    public Map<Object, LazyList<?>> getPendingCollections(CollectionRole role, Object ownerId, int batchSize) {
+        Map<Object, LazyList<?>> batch = new LinkedHashMap<>();
+        Map<Object, LazyList<?>> roleCollections = pendingCollections.getOrDefault(role, Map.of());
+        batch.put(ownerId, roleCollections.get(ownerId));
+        for (var entry : roleCollections.entrySet()) {
+            if (batch.size() >= batchSize) {
+                break;
+            }
+            if (!entry.getValue().isLoaded()) {
+                batch.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Remove loaded collections from the pending collections
+     * @param role collection role
+     * @param ownerIds identifiers of the entities which own loaded collections
+     */
+    public void removePendingCollections(CollectionRole role, Collection<Object> ownerIds) {
+        var roleCollections = pendingCollections.get(role);
+        if (roleCollections != null) {
+            roleCollections.keySet().removeAll(ownerIds);
+        }
+    }
+
+    /**
+     * Clear snapshots, cache and pending collections
      */
     public void clear() {
         snapshots.clear();
         cache.clear();
+        pendingCollections.clear();
     }
 }
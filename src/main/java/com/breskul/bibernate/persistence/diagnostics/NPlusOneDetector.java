@@ -0,0 +1,154 @@
+package com.breskul.bibernate.persistence.diagnostics;
+
+import com.breskul.bibernate.exception.EntityManagerException;
+import com.breskul.bibernate.exception.NPlusOneQueryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * <p>Tracks the queries of one entity manager and flags N+1 patterns: the same SQL shape executed again and again
+ * with different parameters, typically by lazy collections and to-one associations loaded inside a loop. A shape is
+ * reported once the number of its different parameter sets reaches the threshold, with the association which
+ * triggered the queries and the application stack frame. The detector is disabled by default and starts from
+ * scratch at the beginning of every transaction.</p>
+ * <p>In strict mode, meant for tests, a query which exceeds the budget of different parameter sets of its shape fails
+ * with {@link NPlusOneQueryException} before it is executed.</p>
+ */
+public class NPlusOneDetector {
+    private static final Logger logger = LoggerFactory.getLogger(NPlusOneDetector.class);
+
+    public static final int DEFAULT_THRESHOLD = 5;
+    private static final int MAX_TRACKED_SHAPES = 256;
+    private static final int MAX_TRACKED_PARAMETERS = 1024;
+
+    private final Map<String, ShapeUsage> usages = new LinkedHashMap<>();
+    private boolean enabled;
+    private int threshold = DEFAULT_THRESHOLD;
+    private int strictBudget;
+
+    public synchronized boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return true if the queries are recorded, either because the detector is enabled or in the strict mode
+     */
+    public synchronized boolean isRecording() {
+        return enabled || strictBudget > 0;
+    }
+
+    public synchronized void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public synchronized int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * @param threshold number of different parameter sets of one SQL shape which is reported as N+1
+     */
+    public synchronized void setThreshold(int threshold) {
+        if (threshold < 2) {
+            throw new EntityManagerException("Threshold %d of the N+1 detector is too small".formatted(threshold),
+                    "Set threshold to at least 2");
+        }
+        this.threshold = threshold;
+    }
+
+    public synchronized int getStrictBudget() {
+        return strictBudget;
+    }
+
+    /**
+     * <p>Switches on the strict mode, which also enables the detector, or switches it off with 0.</p>
+     *
+     * @param strictBudget max number of different parameter sets of one SQL shape, 0 to switch off the strict mode
+     */
+    public synchronized void setStrictBudget(int strictBudget) {
+        if (strictBudget < 0) {
+            throw new EntityManagerException("Strict budget %d of the N+1 detector is negative".formatted(strictBudget),
+                    "Set strict budget to 0 to switch off the strict mode or to a positive number of queries");
+        }
+        this.strictBudget = strictBudget;
+    }
+
+    /**
+     * <p>Records a query before it is executed.</p>
+     *
+     * @param sqlShape    SQL with parameter placeholders instead of values
+     * @param association association which loading issued the query, null if issued by the application
+     * @param parameters  bind values of the query
+     * @param caller      supplier of the application stack frame, called only when the query is reported
+     * @throws NPlusOneQueryException in strict mode if the query exceeds the budget
+     */
+    public synchronized void record(String sqlShape, String association, Object[] parameters, Supplier<String> caller) {
+        if (!isRecording()) {
+            return;
+        }
+        var usage = usages.get(sqlShape);
+        if (Objects.isNull(usage)) {
+            if (usages.size() >= MAX_TRACKED_SHAPES) {
+                return;
+            }
+            usage = new ShapeUsage();
+            usages.put(sqlShape, usage);
+        }
+        usage.executions++;
+        if (Objects.isNull(usage.association)) {
+            usage.association = association;
+        }
+        if (usage.parameters.size() >= MAX_TRACKED_PARAMETERS) {
+            usage.distinctParameters++;
+        } else if (usage.parameters.add(Arrays.asList(parameters))) {
+            usage.distinctParameters++;
+        }
+        if (strictBudget > 0 && usage.distinctParameters > strictBudget) {
+            throw new NPlusOneQueryException(sqlShape, usage.distinctParameters, strictBudget, usage.association, caller.get());
+        }
+        if (usage.distinctParameters == threshold && Objects.isNull(usage.caller)) {
+            usage.caller = caller.get();
+            logger.warn("N+1 query detected: {} executions of {} with {} different parameters, association: {} | caller: {}",
+                    usage.executions, sqlShape, usage.distinctParameters, usage.association, usage.caller);
+        }
+    }
+
+    /**
+     * @return list of {@link RepeatedQuery} which reached the threshold since the transaction begin or the last reset
+     */
+    public synchronized List<RepeatedQuery> getReport() {
+        var report = new ArrayList<RepeatedQuery>();
+        usages.forEach((sqlShape, usage) -> {
+            if (usage.distinctParameters >= threshold) {
+                report.add(new RepeatedQuery(sqlShape, usage.association, usage.executions, usage.distinctParameters,
+                        usage.caller));
+            }
+        });
+        return report;
+    }
+
+    /**
+     * <p>Forgets all tracked queries.</p>
+     */
+    public synchronized void reset() {
+        usages.clear();
+    }
+
+    private static class ShapeUsage {
+        private final Set<List<Object>> parameters = new HashSet<>();
+        private int executions;
+        private int distinctParameters;
+        private String association;
+        private String caller;
+    }
+}
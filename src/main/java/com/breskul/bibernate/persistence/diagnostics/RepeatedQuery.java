@@ -0,0 +1,14 @@
+package com.breskul.bibernate.persistence.diagnostics;
+
+/**
+ * <p>SQL shape executed repeatedly with different parameters, reported by {@link NPlusOneDetector}.</p>
+ *
+ * @param sqlShape           SQL with parameter placeholders instead of values
+ * @param association        association which loading triggered the queries, 'Owner.field', or null for the
+ *                           queries issued directly by the application
+ * @param executions         number of executions of the shape
+ * @param distinctParameters number of different parameter sets the shape was executed with
+ * @param caller             first application stack frame of the execution which crossed the threshold
+ */
+public record RepeatedQuery(String sqlShape, String association, int executions, int distinctParameters, String caller) {
+}
@@ -0,0 +1,130 @@
+package com.breskul.bibernate.persistence.dialect;
+
+import com.breskul.bibernate.persistence.lock.LockMode;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * <p>SQL syntax which differs between the databases. The default methods render the standard SQL, the dialects of the
+ * particular databases override them with the best mechanism the database has. Dialects are stateless and may be
+ * shared between threads.</p>
+ */
+public interface Dialect {
+
+    /**
+     * Generate query of the next value of the sequence
+     * @param sequenceName name of the sequence
+     * @return generated query returning one row
+     */
+    default String buildSequenceQuery(String sequenceName) {
+        return "VALUES (NEXT VALUE FOR %s)".formatted(sequenceName);
+    }
+
+    /**
+     * Generate query fetching several next values of the sequence in one round trip
+     * @param sequenceName name of the sequence
+     * @param count number of values
+     * @return generated query returning one row per value, or null if the database can not fetch values in batch
+     */
+    default String buildSequenceBatchQuery(String sequenceName, int count) {
+        return null;
+    }
+
+    /**
+     * Generate query which inserts the rows and returns the generated identifiers as its result set, in the order of
+     * the inserted rows
+     * @param insertQuery insert query
+     * @param identifierColumn generated identifier column
+     * @return generated query, or null if the generated keys are read by {@link java.sql.Statement#getGeneratedKeys()}
+     */
+    default String buildInsertReturningQuery(String insertQuery, String identifierColumn) {
+        return null;
+    }
+
+    /**
+     * Check whether the identifiers generated by a multi-row insert are returned in the order of the inserted rows by
+     * {@link #buildInsertReturningQuery} or by {@link java.sql.Statement#getGeneratedKeys()} of the driver
+     * @return true if the rows of the entities identified by the database are inserted by one query
+     */
+    default boolean isMultiRowIdentityInsertSupported() {
+        return false;
+    }
+
+    /**
+     * Generate insert query of several rows, e.g. <code>INSERT INTO notes (id,body) VALUES (1,'a'), (2,'b')</code>
+     * @param tableName database table name
+     * @param sqlFieldNames comma-separated columns for insert
+     * @param rows comma-separated values of each row
+     * @return generated insert query
+     */
+    default String buildMultiRowInsertQuery(String tableName, String sqlFieldNames, List<String> rows) {
+        var values = rows.stream().map(row -> "(" + row + ")").collect(Collectors.joining(", "));
+        return "INSERT INTO %s (%s) VALUES %s".formatted(tableName, sqlFieldNames, values);
+    }
+
+    /**
+     * Check whether the database skips locked rows by the lock clause. Otherwise, <code>NOWAIT</code> and
+     * <code>SKIP LOCKED</code> are emulated by the shortest lock timeout
+     * @return true if <code>NOWAIT</code> and <code>SKIP LOCKED</code> are rendered in the lock clause
+     */
+    default boolean isSkipLockedSupported() {
+        return false;
+    }
+
+    /**
+     * Generate lock clause appended to select query, e.g. <code>FOR UPDATE OF t0 SKIP LOCKED</code>.
+     * Databases without shared row locks and lock options get plain <code>FOR UPDATE</code>
+     * @param lockMode lock mode
+     * @param tableAlias alias of the locked table
+     * @return generated lock clause
+     */
+    default String buildLockClause(LockMode lockMode, String tableAlias) {
+        if (!isSkipLockedSupported()) {
+            return "FOR UPDATE";
+        }
+        return switch (lockMode) {
+            case PESSIMISTIC_READ -> "FOR SHARE OF " + tableAlias;
+            case PESSIMISTIC_WRITE -> "FOR UPDATE OF " + tableAlias;
+            case NOWAIT -> "FOR UPDATE OF %s NOWAIT".formatted(tableAlias);
+            case SKIP_LOCKED -> "FOR UPDATE OF %s SKIP LOCKED".formatted(tableAlias);
+        };
+    }
+
+    /**
+     * Generate statement setting the lock timeout of the following statements of the transaction
+     * @param timeout lock timeout
+     * @return generated statement, or null if the database does not support lock timeout
+     */
+    default String buildLockTimeoutStatement(Duration timeout) {
+        return null;
+    }
+
+    /**
+     * Check whether the lock timeout can be set, which also emulates <code>NOWAIT</code> and <code>SKIP LOCKED</code>
+     * on the databases without them
+     * @return true if {@link #buildLockTimeoutStatement(Duration)} renders a statement
+     */
+    default boolean isLockTimeoutSupported() {
+        return buildLockTimeoutStatement(Duration.ZERO) != null;
+    }
+
+    /**
+     * Generate query of the current lock timeout, needed by the databases which can not reset it to default
+     * @return generated query, or null if the lock timeout is reset to default
+     */
+    default String buildLockTimeoutQuery() {
+        return null;
+    }
+
+    /**
+     * Generate statement restoring the lock timeout changed by {@link #buildLockTimeoutStatement(Duration)}. It is also
+     * executed after the locked query failed, so it may fail itself if the database aborted the transaction
+     * @param previousTimeout result of {@link #buildLockTimeoutQuery()}, null if it has not been queried
+     * @return generated statement
+     */
+    default String buildLockTimeoutResetStatement(Object previousTimeout) {
+        return null;
+    }
+}
@@ -0,0 +1,86 @@
+package com.breskul.bibernate.persistence.dialect;
+
+import com.breskul.bibernate.configuration.PersistenceProperties;
+import com.breskul.bibernate.exception.JdbcDaoException;
+
+import java.lang.reflect.InvocationTargetException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Objects;
+
+/**
+ * <p>Chooses the {@link Dialect} of the database. The dialect configured by the 'db.dialect' property takes
+ * precedence, it is either the short name 'h2', 'postgresql', 'mysql', 'standard' or the class name of a
+ * {@link Dialect} implementation with the default constructor. Otherwise, the dialect is chosen by the database
+ * product name of the connection metadata.</p>
+ */
+public class DialectResolver {
+    public static final String DIALECT_PROPERTY = "db.dialect";
+
+    private DialectResolver() {}
+
+    /**
+     * Resolve the dialect of the connection by the 'db.dialect' property or the connection metadata
+     * @param connection {@link Connection} to the database
+     * @return resolved dialect
+     */
+    public static Dialect resolve(Connection connection) {
+        var configuredDialect = PersistenceProperties.isInitialized()
+                ? PersistenceProperties.getInstance().getProperty(DIALECT_PROPERTY) : null;
+        if (Objects.nonNull(configuredDialect) && !configuredDialect.isBlank()) {
+            return fromProperty(configuredDialect);
+        }
+        try {
+            return fromDatabaseProduct(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException exception) {
+            throw new JdbcDaoException("Can not read database metadata", exception);
+        }
+    }
+
+    /**
+     * Resolve the dialect by its property value
+     * @param value short name or class name of the dialect
+     * @return resolved dialect
+     */
+    public static Dialect fromProperty(String value) {
+        var name = value.trim();
+        return switch (name.toLowerCase()) {
+            case "h2" -> new H2Dialect();
+            case "postgresql" -> new PostgreSQLDialect();
+            case "mysql" -> new MySQLDialect();
+            case "standard" -> new StandardDialect();
+            default -> instantiate(name);
+        };
+    }
+
+    /**
+     * Resolve the dialect by the database product name of the connection metadata
+     * @param databaseProduct database product name, e.g. 'PostgreSQL'
+     * @return resolved dialect, {@link StandardDialect} for unknown databases including MariaDB, which has no
+     * <code>FOR SHARE OF</code> and <code>FOR UPDATE OF</code> lock clauses of {@link MySQLDialect}
+     */
+    public static Dialect fromDatabaseProduct(String databaseProduct) {
+        return switch (Objects.requireNonNullElse(databaseProduct, "")) {
+            case "H2" -> new H2Dialect();
+            case "PostgreSQL" -> new PostgreSQLDialect();
+            case "MySQL" -> new MySQLDialect();
+            default -> new StandardDialect();
+        };
+    }
+
+    private static Dialect instantiate(String className) {
+        try {
+            var dialectClass = Class.forName(className);
+            if (!Dialect.class.isAssignableFrom(dialectClass)) {
+                throw new JdbcDaoException("%s is not a dialect".formatted(className),
+                        "Set '%s' to a class implementing %s".formatted(DIALECT_PROPERTY, Dialect.class.getName()));
+            }
+            return (Dialect) dialectClass.getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException | NoSuchMethodException | InstantiationException | IllegalAccessException
+                 | InvocationTargetException exception) {
+            throw new JdbcDaoException("Can not create dialect " + className,
+                    "Set '%s' to h2, postgresql, mysql or the class name of a dialect with the default constructor"
+                            .formatted(DIALECT_PROPERTY), exception);
+        }
+    }
+}
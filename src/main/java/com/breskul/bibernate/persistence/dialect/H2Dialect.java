@@ -0,0 +1,51 @@
+package com.breskul.bibernate.persistence.dialect;
+
+import java.time.Duration;
+
+/**
+ * <p>Dialect of H2. Sequence values are fetched in batch from <code>SYSTEM_RANGE</code>, generated identifiers are
+ * selected from the <code>FINAL TABLE</code> of the insert. H2 locks the rows by plain <code>FOR UPDATE</code> only,
+ * so <code>NOWAIT</code> and <code>SKIP LOCKED</code> are emulated by the lock timeout.</p>
+ */
+public class H2Dialect implements Dialect {
+    private static final String SEQUENCE_QUERY = "VALUES NEXT VALUE FOR %s";
+    private static final String SEQUENCE_BATCH_QUERY = "SELECT NEXT VALUE FOR %s FROM SYSTEM_RANGE(1, %d)";
+    private static final String INSERT_RETURNING_QUERY = "SELECT %s FROM FINAL TABLE (%s)";
+    private static final String LOCK_TIMEOUT = "SET LOCK_TIMEOUT %d";
+    private static final String LOCK_TIMEOUT_QUERY = "CALL LOCK_TIMEOUT()";
+
+    @Override
+    public String buildSequenceQuery(String sequenceName) {
+        return SEQUENCE_QUERY.formatted(sequenceName);
+    }
+
+    @Override
+    public String buildSequenceBatchQuery(String sequenceName, int count) {
+        return SEQUENCE_BATCH_QUERY.formatted(sequenceName, count);
+    }
+
+    @Override
+    public String buildInsertReturningQuery(String insertQuery, String identifierColumn) {
+        return INSERT_RETURNING_QUERY.formatted(identifierColumn, insertQuery);
+    }
+
+    @Override
+    public boolean isMultiRowIdentityInsertSupported() {
+        return true;
+    }
+
+    @Override
+    public String buildLockTimeoutStatement(Duration timeout) {
+        return LOCK_TIMEOUT.formatted(Math.max(1, timeout.toMillis()));
+    }
+
+    @Override
+    public String buildLockTimeoutQuery() {
+        return LOCK_TIMEOUT_QUERY;
+    }
+
+    @Override
+    public String buildLockTimeoutResetStatement(Object previousTimeout) {
+        return LOCK_TIMEOUT.formatted(((Number) previousTimeout).longValue());
+    }
+}
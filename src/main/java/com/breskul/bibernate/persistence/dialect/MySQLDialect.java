@@ -0,0 +1,42 @@
+package com.breskul.bibernate.persistence.dialect;
+
+import com.breskul.bibernate.exception.JdbcDaoException;
+
+import java.time.Duration;
+
+/**
+ * <p>Dialect of MySQL. MySQL has no sequences, entities are identified by
+ * {@link com.breskul.bibernate.annotation.enums.Strategy#IDENTITY} whose generated keys, also of a multi-row insert,
+ * are read by {@link java.sql.Statement#getGeneratedKeys()}. The lock timeout of InnoDB is set in whole seconds for
+ * the session. MariaDB, which lacks the <code>FOR UPDATE OF</code> lock clauses, is not supported by this dialect.</p>
+ */
+public class MySQLDialect implements Dialect {
+    private static final String LOCK_TIMEOUT = "SET SESSION innodb_lock_wait_timeout = %d";
+    private static final String RESET_LOCK_TIMEOUT = "SET SESSION innodb_lock_wait_timeout = DEFAULT";
+
+    @Override
+    public String buildSequenceQuery(String sequenceName) {
+        throw new JdbcDaoException("MySQL does not support sequence " + sequenceName,
+                "Use @GeneratedValue(strategy = Strategy.IDENTITY) with AUTO_INCREMENT column");
+    }
+
+    @Override
+    public boolean isMultiRowIdentityInsertSupported() {
+        return true;
+    }
+
+    @Override
+    public boolean isSkipLockedSupported() {
+        return true;
+    }
+
+    @Override
+    public String buildLockTimeoutStatement(Duration timeout) {
+        return LOCK_TIMEOUT.formatted(Math.max(1, (timeout.toMillis() + 999) / 1000));
+    }
+
+    @Override
+    public String buildLockTimeoutResetStatement(Object previousTimeout) {
+        return RESET_LOCK_TIMEOUT;
+    }
+}
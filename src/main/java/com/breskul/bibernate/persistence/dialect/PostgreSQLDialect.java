@@ -0,0 +1,50 @@
+package com.breskul.bibernate.persistence.dialect;
+
+import java.time.Duration;
+
+/**
+ * <p>Dialect of PostgreSQL. Sequence values are fetched in batch from <code>generate_series</code>, generated
+ * identifiers are returned by <code>INSERT ... RETURNING</code>. The lock timeout is set for the transaction only.</p>
+ */
+public class PostgreSQLDialect implements Dialect {
+    private static final String SEQUENCE_QUERY = "SELECT nextval('%s')";
+    private static final String SEQUENCE_BATCH_QUERY = "SELECT nextval('%s') FROM generate_series(1, %d)";
+    private static final String INSERT_RETURNING_QUERY = "%s RETURNING %s";
+    private static final String LOCK_TIMEOUT = "SET LOCAL lock_timeout = %d";
+    private static final String RESET_LOCK_TIMEOUT = "SET LOCAL lock_timeout TO DEFAULT";
+
+    @Override
+    public String buildSequenceQuery(String sequenceName) {
+        return SEQUENCE_QUERY.formatted(sequenceName);
+    }
+
+    @Override
+    public String buildSequenceBatchQuery(String sequenceName, int count) {
+        return SEQUENCE_BATCH_QUERY.formatted(sequenceName, count);
+    }
+
+    @Override
+    public String buildInsertReturningQuery(String insertQuery, String identifierColumn) {
+        return INSERT_RETURNING_QUERY.formatted(insertQuery, identifierColumn);
+    }
+
+    @Override
+    public boolean isMultiRowIdentityInsertSupported() {
+        return true;
+    }
+
+    @Override
+    public boolean isSkipLockedSupported() {
+        return true;
+    }
+
+    @Override
+    public String buildLockTimeoutStatement(Duration timeout) {
+        return LOCK_TIMEOUT.formatted(Math.max(1, timeout.toMillis()));
+    }
+
+    @Override
+    public String buildLockTimeoutResetStatement(Object previousTimeout) {
+        return RESET_LOCK_TIMEOUT;
+    }
+}
@@ -0,0 +1,7 @@
+package com.breskul.bibernate.persistence.dialect;
+
+/**
+ * <p>Dialect of the databases without a dedicated dialect, renders the standard SQL only.</p>
+ */
+public class StandardDialect implements Dialect {
+}
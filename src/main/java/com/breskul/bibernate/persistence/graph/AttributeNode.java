@@ -0,0 +1,10 @@
+package com.breskul.bibernate.persistence.graph;
+
+/**
+ * AttributeNode record describes the loading of one association of the {@link EntityGraph}
+ * @param attribute name of the association field
+ * @param mode how the association is loaded
+ * @param batchSize number of collections loaded together for {@link FetchMode#BATCH}
+ */
+public record AttributeNode(String attribute, FetchMode mode, int batchSize) {
+}
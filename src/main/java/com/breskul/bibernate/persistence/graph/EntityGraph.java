@@ -0,0 +1,114 @@
+package com.breskul.bibernate.persistence.graph;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <p>Fetch plan for a single call of {@link com.breskul.bibernate.persistence.EntityManager#find(Class, Object, EntityGraph)}.
+ * Names the associations of the root entity which have to be join fetched, batch fetched or left lazy.
+ * Associations which are not named are loaded as defined by their annotations.</p>
+ * <p>The graph is immutable, every method returns a new graph, so a graph can be created once and shared.</p>
+ * <pre>{@code
+ * EntityGraph<Person> graph = EntityGraph.create(Person.class)
+ *         .fetchJoin("notes")
+ *         .fetchLazy("company");
+ * Person person = entityManager.find(Person.class, 1L, graph);
+ * }</pre>
+ *
+ * @param <T> type of the root entity
+ */
+public final class EntityGraph<T> {
+
+    private static final int DEFAULT_BATCH_SIZE = 16;
+
+    private final Class<T> rootType;
+    private final Map<String, AttributeNode> attributes;
+
+    private EntityGraph(Class<T> rootType, Map<String, AttributeNode> attributes) {
+        this.rootType = rootType;
+        this.attributes = Collections.unmodifiableMap(attributes);
+    }
+
+    /**
+     * Create an empty graph, all associations are loaded as defined by their annotations
+     * @param rootType class of the root entity
+     * @return new graph
+     */
+    public static <T> EntityGraph<T> create(Class<T> rootType) {
+        return new EntityGraph<>(rootType, new LinkedHashMap<>());
+    }
+
+    /**
+     * Load the association by the same query as the root entity
+     * @param attribute name of the association field
+     * @return new graph
+     */
+    public EntityGraph<T> fetchJoin(String attribute) {
+        return with(new AttributeNode(attribute, FetchMode.JOIN, 1));
+    }
+
+    /**
+     * Load the collection lazily in batches with the default batch size
+     * @param attribute name of the collection field
+     * @return new graph
+     */
+    public EntityGraph<T> fetchBatch(String attribute) {
+        return fetchBatch(attribute, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Load the collection lazily in batches
+     * @param attribute name of the collection field
+     * @param batchSize number of collections loaded by one query
+     * @return new graph
+     */
+    public EntityGraph<T> fetchBatch(String attribute, int batchSize) {
+        return with(new AttributeNode(attribute, FetchMode.BATCH, batchSize));
+    }
+
+    /**
+     * Load the association on the first access
+     * @param attribute name of the association field
+     * @return new graph
+     */
+    public EntityGraph<T> fetchLazy(String attribute) {
+        return with(new AttributeNode(attribute, FetchMode.LAZY, 1));
+    }
+
+    private EntityGraph<T> with(AttributeNode node) {
+        var newAttributes = new LinkedHashMap<>(attributes);
+        newAttributes.put(node.attribute(), node);
+        return new EntityGraph<>(rootType, newAttributes);
+    }
+
+    public Class<T> getRootType() {
+        return rootType;
+    }
+
+    public Map<String, AttributeNode> getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof EntityGraph<?> that)) {
+            return false;
+        }
+        return rootType.equals(that.rootType) && attributes.equals(that.attributes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(rootType, attributes);
+    }
+
+    @Override
+    public String toString() {
+        return "EntityGraph{" + rootType.getSimpleName() + ", " + attributes.values() + "}";
+    }
+}
@@ -0,0 +1,20 @@
+package com.breskul.bibernate.persistence.graph;
+
+/**
+ * Defines how an association named in the {@link EntityGraph} is loaded.
+ */
+public enum FetchMode {
+    /**
+     * The association is loaded by the same query as the owning entity using <code>LEFT JOIN</code>.
+     */
+    JOIN,
+    /**
+     * The collection is loaded lazily together with other not loaded collections of the same role
+     * using a single <code>WHERE fk IN (...)</code> query.
+     */
+    BATCH,
+    /**
+     * The association is loaded on the first access: a proxy for to-one associations or a lazy list for collections.
+     */
+    LAZY
+}
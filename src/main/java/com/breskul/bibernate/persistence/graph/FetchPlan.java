@@ -0,0 +1,15 @@
+package com.breskul.bibernate.persistence.graph;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FetchPlan record is the compiled form of the {@link EntityGraph}: the select statement without the condition
+ * and the mappings used to hydrate the root entity and the join fetched associations from the result set.
+ * @param selectQuery select statement with joins and without <code>WHERE</code> clause
+ * @param root mapping of the root entity table
+ * @param attributes associations of the graph by their names
+ * @param joins join fetched associations
+ */
+public record FetchPlan(String selectQuery, TableMapping root, Map<String, AttributeNode> attributes, List<JoinMapping> joins) {
+}
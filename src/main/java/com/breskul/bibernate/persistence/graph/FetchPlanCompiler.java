@@ -0,0 +1,103 @@
+package com.breskul.bibernate.persistence.graph;
+
+import com.breskul.bibernate.exception.EntityManagerException;
+import com.breskul.bibernate.persistence.util.DaoUtils;
+import com.breskul.bibernate.persistence.util.QueryUtils;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.lang.reflect.Field;
+import java.util.*;
+
+/**
+ * Compiles {@link EntityGraph}s into {@link FetchPlan}s. The plans depend only on the mapping, so they are cached
+ * by the {@link com.breskul.bibernate.persistence.query.QueryPlanCache} of the factory.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class FetchPlanCompiler {
+
+    private static final String ROOT_ALIAS = "t0";
+
+    /**
+     * <p>Compile the graph into the plan.</p>
+     *
+     * @param graph {@link EntityGraph} the graph to compile
+     * @return compiled {@link FetchPlan}
+     * @throws EntityManagerException if the graph names unknown attributes or can not be fetched by one query
+     */
+    public static FetchPlan compile(EntityGraph<?> graph) {
+        var rootType = graph.getRootType();
+        var root = createTableMapping(rootType, ROOT_ALIAS);
+        var selectColumns = new ArrayList<String>();
+        addSelectColumns(root, selectColumns);
+        var joinClauses = new ArrayList<String>();
+        var joins = new ArrayList<JoinMapping>();
+        for (AttributeNode node : graph.getAttributes().values()) {
+            var field = getAssociationField(rootType, node.attribute());
+            var isCollection = DaoUtils.isEntityCollectionField(field);
+            validateNode(rootType, node, isCollection, joins);
+            if (node.mode() != FetchMode.JOIN) {
+                continue;
+            }
+            var alias = "t" + (joins.size() + 1);
+            if (isCollection) {
+                var elementType = DaoUtils.getEntityCollectionElementType(field);
+                var backReference = DaoUtils.getRelatedEntityField(rootType, elementType);
+                var table = createTableMapping(elementType, alias);
+                joins.add(new JoinMapping(field, true, backReference, table));
+                joinClauses.add(QueryUtils.buildLeftJoin(DaoUtils.getClassTableName(elementType), alias,
+                        alias + "." + DaoUtils.getColumnName(backReference),
+                        ROOT_ALIAS + "." + DaoUtils.getColumnName(DaoUtils.getIdentifierField(rootType))));
+                addSelectColumns(table, selectColumns);
+            } else {
+                var targetType = field.getType();
+                var table = createTableMapping(targetType, alias);
+                joins.add(new JoinMapping(field, false, null, table));
+                joinClauses.add(QueryUtils.buildLeftJoin(DaoUtils.getClassTableName(targetType), alias,
+                        alias + "." + DaoUtils.getColumnName(DaoUtils.getIdentifierField(targetType)),
+                        ROOT_ALIAS + "." + DaoUtils.getColumnName(field)));
+                addSelectColumns(table, selectColumns);
+            }
+        }
+        var selectQuery = QueryUtils.buildSelectJoinQuery(String.join(", ", selectColumns),
+                DaoUtils.getClassTableName(rootType), ROOT_ALIAS, String.join(" ", joinClauses));
+        return new FetchPlan(selectQuery, root, graph.getAttributes(), List.copyOf(joins));
+    }
+
+    private static void validateNode(Class<?> rootType, AttributeNode node, boolean isCollection, List<JoinMapping> joins) {
+        if (node.mode() == FetchMode.BATCH && !isCollection) {
+            throw new EntityManagerException("Batch fetch is not supported for to-one attribute '%s' of %s"
+                    .formatted(node.attribute(), rootType.getSimpleName()), "Use JOIN or LAZY fetch mode for to-one attributes");
+        }
+        if (node.mode() == FetchMode.BATCH && node.batchSize() < 1) {
+            throw new EntityManagerException("Batch size of attribute '%s' must be positive".formatted(node.attribute()),
+                    "Set batch size greater than zero");
+        }
+        if (node.mode() == FetchMode.JOIN && isCollection && joins.stream().anyMatch(JoinMapping::collection)) {
+            throw new EntityManagerException("Only one collection of %s can be join fetched".formatted(rootType.getSimpleName()),
+                    "Use BATCH fetch mode for other collections");
+        }
+    }
+
+    private static Field getAssociationField(Class<?> entityType, String attribute) {
+        return Arrays.stream(entityType.getDeclaredFields())
+                .filter(field -> field.getName().equals(attribute))
+                .filter(field -> DaoUtils.isEntityField(field) || DaoUtils.isEntityCollectionField(field))
+                .findFirst()
+                .orElseThrow(() -> new EntityManagerException("There is no association '%s' in %s"
+                        .formatted(attribute, entityType.getSimpleName()), "Use the name of an association field in the graph"));
+    }
+
+    private static TableMapping createTableMapping(Class<?> entityType, String alias) {
+        Map<String, String> columnLabels = new LinkedHashMap<>();
+        Arrays.stream(entityType.getDeclaredFields())
+                .filter(field -> !DaoUtils.isCollectionField(field))
+                .map(DaoUtils::getColumnName)
+                .forEach(column -> columnLabels.put(column, alias + "_" + column));
+        return new TableMapping(entityType, alias, columnLabels);
+    }
+
+    private static void addSelectColumns(TableMapping table, List<String> selectColumns) {
+        table.columnLabels().forEach((column, label) -> selectColumns.add(table.tableAlias() + "." + column + " AS " + label));
+    }
+}
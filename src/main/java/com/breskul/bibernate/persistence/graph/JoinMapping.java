@@ -0,0 +1,13 @@
+package com.breskul.bibernate.persistence.graph;
+
+import java.lang.reflect.Field;
+
+/**
+ * JoinMapping record describes the association which is join fetched by the {@link FetchPlan}
+ * @param field association field of the root entity
+ * @param collection true for {@link com.breskul.bibernate.annotation.OneToMany} associations
+ * @param backReference field of the collection element which references the root entity, null for to-one associations
+ * @param table mapping of the joined table
+ */
+public record JoinMapping(Field field, boolean collection, Field backReference, TableMapping table) {
+}
@@ -0,0 +1,29 @@
+package com.breskul.bibernate.persistence.graph;
+
+import java.util.Map;
+
+/**
+ * TableMapping record maps column names of one entity table to the labels of the select list
+ * @param entityType class of the entity
+ * @param tableAlias alias of the table in the query
+ * @param columnLabels column names mapped to the labels, empty map means that columns are selected without labels
+ */
+public record TableMapping(Class<?> entityType, String tableAlias, Map<String, String> columnLabels) {
+
+    /**
+     * Mapping for queries which select the columns of one table by their names
+     * @param entityType class of the entity
+     * @return mapping which returns column names as labels
+     */
+    public static TableMapping direct(Class<?> entityType) {
+        return new TableMapping(entityType, null, Map.of());
+    }
+
+    /**
+     * @param columnName name of the column
+     * @return label of the column in the result set
+     */
+    public String label(String columnName) {
+        return columnLabels.getOrDefault(columnName, columnName);
+    }
+}
@@ -0,0 +1,53 @@
+package com.breskul.bibernate.persistence.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * <p>Loading of lazy collections on the first access, one event per query which may initialize a batch of
+ * collections.</p>
+ */
+@Name("bibernate.CollectionInitialization")
+@Label("Lazy Collection Initialization")
+@Category({"Bibernate", "Entity Manager"})
+@Description("Loading of lazy collections on the first access")
+public class CollectionInitializationEvent extends Event {
+
+    @Label("Element Type")
+    private Class<?> elementType;
+
+    @Label("Initialized Collections")
+    private int collectionCount;
+
+    @Label("Loaded Elements")
+    private int elementCount;
+
+    /**
+     * @return started event
+     */
+    public static CollectionInitializationEvent start() {
+        var event = new CollectionInitializationEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * <p>Ends the event and commits it if recording is enabled and the duration is above the threshold.</p>
+     *
+     * @param elementType     {@link Class} of the collection elements
+     * @param collectionCount number of the initialized collections
+     * @param elementCount    number of the loaded elements
+     */
+    public void finish(Class<?> elementType, int collectionCount, int elementCount) {
+        end();
+        if (shouldCommit()) {
+            this.elementType = elementType;
+            this.collectionCount = collectionCount;
+            this.elementCount = elementCount;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.breskul.bibernate.persistence.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * <p>Call of persist, find, merge or remove of the entity manager, including the statements it executes.</p>
+ */
+@Name("bibernate.EntityOperation")
+@Label("Entity Operation")
+@Category({"Bibernate", "Entity Manager"})
+@Description("Persist, find, merge or remove call of the entity manager")
+public class EntityOperationEvent extends Event {
+
+    public static final String PERSIST = "persist";
+    public static final String FIND = "find";
+    public static final String MERGE = "merge";
+    public static final String REMOVE = "remove";
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Entity Type")
+    private Class<?> entityType;
+
+    /**
+     * @param operation name of the entity manager operation
+     * @return started event
+     */
+    public static EntityOperationEvent start(String operation) {
+        var event = new EntityOperationEvent();
+        event.operation = operation;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * <p>Ends the event and commits it if recording is enabled and the duration is above the threshold.</p>
+     *
+     * @param entityType {@link Class} of the entity passed to the operation
+     */
+    public void finish(Class<?> entityType) {
+        end();
+        if (shouldCommit()) {
+            this.entityType = entityType;
+            commit();
+        }
+    }
+}
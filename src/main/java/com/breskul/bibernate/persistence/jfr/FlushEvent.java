@@ -0,0 +1,47 @@
+package com.breskul.bibernate.persistence.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * <p>Dirty checking of the persistence context and update of the changed entities.</p>
+ */
+@Name("bibernate.Flush")
+@Label("Flush")
+@Category({"Bibernate", "Entity Manager"})
+@Description("Dirty checking of the persistence context and update of the changed entities")
+public class FlushEvent extends Event {
+
+    @Label("Managed Entities")
+    private int managedEntityCount;
+
+    @Label("Updated Entities")
+    private int updatedEntityCount;
+
+    /**
+     * @return started event
+     */
+    public static FlushEvent start() {
+        var event = new FlushEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * <p>Ends the event and commits it if recording is enabled and the duration is above the threshold.</p>
+     *
+     * @param managedEntityCount number of the entities in the persistence context
+     * @param updatedEntityCount number of the updated entities
+     */
+    public void finish(int managedEntityCount, int updatedEntityCount) {
+        end();
+        if (shouldCommit()) {
+            this.managedEntityCount = managedEntityCount;
+            this.updatedEntityCount = updatedEntityCount;
+            commit();
+        }
+    }
+}
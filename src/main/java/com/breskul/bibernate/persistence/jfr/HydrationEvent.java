@@ -0,0 +1,48 @@
+package com.breskul.bibernate.persistence.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * <p>Reading the rows of a result set and creating the entities from them. Eagerly loaded associations are loaded
+ * within the event by their own statements.</p>
+ */
+@Name("bibernate.Hydration")
+@Label("Row Hydration")
+@Category({"Bibernate", "JDBC"})
+@Description("Reading the rows of a result set and creating the entities from them")
+public class HydrationEvent extends Event {
+
+    @Label("Entity Type")
+    private Class<?> entityType;
+
+    @Label("Rows")
+    private int rowCount;
+
+    /**
+     * @return started event
+     */
+    public static HydrationEvent start() {
+        var event = new HydrationEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * <p>Ends the event and commits it if recording is enabled and the duration is above the threshold.</p>
+     *
+     * @param entityType {@link Class} of the created entities
+     * @param rowCount   number of the read rows
+     */
+    public void finish(Class<?> entityType, int rowCount) {
+        end();
+        if (shouldCommit()) {
+            this.entityType = entityType;
+            this.rowCount = rowCount;
+            commit();
+        }
+    }
+}
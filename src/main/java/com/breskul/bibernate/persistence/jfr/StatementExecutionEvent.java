@@ -0,0 +1,53 @@
+package com.breskul.bibernate.persistence.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * <p>Execution of a statement by the driver, without reading the rows of the result set.</p>
+ */
+@Name("bibernate.StatementExecution")
+@Label("Statement Execution")
+@Category({"Bibernate", "JDBC"})
+@Description("Execution of a statement by the driver, without reading the rows of the result set")
+public class StatementExecutionEvent extends Event {
+
+    @Label("SQL")
+    private String sql;
+
+    @Label("Batch Size")
+    private int batchSize;
+
+    @Label("Updated Rows")
+    @Description("Number of the inserted, updated or deleted rows, -1 for queries")
+    private long updatedRows;
+
+    /**
+     * @return started event
+     */
+    public static StatementExecutionEvent start() {
+        var event = new StatementExecutionEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * <p>Ends the event and commits it if recording is enabled and the duration is above the threshold.</p>
+     *
+     * @param sql         SQL shape of the statement
+     * @param batchSize   number of the statements executed by one batch, 1 without batch
+     * @param updatedRows number of the changed rows, -1 for queries
+     */
+    public void finish(String sql, int batchSize, long updatedRows) {
+        end();
+        if (shouldCommit()) {
+            this.sql = sql;
+            this.batchSize = batchSize;
+            this.updatedRows = updatedRows;
+            commit();
+        }
+    }
+}
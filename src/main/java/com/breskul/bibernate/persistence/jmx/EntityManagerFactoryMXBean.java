@@ -0,0 +1,94 @@
+package com.breskul.bibernate.persistence.jmx;
+
+import java.util.List;
+
+/**
+ * <p>Management interface of one entity manager factory, registered by
+ * {@link com.breskul.bibernate.persistence.EntityManagerFactoryImpl#registerMBean(String)}. Times are in
+ * milliseconds. Counters of the statistics grow only while the statistics are enabled.</p>
+ */
+public interface EntityManagerFactoryMXBean {
+
+    boolean isStatisticsEnabled();
+
+    void setStatisticsEnabled(boolean enabled);
+
+    long getOpenEntityManagerCount();
+
+    /**
+     * @return number of entity managers garbage collected without being closed
+     */
+    long getLeakedEntityManagerCount();
+
+    /**
+     * @return number of entities in the first level caches of the live entity managers, read without locking
+     */
+    long getManagedEntityCount();
+
+    long getCacheHitCount();
+
+    long getCacheMissCount();
+
+    /**
+     * @return share of the first level cache lookups which found the entity, 0 if there were no lookups
+     */
+    double getCacheHitRatio();
+
+    int getQueryPlanCacheSize();
+
+    int getQueryPlanCacheMaxSize();
+
+    long getQueryPlanCacheHitCount();
+
+    long getQueryPlanCacheMissCount();
+
+    long getPrepareStatementCount();
+
+    long getExecuteStatementCount();
+
+    long getFlushCount();
+
+    double getFlushTimeMillis();
+
+    double getAverageFlushTimeMillis();
+
+    long getTransactionCount();
+
+    double getAverageConnectionHoldTimeMillis();
+
+    double getMaxConnectionHoldTimeMillis();
+
+    /**
+     * @return connections of the primary pool in use, -1 if the data source is not a started Hikari pool
+     */
+    int getPoolActiveConnections();
+
+    /**
+     * @return idle connections of the primary pool, -1 if the data source is not a started Hikari pool
+     */
+    int getPoolIdleConnections();
+
+    /**
+     * @return all connections of the primary pool, -1 if the data source is not a started Hikari pool
+     */
+    int getPoolTotalConnections();
+
+    /**
+     * @return threads waiting for a connection of the primary pool, -1 if the data source is not a started Hikari pool
+     */
+    int getPoolThreadsAwaitingConnection();
+
+    /**
+     * <p>Resets the statistics and the query plan cache counters.</p>
+     */
+    void resetStatistics();
+
+    /**
+     * <p>Lists the SQL shapes with the highest 99th percentile of the execute time, one line per shape with the
+     * number of executions, p50, p99 and max execute time in milliseconds.</p>
+     *
+     * @param limit max number of listed shapes
+     * @return slowest SQL shapes, the slowest first
+     */
+    List<String> dumpSlowestQueries(int limit);
+}
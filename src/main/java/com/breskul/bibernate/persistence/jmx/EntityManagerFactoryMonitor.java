@@ -0,0 +1,198 @@
+package com.breskul.bibernate.persistence.jmx;
+
+import com.breskul.bibernate.persistence.EntityManagerFactoryImpl;
+import com.breskul.bibernate.persistence.metrics.LatencySnapshot;
+import com.breskul.bibernate.persistence.metrics.Statistics;
+import com.breskul.bibernate.persistence.query.QueryPlanCache;
+import com.breskul.bibernate.repository.RoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+
+/**
+ * <p>{@link EntityManagerFactoryMXBean} reading the metrics of the factory on every attribute access.</p>
+ */
+public class EntityManagerFactoryMonitor implements EntityManagerFactoryMXBean {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final EntityManagerFactoryImpl factory;
+    private final Statistics statistics;
+    private final QueryPlanCache queryPlanCache;
+    private final DataSource dataSource;
+
+    public EntityManagerFactoryMonitor(EntityManagerFactoryImpl factory, QueryPlanCache queryPlanCache, DataSource dataSource) {
+        this.factory = factory;
+        this.statistics = factory.getStatistics();
+        this.queryPlanCache = queryPlanCache;
+        this.dataSource = dataSource instanceof RoutingDataSource routingDataSource ? routingDataSource.getPrimary() : dataSource;
+    }
+
+    @Override
+    public boolean isStatisticsEnabled() {
+        return statistics.isEnabled();
+    }
+
+    @Override
+    public void setStatisticsEnabled(boolean enabled) {
+        statistics.setEnabled(enabled);
+    }
+
+    @Override
+    public long getOpenEntityManagerCount() {
+        return factory.getOpenEntityManagerCount();
+    }
+
+    @Override
+    public long getLeakedEntityManagerCount() {
+        return factory.getLeakedEntityManagerCount();
+    }
+
+    @Override
+    public long getManagedEntityCount() {
+        return factory.getManagedEntityCount();
+    }
+
+    @Override
+    public long getCacheHitCount() {
+        return statistics.getCacheHitCount();
+    }
+
+    @Override
+    public long getCacheMissCount() {
+        return statistics.getCacheMissCount();
+    }
+
+    @Override
+    public double getCacheHitRatio() {
+        long hits = statistics.getCacheHitCount();
+        long lookups = hits + statistics.getCacheMissCount();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public int getQueryPlanCacheSize() {
+        return queryPlanCache.size();
+    }
+
+    @Override
+    public int getQueryPlanCacheMaxSize() {
+        return queryPlanCache.getMaxSize();
+    }
+
+    @Override
+    public long getQueryPlanCacheHitCount() {
+        return queryPlanCache.getHitCount();
+    }
+
+    @Override
+    public long getQueryPlanCacheMissCount() {
+        return queryPlanCache.getMissCount();
+    }
+
+    @Override
+    public long getPrepareStatementCount() {
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Override
+    public long getExecuteStatementCount() {
+        return statistics.getExecuteStatementCount();
+    }
+
+    @Override
+    public long getFlushCount() {
+        return statistics.getFlushCount();
+    }
+
+    @Override
+    public double getFlushTimeMillis() {
+        return toMillis(statistics.getFlushTime());
+    }
+
+    @Override
+    public double getAverageFlushTimeMillis() {
+        long flushes = statistics.getFlushCount();
+        return flushes == 0 ? 0 : toMillis(statistics.getFlushTime()) / flushes;
+    }
+
+    @Override
+    public long getTransactionCount() {
+        return factory.getConnectionMetrics().getTransactionCount();
+    }
+
+    @Override
+    public double getAverageConnectionHoldTimeMillis() {
+        return toMillis(factory.getConnectionMetrics().getAverageHoldTime());
+    }
+
+    @Override
+    public double getMaxConnectionHoldTimeMillis() {
+        return toMillis(factory.getConnectionMetrics().getMaxHoldTime());
+    }
+
+    @Override
+    public int getPoolActiveConnections() {
+        return readPool(HikariPoolMXBean::getActiveConnections);
+    }
+
+    @Override
+    public int getPoolIdleConnections() {
+        return readPool(HikariPoolMXBean::getIdleConnections);
+    }
+
+    @Override
+    public int getPoolTotalConnections() {
+        return readPool(HikariPoolMXBean::getTotalConnections);
+    }
+
+    @Override
+    public int getPoolThreadsAwaitingConnection() {
+        return readPool(HikariPoolMXBean::getThreadsAwaitingConnection);
+    }
+
+    @Override
+    public void resetStatistics() {
+        statistics.clear();
+        queryPlanCache.clearCounters();
+    }
+
+    @Override
+    public List<String> dumpSlowestQueries(int limit) {
+        return statistics.getQueryStatistics().entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().getExecuteTime()))
+                .filter(entry -> entry.getValue().count() > 0)
+                .sorted(Comparator.comparingLong((Map.Entry<String, LatencySnapshot> entry) -> entry.getValue().p99Nanos())
+                        .reversed())
+                .limit(limit)
+                .map(entry -> formatQuery(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    private static String formatQuery(String sqlShape, LatencySnapshot executeTime) {
+        return "count=%d p50=%.3f p99=%.3f max=%.3f: %s".formatted(executeTime.count(),
+                executeTime.p50Nanos() / NANOS_PER_MILLI, executeTime.p99Nanos() / NANOS_PER_MILLI,
+                executeTime.maxNanos() / NANOS_PER_MILLI, sqlShape);
+    }
+
+    private int readPool(ToIntFunction<HikariPoolMXBean> reader) {
+        if (dataSource instanceof HikariDataSource hikariDataSource) {
+            HikariPoolMXBean pool = hikariDataSource.getHikariPoolMXBean();
+            if (Objects.nonNull(pool)) {
+                return reader.applyAsInt(pool);
+            }
+        }
+        return -1;
+    }
+
+    private static double toMillis(Duration duration) {
+        return duration.toNanos() / NANOS_PER_MILLI;
+    }
+}
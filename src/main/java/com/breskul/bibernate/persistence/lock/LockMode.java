@@ -0,0 +1,23 @@
+package com.breskul.bibernate.persistence.lock;
+
+/**
+ * Pessimistic lock taken on the rows read by a locking query.
+ */
+public enum LockMode {
+    /**
+     * Shared lock, other transactions can read and share-lock the rows but not change them.
+     */
+    PESSIMISTIC_READ,
+    /**
+     * Exclusive lock, waits until the rows locked by other transactions are released.
+     */
+    PESSIMISTIC_WRITE,
+    /**
+     * Exclusive lock which fails immediately if a row is locked by another transaction.
+     */
+    NOWAIT,
+    /**
+     * Exclusive lock which skips the rows locked by other transactions.
+     */
+    SKIP_LOCKED
+}
@@ -0,0 +1,38 @@
+package com.breskul.bibernate.persistence.lock;
+
+import com.breskul.bibernate.exception.EntityManagerException;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * <p>Lock mode of a locking read together with the time to wait for the rows locked by other transactions.</p>
+ *
+ * @param mode    {@link LockMode} lock taken on the read rows
+ * @param timeout {@link Duration} maximum time to wait for a lock, null to wait as long as the database does
+ */
+public record LockOptions(LockMode mode, Duration timeout) {
+
+    public LockOptions {
+        Objects.requireNonNull(mode, "Lock mode must not be null");
+        if (Objects.nonNull(timeout) && timeout.isNegative()) {
+            throw new EntityManagerException("Lock timeout must not be negative", "Pass zero or positive lock timeout");
+        }
+    }
+
+    /**
+     * @param mode lock mode
+     * @return lock options without timeout
+     */
+    public static LockOptions of(LockMode mode) {
+        return new LockOptions(mode, null);
+    }
+
+    /**
+     * @param timeout maximum time to wait for a lock
+     * @return lock options of the same mode with the timeout
+     */
+    public LockOptions withTimeout(Duration timeout) {
+        return new LockOptions(mode, timeout);
+    }
+}
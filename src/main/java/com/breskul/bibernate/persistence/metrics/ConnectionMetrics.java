@@ -0,0 +1,73 @@
+package com.breskul.bibernate.persistence.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Connection hold time of finished transactions, shared by the entity managers of one factory. The hold time of a
+ * transaction is measured from taking the connection from the data source to returning it. Transactions which did
+ * not issue any statement in the lazy connection mode never take a connection and are counted separately.</p>
+ */
+public class ConnectionMetrics {
+
+    private final LongAdder transactionCount = new LongAdder();
+    private final LongAdder connectionCount = new LongAdder();
+    private final LongAdder totalHoldNanos = new LongAdder();
+    private final LongAccumulator maxHoldNanos = new LongAccumulator(Long::max, 0);
+
+    /**
+     * <p>Record a finished transaction which held a connection.</p>
+     *
+     * @param holdNanos connection hold time in nanoseconds
+     */
+    public void recordConnection(long holdNanos) {
+        transactionCount.increment();
+        connectionCount.increment();
+        totalHoldNanos.add(holdNanos);
+        maxHoldNanos.accumulate(holdNanos);
+    }
+
+    /**
+     * <p>Record a finished transaction which did not take a connection.</p>
+     */
+    public void recordWithoutConnection() {
+        transactionCount.increment();
+    }
+
+    /**
+     * @return number of finished transactions
+     */
+    public long getTransactionCount() {
+        return transactionCount.sum();
+    }
+
+    /**
+     * @return number of finished transactions which took a connection
+     */
+    public long getConnectionCount() {
+        return connectionCount.sum();
+    }
+
+    /**
+     * @return sum of the connection hold times
+     */
+    public Duration getTotalHoldTime() {
+        return Duration.ofNanos(totalHoldNanos.sum());
+    }
+
+    /**
+     * @return the longest connection hold time
+     */
+    public Duration getMaxHoldTime() {
+        return Duration.ofNanos(maxHoldNanos.get());
+    }
+
+    /**
+     * @return average connection hold time of the transactions which took a connection
+     */
+    public Duration getAverageHoldTime() {
+        long connections = connectionCount.sum();
+        return connections == 0 ? Duration.ZERO : Duration.ofNanos(totalHoldNanos.sum() / connections);
+    }
+}
@@ -0,0 +1,82 @@
+package com.breskul.bibernate.persistence.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Counters of one entity class collected by {@link Statistics}.</p>
+ */
+public class EntityStatistics {
+
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder insertCount = new LongAdder();
+    private final LongAdder updateCount = new LongAdder();
+    private final LongAdder deleteCount = new LongAdder();
+    private final LongAdder cacheHitCount = new LongAdder();
+    private final LongAdder cacheMissCount = new LongAdder();
+
+    void recordLoad(long count) {
+        loadCount.add(count);
+    }
+
+    void recordInsert() {
+        insertCount.increment();
+    }
+
+    void recordUpdate() {
+        updateCount.increment();
+    }
+
+    void recordDelete() {
+        deleteCount.increment();
+    }
+
+    void recordCacheHit() {
+        cacheHitCount.increment();
+    }
+
+    void recordCacheMiss() {
+        cacheMissCount.increment();
+    }
+
+    /**
+     * @return number of entities created from the result set rows
+     */
+    public long getLoadCount() {
+        return loadCount.sum();
+    }
+
+    /**
+     * @return number of inserted entities
+     */
+    public long getInsertCount() {
+        return insertCount.sum();
+    }
+
+    /**
+     * @return number of updated entities
+     */
+    public long getUpdateCount() {
+        return updateCount.sum();
+    }
+
+    /**
+     * @return number of deleted entities
+     */
+    public long getDeleteCount() {
+        return deleteCount.sum();
+    }
+
+    /**
+     * @return number of lookups served by the first level cache
+     */
+    public long getCacheHitCount() {
+        return cacheHitCount.sum();
+    }
+
+    /**
+     * @return number of lookups which missed the first level cache
+     */
+    public long getCacheMissCount() {
+        return cacheMissCount.sum();
+    }
+}
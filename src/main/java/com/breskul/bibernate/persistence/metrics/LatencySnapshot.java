@@ -0,0 +1,36 @@
+package com.breskul.bibernate.persistence.metrics;
+
+import java.time.Duration;
+
+/**
+ * LatencySnapshot record holds the percentiles of a {@link LatencyHistogram} at the moment of the snapshot
+ *
+ * @param count number of recorded latencies
+ * @param meanNanos mean latency in nanoseconds
+ * @param p50Nanos median latency in nanoseconds
+ * @param p99Nanos 99th percentile in nanoseconds
+ * @param p999Nanos 99.9th percentile in nanoseconds
+ * @param maxNanos the highest recorded latency in nanoseconds
+ */
+public record LatencySnapshot(long count, long meanNanos, long p50Nanos, long p99Nanos, long p999Nanos, long maxNanos) {
+
+    public Duration getMean() {
+        return Duration.ofNanos(meanNanos);
+    }
+
+    public Duration getP50() {
+        return Duration.ofNanos(p50Nanos);
+    }
+
+    public Duration getP99() {
+        return Duration.ofNanos(p99Nanos);
+    }
+
+    public Duration getP999() {
+        return Duration.ofNanos(p999Nanos);
+    }
+
+    public Duration getMax() {
+        return Duration.ofNanos(maxNanos);
+    }
+}
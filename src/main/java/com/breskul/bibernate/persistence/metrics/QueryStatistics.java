@@ -0,0 +1,33 @@
+package com.breskul.bibernate.persistence.metrics;
+
+/**
+ * <p>Latencies of one SQL shape collected by {@link Statistics}. Execute time is spent by the driver executing the
+ * statement, fetch time is spent reading the rows of the result set and hydrating the entities from them.</p>
+ */
+public class QueryStatistics {
+
+    private final LatencyHistogram executeHistogram = new LatencyHistogram();
+    private final LatencyHistogram fetchHistogram = new LatencyHistogram();
+
+    void recordExecution(long nanos) {
+        executeHistogram.record(nanos);
+    }
+
+    void recordFetch(long nanos) {
+        fetchHistogram.record(nanos);
+    }
+
+    /**
+     * @return {@link LatencySnapshot} of the execute times
+     */
+    public LatencySnapshot getExecuteTime() {
+        return executeHistogram.snapshot();
+    }
+
+    /**
+     * @return {@link LatencySnapshot} of the fetch times, empty for the statements without result set
+     */
+    public LatencySnapshot getFetchTime() {
+        return fetchHistogram.snapshot();
+    }
+}
@@ -0,0 +1,325 @@
+package com.breskul.bibernate.persistence.metrics;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Counters of the work done by the entity managers of one factory. The counters are {@link LongAdder}s, so the
+ * entity managers record concurrently without contention. Statistics are disabled by default, a disabled instance
+ * returns from every record method at once.</p>
+ * <p>Latencies are kept per SQL shape, the SQL with parameter placeholders instead of values, for at most
+ * {@link #MAX_QUERY_SHAPES} shapes. Statements of a known shape are recorded without allocation.</p>
+ */
+public class Statistics {
+
+    public static final int MAX_QUERY_SHAPES = 1024;
+
+    private final LongAdder prepareStatementCount = new LongAdder();
+    private final LongAdder executeStatementCount = new LongAdder();
+    private final LongAdder rowReadCount = new LongAdder();
+    private final LongAdder entityLoadCount = new LongAdder();
+    private final LongAdder entityInsertCount = new LongAdder();
+    private final LongAdder entityUpdateCount = new LongAdder();
+    private final LongAdder entityDeleteCount = new LongAdder();
+    private final LongAdder cacheHitCount = new LongAdder();
+    private final LongAdder cacheMissCount = new LongAdder();
+    private final LongAdder collectionInitializationCount = new LongAdder();
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private final LongAdder connectionAcquisitionCount = new LongAdder();
+    private final LongAdder connectionAcquisitionNanos = new LongAdder();
+    private final Map<Class<?>, EntityStatistics> entityStatistics = new ConcurrentHashMap<>();
+    private final Map<String, QueryStatistics> queryStatistics = new ConcurrentHashMap<>();
+
+    private volatile boolean enabled;
+    private volatile long slowQueryThresholdNanos = -1;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * <p>Resets all counters.</p>
+     */
+    public void clear() {
+        prepareStatementCount.reset();
+        executeStatementCount.reset();
+        rowReadCount.reset();
+        entityLoadCount.reset();
+        entityInsertCount.reset();
+        entityUpdateCount.reset();
+        entityDeleteCount.reset();
+        cacheHitCount.reset();
+        cacheMissCount.reset();
+        collectionInitializationCount.reset();
+        flushCount.reset();
+        flushNanos.reset();
+        connectionAcquisitionCount.reset();
+        connectionAcquisitionNanos.reset();
+        entityStatistics.clear();
+        queryStatistics.clear();
+    }
+
+    /**
+     * <p>Statements which execute longer than the threshold are logged with their bind values and caller, whether
+     * statistics are enabled or not.</p>
+     *
+     * @param threshold {@link Duration} slow query threshold, null to disable the slow query log
+     */
+    public void setSlowQueryThreshold(Duration threshold) {
+        this.slowQueryThresholdNanos = threshold == null ? -1 : threshold.toNanos();
+    }
+
+    /**
+     * @return slow query threshold, null if the slow query log is disabled
+     */
+    public Duration getSlowQueryThreshold() {
+        long threshold = slowQueryThresholdNanos;
+        return threshold < 0 ? null : Duration.ofNanos(threshold);
+    }
+
+    /**
+     * @param nanos execute time of a statement in nanoseconds
+     * @return true if the statement has to be logged as slow query
+     */
+    public boolean isSlowQuery(long nanos) {
+        long threshold = slowQueryThresholdNanos;
+        return threshold >= 0 && nanos >= threshold;
+    }
+
+    /**
+     * @param sqlShape SQL of the statement with parameter placeholders
+     * @param nanos    execute time in nanoseconds
+     */
+    public void recordQueryExecution(String sqlShape, long nanos) {
+        if (enabled) {
+            var statistics = getOrCreateQueryStatistics(sqlShape);
+            if (statistics != null) {
+                statistics.recordExecution(nanos);
+            }
+        }
+    }
+
+    /**
+     * @param sqlShape SQL of the statement with parameter placeholders
+     * @param nanos    time of reading and hydrating the rows of the result set in nanoseconds
+     */
+    public void recordQueryFetch(String sqlShape, long nanos) {
+        if (enabled) {
+            var statistics = getOrCreateQueryStatistics(sqlShape);
+            if (statistics != null) {
+                statistics.recordFetch(nanos);
+            }
+        }
+    }
+
+    private QueryStatistics getOrCreateQueryStatistics(String sqlShape) {
+        var statistics = queryStatistics.get(sqlShape);
+        if (statistics != null || queryStatistics.size() >= MAX_QUERY_SHAPES) {
+            return statistics;
+        }
+        return queryStatistics.computeIfAbsent(sqlShape, shape -> new QueryStatistics());
+    }
+
+    /**
+     * @param sqlShape SQL of the statement with parameter placeholders
+     * @return latencies of the SQL shape, null if nothing has been recorded for it
+     */
+    public QueryStatistics getQueryStatistics(String sqlShape) {
+        return queryStatistics.get(sqlShape);
+    }
+
+    /**
+     * @return latencies of the SQL shapes recorded so far
+     */
+    public Map<String, QueryStatistics> getQueryStatistics() {
+        return Map.copyOf(queryStatistics);
+    }
+
+    public void recordStatementPrepared() {
+        if (enabled) {
+            prepareStatementCount.increment();
+        }
+    }
+
+    /**
+     * @param count number of executed statements, the size of the batch for batch execution
+     */
+    public void recordStatementsExecuted(int count) {
+        if (enabled) {
+            executeStatementCount.add(count);
+        }
+    }
+
+    /**
+     * @param count number of the result set rows read
+     */
+    public void recordRowsRead(long count) {
+        if (enabled) {
+            rowReadCount.add(count);
+        }
+    }
+
+    /**
+     * @param entityType {@link Class} of the entities created from the result set rows
+     * @param count      number of the created entities
+     */
+    public void recordEntitiesLoaded(Class<?> entityType, long count) {
+        if (enabled && count > 0) {
+            entityLoadCount.add(count);
+            getOrCreateEntityStatistics(entityType).recordLoad(count);
+        }
+    }
+
+    public void recordEntityInserted(Class<?> entityType) {
+        if (enabled) {
+            entityInsertCount.increment();
+            getOrCreateEntityStatistics(entityType).recordInsert();
+        }
+    }
+
+    public void recordEntityUpdated(Class<?> entityType) {
+        if (enabled) {
+            entityUpdateCount.increment();
+            getOrCreateEntityStatistics(entityType).recordUpdate();
+        }
+    }
+
+    public void recordEntityDeleted(Class<?> entityType) {
+        if (enabled) {
+            entityDeleteCount.increment();
+            getOrCreateEntityStatistics(entityType).recordDelete();
+        }
+    }
+
+    public void recordCacheHit(Class<?> entityType) {
+        if (enabled) {
+            cacheHitCount.increment();
+            getOrCreateEntityStatistics(entityType).recordCacheHit();
+        }
+    }
+
+    public void recordCacheMiss(Class<?> entityType) {
+        if (enabled) {
+            cacheMissCount.increment();
+            getOrCreateEntityStatistics(entityType).recordCacheMiss();
+        }
+    }
+
+    /**
+     * @param count number of lazy collections initialized by one query
+     */
+    public void recordCollectionsInitialized(int count) {
+        if (enabled) {
+            collectionInitializationCount.add(count);
+        }
+    }
+
+    /**
+     * @param nanos duration of the flush in nanoseconds
+     */
+    public void recordFlush(long nanos) {
+        if (enabled) {
+            flushCount.increment();
+            flushNanos.add(nanos);
+        }
+    }
+
+    /**
+     * @param nanos time spent waiting for the connection of the data source in nanoseconds
+     */
+    public void recordConnectionAcquisition(long nanos) {
+        if (enabled) {
+            connectionAcquisitionCount.increment();
+            connectionAcquisitionNanos.add(nanos);
+        }
+    }
+
+    private EntityStatistics getOrCreateEntityStatistics(Class<?> entityType) {
+        var statistics = entityStatistics.get(entityType);
+        return statistics != null ? statistics : entityStatistics.computeIfAbsent(entityType, type -> new EntityStatistics());
+    }
+
+    /**
+     * @param entityType {@link Class} of the entity
+     * @return counters of the entity class, all zero if nothing has been recorded for it
+     */
+    public EntityStatistics getEntityStatistics(Class<?> entityType) {
+        return entityStatistics.getOrDefault(entityType, new EntityStatistics());
+    }
+
+    /**
+     * @return counters of the entity classes recorded so far
+     */
+    public Map<Class<?>, EntityStatistics> getEntityStatistics() {
+        return Map.copyOf(entityStatistics);
+    }
+
+    public long getPrepareStatementCount() {
+        return prepareStatementCount.sum();
+    }
+
+    public long getExecuteStatementCount() {
+        return executeStatementCount.sum();
+    }
+
+    public long getRowReadCount() {
+        return rowReadCount.sum();
+    }
+
+    public long getEntityLoadCount() {
+        return entityLoadCount.sum();
+    }
+
+    public long getEntityInsertCount() {
+        return entityInsertCount.sum();
+    }
+
+    public long getEntityUpdateCount() {
+        return entityUpdateCount.sum();
+    }
+
+    public long getEntityDeleteCount() {
+        return entityDeleteCount.sum();
+    }
+
+    public long getCacheHitCount() {
+        return cacheHitCount.sum();
+    }
+
+    public long getCacheMissCount() {
+        return cacheMissCount.sum();
+    }
+
+    public long getCollectionInitializationCount() {
+        return collectionInitializationCount.sum();
+    }
+
+    public long getFlushCount() {
+        return flushCount.sum();
+    }
+
+    /**
+     * @return sum of the flush durations
+     */
+    public Duration getFlushTime() {
+        return Duration.ofNanos(flushNanos.sum());
+    }
+
+    public long getConnectionAcquisitionCount() {
+        return connectionAcquisitionCount.sum();
+    }
+
+    /**
+     * @return sum of the times spent waiting for connections of the data source
+     */
+    public Duration getConnectionAcquisitionTime() {
+        return Duration.ofNanos(connectionAcquisitionNanos.sum());
+    }
+}
@@ -0,0 +1,9 @@
+package com.breskul.bibernate.persistence.model;
+
+/**
+ * CollectionRole record identifies a collection field of the entity class
+ * @param owner class of the entity which owns the collection
+ * @param field name of the collection field
+ */
+public record CollectionRole(Class<?> owner, String field) {
+}
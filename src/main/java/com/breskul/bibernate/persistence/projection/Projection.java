@@ -0,0 +1,54 @@
+package com.breskul.bibernate.persistence.projection;
+
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <p>Describes a projection of entity columns to a Java record or DTO. Projected rows are mapped straight to the result type
+ * with its constructor, no entities are created and the persistence context is not used.</p>
+ * <pre>{@code
+ * record PersonName(Long id, String firstName) {}
+ *
+ * List<PersonName> names = entityManager.findProjections(Projection.of(Person.class, PersonName.class));
+ * List<PersonDto> dtos = entityManager.findProjections(Projection.of(Person.class, PersonDto.class, "id", "lastName"));
+ * }</pre>
+ *
+ * @param entityType class of the projected entity
+ * @param resultType class of the projection result
+ * @param attributes entity field names passed to the result constructor in order
+ * @param <R>        type of the projection result
+ */
+public record Projection<R>(Class<?> entityType, Class<R> resultType, List<String> attributes) {
+
+    /**
+     * Create projection to the record, record components are mapped to the entity fields with the same names
+     * @param entityType class of the projected entity
+     * @param recordType class of the record
+     * @return new projection
+     */
+    public static <R extends Record> Projection<R> of(Class<?> entityType, Class<R> recordType) {
+        var attributes = Arrays.stream(recordType.getRecordComponents())
+                .map(RecordComponent::getName)
+                .toList();
+        return new Projection<>(entityType, recordType, attributes);
+    }
+
+    /**
+     * Create constructor expression projection, the values of the attributes are passed to the constructor of the result type
+     * @param entityType class of the projected entity
+     * @param resultType class of the result which has a constructor with parameters for the given attributes
+     * @param attributes entity field names
+     * @return new projection
+     */
+    public static <R> Projection<R> of(Class<?> entityType, Class<R> resultType, String... attributes) {
+        return new Projection<>(entityType, resultType, List.of(attributes));
+    }
+
+    public Projection {
+        Objects.requireNonNull(entityType);
+        Objects.requireNonNull(resultType);
+        attributes = List.copyOf(attributes);
+    }
+}
@@ -0,0 +1,140 @@
+package com.breskul.bibernate.persistence.projection;
+
+import com.breskul.bibernate.exception.InternalException;
+import com.breskul.bibernate.exception.JdbcDaoException;
+import com.breskul.bibernate.persistence.util.DaoUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>Compiled mapper of the {@link Projection}: the select list of the projected columns and a constructor
+ * method handle which creates the result from the columns read by their positions.
+ * Mappers are compiled once per projection and cached.</p>
+ *
+ * @param <R> type of the projection result
+ */
+public final class ProjectionMapper<R> {
+
+    private static final Map<Projection<?>, ProjectionMapper<?>> mappers = new ConcurrentHashMap<>();
+
+    private final Class<R> resultType;
+    private final String selectColumns;
+    private final String[] columnNames;
+    private final Class<?>[] columnTypes;
+    private final boolean[] primitives;
+    private final MethodHandle constructor;
+
+    private ProjectionMapper(Class<R> resultType, String[] columnNames, Class<?>[] parameterTypes, MethodHandle constructor) {
+        this.resultType = resultType;
+        this.selectColumns = String.join(", ", columnNames);
+        this.columnNames = columnNames;
+        this.columnTypes = Arrays.stream(parameterTypes).map(ProjectionMapper::wrap).toArray(Class<?>[]::new);
+        this.primitives = new boolean[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            primitives[i] = parameterTypes[i].isPrimitive();
+        }
+        this.constructor = constructor;
+    }
+
+    /**
+     * <p>Return the compiled mapper for the projection, compiling it on the first call.</p>
+     *
+     * @param projection {@link Projection} projection to compile
+     * @param <R>        type of the projection result
+     * @return compiled mapper
+     * @throws InternalException if the attributes are not entity columns or the result type has no matching constructor
+     */
+    public static <R> ProjectionMapper<R> of(Projection<R> projection) {
+        return (ProjectionMapper<R>) mappers.computeIfAbsent(projection, ProjectionMapper::compile);
+    }
+
+    private static <R> ProjectionMapper<R> compile(Projection<R> projection) {
+        var entityType = projection.entityType();
+        List<Field> fields = projection.attributes().stream()
+                .map(attribute -> getColumnField(entityType, attribute))
+                .toList();
+        var columnNames = fields.stream()
+                .map(DaoUtils::getColumnName)
+                .toArray(String[]::new);
+        var constructor = findConstructor(projection.resultType(), fields.size());
+        try {
+            var lookup = MethodHandles.privateLookupIn(projection.resultType(), MethodHandles.lookup());
+            var handle = lookup.unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, columnNames.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+            return new ProjectionMapper<>(projection.resultType(), columnNames, constructor.getParameterTypes(), handle);
+        } catch (IllegalAccessException e) {
+            throw new InternalException("Can not access constructor of %s".formatted(projection.resultType().getName()),
+                    "Make sure that projection class is accessible", e);
+        }
+    }
+
+    private static Field getColumnField(Class<?> entityType, String attribute) {
+        return Arrays.stream(entityType.getDeclaredFields())
+                .filter(field -> field.getName().equals(attribute))
+                .filter(field -> !DaoUtils.isCollectionField(field))
+                .findFirst()
+                .orElseThrow(() -> new InternalException("There is no column attribute '%s' in %s"
+                        .formatted(attribute, entityType.getSimpleName()), "Use names of the entity column fields in the projection"));
+    }
+
+    private static Constructor<?> findConstructor(Class<?> resultType, int parametersCount) {
+        var constructors = Arrays.stream(resultType.getDeclaredConstructors())
+                .filter(constructor -> constructor.getParameterCount() == parametersCount)
+                .toList();
+        if (constructors.size() != 1) {
+            throw new InternalException("%s must have exactly one constructor with %d parameters"
+                    .formatted(resultType.getSimpleName(), parametersCount), "Declare one constructor for the projected attributes");
+        }
+        return constructors.get(0);
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+
+    /**
+     * @return comma-separated projected columns
+     */
+    public String getSelectColumns() {
+        return selectColumns;
+    }
+
+    /**
+     * <p>Create the result from the current row of the result set.</p>
+     *
+     * @param resultSet {@link ResultSet} positioned on the row, projected columns go first in the select list order
+     * @return projection result
+     * @throws SQLException if the column can not be read
+     * @throws JdbcDaoException if the column is NULL and the constructor parameter is primitive
+     */
+    public R map(ResultSet resultSet) throws SQLException {
+        var values = new Object[columnTypes.length];
+        for (int i = 0; i < columnTypes.length; i++) {
+            values[i] = resultSet.getObject(i + 1, columnTypes[i]);
+            if (values[i] == null && primitives[i]) {
+                throw new JdbcDaoException("Column '%s' is NULL, but it is projected to a primitive parameter of %s"
+                        .formatted(columnNames[i], resultType.getSimpleName()),
+                        "Use the wrapper type for the nullable column in the projection");
+            }
+        }
+        try {
+            return resultType.cast(constructor.invokeExact(values));
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InternalException("Can not create %s".formatted(resultType.getSimpleName()),
+                    "Check the constructor of the projection class", e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.breskul.bibernate.persistence.query;
+
+import com.breskul.bibernate.exception.EntityManagerException;
+import com.breskul.bibernate.persistence.util.DaoUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Keyset record is the sort key of a keyset paginated query and the key of the last seen entity.
+ * Pages are ordered ascending by the key attributes and start right after the last seen key,
+ * so the key attributes together must be unique and not null. The key of the first page has no values.
+ * @param attributes column attributes of the root entity, empty list means the identifier
+ * @param values key of the last seen entity, empty list for the first page
+ */
+public record Keyset(List<String> attributes, List<Object> values) {
+
+    public Keyset {
+        attributes = List.copyOf(attributes);
+        values = Collections.unmodifiableList(new ArrayList<>(values));
+        if (!values.isEmpty() && values.size() != attributes.size()) {
+            throw new EntityManagerException("Keyset of %s has %d values".formatted(attributes, values.size()),
+                    "Pass one value for every key attribute");
+        }
+    }
+
+    /**
+     * Key of the first page sorted by the identifier
+     * @return new keyset
+     */
+    public static Keyset byId() {
+        return new Keyset(List.of(), List.of());
+    }
+
+    /**
+     * Key of the first page sorted by the attributes
+     * @param attributes column attributes of the root entity
+     * @return new keyset
+     */
+    public static Keyset of(String... attributes) {
+        return new Keyset(List.of(attributes), List.of());
+    }
+
+    /**
+     * Key of the page which starts after the given key values
+     * @param values key of the last seen entity
+     * @return new keyset
+     */
+    public Keyset withValues(Object... values) {
+        return new Keyset(attributes, Arrays.asList(values));
+    }
+
+    /**
+     * Key of the page which starts after the entity
+     * @param entity last seen entity
+     * @return new keyset
+     */
+    public Keyset after(Object entity) {
+        var entityType = entity.getClass();
+        var keyAttributes = resolveAttributes(entityType);
+        var keyValues = keyAttributes.stream()
+                .map(attribute -> Arrays.stream(entityType.getDeclaredFields())
+                        .filter(field -> field.getName().equals(attribute))
+                        .findFirst()
+                        .map(field -> DaoUtils.getFieldValue(entity, field))
+                        .orElseThrow(() -> new EntityManagerException("There is no attribute '%s' in %s"
+                                .formatted(attribute, entityType.getSimpleName()), "Use the name of an entity column field in the keyset")))
+                .toList();
+        if (keyValues.stream().anyMatch(Objects::isNull)) {
+            throw new EntityManagerException("Keyset %s of %s has null value".formatted(keyAttributes, entityType.getSimpleName()),
+                    "Use not null attributes in the keyset");
+        }
+        return new Keyset(keyAttributes, keyValues);
+    }
+
+    /**
+     * @param entityType class of the root entity
+     * @return key attributes, the identifier attribute if the attributes are empty
+     */
+    public List<String> resolveAttributes(Class<?> entityType) {
+        return attributes.isEmpty() ? List.of(DaoUtils.getIdentifierField(entityType).getName()) : attributes;
+    }
+}
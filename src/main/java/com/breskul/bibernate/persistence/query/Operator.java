@@ -0,0 +1,38 @@
+package com.breskul.bibernate.persistence.query;
+
+/**
+ * Comparison operators of {@link Query} predicates
+ */
+public enum Operator {
+    EQUAL("%s = ?"),
+    NOT_EQUAL("%s <> ?"),
+    LESS_THAN("%s < ?"),
+    LESS_THAN_OR_EQUAL("%s <= ?"),
+    GREATER_THAN("%s > ?"),
+    GREATER_THAN_OR_EQUAL("%s >= ?"),
+    LIKE("%s LIKE ?"),
+    IS_NULL("%s IS NULL"),
+    IS_NOT_NULL("%s IS NOT NULL");
+
+    private final String condition;
+
+    Operator(String condition) {
+        this.condition = condition;
+    }
+
+    /**
+     * @return true if the operator compares the column with a parameter
+     */
+    public boolean hasParameter() {
+        return condition.endsWith("?");
+    }
+
+    /**
+     * Render the condition of the column
+     * @param column qualified column name
+     * @return condition of the <code>WHERE</code> clause
+     */
+    public String render(String column) {
+        return String.format(condition, column);
+    }
+}
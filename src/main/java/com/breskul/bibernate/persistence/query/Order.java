@@ -0,0 +1,17 @@
+package com.breskul.bibernate.persistence.query;
+
+/**
+ * Order record is one sort key of the {@link Query}
+ * @param path attribute of the root entity or <code>association.attribute</code> of a to-one association
+ * @param ascending true for ascending order
+ */
+public record Order(String path, boolean ascending) {
+
+    public static Order asc(String path) {
+        return new Order(path, true);
+    }
+
+    public static Order desc(String path) {
+        return new Order(path, false);
+    }
+}
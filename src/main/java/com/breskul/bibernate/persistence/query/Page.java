@@ -0,0 +1,20 @@
+package com.breskul.bibernate.persistence.query;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Page record is one page of a keyset paginated query
+ * @param content entities of the page in the key order
+ * @param next keyset of the next page, null if this page is the last one
+ * @param <T> type of the entities
+ */
+public record Page<T>(List<T> content, Keyset next) {
+
+    /**
+     * @return true if there may be more entities after this page
+     */
+    public boolean hasNext() {
+        return Objects.nonNull(next);
+    }
+}
@@ -0,0 +1,28 @@
+package com.breskul.bibernate.persistence.query;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Sets one parameter of the prepared statement from the parameter values of the query execution
+ */
+@FunctionalInterface
+public interface ParameterBinder {
+
+    /**
+     * @param preparedStatement statement of the plan
+     * @param parameterIndex index of the statement parameter starting from 1
+     * @param values parameter values of the execution
+     * @throws SQLException if the parameter can not be set
+     */
+    void bind(PreparedStatement preparedStatement, int parameterIndex, Object[] values) throws SQLException;
+
+    /**
+     * Binder of the value with the given index
+     * @param valueIndex index of the value in the parameter values
+     * @return binder which sets the value as is
+     */
+    static ParameterBinder of(int valueIndex) {
+        return (preparedStatement, parameterIndex, values) -> preparedStatement.setObject(parameterIndex, values[valueIndex]);
+    }
+}
@@ -0,0 +1,9 @@
+package com.breskul.bibernate.persistence.query;
+
+/**
+ * Predicate record is the shape of one condition of the {@link Query}, the compared value is kept by the query
+ * @param path attribute of the root entity or <code>association.attribute</code> of a mapped association
+ * @param operator comparison operator
+ */
+public record Predicate(String path, Operator operator) {
+}
@@ -0,0 +1,216 @@
+package com.breskul.bibernate.persistence.query;
+
+import com.breskul.bibernate.exception.EntityManagerException;
+import com.breskul.bibernate.persistence.graph.EntityGraph;
+import com.breskul.bibernate.persistence.lock.LockOptions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <p>Typed query of the entities for {@link com.breskul.bibernate.persistence.EntityManager#findAll(Query)}.
+ * Predicates are joined by <code>AND</code> and may reference the attributes of mapped associations
+ * as <code>association.attribute</code>. Result entities are fetched as defined by the {@link EntityGraph}.</p>
+ * <p>The query is immutable, every method returns a new query. Queries which differ only by the values
+ * have the same {@link QueryShape} and are executed by the same cached plan.</p>
+ * <pre>{@code
+ * Query<Person> query = Query.from(Person.class)
+ *         .where("lastName", Operator.EQUAL, "Smith")
+ *         .where("notes.body", Operator.LIKE, "%java%")
+ *         .orderBy(Order.asc("firstName"))
+ *         .limit(10);
+ * List<Person> persons = entityManager.findAll(query);
+ * }</pre>
+ *
+ * @param <T> type of the queried entity
+ */
+public final class Query<T> {
+
+    private final Class<T> rootType;
+    private final EntityGraph<T> graph;
+    private final List<Predicate> predicates;
+    private final List<Object> values;
+    private final List<Order> orders;
+    private final Integer limit;
+    private final Integer offset;
+    private final Keyset keyset;
+    private final LockOptions lockOptions;
+
+    private Query(Class<T> rootType, EntityGraph<T> graph, List<Predicate> predicates, List<Object> values,
+                  List<Order> orders, Integer limit, Integer offset, Keyset keyset, LockOptions lockOptions) {
+        this.rootType = rootType;
+        this.graph = graph;
+        this.predicates = Collections.unmodifiableList(predicates);
+        this.values = Collections.unmodifiableList(values);
+        this.orders = Collections.unmodifiableList(orders);
+        this.limit = limit;
+        this.offset = offset;
+        this.keyset = keyset;
+        this.lockOptions = lockOptions;
+    }
+
+    /**
+     * Create a query of all entities of the class
+     * @param rootType class of the queried entity
+     * @return new query
+     */
+    public static <T> Query<T> from(Class<T> rootType) {
+        return new Query<>(rootType, EntityGraph.create(rootType), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), null, null, null, null);
+    }
+
+    /**
+     * Add the equality condition
+     * @param path attribute of the entity or <code>association.attribute</code>
+     * @param value compared value
+     * @return new query
+     */
+    public Query<T> where(String path, Object value) {
+        return where(path, Operator.EQUAL, value);
+    }
+
+    /**
+     * Add the condition without parameter, such as {@link Operator#IS_NULL}
+     * @param path attribute of the entity or <code>association.attribute</code>
+     * @param operator operator without parameter
+     * @return new query
+     */
+    public Query<T> where(String path, Operator operator) {
+        if (operator.hasParameter()) {
+            throw new EntityManagerException("Operator %s requires a value".formatted(operator), "Pass the compared value");
+        }
+        var newPredicates = new ArrayList<>(predicates);
+        newPredicates.add(new Predicate(path, operator));
+        return new Query<>(rootType, graph, newPredicates, new ArrayList<>(values), new ArrayList<>(orders), limit, offset, keyset, lockOptions);
+    }
+
+    /**
+     * Add the condition
+     * @param path attribute of the entity or <code>association.attribute</code>
+     * @param operator comparison operator
+     * @param value compared value
+     * @return new query
+     */
+    public Query<T> where(String path, Operator operator, Object value) {
+        if (!operator.hasParameter()) {
+            return where(path, operator);
+        }
+        if (Objects.isNull(value)) {
+            throw new EntityManagerException("Value of condition on '%s' is null".formatted(path),
+                    "Use IS_NULL or IS_NOT_NULL operator to compare with null");
+        }
+        var newPredicates = new ArrayList<>(predicates);
+        newPredicates.add(new Predicate(path, operator));
+        var newValues = new ArrayList<>(values);
+        newValues.add(value);
+        return new Query<>(rootType, graph, newPredicates, newValues, new ArrayList<>(orders), limit, offset, keyset, lockOptions);
+    }
+
+    /**
+     * Add the sort key after the existing ones
+     * @param order sort key
+     * @return new query
+     */
+    public Query<T> orderBy(Order order) {
+        var newOrders = new ArrayList<>(orders);
+        newOrders.add(order);
+        return new Query<>(rootType, graph, new ArrayList<>(predicates), new ArrayList<>(values), newOrders, limit, offset, keyset, lockOptions);
+    }
+
+    /**
+     * Limit the number of result entities
+     * @param limit maximum number of entities
+     * @return new query
+     */
+    public Query<T> limit(int limit) {
+        if (limit < 0) {
+            throw new EntityManagerException("Limit must not be negative", "Pass zero or positive limit");
+        }
+        return new Query<>(rootType, graph, new ArrayList<>(predicates), new ArrayList<>(values), new ArrayList<>(orders), limit, offset, keyset, lockOptions);
+    }
+
+    /**
+     * Skip the first entities of the result
+     * @param offset number of skipped entities
+     * @return new query
+     */
+    public Query<T> offset(int offset) {
+        if (offset < 0) {
+            throw new EntityManagerException("Offset must not be negative", "Pass zero or positive offset");
+        }
+        return new Query<>(rootType, graph, new ArrayList<>(predicates), new ArrayList<>(values), new ArrayList<>(orders), limit, offset, keyset, lockOptions);
+    }
+
+    /**
+     * Select the entities after the key of the keyset in the ascending key order
+     * @param keyset sort key and the key of the last seen entity
+     * @return new query
+     */
+    public Query<T> seek(Keyset keyset) {
+        var resolved = new Keyset(keyset.resolveAttributes(rootType), keyset.values());
+        return new Query<>(rootType, graph, new ArrayList<>(predicates), new ArrayList<>(values), new ArrayList<>(orders), limit, offset, resolved, lockOptions);
+    }
+
+    /**
+     * Fetch the result entities as defined by the graph
+     * @param graph fetch graph of the queried entity
+     * @return new query
+     */
+    public Query<T> fetch(EntityGraph<T> graph) {
+        if (!graph.getRootType().equals(rootType)) {
+            throw new EntityManagerException("Entity graph of %s is passed to query %s"
+                    .formatted(graph.getRootType().getSimpleName(), rootType.getSimpleName()),
+                    "Create entity graph for the queried entity class");
+        }
+        return new Query<>(rootType, graph, new ArrayList<>(predicates), new ArrayList<>(values), new ArrayList<>(orders), limit, offset, keyset, lockOptions);
+    }
+
+    /**
+     * Lock the result rows until the end of the transaction. The lock is not part of the shape,
+     * locking and not locking queries share the plan
+     * @param lockOptions lock mode and timeout
+     * @return new query
+     */
+    public Query<T> lock(LockOptions lockOptions) {
+        return new Query<>(rootType, graph, new ArrayList<>(predicates), new ArrayList<>(values), new ArrayList<>(orders), limit, offset, keyset, lockOptions);
+    }
+
+    /**
+     * @return lock of the result rows, null if the query does not lock
+     */
+    public LockOptions getLockOptions() {
+        return lockOptions;
+    }
+
+    public Class<T> getRootType() {
+        return rootType;
+    }
+
+    /**
+     * @return shape of the query which is the key of the compiled plan
+     */
+    public QueryShape getShape() {
+        var keysetAttributes = Objects.isNull(keyset) ? List.<String>of() : keyset.attributes();
+        var keysetAfter = Objects.nonNull(keyset) && !keyset.values().isEmpty();
+        return new QueryShape(rootType, graph, predicates, orders, keysetAttributes, keysetAfter,
+                Objects.nonNull(limit), Objects.nonNull(offset));
+    }
+
+    /**
+     * @return parameter values of the query: predicate values, key values, then limit and offset
+     */
+    public Object[] getParameterValues() {
+        var parameterValues = new ArrayList<>(values);
+        if (Objects.nonNull(keyset)) {
+            parameterValues.addAll(keyset.values());
+        }
+        if (Objects.nonNull(limit)) {
+            parameterValues.add(limit);
+        }
+        if (Objects.nonNull(offset)) {
+            parameterValues.add(offset);
+        }
+        return parameterValues.toArray();
+    }
+}
@@ -0,0 +1,166 @@
+package com.breskul.bibernate.persistence.query;
+
+import com.breskul.bibernate.exception.EntityManagerException;
+import com.breskul.bibernate.persistence.graph.FetchPlan;
+import com.breskul.bibernate.persistence.graph.FetchPlanCompiler;
+import com.breskul.bibernate.persistence.graph.JoinMapping;
+import com.breskul.bibernate.persistence.util.DaoUtils;
+import com.breskul.bibernate.persistence.util.QueryUtils;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.lang.reflect.Field;
+import java.util.*;
+
+/**
+ * Compiles {@link QueryShape}s into {@link QueryPlan}s. The select list and the hydration mappings come from the
+ * {@link FetchPlan} of the query graph. Conditions on to-one associations join their tables, conditions on
+ * collections are rendered as <code>EXISTS</code> subqueries, so every root entity is selected once.
+ * Keyset queries compare the key columns with the last seen key as a row value and are ordered by the key.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class QueryCompiler {
+
+    private static final String ROOT_ALIAS = "t0";
+
+    /**
+     * <p>Compile the shape into the plan.</p>
+     *
+     * @param shape {@link QueryShape} shape of the query
+     * @return compiled {@link QueryPlan}
+     * @throws EntityManagerException if the query references unknown attributes or can not be paged
+     */
+    public static QueryPlan compile(QueryShape shape) {
+        var rootType = shape.rootType();
+        var fetchPlan = FetchPlanCompiler.compile(shape.graph());
+        if ((shape.limited() || shape.offset()) && fetchPlan.joins().stream().anyMatch(JoinMapping::collection)) {
+            throw new EntityManagerException("Query of %s with limit or offset can not join fetch a collection"
+                    .formatted(rootType.getSimpleName()), "Use BATCH fetch mode for collections of paged queries");
+        }
+        var joins = new LinkedHashMap<Field, String>();
+        var conditions = new ArrayList<String>();
+        var binders = new ArrayList<ParameterBinder>();
+        var subqueries = new LinkedHashMap<Field, Subquery>();
+        int valueIndex = 0;
+        for (Predicate predicate : shape.predicates()) {
+            var path = resolvePath(rootType, predicate.path());
+            if (Objects.nonNull(path.association()) && DaoUtils.isEntityCollectionField(path.association())) {
+                var subquery = subqueries.computeIfAbsent(path.association(),
+                        association -> createSubquery(rootType, path.entityType(), "e" + (subqueries.size() + 1)));
+                subquery.conditions().add(predicate.operator().render(subquery.alias() + "." + path.column()));
+                if (predicate.operator().hasParameter()) {
+                    subquery.binders().add(ParameterBinder.of(valueIndex++));
+                }
+            } else {
+                conditions.add(predicate.operator().render(qualify(path, joins)));
+                if (predicate.operator().hasParameter()) {
+                    binders.add(ParameterBinder.of(valueIndex++));
+                }
+            }
+        }
+        subqueries.forEach((association, subquery) -> {
+            var elementType = DaoUtils.getEntityCollectionElementType(association);
+            conditions.add(QueryUtils.buildExistsCondition(DaoUtils.getClassTableName(elementType), subquery.alias(), subquery.conditions()));
+            binders.addAll(subquery.binders());
+        });
+        var orders = new ArrayList<String>();
+        if (!shape.keyset().isEmpty()) {
+            validateKeyset(shape);
+            var keyColumns = shape.keyset().stream()
+                    .map(attribute -> ROOT_ALIAS + "." + getColumn(rootType, attribute))
+                    .toList();
+            if (shape.keysetAfter()) {
+                conditions.add(QueryUtils.buildKeysetCondition(keyColumns));
+                for (int i = 0; i < keyColumns.size(); i++) {
+                    binders.add(ParameterBinder.of(valueIndex++));
+                }
+            }
+            keyColumns.forEach(column -> orders.add(column + " ASC"));
+        }
+        for (Order order : shape.orders()) {
+            var path = resolvePath(rootType, order.path());
+            if (Objects.nonNull(path.association()) && DaoUtils.isEntityCollectionField(path.association())) {
+                throw new EntityManagerException("Query of %s can not be ordered by collection attribute '%s'"
+                        .formatted(rootType.getSimpleName(), order.path()), "Order by attributes of the entity or its to-one associations");
+            }
+            orders.add(qualify(path, joins) + (order.ascending() ? " ASC" : " DESC"));
+        }
+        if (shape.limited()) {
+            binders.add(ParameterBinder.of(valueIndex++));
+        }
+        if (shape.offset()) {
+            binders.add(ParameterBinder.of(valueIndex));
+        }
+        var joinClauses = new ArrayList<String>();
+        joins.forEach((association, alias) -> {
+            var targetType = association.getType();
+            joinClauses.add(QueryUtils.buildLeftJoin(DaoUtils.getClassTableName(targetType), alias,
+                    alias + "." + DaoUtils.getColumnName(DaoUtils.getIdentifierField(targetType)),
+                    ROOT_ALIAS + "." + DaoUtils.getColumnName(association)));
+        });
+        var sql = QueryUtils.buildFilterQuery(fetchPlan.selectQuery(), joinClauses, conditions, orders,
+                shape.limited(), shape.offset());
+        return new QueryPlan(sql, List.copyOf(binders), fetchPlan);
+    }
+
+    private static void validateKeyset(QueryShape shape) {
+        var rootName = shape.rootType().getSimpleName();
+        if (!shape.orders().isEmpty() || shape.offset()) {
+            throw new EntityManagerException("Keyset query of %s can not have other sort keys or offset".formatted(rootName),
+                    "Put all sort attributes into the keyset");
+        }
+        if (shape.keyset().stream().anyMatch(attribute -> attribute.contains("."))) {
+            throw new EntityManagerException("Keyset %s of %s references an association".formatted(shape.keyset(), rootName),
+                    "Use column attributes of the entity in the keyset");
+        }
+    }
+
+    private static String qualify(Path path, Map<Field, String> joins) {
+        if (Objects.isNull(path.association())) {
+            return ROOT_ALIAS + "." + path.column();
+        }
+        var alias = joins.computeIfAbsent(path.association(), association -> "j" + (joins.size() + 1));
+        return alias + "." + path.column();
+    }
+
+    private static Path resolvePath(Class<?> rootType, String path) {
+        var separator = path.indexOf('.');
+        if (separator < 0) {
+            return new Path(null, rootType, getColumn(rootType, path));
+        }
+        var associationName = path.substring(0, separator);
+        var association = Arrays.stream(rootType.getDeclaredFields())
+                .filter(field -> field.getName().equals(associationName))
+                .filter(field -> DaoUtils.isEntityField(field) || DaoUtils.isEntityCollectionField(field))
+                .findFirst()
+                .orElseThrow(() -> new EntityManagerException("There is no association '%s' in %s"
+                        .formatted(associationName, rootType.getSimpleName()), "Use the name of an association field in the path"));
+        var targetType = DaoUtils.isEntityCollectionField(association)
+                ? DaoUtils.getEntityCollectionElementType(association)
+                : association.getType();
+        return new Path(association, targetType, getColumn(targetType, path.substring(separator + 1)));
+    }
+
+    private static String getColumn(Class<?> entityType, String attribute) {
+        return Arrays.stream(entityType.getDeclaredFields())
+                .filter(field -> field.getName().equals(attribute) && !DaoUtils.isCollectionField(field))
+                .map(DaoUtils::getColumnName)
+                .findFirst()
+                .orElseThrow(() -> new EntityManagerException("There is no column attribute '%s' in %s"
+                        .formatted(attribute, entityType.getSimpleName()), "Use the name of an entity column field in the query"));
+    }
+
+    private static Subquery createSubquery(Class<?> rootType, Class<?> elementType, String alias) {
+        var backReference = DaoUtils.getRelatedEntityField(rootType, elementType);
+        var conditions = new ArrayList<String>();
+        conditions.add(alias + "." + DaoUtils.getColumnName(backReference) + " = "
+                + ROOT_ALIAS + "." + DaoUtils.getColumnName(DaoUtils.getIdentifierField(rootType)));
+        return new Subquery(alias, conditions, new ArrayList<>());
+    }
+
+    private record Subquery(String alias, List<String> conditions, List<ParameterBinder> binders) {
+    }
+
+    private record Path(Field association, Class<?> entityType, String column) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.breskul.bibernate.persistence.query;
+
+import com.breskul.bibernate.persistence.graph.FetchPlan;
+
+import java.util.List;
+
+/**
+ * QueryPlan record is the compiled form of the {@link QueryShape}
+ * @param sql complete select statement
+ * @param binders parameter binders in the order of the statement parameters
+ * @param fetchPlan mappings used to hydrate the result entities
+ */
+public record QueryPlan(String sql, List<ParameterBinder> binders, FetchPlan fetchPlan) {
+}
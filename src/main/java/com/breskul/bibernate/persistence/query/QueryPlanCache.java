@@ -0,0 +1,118 @@
+package com.breskul.bibernate.persistence.query;
+
+import com.breskul.bibernate.persistence.graph.EntityGraph;
+import com.breskul.bibernate.persistence.graph.FetchPlan;
+import com.breskul.bibernate.persistence.graph.FetchPlanCompiler;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of the compiled {@link QueryPlan}s and of the {@link FetchPlan}s of the entity graphs passed to find,
+ * shared by the entity managers of one factory. The least recently used plan is evicted when the cache is full.
+ */
+public class QueryPlanCache {
+
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    private final Map<QueryShape, QueryPlan> plans;
+    private final Map<EntityGraph<?>, FetchPlan> fetchPlans;
+    private final int maxSize;
+    private long hitCount;
+    private long missCount;
+
+    public QueryPlanCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public QueryPlanCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.plans = createLruMap(maxSize);
+        this.fetchPlans = createLruMap(maxSize);
+    }
+
+    private static <K, V> Map<K, V> createLruMap(int maxSize) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * <p>Return the plan of the shape, compiling it on the first call.</p>
+     *
+     * @param shape {@link QueryShape} shape of the executed query
+     * @return compiled {@link QueryPlan}
+     */
+    public synchronized QueryPlan getPlan(QueryShape shape) {
+        var plan = plans.get(shape);
+        if (plan != null) {
+            hitCount++;
+            return plan;
+        }
+        missCount++;
+        plan = QueryCompiler.compile(shape);
+        plans.put(shape, plan);
+        return plan;
+    }
+
+    /**
+     * <p>Return the fetch plan of the graph, compiling it on the first call.</p>
+     *
+     * @param graph {@link EntityGraph} the graph to compile
+     * @return compiled {@link FetchPlan}
+     */
+    public synchronized FetchPlan getFetchPlan(EntityGraph<?> graph) {
+        var plan = fetchPlans.get(graph);
+        if (plan == null) {
+            plan = FetchPlanCompiler.compile(graph);
+            fetchPlans.put(graph, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * @return number of cached plans
+     */
+    public synchronized int size() {
+        return plans.size();
+    }
+
+    /**
+     * @return number of cached fetch plans
+     */
+    public synchronized int getFetchPlanCount() {
+        return fetchPlans.size();
+    }
+
+    /**
+     * @return maximum number of cached plans of each kind
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return number of lookups which found a compiled plan
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return number of lookups which compiled a new plan
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * <p>Resets the hit and miss counters, the cached plans are kept.</p>
+     */
+    public synchronized void clearCounters() {
+        hitCount = 0;
+        missCount = 0;
+    }
+}
@@ -0,0 +1,21 @@
+package com.breskul.bibernate.persistence.query;
+
+import com.breskul.bibernate.persistence.graph.EntityGraph;
+
+import java.util.List;
+
+/**
+ * QueryShape record is everything of the {@link Query} except the parameter values.
+ * Queries of the same shape are executed by the same {@link QueryPlan}.
+ * @param rootType class of the queried entity
+ * @param graph fetch graph of the result entities
+ * @param predicates conditions joined by <code>AND</code>
+ * @param orders sort keys
+ * @param keyset attributes of the keyset sort key, empty for queries without keyset
+ * @param keysetAfter true if the query selects entities after the key values
+ * @param limited true if the query has limit
+ * @param offset true if the query has offset
+ */
+public record QueryShape(Class<?> rootType, EntityGraph<?> graph, List<Predicate> predicates, List<Order> orders,
+                         List<String> keyset, boolean keysetAfter, boolean limited, boolean offset) {
+}
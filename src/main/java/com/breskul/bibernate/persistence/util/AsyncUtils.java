@@ -0,0 +1,53 @@
+package com.breskul.bibernate.persistence.util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Utils methods for running database work in the background
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class AsyncUtils {
+
+    private static final String THREAD_NAME_PREFIX = "bibernate-async-";
+
+    private static ExecutorService executor;
+
+    /**
+     * <p>Run the task on the shared executor. Virtual threads are used when the runtime supports them,
+     * otherwise the tasks run on a cached pool of daemon threads.</p>
+     *
+     * @param task {@link Supplier} background task
+     * @param <T>  type of the task result
+     * @return {@link CompletableFuture} of the task result
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, getExecutor());
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = createExecutor();
+        }
+        return executor;
+    }
+
+    private static ExecutorService createExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException exception) {
+            var threadNumber = new AtomicInteger();
+            return Executors.newCachedThreadPool(task -> {
+                var thread = new Thread(task, THREAD_NAME_PREFIX + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.breskul.bibernate.persistence.util;
 
+import com.breskul.bibernate.persistence.metrics.Statistics;
 import com.breskul.bibernate.persistence.model.EntityKey;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
@@ -18,14 +19,18 @@ public class CacheUtils {
      *
      * @param entityKey {@link EntityKey} key value for cache
      * @param cache     {@link Map}this is map cache
+     * @param statistics {@link Statistics} recording the cache hit or miss
      * @param supplier  {@link Supplier} return value if key does not exist inside cache
      * @param <T>       type of Entity
      * @return return cached value or value from supplier
      */
-    public static <T> T processCache(EntityKey<T> entityKey, Map<EntityKey<?>, Object> cache, Supplier<?> supplier) {
+    public static <T> T processCache(EntityKey<T> entityKey, Map<EntityKey<?>, Object> cache, Statistics statistics,
+                                     Supplier<?> supplier) {
         if (cache.containsKey(entityKey)) {
+            statistics.recordCacheHit(entityKey.entity());
             return entityKey.entity().cast(cache.get(entityKey));
         } else {
+            statistics.recordCacheMiss(entityKey.entity());
             Object result = supplier.get();
             if (Objects.nonNull(result)) {
                 cache.put(entityKey, result);
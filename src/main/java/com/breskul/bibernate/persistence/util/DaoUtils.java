@@ -7,6 +7,7 @@ import com.breskul.bibernate.annotation.enums.Strategy;
 import com.breskul.bibernate.collection.LazyList;
 import com.breskul.bibernate.exception.InternalException;
 import com.breskul.bibernate.exception.JdbcDaoException;
+import com.breskul.bibernate.proxy.ProxyFactory;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
@@ -63,6 +64,59 @@ public class DaoUtils {
         return field.isAnnotationPresent(Id.class);
     }
 
+    /**
+     * <p>This method returns the field of the entity class annotated with {@link Version}.</p>
+     *
+     * @param entityClass {@link Class} the entity class
+     * @return the version {@link Field}, or null if the entity is not versioned
+     */
+    public static Field getVersionField(Class<?> entityClass) {
+        for (Field field : entityClass.getDeclaredFields()) {
+            if (field.isAnnotationPresent(Version.class)) {
+                field.setAccessible(true);
+                return field;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * <p>This method returns the version following the given one: the number incremented by one, or the current
+     * time for a timestamp, truncated to the {@link Version#precision()} of its column and at least one unit of that
+     * precision after the given one. The first version is 0 or the current time.</p>
+     *
+     * @param versionField {@link Field} the version field
+     * @param version      {@link Object} the current version, null for the first version
+     * @return the next version
+     * @throws JdbcDaoException if the type of the field can not be used as version or the precision is out of range
+     */
+    public static Object getNextVersion(Field versionField, Object version) {
+        Class<?> type = versionField.getType();
+        if (type == Long.class || type == long.class) {
+            return version == null ? 0L : (Long) version + 1;
+        }
+        if (type == Integer.class || type == int.class) {
+            return version == null ? 0 : (Integer) version + 1;
+        }
+        if (type == Short.class || type == short.class) {
+            return version == null ? (short) 0 : (short) ((Short) version + 1);
+        }
+        if (type == LocalDateTime.class) {
+            int precision = versionField.getAnnotation(Version.class).precision();
+            if (precision < 0 || precision > 9) {
+                throw new JdbcDaoException("Precision %d of @Version %s is out of range".formatted(precision, versionField.getName()),
+                        "Use the fractional seconds precision of the column, from 0 to 9");
+            }
+            int unit = (int) Math.pow(10, 9 - precision);
+            var now = LocalDateTime.now();
+            now = now.withNano(now.getNano() / unit * unit);
+            var previous = (LocalDateTime) version;
+            return previous == null || now.isAfter(previous) ? now : previous.plusNanos(unit);
+        }
+        throw new JdbcDaoException("Unsupported @Version type %s of %s".formatted(type.getSimpleName(), versionField.getName()),
+                "Use Short, Integer, Long or LocalDateTime version field");
+    }
+
     /**
      * <p>This method returns the name of the database column corresponding to a given field of a JPA entity.
      * If the field is annotated with {@link JoinColumn}, the name specified in that annotation is used.
@@ -207,7 +261,7 @@ public class DaoUtils {
     }
 
     /**
-     * <p>Gets the identifier field of an entity class.</p>
+     * <p>Gets the identifier field of an entity class. Lazy proxy classes are resolved to the mapped entity class.</p>
      *
      * @param entityClass {@link Class} the entity class to get the identifier field from
      * @return the identifier field {@link Field} of the entity class
@@ -216,7 +270,7 @@ public class DaoUtils {
     public static Field getIdentifierField(Class<?> entityClass) {
         var cause = "entity is not marked with Id annotation";
         var solution = "mark id column with Id annotation";
-        return Arrays.stream(entityClass.getDeclaredFields())
+        return Arrays.stream(ProxyFactory.getEntityClass(entityClass).getDeclaredFields())
                 .filter(field -> field.isAnnotationPresent(Id.class))
                 .findAny()
                 .orElseThrow(() -> new InternalException(cause, solution));
@@ -365,6 +419,43 @@ public class DaoUtils {
         return field.getAnnotation(OneToMany.class).fetch() == FetchType.LAZY;
     }
 
+    /**
+     * <p>Returns the batch size of the lazy collection field defined by {@link BatchSize} annotation.</p>
+     *
+     * @param field {@link Field} the collection field
+     * @return the batch size or 1 if the field is not annotated with {@link BatchSize}
+     */
+    public static int getBatchSize(Field field) {
+        return Optional.ofNullable(field.getAnnotation(BatchSize.class))
+                .map(BatchSize::size)
+                .orElse(1);
+    }
+
+    /**
+     * <p>Returns the page size of the extra lazy collection field defined by {@link ExtraLazy} annotation.</p>
+     *
+     * @param field {@link Field} the collection field
+     * @return the page size or 0 if the field is not extra lazy
+     */
+    public static int getExtraLazyPageSize(Field field) {
+        return Optional.ofNullable(field.getAnnotation(ExtraLazy.class))
+                .map(ExtraLazy::pageSize)
+                .orElse(0);
+    }
+
+    /**
+     * <p>Determines whether the given field (annotated @ManyToOne or @OneToOne) defines `fetch` parameter as lazy strategy for fetching data from BD.</p>
+     *
+     * @param field {@link Field} the field to check
+     * @return {@link Boolean#TRUE} if the given field has {@link FetchType#LAZY} fetch strategy, {@link Boolean#FALSE} otherwise
+     */
+    public static boolean isEntityFieldIsLazy(Field field) {
+        if (field.isAnnotationPresent(ManyToOne.class)) {
+            return field.getAnnotation(ManyToOne.class).fetch() == FetchType.LAZY;
+        }
+        return field.isAnnotationPresent(OneToOne.class) && field.getAnnotation(OneToOne.class).fetch() == FetchType.LAZY;
+    }
+
     /**
      * <p>Set the value of a field annotated with a given annotation in an entity.</p>
      *
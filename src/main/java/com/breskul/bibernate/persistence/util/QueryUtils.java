@@ -1,7 +1,10 @@
 package com.breskul.bibernate.persistence.util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Utils query class provide methods for generation sql queries
@@ -10,9 +13,20 @@ public class QueryUtils {
     private QueryUtils() {}
 
     private static final String SELECT_FROM_TABLE_BY_COLUMN_STATEMENT = "SELECT %s.* FROM %s %s WHERE %s.%s = ?";
+    private static final String SELECT_FROM_TABLE_BY_COLUMN_IN_STATEMENT = "SELECT %s.* FROM %s %s WHERE %s.%s IN (%s)";
+    private static final String SELECT_COLUMNS_STATEMENT = "SELECT %s FROM %s";
+    private static final String SELECT_COLUMNS_BY_COLUMN_STATEMENT = "SELECT %s FROM %s WHERE %s = ?";
+    private static final String SELECT_JOIN_STATEMENT = "SELECT %s FROM %s %s";
+    private static final String LEFT_JOIN_CLAUSE = "LEFT JOIN %s %s ON %s = %s";
+    private static final String COUNT_STATEMENT = "SELECT COUNT(*) FROM %s WHERE %s";
+    private static final String SELECT_ORDERED_STATEMENT = "SELECT t.* FROM %s t WHERE t.%s = ? ORDER BY t.%s";
+    private static final String SELECT_PAGE_STATEMENT = "SELECT t.* FROM %s t WHERE %s ORDER BY t.%s LIMIT ?";
+    private static final String SELECT_ELEMENT_AT_STATEMENT = "SELECT t.* FROM %s t WHERE t.%s = ? ORDER BY t.%s LIMIT 1 OFFSET ?";
+    private static final String EXISTS_CONDITION = "EXISTS (SELECT 1 FROM %s %s WHERE %s)";
+    private static final String WHERE_COLUMN_CONDITION = "%s WHERE %s.%s = ?";
     private static final String DELETE_STATEMENT = "DELETE FROM %s WHERE %s = ?";
+    private static final String DELETE_VERSIONED_STATEMENT = "DELETE FROM %s WHERE %s = ? AND %s = ?";
     private static final String INSERT_QUERY = "INSERT INTO %s (%s) VALUES (%s)";
-    private static final String SELECT_SEQ_QUERY = "SELECT nextval('%s_seq')";
     private static final String UPDATE_QUERY = "UPDATE %s SET %s WHERE %s";
 
     /**
@@ -21,6 +35,17 @@ public class QueryUtils {
      * @return generated update query
      */
     public static String buildUpdateQuery(Object entity) {
+        return buildUpdateQuery(entity, null, null);
+    }
+
+    /**
+     * Generate update query for versioned entity, the row is updated only if it has the expected version
+     * @param entity updated entity
+     * @param versionColumn version column, null for not versioned entity
+     * @param expectedVersion sql literal of the version the row should have
+     * @return generated update query
+     */
+    public static String buildUpdateQuery(Object entity, String versionColumn, String expectedVersion) {
         var tableName = DaoUtils.resolveTableName(entity);
         var identifierColumn = DaoUtils.getIdentifierFieldName(entity.getClass());
         var identifierValue = DaoUtils.getIdentifierValue(entity);
@@ -31,6 +56,9 @@ public class QueryUtils {
             mapColumnsToValues.add(columns[i] + " = " + values[i]);
         }
         String condition = identifierColumn + " = " + identifierValue;
+        if (versionColumn != null) {
+            condition += " AND " + versionColumn + " = " + expectedVersion;
+        }
         return UPDATE_QUERY.formatted(tableName, String.join(", ", mapColumnsToValues), condition);
     }
 
@@ -45,6 +73,167 @@ public class QueryUtils {
         return String.format(SELECT_FROM_TABLE_BY_COLUMN_STATEMENT, alias, tableName, alias, alias, columnName);
     }
 
+    /**
+     * Generate select query with IN condition
+     * @param tableName database table name
+     * @param columnName search condition column
+     * @param parametersCount number of parameters inside IN condition
+     * @return generated select query
+     */
+    public static String buildSelectInQuery(String tableName, String columnName, int parametersCount) {
+        final var alias = tableName.substring(0, 1).toLowerCase();
+        var parameters = String.join(", ", Collections.nCopies(parametersCount, "?"));
+        return String.format(SELECT_FROM_TABLE_BY_COLUMN_IN_STATEMENT, alias, tableName, alias, alias, columnName, parameters);
+    }
+
+    /**
+     * Generate select query of the given columns
+     * @param selectColumns comma-separated select list
+     * @param tableName database table name
+     * @param columnName search condition column, null to select all rows
+     * @return generated select query
+     */
+    public static String buildSelectColumnsQuery(String selectColumns, String tableName, String columnName) {
+        if (columnName == null) {
+            return String.format(SELECT_COLUMNS_STATEMENT, selectColumns, tableName);
+        }
+        return String.format(SELECT_COLUMNS_BY_COLUMN_STATEMENT, selectColumns, tableName, columnName);
+    }
+
+    /**
+     * Generate select query with explicit select list and joins
+     * @param selectColumns comma-separated select list
+     * @param tableName database table name
+     * @param tableAlias alias of the table
+     * @param joinClauses join clauses, may be empty
+     * @return generated select query without condition
+     */
+    public static String buildSelectJoinQuery(String selectColumns, String tableName, String tableAlias, String joinClauses) {
+        var selectQuery = String.format(SELECT_JOIN_STATEMENT, selectColumns, tableName, tableAlias);
+        return joinClauses.isEmpty() ? selectQuery : selectQuery + " " + joinClauses;
+    }
+
+    /**
+     * Generate left join clause
+     * @param tableName joined table name
+     * @param tableAlias alias of the joined table
+     * @param leftColumn qualified column of the join condition
+     * @param rightColumn qualified column of the join condition
+     * @return generated join clause
+     */
+    public static String buildLeftJoin(String tableName, String tableAlias, String leftColumn, String rightColumn) {
+        return String.format(LEFT_JOIN_CLAUSE, tableName, tableAlias, leftColumn, rightColumn);
+    }
+
+    /**
+     * Append condition by one column to the select query
+     * @param selectQuery select query without condition
+     * @param tableAlias alias of the table of the column
+     * @param columnName search condition column
+     * @return generated select query
+     */
+    public static String buildWhereColumnQuery(String selectQuery, String tableAlias, String columnName) {
+        return String.format(WHERE_COLUMN_CONDITION, selectQuery, tableAlias, columnName);
+    }
+
+    /**
+     * Generate count query of the rows matching all the columns
+     * @param tableName database table name
+     * @param columnNames search condition columns
+     * @return generated count query
+     */
+    public static String buildCountQuery(String tableName, List<String> columnNames) {
+        var conditions = columnNames.stream().map(column -> column + " = ?").toList();
+        return String.format(COUNT_STATEMENT, tableName, String.join(" AND ", conditions));
+    }
+
+    /**
+     * Generate select query of all rows ordered by the identifier
+     * @param tableName database table name
+     * @param columnName search condition column
+     * @param identifierName identifier column
+     * @return generated select query
+     */
+    public static String buildSelectOrderedQuery(String tableName, String columnName, String identifierName) {
+        return String.format(SELECT_ORDERED_STATEMENT, tableName, columnName, identifierName);
+    }
+
+    /**
+     * Generate select query of one page of the rows ordered by the identifier
+     * @param tableName database table name
+     * @param columnName search condition column
+     * @param identifierName identifier column
+     * @param after select the rows after the identifier parameter
+     * @return generated select query
+     */
+    public static String buildSelectPageQuery(String tableName, String columnName, String identifierName, boolean after) {
+        var condition = after ? "t.%s = ? AND t.%s > ?".formatted(columnName, identifierName) : "t.%s = ?".formatted(columnName);
+        return String.format(SELECT_PAGE_STATEMENT, tableName, condition, identifierName);
+    }
+
+    /**
+     * Generate select query of the row at the position of the offset parameter in the identifier order
+     * @param tableName database table name
+     * @param columnName search condition column
+     * @param identifierName identifier column
+     * @return generated select query
+     */
+    public static String buildSelectElementAtQuery(String tableName, String columnName, String identifierName) {
+        return String.format(SELECT_ELEMENT_AT_STATEMENT, tableName, columnName, identifierName);
+    }
+
+    /**
+     * Generate correlated <code>EXISTS</code> condition on the rows of another table
+     * @param tableName database table name
+     * @param tableAlias alias of the table
+     * @param conditions conditions of the subquery joined by <code>AND</code>
+     * @return generated condition
+     */
+    public static String buildExistsCondition(String tableName, String tableAlias, List<String> conditions) {
+        return String.format(EXISTS_CONDITION, tableName, tableAlias, String.join(" AND ", conditions));
+    }
+
+    /**
+     * Generate keyset condition which selects the rows after the key parameters
+     * @param columns qualified key columns
+     * @return <code>column &gt; ?</code> for one column, row value comparison for several columns
+     */
+    public static String buildKeysetCondition(List<String> columns) {
+        if (columns.size() == 1) {
+            return columns.get(0) + " > ?";
+        }
+        return "(%s) > (%s)".formatted(String.join(", ", columns), String.join(", ", Collections.nCopies(columns.size(), "?")));
+    }
+
+    /**
+     * Complete select query with joins, conditions, ordering and paging
+     * @param selectQuery select query without <code>WHERE</code> clause
+     * @param joinClauses join clauses added after the select query
+     * @param conditions conditions joined by <code>AND</code>
+     * @param orders sort keys
+     * @param limited add limit parameter
+     * @param offset add offset parameter
+     * @return generated select query
+     */
+    public static String buildFilterQuery(String selectQuery, List<String> joinClauses, List<String> conditions,
+                                          List<String> orders, boolean limited, boolean offset) {
+        var query = new StringBuilder(selectQuery);
+        joinClauses.forEach(join -> query.append(' ').append(join));
+        if (!conditions.isEmpty()) {
+            query.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        if (!orders.isEmpty()) {
+            query.append(" ORDER BY ").append(String.join(", ", orders));
+        }
+        if (limited) {
+            query.append(" LIMIT ?");
+        }
+        if (offset) {
+            query.append(" OFFSET ?");
+        }
+        return query.toString();
+    }
+
     /**
      * Generate delete query
      * @param tableName database table name
@@ -55,6 +244,17 @@ public class QueryUtils {
         return String.format(DELETE_STATEMENT, tableName, identifierName);
     }
 
+    /**
+     * Generate delete query of versioned entity
+     * @param tableName database table name
+     * @param identifierName primary key
+     * @param versionColumn version column
+     * @return generated delete query
+     */
+    public static String buildDeleteQuery(String tableName, String identifierName, String versionColumn) {
+        return String.format(DELETE_VERSIONED_STATEMENT, tableName, identifierName, versionColumn);
+    }
+
     /**
      * Generate insert query
      * @param tableName database table name
@@ -67,11 +267,33 @@ public class QueryUtils {
     }
 
     /**
-     * Generate select sequence query
+     * Generate the shape of the insert query with inlined values, e.g.
+     * <code>INSERT INTO users (first_name,last_name) VALUES (?,?)</code>. A multi-row insert has the shape of one row
      * @param tableName database table name
-     * @return generated select sequence query
+     * @param sqlFieldNames comma-separated columns for insert
+     * @return insert query with parameter placeholders
+     */
+    public static String buildInsertShape(String tableName, String sqlFieldNames) {
+        int columns = sqlFieldNames.split(",").length;
+        return String.format(INSERT_QUERY, tableName, sqlFieldNames, String.join(",", Collections.nCopies(columns, "?")));
+    }
+
+    /**
+     * Generate the shape of the update query of the entity with inlined values, e.g.
+     * <code>UPDATE users SET first_name = ?, last_name = ? WHERE id = ?</code>
+     * @param entity updated entity
+     * @param versionColumn version column, null for not versioned entity
+     * @return update query with parameter placeholders
      */
-    public static String buildSequenceQuery(String tableName) {
-        return String.format(SELECT_SEQ_QUERY, tableName);
+    public static String buildUpdateShape(Object entity, String versionColumn) {
+        var tableName = DaoUtils.resolveTableName(entity);
+        var identifierColumn = DaoUtils.getIdentifierFieldName(entity.getClass());
+        var columns = DaoUtils.getSqlFieldNamesWithoutId(entity).split(",");
+        var assignments = Arrays.stream(columns).map(column -> column + " = ?").collect(Collectors.joining(", "));
+        String condition = identifierColumn + " = ?";
+        if (versionColumn != null) {
+            condition += " AND " + versionColumn + " = ?";
+        }
+        return UPDATE_QUERY.formatted(tableName, assignments, condition);
     }
 }
@@ -0,0 +1,19 @@
+package com.breskul.bibernate.proxy;
+
+/**
+ * Marker interface implemented by every generated lazy to-one proxy.
+ * Gives access to the {@link LazyInitializer} which holds the identifier of the target entity
+ * and loads the target on demand.
+ */
+public interface EntityProxy {
+
+    /**
+     * @return the initializer which backs this proxy
+     */
+    LazyInitializer getLazyInitializer();
+
+    /**
+     * @param lazyInitializer the initializer which backs this proxy
+     */
+    void setLazyInitializer(LazyInitializer lazyInitializer);
+}
@@ -0,0 +1,74 @@
+package com.breskul.bibernate.proxy;
+
+import com.breskul.bibernate.exception.LazyInitializationException;
+import com.breskul.bibernate.exception.TransactionException;
+import lombok.Getter;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Holds the state of a lazy to-one proxy: the target entity class, its identifier and the supplier
+ * which loads the target. Every intercepted method call except the identifier getter is delegated
+ * to the loaded target.
+ */
+@Getter
+public class LazyInitializer implements InvocationHandler {
+
+    private final Class<?> entityClass;
+    private final Object identifier;
+    private final String identifierGetterName;
+    private final Supplier<?> targetSupplier;
+    private Object target;
+
+    public LazyInitializer(Class<?> entityClass, Object identifier, String identifierFieldName, Supplier<?> targetSupplier) {
+        this.entityClass = entityClass;
+        this.identifier = identifier;
+        this.identifierGetterName = "get" + Character.toUpperCase(identifierFieldName.charAt(0)) + identifierFieldName.substring(1);
+        this.targetSupplier = targetSupplier;
+    }
+
+    /**
+     * @return true if the target entity has been already loaded
+     */
+    public boolean isInitialized() {
+        return target != null;
+    }
+
+    /**
+     * Load the target entity if it has not been loaded yet
+     *
+     * @return the target entity
+     * @throws LazyInitializationException if the target can not be loaded out of the transaction
+     */
+    public Object getImplementation() {
+        if (target == null) {
+            try {
+                target = targetSupplier.get();
+            } catch (TransactionException e) {
+                throw new LazyInitializationException(e);
+            }
+            if (Objects.isNull(target)) {
+                throw new LazyInitializationException(new IllegalStateException(
+                        "No row for %s with id %s".formatted(entityClass.getSimpleName(), identifier)));
+            }
+        }
+        return target;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getParameterCount() == 0 && method.getName().equals(identifierGetterName)) {
+            return identifier;
+        }
+        try {
+            method.setAccessible(true);
+            return method.invoke(getImplementation(), args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.breskul.bibernate.proxy;
+
+import com.breskul.bibernate.exception.InternalException;
+import com.breskul.bibernate.persistence.util.DaoUtils;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.implementation.FieldAccessor;
+import net.bytebuddy.implementation.InvocationHandlerAdapter;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static net.bytebuddy.matcher.ElementMatchers.isDeclaredBy;
+import static net.bytebuddy.matcher.ElementMatchers.isFinalizer;
+import static net.bytebuddy.matcher.ElementMatchers.not;
+
+/**
+ * Generates subclass proxies for lazy {@link com.breskul.bibernate.annotation.ManyToOne} and
+ * {@link com.breskul.bibernate.annotation.OneToOne} associations. A proxy class is generated once per entity class.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ProxyFactory {
+
+    private static final String INITIALIZER_FIELD = "$lazyInitializer";
+    private static final Map<Class<?>, Class<?>> proxyClasses = new ConcurrentHashMap<>();
+
+    /**
+     * <p>Create a proxy for the entity which holds only the identifier value.
+     * The entity is loaded from the supplier on the first access to a non-identifier property.</p>
+     *
+     * @param entityClass    {@link Class} the class of the target entity
+     * @param identifier     {@link Object} the identifier of the target entity
+     * @param targetSupplier {@link Supplier} loads the target entity
+     * @param <T>            the type of the target entity
+     * @return uninitialized proxy instance
+     */
+    public static <T> T createProxy(Class<T> entityClass, Object identifier, Supplier<?> targetSupplier) {
+        var identifierField = DaoUtils.getIdentifierField(entityClass);
+        var lazyInitializer = new LazyInitializer(entityClass, identifier, identifierField.getName(), targetSupplier);
+        var proxyClass = proxyClasses.computeIfAbsent(entityClass, ProxyFactory::generateProxyClass);
+        T proxy = entityClass.cast(DaoUtils.createEntityInstance(proxyClass));
+        ((EntityProxy) proxy).setLazyInitializer(lazyInitializer);
+        DaoUtils.setValueToField(proxy, identifier, identifierField);
+        return proxy;
+    }
+
+    /**
+     * @param object {@link Object} object to check
+     * @return true if the object is a lazy proxy which has not been loaded yet
+     */
+    public static boolean isUninitializedProxy(Object object) {
+        return object instanceof EntityProxy proxy && !proxy.getLazyInitializer().isInitialized();
+    }
+
+    /**
+     * <p>Return the real entity behind the proxy, loading it if it is necessary.
+     * Non-proxy objects are returned as is.</p>
+     *
+     * @param object {@link Object} entity or proxy
+     * @return the entity instance
+     */
+    public static Object unproxy(Object object) {
+        if (object instanceof EntityProxy proxy) {
+            return proxy.getLazyInitializer().getImplementation();
+        }
+        return object;
+    }
+
+    /**
+     * <p>Return the entity class for the given class, resolving generated proxy classes to the mapped entity class.</p>
+     *
+     * @param type {@link Class} entity class or proxy class
+     * @return the mapped entity class
+     */
+    public static Class<?> getEntityClass(Class<?> type) {
+        if (Objects.nonNull(type) && EntityProxy.class.isAssignableFrom(type) && !type.isInterface()) {
+            return type.getSuperclass();
+        }
+        return type;
+    }
+
+    private static Class<?> generateProxyClass(Class<?> entityClass) {
+        try {
+            return new ByteBuddy()
+                    .subclass(entityClass)
+                    .name(entityClass.getName() + "$BibernateProxy")
+                    .defineField(INITIALIZER_FIELD, LazyInitializer.class, Visibility.PRIVATE)
+                    .implement(EntityProxy.class)
+                    .intercept(FieldAccessor.ofField(INITIALIZER_FIELD))
+                    .method(not(isDeclaredBy(EntityProxy.class)).and(not(isFinalizer())))
+                    .intercept(InvocationHandlerAdapter.toField(INITIALIZER_FIELD))
+                    .make()
+                    .load(entityClass.getClassLoader(),
+                            ClassLoadingStrategy.UsingLookup.of(MethodHandles.privateLookupIn(entityClass, MethodHandles.lookup())))
+                    .getLoaded();
+        } catch (IllegalAccessException e) {
+            throw new InternalException("Can not generate proxy for %s".formatted(entityClass.getName()),
+                    "Make sure that entity class is not final and is accessible", e);
+        }
+    }
+}
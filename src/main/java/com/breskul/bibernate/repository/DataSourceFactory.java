@@ -4,9 +4,12 @@ import com.breskul.bibernate.configuration.PersistenceProperties;
 import com.zaxxer.hikari.HikariDataSource;
 
 import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 
 /**
- * Class that produces the pooled hikari datasource
+ * Class that produces the pooled hikari datasource, routing reads to replicas when they are configured
  */
 public class DataSourceFactory {
     private final DataSource dataSource;
@@ -34,11 +37,45 @@ public class DataSourceFactory {
     }
 
     private DataSource configureDataSource() {
-        PersistenceProperties properties = PersistenceProperties.getInstance();
+        return createDataSource(PersistenceProperties.getInstance());
+    }
+
+    /**
+     * <p>Creates the pooled data source of the primary database. When replicas are configured by the properties
+     * 'db.replica.1.url', 'db.replica.2.url' etc., the pooled data sources are wrapped into a {@link RoutingDataSource}
+     * choosing replicas by 'db.replica.selection' ('round-robin' or 'least-active'). The replica user and password
+     * default to the ones of the primary.</p>
+     *
+     * @param properties {@link PersistenceProperties} database settings
+     * @return datasource
+     */
+    static DataSource createDataSource(PersistenceProperties properties) {
+        String user = properties.getProperty("db.user");
+        String password = properties.getProperty("db.password");
+        DataSource primary = createHikariDataSource(properties.getProperty("db.url"), user, password);
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 1; properties.getProperty(replicaProperty(i, "url")) != null; i++) {
+            replicas.add(createHikariDataSource(properties.getProperty(replicaProperty(i, "url")),
+                    Objects.requireNonNullElse(properties.getProperty(replicaProperty(i, "user")), user),
+                    Objects.requireNonNullElse(properties.getProperty(replicaProperty(i, "password")), password)));
+        }
+        if (replicas.isEmpty()) {
+            return primary;
+        }
+        var selection = ReplicaSelection.fromProperty(properties.getProperty("db.replica.selection"));
+        return new RoutingDataSource(primary, replicas, selection);
+    }
+
+    private static String replicaProperty(int replica, String name) {
+        return "db.replica." + replica + "." + name;
+    }
+
+    private static DataSource createHikariDataSource(String url, String user, String password) {
         HikariDataSource hikariDataSource = new HikariDataSource();
-        hikariDataSource.setJdbcUrl(properties.getProperty("db.url"));
-        hikariDataSource.setUsername(properties.getProperty("db.user"));
-        hikariDataSource.setPassword(properties.getProperty("db.password"));
+        hikariDataSource.setJdbcUrl(url);
+        hikariDataSource.setUsername(user);
+        hikariDataSource.setPassword(password);
+        hikariDataSource.setExceptionOverrideClassName(LockFailureExceptionOverride.class.getName());
 
         return hikariDataSource;
     }
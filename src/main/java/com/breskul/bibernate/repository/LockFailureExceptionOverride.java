@@ -0,0 +1,33 @@
+package com.breskul.bibernate.repository;
+
+import com.zaxxer.hikari.SQLExceptionOverride;
+
+import java.sql.SQLException;
+import java.util.Set;
+
+/**
+ * <p>Keeps pooled connections which failed to lock a row. Some drivers report an expired lock timeout as
+ * {@link java.sql.SQLTimeoutException}, which hikari treats as a broken connection, although the transaction
+ * stays usable and is rolled back or committed by the caller.</p>
+ */
+public class LockFailureExceptionOverride implements SQLExceptionOverride {
+
+    private static final Set<String> LOCK_FAILURE_SQL_STATES = Set.of("HYT00", "55P03", "40001", "40P01", "41000");
+    private static final int MYSQL_LOCK_NOWAIT_ERROR_CODE = 3572;
+
+    /**
+     * Check whether the exception is caused by a lock which can not be acquired: lock timeout, NOWAIT failure,
+     * deadlock or serialization failure
+     * @param exception {@link SQLException} thrown by the driver
+     * @return true if the exception is a lock failure
+     */
+    public static boolean isLockFailure(SQLException exception) {
+        return LOCK_FAILURE_SQL_STATES.contains(exception.getSQLState())
+                || exception.getErrorCode() == MYSQL_LOCK_NOWAIT_ERROR_CODE;
+    }
+
+    @java.lang.Override
+    public Override adjudicate(SQLException sqlException) {
+        return isLockFailure(sqlException) ? Override.DO_NOT_EVICT : Override.CONTINUE_EVICT;
+    }
+}
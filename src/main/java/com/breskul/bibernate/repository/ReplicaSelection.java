@@ -0,0 +1,37 @@
+package com.breskul.bibernate.repository;
+
+import com.breskul.bibernate.exception.PersistencePropertiesException;
+
+import java.util.Locale;
+
+/**
+ * Strategy used by {@link RoutingDataSource} to choose the replica of a read connection.
+ */
+public enum ReplicaSelection {
+    /**
+     * Replicas take turns.
+     */
+    ROUND_ROBIN,
+    /**
+     * The replica with the fewest connections in use is chosen.
+     */
+    LEAST_ACTIVE;
+
+    /**
+     * Resolve the strategy by its property value, e.g. 'round-robin' or 'least-active'.
+     *
+     * @param value property value, null for the default round-robin
+     * @return replica selection strategy
+     * @throws PersistencePropertiesException if the value is not 'round-robin' or 'least-active'
+     */
+    public static ReplicaSelection fromProperty(String value) {
+        if (value == null || value.isBlank()) {
+            return ROUND_ROBIN;
+        }
+        try {
+            return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new PersistencePropertiesException("db.replica.selection", value, "round-robin, least-active");
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.breskul.bibernate.repository;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * <p>Data source of a primary database and its read replicas. {@link #getConnection()} always returns a connection
+ * to the primary, it serves the writes, sequences and read-write transactions. {@link #getReadConnection()} returns a
+ * connection to one of the replicas chosen by the {@link ReplicaSelection}, it serves the read-only transactions and
+ * the reads outside of transaction. Every routing decision is counted.</p>
+ */
+public class RoutingDataSource implements DataSource {
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final ReplicaSelection selection;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final AtomicInteger[] activeConnections;
+    private final LongAdder primaryConnections = new LongAdder();
+    private final LongAdder[] replicaConnections;
+
+    public RoutingDataSource(DataSource primary, List<DataSource> replicas, ReplicaSelection selection) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.selection = selection;
+        this.activeConnections = new AtomicInteger[this.replicas.size()];
+        this.replicaConnections = new LongAdder[this.replicas.size()];
+        for (int i = 0; i < this.replicas.size(); i++) {
+            activeConnections[i] = new AtomicInteger();
+            replicaConnections[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * <p>Returns a connection for reading. It is taken from the replica data source when the data source is a
+     * {@link RoutingDataSource}, otherwise from the data source itself.</p>
+     *
+     * @param dataSource {@link DataSource} of the entity manager
+     * @return read connection
+     * @throws SQLException if the connection can not be taken
+     */
+    public static Connection getReadConnection(DataSource dataSource) throws SQLException {
+        if (dataSource instanceof RoutingDataSource routingDataSource) {
+            return routingDataSource.getReadConnection();
+        }
+        return dataSource.getConnection();
+    }
+
+    /**
+     * <p>Returns a connection to the chosen replica, or to the primary if there are no replicas.</p>
+     *
+     * @return read connection
+     * @throws SQLException if the connection can not be taken
+     */
+    public Connection getReadConnection() throws SQLException {
+        if (replicas.isEmpty()) {
+            return getConnection();
+        }
+        int index = selectReplica();
+        Connection connection = replicas.get(index).getConnection();
+        replicaConnections[index].increment();
+        activeConnections[index].incrementAndGet();
+        return trackClose(connection, activeConnections[index]);
+    }
+
+    private int selectReplica() {
+        if (selection == ReplicaSelection.LEAST_ACTIVE) {
+            int index = 0;
+            for (int i = 1; i < activeConnections.length; i++) {
+                if (activeConnections[i].get() < activeConnections[index].get()) {
+                    index = i;
+                }
+            }
+            return index;
+        }
+        return Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+    }
+
+    private static Connection trackClose(Connection connection, AtomicInteger active) {
+        var closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && closed.compareAndSet(false, true)) {
+                        active.decrementAndGet();
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException exception) {
+                        throw exception.getCause();
+                    }
+                });
+    }
+
+    /**
+     * @return number of connections taken from the primary
+     */
+    public long getPrimaryConnectionCount() {
+        return primaryConnections.sum();
+    }
+
+    /**
+     * @param replica index of the replica in the order of configuration
+     * @return number of connections taken from the replica
+     */
+    public long getReplicaConnectionCount(int replica) {
+        return replicaConnections[replica].sum();
+    }
+
+    /**
+     * @param replica index of the replica in the order of configuration
+     * @return number of connections of the replica in use
+     */
+    public int getActiveReplicaConnectionCount(int replica) {
+        return activeConnections[replica].get();
+    }
+
+    /**
+     * @return number of the replicas
+     */
+    public int getReplicaCount() {
+        return replicas.size();
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public List<DataSource> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = primary.getConnection();
+        primaryConnections.increment();
+        return connection;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Connection connection = primary.getConnection(username, password);
+        primaryConnections.increment();
+        return connection;
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return primary.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        primary.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        primary.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return primary.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return primary.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+}
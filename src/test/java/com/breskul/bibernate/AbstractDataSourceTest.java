@@ -22,6 +22,11 @@ public abstract class AbstractDataSourceTest {
 
     public static final String CLEAN_PROFILES_TABLE = "DELETE FROM profiles";
     public static final String CLEAN_COMPANY_TABLE = "DELETE FROM companies";
+    public static final String CLEAN_ACCOUNT_TABLE = "DELETE FROM accounts";
+    public static final String CLEAN_DOCUMENT_TABLE = "DELETE FROM documents";
+    public static final String CLEAN_REVISION_TABLE = "DELETE FROM revisions";
+    public static final String CLEAN_TASK_TABLE = "DELETE FROM tasks";
+    public static final String CLEAN_COMMENT_TABLE = "DELETE FROM comments";
     protected DataSource dataSource;
 
     @BeforeAll
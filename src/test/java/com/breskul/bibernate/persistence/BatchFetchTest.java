@@ -0,0 +1,98 @@
+package com.breskul.bibernate.persistence;
+
+import com.breskul.bibernate.AbstractDataSourceTest;
+import com.breskul.bibernate.collection.LazyList;
+import com.breskul.bibernate.persistence.test_model.PersonWithBatchNotes;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchFetchTest extends AbstractDataSourceTest {
+
+    private static final String INSERT_PERSON = "INSERT INTO users (id, first_name, last_name) VALUES (?, ?, ?)";
+    private static final String INSERT_NOTE = "INSERT INTO notes (id, body, person_id) VALUES (?, ?, ?)";
+    private static final List<Long> PERSON_IDS = List.of(3001L, 3002L, 3003L);
+
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        doInConnection(connection -> {
+            try {
+                PreparedStatement person = connection.prepareStatement(INSERT_PERSON);
+                for (Long id : PERSON_IDS) {
+                    person.setLong(1, id);
+                    person.setString(2, "FirstName");
+                    person.setString(3, "LastName");
+                    person.executeUpdate();
+                }
+                PreparedStatement note = connection.prepareStatement(INSERT_NOTE);
+                long noteId = 3001L;
+                for (int i = 0; i < PERSON_IDS.size(); i++) {
+                    for (int j = 0; j < PERSON_IDS.size() - i - 1; j++) {
+                        note.setLong(1, noteId++);
+                        note.setString(2, "body");
+                        note.setLong(3, PERSON_IDS.get(i));
+                        note.executeUpdate();
+                    }
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        entityManager = new EntityManagerImpl(dataSource);
+    }
+
+    @AfterEach
+    void destroy() {
+        doInConnection(connection -> {
+            try {
+                connection.prepareStatement(CLEAN_NOTE_TABLE).execute();
+                connection.prepareStatement(CLEAN_PERSON_TABLE).execute();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        entityManager.close();
+    }
+
+    @Test
+    @DisplayName("Initialization of one lazy collection loads pending collections of the same role")
+    public void testBatchFetch() {
+        entityManager.getTransaction().begin();
+        var persons = PERSON_IDS.stream()
+                .map(id -> entityManager.find(PersonWithBatchNotes.class, id))
+                .toList();
+        persons.forEach(person -> assertFalse(((LazyList<?>) person.getNotes()).isLoaded()));
+
+        assertEquals(2, persons.get(0).getNotes().size());
+
+        persons.forEach(person -> assertTrue(((LazyList<?>) person.getNotes()).isLoaded()));
+        assertEquals(1, persons.get(1).getNotes().size());
+        assertEquals(0, persons.get(2).getNotes().size());
+        persons.get(1).getNotes().forEach(note -> assertTrue(entityManager.contains(note)));
+        entityManager.getTransaction().commit();
+    }
+
+    @Test
+    @DisplayName("Batch fetch skips collections which have been already loaded")
+    public void testBatchFetchSkipsLoadedCollections() {
+        entityManager.getTransaction().begin();
+        var first = entityManager.find(PersonWithBatchNotes.class, PERSON_IDS.get(0));
+        assertEquals(2, first.getNotes().size());
+
+        var second = entityManager.find(PersonWithBatchNotes.class, PERSON_IDS.get(1));
+        var third = entityManager.find(PersonWithBatchNotes.class, PERSON_IDS.get(2));
+        assertEquals(0, third.getNotes().size());
+        assertTrue(((LazyList<?>) second.getNotes()).isLoaded());
+        assertEquals(1, second.getNotes().size());
+        entityManager.getTransaction().commit();
+    }
+}
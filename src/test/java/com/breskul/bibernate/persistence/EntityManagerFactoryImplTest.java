@@ -3,9 +3,17 @@ package com.breskul.bibernate.persistence;
 import static org.junit.jupiter.api.Assertions.*;
 
 import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.breskul.bibernate.exception.EntityManagerException;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 public class EntityManagerFactoryImplTest {
@@ -47,4 +55,64 @@ public class EntityManagerFactoryImplTest {
         assertFalse(entityManager2.isOpen());
     }
 
+    @Test
+    @DisplayName("Closed entity managers are deregistered from the factory")
+    public void testEntityManagerCounts() {
+        var factory = (EntityManagerFactoryImpl) entityManagerFactory;
+        EntityManager entityManager1 = factory.createEntityManager();
+        EntityManager entityManager2 = factory.createEntityManager();
+        assertEquals(2, factory.getOpenEntityManagerCount());
+        assertEquals(2, factory.getLiveEntityManagerCount());
+
+        entityManager1.close();
+        entityManager1.close();
+
+        assertEquals(1, factory.getOpenEntityManagerCount());
+        assertEquals(1, factory.getLiveEntityManagerCount());
+        factory.close();
+        assertFalse(entityManager2.isOpen());
+        assertEquals(0, factory.getOpenEntityManagerCount());
+        assertThrows(EntityManagerException.class, factory::createEntityManager);
+    }
+
+    @Test
+    @DisplayName("Entity managers garbage collected without closing are counted as leaked")
+    public void testLeakedEntityManager() throws InterruptedException {
+        var factory = (EntityManagerFactoryImpl) entityManagerFactory;
+        factory.createEntityManager();
+        EntityManager closed = factory.createEntityManager();
+        closed.close();
+        closed = null;
+
+        for (int i = 0; i < 50 && factory.getLeakedEntityManagerCount() == 0; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        assertEquals(1, factory.getLeakedEntityManagerCount());
+        assertEquals(0, factory.getOpenEntityManagerCount());
+        assertEquals(0, factory.getLiveEntityManagerCount());
+    }
+
+    @Test
+    @DisplayName("Entity managers are created and closed concurrently by many threads")
+    public void testConcurrentCreation() throws Exception {
+        var factory = (EntityManagerFactoryImpl) entityManagerFactory;
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    factory.createEntityManager().close();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(0, factory.getOpenEntityManagerCount());
+        assertEquals(0, factory.getLiveEntityManagerCount());
+    }
 }
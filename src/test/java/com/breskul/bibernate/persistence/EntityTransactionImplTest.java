@@ -5,10 +5,15 @@ import com.breskul.bibernate.exception.TransactionException;
 import com.breskul.bibernate.persistence.test_model.PersonWithoutIdAndStrategy;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -119,4 +124,65 @@ public class EntityTransactionImplTest extends AbstractDataSourceTest {
         entityTransaction.commit();
     }
 
+    @Test
+    @DisplayName("Lazy transaction takes the connection on the first statement and returns it on commit")
+    public void lazyConnection() {
+        var acquisitions = new AtomicInteger();
+        DataSource countingDataSource = (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{DataSource.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("getConnection")) {
+                        acquisitions.incrementAndGet();
+                    }
+                    return method.invoke(dataSource, args);
+                });
+        EntityManager lazyEntityManager = new EntityManagerImpl(countingDataSource);
+        EntityTransaction transaction = lazyEntityManager.getTransaction();
+        transaction.setLazyConnection(true);
+
+        transaction.begin();
+        assertTrue(transaction.isActive());
+        assertEquals(0, acquisitions.get());
+        transaction.commit();
+        assertEquals(0, acquisitions.get());
+        assertEquals(Duration.ZERO, transaction.getConnectionHoldTime());
+
+        transaction.begin();
+        assertThrows(TransactionException.class, () -> transaction.setLazyConnection(false));
+        PersonWithoutIdAndStrategy person = new PersonWithoutIdAndStrategy();
+        person.setId(101L);
+        person.setFirstName("FirstName");
+        person.setLastName("LastName");
+        lazyEntityManager.persist(person);
+        assertEquals(1, acquisitions.get());
+        transaction.rollback();
+        assertTrue(transaction.getConnectionHoldTime().toNanos() > 0);
+
+        transaction.begin();
+        assertNull(lazyEntityManager.find(PersonWithoutIdAndStrategy.class, person.getId()));
+        transaction.commit();
+        assertEquals(2, acquisitions.get());
+        lazyEntityManager.close();
+    }
+
+    @Test
+    @DisplayName("Factory collects connection hold time of the transactions")
+    public void connectionMetrics() {
+        var factory = new EntityManagerFactoryImpl(dataSource);
+        EntityManager factoryEntityManager = factory.createEntityManager();
+        EntityTransaction transaction = factoryEntityManager.getTransaction();
+        transaction.setLazyConnection(true);
+
+        transaction.begin();
+        transaction.commit();
+        transaction.begin();
+        factoryEntityManager.find(PersonWithoutIdAndStrategy.class, 101L);
+        transaction.commit();
+
+        var metrics = factory.getConnectionMetrics();
+        assertEquals(2, metrics.getTransactionCount());
+        assertEquals(1, metrics.getConnectionCount());
+        assertEquals(transaction.getConnectionHoldTime(), metrics.getTotalHoldTime());
+        assertEquals(metrics.getTotalHoldTime(), metrics.getMaxHoldTime());
+        factory.close();
+    }
 }
@@ -0,0 +1,156 @@
+package com.breskul.bibernate.persistence;
+
+import com.breskul.bibernate.AbstractDataSourceTest;
+import com.breskul.bibernate.collection.LazyList;
+import com.breskul.bibernate.persistence.test_model.NoteOfExtraLazyPerson;
+import com.breskul.bibernate.persistence.test_model.PersonWithExtraLazyNotes;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExtraLazyCollectionTest extends AbstractDataSourceTest {
+
+    private static final String INSERT_PERSON = "INSERT INTO users (id, first_name, last_name) VALUES (?, ?, ?)";
+    private static final String INSERT_NOTE = "INSERT INTO notes (id, body, person_id) VALUES (?, ?, ?)";
+    private static final long PERSON_ID = 9001L;
+    private static final long PERSON_WITHOUT_NOTES_ID = 9002L;
+    private static final long FIRST_NOTE_ID = 9001L;
+    private static final int NOTES_COUNT = 25;
+
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        doInConnection(connection -> {
+            try {
+                PreparedStatement person = connection.prepareStatement(INSERT_PERSON);
+                for (long id : List.of(PERSON_ID, PERSON_WITHOUT_NOTES_ID)) {
+                    person.setLong(1, id);
+                    person.setString(2, "FirstName");
+                    person.setString(3, "LastName");
+                    person.addBatch();
+                }
+                person.executeBatch();
+                PreparedStatement note = connection.prepareStatement(INSERT_NOTE);
+                for (long id = FIRST_NOTE_ID + NOTES_COUNT - 1; id >= FIRST_NOTE_ID; id--) {
+                    note.setLong(1, id);
+                    note.setString(2, "body" + id);
+                    note.setLong(3, PERSON_ID);
+                    note.addBatch();
+                }
+                note.executeBatch();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        entityManager = new EntityManagerImpl(dataSource);
+    }
+
+    @AfterEach
+    void destroy() {
+        doInConnection(connection -> {
+            try {
+                connection.prepareStatement(CLEAN_NOTE_TABLE).execute();
+                connection.prepareStatement(CLEAN_PERSON_TABLE).execute();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        entityManager.close();
+    }
+
+    @Test
+    @DisplayName("Size and isEmpty of extra lazy collection do not load it")
+    public void testSize() {
+        entityManager.getTransaction().begin();
+        var person = entityManager.find(PersonWithExtraLazyNotes.class, PERSON_ID);
+        var personWithoutNotes = entityManager.find(PersonWithExtraLazyNotes.class, PERSON_WITHOUT_NOTES_ID);
+
+        assertEquals(NOTES_COUNT, person.getNotes().size());
+        assertFalse(person.getNotes().isEmpty());
+        assertTrue(personWithoutNotes.getNotes().isEmpty());
+        assertFalse(((LazyList<?>) person.getNotes()).isLoaded());
+        entityManager.getTransaction().commit();
+    }
+
+    @Test
+    @DisplayName("Contains and get of extra lazy collection run targeted queries")
+    public void testContainsAndGet() {
+        entityManager.getTransaction().begin();
+        var person = entityManager.find(PersonWithExtraLazyNotes.class, PERSON_ID);
+        var personWithoutNotes = entityManager.find(PersonWithExtraLazyNotes.class, PERSON_WITHOUT_NOTES_ID);
+        var note = entityManager.find(NoteOfExtraLazyPerson.class, FIRST_NOTE_ID + 3);
+
+        assertTrue(person.getNotes().contains(note));
+        assertFalse(personWithoutNotes.getNotes().contains(note));
+        assertFalse(person.getNotes().contains("note"));
+        assertSame(note, person.getNotes().get(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> person.getNotes().get(NOTES_COUNT));
+        assertFalse(((LazyList<?>) person.getNotes()).isLoaded());
+        entityManager.getTransaction().commit();
+    }
+
+    @Test
+    @DisplayName("Iteration of extra lazy collection loads pages in identifier order")
+    public void testIteration() {
+        entityManager.getTransaction().begin();
+        var person = entityManager.find(PersonWithExtraLazyNotes.class, PERSON_ID);
+        var ids = new ArrayList<Long>();
+        for (NoteOfExtraLazyPerson note : person.getNotes()) {
+            ids.add(note.getId());
+        }
+        var streamed = person.getNotes().stream().map(NoteOfExtraLazyPerson::getId).toList();
+
+        var expected = LongStream.range(FIRST_NOTE_ID, FIRST_NOTE_ID + NOTES_COUNT).boxed().toList();
+        assertEquals(expected, ids);
+        assertEquals(expected, streamed);
+        assertFalse(((LazyList<?>) person.getNotes()).isLoaded());
+        assertTrue(entityManager.contains(person.getNotes().get(0)));
+        entityManager.getTransaction().commit();
+    }
+
+    @Test
+    @DisplayName("Modification of extra lazy collection loads it with managed elements")
+    public void testModificationLoadsCollection() {
+        entityManager.getTransaction().begin();
+        var person = entityManager.find(PersonWithExtraLazyNotes.class, PERSON_ID);
+        var first = person.getNotes().get(0);
+        var note = new NoteOfExtraLazyPerson();
+        note.setId(9999L);
+
+        person.getNotes().add(note);
+
+        assertTrue(((LazyList<?>) person.getNotes()).isLoaded());
+        assertEquals(NOTES_COUNT + 1, person.getNotes().size());
+        assertTrue(person.getNotes().stream().anyMatch(element -> element == first));
+        entityManager.getTransaction().rollback();
+    }
+
+    @Test
+    @DisplayName("Loaded extra lazy collection keeps the identifier order of get")
+    public void testLoadedCollectionKeepsOrder() {
+        entityManager.getTransaction().begin();
+        var person = entityManager.find(PersonWithExtraLazyNotes.class, PERSON_ID);
+        var notes = new ArrayList<NoteOfExtraLazyPerson>();
+        for (int i = 0; i < NOTES_COUNT; i++) {
+            notes.add(person.getNotes().get(i));
+        }
+
+        person.getNotes().add(new NoteOfExtraLazyPerson());
+
+        assertTrue(((LazyList<?>) person.getNotes()).isLoaded());
+        for (int i = 0; i < NOTES_COUNT; i++) {
+            assertSame(notes.get(i), person.getNotes().get(i));
+        }
+        entityManager.getTransaction().rollback();
+    }
+}
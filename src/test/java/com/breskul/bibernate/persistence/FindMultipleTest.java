@@ -0,0 +1,114 @@
+package com.breskul.bibernate.persistence;
+
+import com.breskul.bibernate.AbstractDataSourceTest;
+import com.breskul.bibernate.persistence.test_model.PersonWithoutGeneratedValue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FindMultipleTest extends AbstractDataSourceTest {
+
+    private static final String INSERT_PERSON = "INSERT INTO users (id, first_name, last_name) VALUES (?, ?, ?)";
+    private static final long FIRST_ID = 4001L;
+    private static final int PERSONS_COUNT = 300;
+    private static final long MISSING_ID = 9999L;
+
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        doInConnection(connection -> {
+            try {
+                PreparedStatement person = connection.prepareStatement(INSERT_PERSON);
+                for (long id = FIRST_ID; id < FIRST_ID + PERSONS_COUNT; id++) {
+                    person.setLong(1, id);
+                    person.setString(2, "FirstName" + id);
+                    person.setString(3, "LastName");
+                    person.addBatch();
+                }
+                person.executeBatch();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        entityManager = new EntityManagerImpl(dataSource);
+    }
+
+    @AfterEach
+    void destroy() {
+        doInConnection(connection -> {
+            try {
+                connection.prepareStatement(CLEAN_PERSON_TABLE).execute();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        entityManager.close();
+    }
+
+    @Test
+    @DisplayName("Find multiple entities in the order of the given ids")
+    public void testFindMultiple() {
+        entityManager.getTransaction().begin();
+        var cached = entityManager.find(PersonWithoutGeneratedValue.class, FIRST_ID + 1);
+        var result = entityManager.findMultiple(PersonWithoutGeneratedValue.class,
+                List.of(FIRST_ID + 2, FIRST_ID + 1, MISSING_ID, FIRST_ID));
+        entityManager.getTransaction().commit();
+
+        assertEquals(4, result.size());
+        assertEquals(FIRST_ID + 2, result.get(0).getId());
+        assertSame(cached, result.get(1));
+        assertNull(result.get(2));
+        assertEquals(FIRST_ID, result.get(3).getId());
+        assertEquals("FirstName" + FIRST_ID, result.get(3).getFirstName());
+        assertTrue(entityManager.contains(result.get(0)));
+    }
+
+    @Test
+    @DisplayName("Find multiple entities skipping missing ids")
+    public void testFindMultipleSkipMissing() {
+        entityManager.getTransaction().begin();
+        var result = entityManager.findMultiple(PersonWithoutGeneratedValue.class,
+                List.of(MISSING_ID, FIRST_ID, FIRST_ID), true);
+        entityManager.getTransaction().commit();
+
+        assertEquals(2, result.size());
+        assertSame(result.get(0), result.get(1));
+    }
+
+    @Test
+    @DisplayName("Find more entities than fit in one IN query")
+    public void testFindMultipleChunked() {
+        var ids = LongStream.range(FIRST_ID, FIRST_ID + PERSONS_COUNT).boxed().toList();
+        entityManager.getTransaction().begin();
+        var result = entityManager.findMultiple(PersonWithoutGeneratedValue.class, ids);
+        entityManager.getTransaction().commit();
+
+        assertEquals(PERSONS_COUNT, result.size());
+        for (int i = 0; i < PERSONS_COUNT; i++) {
+            assertEquals(ids.get(i), result.get(i).getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Dirty checking works for entities found by ids")
+    public void testFindMultipleDirtyChecking() {
+        entityManager.getTransaction().begin();
+        var result = entityManager.findMultiple(PersonWithoutGeneratedValue.class, List.of(FIRST_ID));
+        result.get(0).setFirstName("Changed");
+        entityManager.getTransaction().commit();
+
+        entityManager.clear();
+        entityManager.getTransaction().begin();
+        assertEquals("Changed", entityManager.find(PersonWithoutGeneratedValue.class, FIRST_ID).getFirstName());
+        entityManager.getTransaction().commit();
+    }
+}
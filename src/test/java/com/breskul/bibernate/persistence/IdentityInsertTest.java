@@ -0,0 +1,83 @@
+package com.breskul.bibernate.persistence;
+
+import com.breskul.bibernate.AbstractDataSourceTest;
+import com.breskul.bibernate.persistence.metrics.Statistics;
+import com.breskul.bibernate.persistence.test_model.cascadepersist.CommentCascadePersist;
+import com.breskul.bibernate.persistence.test_model.cascadepersist.PersonWithCommentsCascadePersist;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdentityInsertTest extends AbstractDataSourceTest {
+    private EntityManagerFactoryImpl entityManagerFactory;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory = new EntityManagerFactoryImpl(dataSource);
+        statistics = entityManagerFactory.getStatistics();
+        statistics.setEnabled(true);
+    }
+
+    @AfterEach
+    void destroy() {
+        entityManagerFactory.close();
+        doInConnection(connection -> {
+            try {
+                connection.prepareStatement(CLEAN_COMMENT_TABLE).execute();
+                connection.prepareStatement(CLEAN_PERSON_TABLE).execute();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Identity entities of one level are inserted by one statement and get the keys of their rows")
+    public void persistInsertsIdentityEntitiesInBatch() {
+        var person = new PersonWithCommentsCascadePersist();
+        person.setFirstName("John");
+        person.setLastName("Doe");
+        for (int i = 0; i < 3; i++) {
+            var comment = new CommentCascadePersist();
+            comment.setBody("comment " + i);
+            person.addComment(comment);
+        }
+
+        var entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        entityManager.persist(person);
+        entityManager.getTransaction().commit();
+
+        assertEquals(2, statistics.getExecuteStatementCount());
+        assertEquals(4, statistics.getEntityInsertCount());
+        assertEquals(1, statistics.getQueryStatistics("INSERT INTO comments (body,person_id) VALUES (?,?)").getExecuteTime().count());
+        assertNotNull(person.getId());
+        Map<Long, String> rows = new HashMap<>();
+        doInConnection(connection -> {
+            try (ResultSet resultSet = connection.prepareStatement("SELECT id, body, person_id FROM comments")
+                    .executeQuery()) {
+                while (resultSet.next()) {
+                    rows.put(resultSet.getLong(1), resultSet.getString(2) + " " + resultSet.getLong(3));
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        var expected = person.getComments().stream()
+                .collect(Collectors.toMap(CommentCascadePersist::getId, comment -> comment.getBody() + " " + person.getId()));
+        assertEquals(expected, rows);
+        assertSame(person.getComments().get(1),
+                entityManager.find(CommentCascadePersist.class, person.getComments().get(1).getId()));
+        entityManager.close();
+    }
+}
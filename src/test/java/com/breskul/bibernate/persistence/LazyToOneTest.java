@@ -0,0 +1,140 @@
+package com.breskul.bibernate.persistence;
+
+import com.breskul.bibernate.AbstractDataSourceTest;
+import com.breskul.bibernate.exception.LazyInitializationException;
+import com.breskul.bibernate.persistence.test_model.NoteWithLazyPerson;
+import com.breskul.bibernate.persistence.test_model.PersonWithoutGeneratedValue;
+import com.breskul.bibernate.proxy.EntityProxy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LazyToOneTest extends AbstractDataSourceTest {
+
+    private static final String INSERT_PERSON = "INSERT INTO users (id, first_name, last_name) VALUES (?, ?, ?)";
+    private static final String INSERT_NOTE = "INSERT INTO notes (id, body, person_id) VALUES (?, ?, ?)";
+    private static final Long PERSON_ID = 2001L;
+    private static final Long NOTE_ID = 2001L;
+    private static final Long NOTE_WITHOUT_PERSON_ID = 2002L;
+
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        doInConnection(connection -> {
+            try {
+                PreparedStatement person = connection.prepareStatement(INSERT_PERSON);
+                person.setLong(1, PERSON_ID);
+                person.setString(2, "FirstName");
+                person.setString(3, "LastName");
+                person.executeUpdate();
+
+                PreparedStatement note = connection.prepareStatement(INSERT_NOTE);
+                note.setLong(1, NOTE_ID);
+                note.setString(2, "body");
+                note.setLong(3, PERSON_ID);
+                note.executeUpdate();
+
+                note.setLong(1, NOTE_WITHOUT_PERSON_ID);
+                note.setString(2, "body");
+                note.setObject(3, null);
+                note.executeUpdate();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        entityManager = new EntityManagerImpl(dataSource);
+    }
+
+    @AfterEach
+    void destroy() {
+        doInConnection(connection -> {
+            try {
+                connection.prepareStatement(CLEAN_NOTE_TABLE).execute();
+                connection.prepareStatement(CLEAN_PERSON_TABLE).execute();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        entityManager.close();
+    }
+
+    @Test
+    @DisplayName("Lazy ManyToOne is a proxy which is initialized on the first non-id access")
+    public void testLazyManyToOneProxy() {
+        entityManager.getTransaction().begin();
+        NoteWithLazyPerson note = entityManager.find(NoteWithLazyPerson.class, NOTE_ID);
+        PersonWithoutGeneratedValue person = note.getPerson();
+
+        assertInstanceOf(EntityProxy.class, person);
+        var lazyInitializer = ((EntityProxy) person).getLazyInitializer();
+        assertEquals(PERSON_ID, person.getId());
+        assertFalse(lazyInitializer.isInitialized());
+
+        assertEquals("FirstName", person.getFirstName());
+        assertTrue(lazyInitializer.isInitialized());
+        assertTrue(entityManager.contains(person));
+        assertSame(lazyInitializer.getImplementation(), entityManager.find(PersonWithoutGeneratedValue.class, PERSON_ID));
+        entityManager.getTransaction().commit();
+    }
+
+    @Test
+    @DisplayName("Lazy ManyToOne returns managed entity if it is already in the persistence context")
+    public void testLazyManyToOneFromContext() {
+        entityManager.getTransaction().begin();
+        PersonWithoutGeneratedValue person = entityManager.find(PersonWithoutGeneratedValue.class, PERSON_ID);
+        NoteWithLazyPerson note = entityManager.find(NoteWithLazyPerson.class, NOTE_ID);
+        entityManager.getTransaction().commit();
+
+        assertSame(person, note.getPerson());
+    }
+
+    @Test
+    @DisplayName("Lazy ManyToOne with null foreign key is null")
+    public void testLazyManyToOneNullForeignKey() {
+        entityManager.getTransaction().begin();
+        NoteWithLazyPerson note = entityManager.find(NoteWithLazyPerson.class, NOTE_WITHOUT_PERSON_ID);
+        entityManager.getTransaction().commit();
+
+        assertNull(note.getPerson());
+    }
+
+    @Test
+    @DisplayName("Lazy ManyToOne is initialized out of transaction until the entity manager is closed")
+    public void testLazyManyToOneOutOfTransaction() {
+        entityManager.getTransaction().begin();
+        NoteWithLazyPerson note = entityManager.find(NoteWithLazyPerson.class, NOTE_ID);
+        entityManager.getTransaction().commit();
+
+        PersonWithoutGeneratedValue person = note.getPerson();
+        assertEquals(PERSON_ID, person.getId());
+        assertEquals("FirstName", person.getFirstName());
+
+        EntityManager closedEntityManager = new EntityManagerImpl(dataSource);
+        NoteWithLazyPerson otherNote = closedEntityManager.find(NoteWithLazyPerson.class, NOTE_ID);
+        closedEntityManager.close();
+
+        assertThrows(LazyInitializationException.class, otherNote.getPerson()::getFirstName);
+    }
+
+    @Test
+    @DisplayName("Dirty checking updates entity through the initialized proxy")
+    public void testDirtyCheckingThroughProxy() {
+        entityManager.getTransaction().begin();
+        NoteWithLazyPerson note = entityManager.find(NoteWithLazyPerson.class, NOTE_ID);
+        note.getPerson().setFirstName("NewFirstName");
+        entityManager.getTransaction().commit();
+
+        entityManager.clear();
+        entityManager.getTransaction().begin();
+        PersonWithoutGeneratedValue person = entityManager.find(PersonWithoutGeneratedValue.class, PERSON_ID);
+        entityManager.getTransaction().commit();
+        assertEquals("NewFirstName", person.getFirstName());
+    }
+}
@@ -0,0 +1,204 @@
+package com.breskul.bibernate.persistence;
+
+import com.breskul.bibernate.AbstractDataSourceTest;
+import com.breskul.bibernate.exception.JdbcDaoException;
+import com.breskul.bibernate.exception.PessimisticLockException;
+import com.breskul.bibernate.exception.TransactionException;
+import com.breskul.bibernate.persistence.dialect.Dialect;
+import com.breskul.bibernate.persistence.dialect.H2Dialect;
+import com.breskul.bibernate.persistence.dialect.StandardDialect;
+import com.breskul.bibernate.persistence.lock.LockMode;
+import com.breskul.bibernate.persistence.lock.LockOptions;
+import com.breskul.bibernate.persistence.metrics.ConnectionMetrics;
+import com.breskul.bibernate.persistence.metrics.Statistics;
+import com.breskul.bibernate.persistence.query.Order;
+import com.breskul.bibernate.persistence.query.Query;
+import com.breskul.bibernate.persistence.query.QueryPlanCache;
+import com.breskul.bibernate.persistence.test_model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LockingTest extends AbstractDataSourceTest {
+
+    private static final String INSERT_TASK = "INSERT INTO tasks (id, status) VALUES (?, ?)";
+    private static final long FIRST_TASK_ID = 15001L;
+    private static final long LAST_TASK_ID = 15005L;
+
+    /**
+     * H2 dialect which fails to restore the lock timeout like PostgreSQL does in the transaction aborted by the lock failure.
+     */
+    private static class AbortingH2Dialect extends H2Dialect {
+        @Override
+        public String buildLockTimeoutResetStatement(Object previousTimeout) {
+            return "SET LOCK_TIMEOUT aborted";
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        doInConnection(connection -> {
+            try {
+                PreparedStatement task = connection.prepareStatement(INSERT_TASK);
+                for (long id = FIRST_TASK_ID; id <= LAST_TASK_ID; id++) {
+                    task.setLong(1, id);
+                    task.setString(2, "NEW");
+                    task.addBatch();
+                }
+                task.executeBatch();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    @AfterEach
+    void destroy() {
+        doInConnection(connection -> {
+            try {
+                connection.prepareStatement(CLEAN_TASK_TABLE).execute();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Concurrent consumers claim different rows without waiting")
+    public void testClaimSkipsLockedRows() {
+        var query = Query.from(Task.class).where("status", "NEW").orderBy(Order.asc("id"));
+        inTwoTransactions((first, second) -> {
+            List<Task> firstClaim = first.claim(query, 2);
+            long start = System.nanoTime();
+            List<Task> secondClaim = second.claim(query, 2);
+            long elapsed = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+            assertEquals(List.of(FIRST_TASK_ID, FIRST_TASK_ID + 1), firstClaim.stream().map(Task::getId).toList());
+            assertEquals(List.of(FIRST_TASK_ID + 2, FIRST_TASK_ID + 3), secondClaim.stream().map(Task::getId).toList());
+            assertTrue(elapsed < 1000, "Claim waited " + elapsed + " ms");
+
+            firstClaim.forEach(task -> task.setStatus("DONE"));
+        });
+        Set<Long> remaining = new HashSet<>(doInLocalEntityManagerReturning(em ->
+                em.claim(Query.from(Task.class).where("status", "NEW"), 5).stream().map(Task::getId).toList()));
+        assertEquals(Set.of(FIRST_TASK_ID + 2, FIRST_TASK_ID + 3, LAST_TASK_ID), remaining);
+    }
+
+    @Test
+    @DisplayName("Skip locked find returns null for the row locked by another transaction")
+    public void testFindSkipLocked() {
+        inTwoTransactions((first, second) -> {
+            assertNotNull(first.find(Task.class, FIRST_TASK_ID, LockOptions.of(LockMode.PESSIMISTIC_WRITE)));
+            assertNull(second.find(Task.class, FIRST_TASK_ID, LockOptions.of(LockMode.SKIP_LOCKED)));
+            assertNotNull(second.find(Task.class, LAST_TASK_ID, LockOptions.of(LockMode.SKIP_LOCKED)));
+        });
+    }
+
+    @Test
+    @DisplayName("Nowait find fails fast on the row locked by another transaction")
+    public void testFindNowait() {
+        inTwoTransactions((first, second) -> {
+            first.find(Task.class, FIRST_TASK_ID, LockOptions.of(LockMode.PESSIMISTIC_WRITE));
+            long start = System.nanoTime();
+            assertThrows(PessimisticLockException.class,
+                    () -> second.find(Task.class, FIRST_TASK_ID, LockOptions.of(LockMode.NOWAIT)));
+            assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1000);
+        });
+    }
+
+    @Test
+    @DisplayName("Lock with timeout fails after the timeout, the transaction stays usable")
+    public void testLockTimeout() {
+        inTwoTransactions((first, second) -> {
+            first.find(Task.class, FIRST_TASK_ID, LockOptions.of(LockMode.PESSIMISTIC_WRITE));
+            var options = LockOptions.of(LockMode.PESSIMISTIC_WRITE).withTimeout(Duration.ofMillis(100));
+            assertThrows(PessimisticLockException.class, () -> second.find(Task.class, FIRST_TASK_ID, options));
+            assertEquals(LAST_TASK_ID, second.find(Task.class, LAST_TASK_ID, options).getId());
+        });
+    }
+
+    @Test
+    @DisplayName("Timed out lock throws PessimisticLockException even if the lock timeout can not be restored")
+    public void testLockTimeoutWithFailedReset() {
+        EntityManager first = new EntityManagerImpl(dataSource);
+        EntityManager second = createEntityManager(new AbortingH2Dialect());
+        first.getTransaction().begin();
+        second.getTransaction().begin();
+        try {
+            first.find(Task.class, FIRST_TASK_ID, LockOptions.of(LockMode.PESSIMISTIC_WRITE));
+            var options = LockOptions.of(LockMode.PESSIMISTIC_WRITE).withTimeout(Duration.ofMillis(100));
+            var exception = assertThrows(PessimisticLockException.class, () -> second.find(Task.class, FIRST_TASK_ID, options));
+            assertEquals(1, exception.getCause().getSuppressed().length);
+        } finally {
+            first.getTransaction().rollback();
+            second.getTransaction().rollback();
+            first.close();
+            second.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Database without lock timeout rejects NOWAIT and claims with waiting locks")
+    public void testLockWithoutTimeoutSupport() {
+        EntityManager entityManager = createEntityManager(new StandardDialect());
+        entityManager.getTransaction().begin();
+        try {
+            assertThrows(JdbcDaoException.class,
+                    () -> entityManager.find(Task.class, FIRST_TASK_ID, LockOptions.of(LockMode.NOWAIT)));
+            var claimed = entityManager.claim(Query.from(Task.class).where("status", "NEW").orderBy(Order.asc("id")), 2);
+            assertEquals(List.of(FIRST_TASK_ID, FIRST_TASK_ID + 1), claimed.stream().map(Task::getId).toList());
+        } finally {
+            entityManager.getTransaction().rollback();
+            entityManager.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Lock requires a transaction")
+    public void testLockWithoutTransaction() {
+        EntityManager entityManager = new EntityManagerImpl(dataSource);
+        try {
+            assertThrows(TransactionException.class,
+                    () -> entityManager.find(Task.class, FIRST_TASK_ID, LockOptions.of(LockMode.PESSIMISTIC_WRITE)));
+            assertThrows(TransactionException.class, () -> entityManager.claim(Query.from(Task.class), 1));
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private EntityManager createEntityManager(Dialect dialect) {
+        return new EntityManagerImpl(dataSource, new QueryPlanCache(), new ConnectionMetrics(), new Statistics(),
+                connection -> dialect);
+    }
+
+    private void inTwoTransactions(BiConsumer<EntityManager, EntityManager> consumer) {
+        EntityManager first = new EntityManagerImpl(dataSource);
+        EntityManager second = new EntityManagerImpl(dataSource);
+        first.getTransaction().begin();
+        second.getTransaction().begin();
+        try {
+            consumer.accept(first, second);
+            first.getTransaction().commit();
+            second.getTransaction().commit();
+        } finally {
+            for (EntityManager entityManager : List.of(first, second)) {
+                if (entityManager.getTransaction().isActive()) {
+                    entityManager.getTransaction().rollback();
+                }
+            }
+            first.close();
+            second.close();
+        }
+    }
+}
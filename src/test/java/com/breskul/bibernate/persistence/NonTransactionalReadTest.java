@@ -0,0 +1,112 @@
+package com.breskul.bibernate.persistence;
+
+import com.breskul.bibernate.AbstractDataSourceTest;
+import com.breskul.bibernate.exception.TransactionException;
+import com.breskul.bibernate.persistence.test_model.NoteWithoutGeneratedValue;
+import com.breskul.bibernate.persistence.test_model.PersonWithoutGeneratedValue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NonTransactionalReadTest extends AbstractDataSourceTest {
+
+    private static final String INSERT_PERSON = "INSERT INTO users (id, first_name, last_name) VALUES (?, ?, ?)";
+    private static final String INSERT_NOTE = "INSERT INTO notes (id, body, person_id) VALUES (?, ?, ?)";
+    private static final long PERSON_ID = 12001L;
+
+    private final List<Connection> borrowedConnections = new CopyOnWriteArrayList<>();
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        borrowedConnections.clear();
+        doInConnection(connection -> {
+            try {
+                PreparedStatement person = connection.prepareStatement(INSERT_PERSON);
+                person.setLong(1, PERSON_ID);
+                person.setString(2, "FirstName");
+                person.setString(3, "LastName");
+                person.executeUpdate();
+                PreparedStatement note = connection.prepareStatement(INSERT_NOTE);
+                for (long id = 12001L; id <= 12002L; id++) {
+                    note.setLong(1, id);
+                    note.setString(2, "body" + id);
+                    note.setLong(3, PERSON_ID);
+                    note.addBatch();
+                }
+                note.executeBatch();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        DataSource recordingDataSource = (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{DataSource.class}, (proxy, method, args) -> {
+                    Object result = method.invoke(dataSource, args);
+                    if (method.getName().equals("getConnection")) {
+                        borrowedConnections.add((Connection) result);
+                    }
+                    return result;
+                });
+        entityManager = new EntityManagerImpl(recordingDataSource);
+    }
+
+    @AfterEach
+    void destroy() {
+        doInConnection(connection -> {
+            try {
+                connection.prepareStatement(CLEAN_NOTE_TABLE).execute();
+                connection.prepareStatement(CLEAN_PERSON_TABLE).execute();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        entityManager.close();
+    }
+
+    @Test
+    @DisplayName("Find outside of transaction borrows a read-only connection and returns it right away")
+    public void testFindOutOfTransaction() throws SQLException {
+        var person = entityManager.find(PersonWithoutGeneratedValue.class, PERSON_ID);
+
+        assertEquals("FirstName", person.getFirstName());
+        assertTrue(entityManager.contains(person));
+        assertEquals(1, borrowedConnections.size());
+        assertTrue(borrowedConnections.get(0).isClosed());
+    }
+
+    @Test
+    @DisplayName("Lazy collection is initialized after the transaction has ended")
+    public void testLazyListAfterTransaction() throws SQLException {
+        entityManager.getTransaction().begin();
+        var person = entityManager.find(PersonWithoutGeneratedValue.class, PERSON_ID);
+        entityManager.getTransaction().commit();
+
+        assertEquals(2, person.getNotes().size());
+        person.getNotes().forEach(note -> assertTrue(entityManager.contains(note)));
+        assertEquals(2, borrowedConnections.size());
+        for (Connection connection : borrowedConnections) {
+            assertTrue(connection.isClosed());
+        }
+    }
+
+    @Test
+    @DisplayName("Writes still require a transaction")
+    public void testWriteOutOfTransaction() {
+        var note = new NoteWithoutGeneratedValue();
+        note.setId(12003L);
+        note.setBody("body");
+
+        assertThrows(TransactionException.class, () -> entityManager.persist(note));
+    }
+}
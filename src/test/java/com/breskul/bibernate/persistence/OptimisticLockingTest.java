@@ -0,0 +1,178 @@
+package com.breskul.bibernate.persistence;
+
+import com.breskul.bibernate.AbstractDataSourceTest;
+import com.breskul.bibernate.exception.OptimisticLockException;
+import com.breskul.bibernate.persistence.test_model.Account;
+import com.breskul.bibernate.persistence.test_model.Document;
+import com.breskul.bibernate.persistence.test_model.Revision;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OptimisticLockingTest extends AbstractDataSourceTest {
+
+    private static final String INSERT_ACCOUNT = "INSERT INTO accounts (id, owner, balance, version) VALUES (?, ?, ?, ?)";
+    private static final String SELECT_ACCOUNT = "SELECT balance, version FROM accounts WHERE id = ?";
+    private static final long FIRST_ACCOUNT_ID = 14001L;
+    private static final long SECOND_ACCOUNT_ID = 14002L;
+
+    @BeforeEach
+    void setUp() {
+        doInConnection(connection -> {
+            try {
+                PreparedStatement account = connection.prepareStatement(INSERT_ACCOUNT);
+                for (long id = FIRST_ACCOUNT_ID; id <= SECOND_ACCOUNT_ID; id++) {
+                    account.setLong(1, id);
+                    account.setString(2, "owner" + id);
+                    account.setLong(3, 100L);
+                    account.setLong(4, 5L);
+                    account.addBatch();
+                }
+                account.executeBatch();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    @AfterEach
+    void destroy() {
+        doInConnection(connection -> {
+            try {
+                connection.prepareStatement(CLEAN_ACCOUNT_TABLE).execute();
+                connection.prepareStatement(CLEAN_DOCUMENT_TABLE).execute();
+                connection.prepareStatement(CLEAN_REVISION_TABLE).execute();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Version is initialized on persist and incremented by update")
+    public void testVersionIncrement() {
+        var account = new Account();
+        account.setId(14003L);
+        account.setOwner("owner");
+        account.setBalance(10L);
+        doInLocalEntityManager(entityManager -> entityManager.persist(account));
+        assertEquals(0L, account.getVersion());
+
+        doInLocalEntityManager(entityManager -> entityManager.find(Account.class, FIRST_ACCOUNT_ID).setBalance(50L));
+
+        assertEquals(6L, selectColumn(FIRST_ACCOUNT_ID, "version"));
+        assertEquals(50L, selectColumn(FIRST_ACCOUNT_ID, "balance"));
+        assertEquals(5L, selectColumn(SECOND_ACCOUNT_ID, "version"));
+    }
+
+    @Test
+    @DisplayName("Update of a row changed by another transaction fails and rolls back the whole batch")
+    public void testConcurrentUpdate() {
+        EntityManager entityManager = new EntityManagerImpl(dataSource);
+        entityManager.getTransaction().begin();
+        var first = entityManager.find(Account.class, FIRST_ACCOUNT_ID);
+        var second = entityManager.find(Account.class, SECOND_ACCOUNT_ID);
+
+        doInLocalEntityManager(otherEntityManager -> otherEntityManager.find(Account.class, SECOND_ACCOUNT_ID).setBalance(200L));
+
+        first.setBalance(0L);
+        second.setBalance(0L);
+        var exception = assertThrows(OptimisticLockException.class, () -> entityManager.getTransaction().commit());
+        assertTrue(exception.getMessage().contains(String.valueOf(SECOND_ACCOUNT_ID)));
+        assertEquals(5L, first.getVersion());
+        assertEquals(5L, second.getVersion());
+        entityManager.getTransaction().rollback();
+        entityManager.close();
+
+        assertEquals(100L, selectColumn(FIRST_ACCOUNT_ID, "balance"));
+        assertEquals(5L, selectColumn(FIRST_ACCOUNT_ID, "version"));
+        assertEquals(200L, selectColumn(SECOND_ACCOUNT_ID, "balance"));
+        assertEquals(6L, selectColumn(SECOND_ACCOUNT_ID, "version"));
+    }
+
+    @Test
+    @DisplayName("Remove of a row changed by another transaction fails")
+    public void testConcurrentRemove() {
+        EntityManager entityManager = new EntityManagerImpl(dataSource);
+        entityManager.getTransaction().begin();
+        var account = entityManager.find(Account.class, FIRST_ACCOUNT_ID);
+
+        doInLocalEntityManager(otherEntityManager -> otherEntityManager.find(Account.class, FIRST_ACCOUNT_ID).setBalance(200L));
+
+        assertThrows(OptimisticLockException.class, () -> entityManager.remove(account));
+        entityManager.getTransaction().rollback();
+        entityManager.close();
+        assertEquals(200L, selectColumn(FIRST_ACCOUNT_ID, "balance"));
+    }
+
+    @Test
+    @DisplayName("Timestamp version is set to the update time")
+    public void testTimestampVersion() {
+        var document = new Document();
+        document.setId(14001L);
+        document.setTitle("draft");
+        doInLocalEntityManager(entityManager -> entityManager.persist(document));
+        assertNotNull(document.getUpdatedAt());
+
+        var updated = doInLocalEntityManagerReturning(entityManager -> {
+            var found = entityManager.find(Document.class, document.getId());
+            found.setTitle("final");
+            return found;
+        });
+
+        assertTrue(updated.getUpdatedAt().isAfter(document.getUpdatedAt()));
+        doInLocalEntityManager(entityManager -> assertEquals(updated.getUpdatedAt(),
+                entityManager.find(Document.class, document.getId()).getUpdatedAt()));
+    }
+
+    @Test
+    @DisplayName("Timestamp version of a column without fractional seconds is kept as stored")
+    public void testTimestampVersionPrecision() {
+        var revision = new Revision();
+        revision.setId(14001L);
+        revision.setTitle("draft");
+        doInLocalEntityManager(entityManager -> entityManager.persist(revision));
+        assertEquals(0, revision.getUpdatedAt().getNano());
+
+        LocalDateTime previous = revision.getUpdatedAt();
+        for (int i = 0; i < 3; i++) {
+            var title = "revision " + i;
+            var updated = doInLocalEntityManagerReturning(entityManager -> {
+                var found = entityManager.find(Revision.class, revision.getId());
+                found.setTitle(title);
+                return found;
+            });
+            assertEquals(0, updated.getUpdatedAt().getNano());
+            assertTrue(updated.getUpdatedAt().isAfter(previous));
+            previous = updated.getUpdatedAt();
+        }
+
+        var stored = previous;
+        doInLocalEntityManager(entityManager -> assertEquals(stored,
+                entityManager.find(Revision.class, revision.getId()).getUpdatedAt()));
+    }
+
+    private long selectColumn(long id, String column) {
+        long[] value = new long[1];
+        doInConnection(connection -> {
+            try {
+                PreparedStatement statement = connection.prepareStatement(SELECT_ACCOUNT);
+                statement.setLong(1, id);
+                ResultSet resultSet = statement.executeQuery();
+                resultSet.next();
+                value[0] = resultSet.getLong(column);
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        return value[0];
+    }
+}
@@ -0,0 +1,95 @@
+package com.breskul.bibernate.persistence;
+
+import com.breskul.bibernate.AbstractDataSourceTest;
+import com.breskul.bibernate.persistence.test_model.NoteWithoutGeneratedValue;
+import com.breskul.bibernate.persistence.test_model.PersonWithoutGeneratedValue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelHydrationTest extends AbstractDataSourceTest {
+
+    private static final String INSERT_PERSON = "INSERT INTO users (id, first_name, last_name) VALUES (?, ?, ?)";
+    private static final String INSERT_NOTE = "INSERT INTO notes (id, body, person_id) VALUES (?, ?, ?)";
+    private static final long PERSON_ID = 11001L;
+    private static final int NOTES_COUNT = 3000;
+
+    @BeforeEach
+    void setUp() {
+        doInConnection(connection -> {
+            try {
+                PreparedStatement person = connection.prepareStatement(INSERT_PERSON);
+                person.setLong(1, PERSON_ID);
+                person.setString(2, "FirstName");
+                person.setString(3, "LastName");
+                person.executeUpdate();
+                PreparedStatement note = connection.prepareStatement(INSERT_NOTE);
+                for (long id = 11001L; id < 11001L + NOTES_COUNT; id++) {
+                    note.setLong(1, id);
+                    note.setString(2, "body" + id);
+                    note.setLong(3, PERSON_ID);
+                    note.addBatch();
+                }
+                note.executeBatch();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    @AfterEach
+    void destroy() {
+        doInConnection(connection -> {
+            try {
+                connection.prepareStatement(CLEAN_NOTE_TABLE).execute();
+                connection.prepareStatement(CLEAN_PERSON_TABLE).execute();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Parallel hydration loads the same elements in the same order as the sequential one")
+    public void testParallelHydration() {
+        List<NoteWithoutGeneratedValue> sequential = loadNotes(false);
+        List<NoteWithoutGeneratedValue> parallel = loadNotes(true);
+
+        assertEquals(NOTES_COUNT, parallel.size());
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    @DisplayName("Parallel hydration keeps the loaded entities managed")
+    public void testParallelHydrationManaged() {
+        EntityManager entityManager = new EntityManagerImpl(dataSource);
+        entityManager.setParallelHydration(true);
+        entityManager.getTransaction().begin();
+        var person = entityManager.find(PersonWithoutGeneratedValue.class, PERSON_ID);
+
+        var notes = person.getNotes();
+
+        assertEquals(NOTES_COUNT, notes.size());
+        notes.forEach(note -> assertTrue(entityManager.contains(note)));
+        assertSame(notes.get(0), entityManager.find(NoteWithoutGeneratedValue.class, notes.get(0).getId()));
+        entityManager.getTransaction().commit();
+        entityManager.close();
+    }
+
+    private List<NoteWithoutGeneratedValue> loadNotes(boolean parallelHydration) {
+        EntityManager entityManager = new EntityManagerImpl(dataSource);
+        entityManager.setParallelHydration(parallelHydration);
+        entityManager.getTransaction().begin();
+        var notes = List.copyOf(entityManager.find(PersonWithoutGeneratedValue.class, PERSON_ID).getNotes());
+        entityManager.getTransaction().commit();
+        entityManager.close();
+        return notes;
+    }
+}
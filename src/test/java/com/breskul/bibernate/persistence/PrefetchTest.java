@@ -0,0 +1,107 @@
+package com.breskul.bibernate.persistence;
+
+import com.breskul.bibernate.AbstractDataSourceTest;
+import com.breskul.bibernate.collection.LazyList;
+import com.breskul.bibernate.exception.EntityManagerException;
+import com.breskul.bibernate.persistence.test_model.NoteWithoutGeneratedValue;
+import com.breskul.bibernate.persistence.test_model.PersonWithoutGeneratedValue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrefetchTest extends AbstractDataSourceTest {
+
+    private static final String INSERT_PERSON = "INSERT INTO users (id, first_name, last_name) VALUES (?, ?, ?)";
+    private static final String INSERT_NOTE = "INSERT INTO notes (id, body, person_id) VALUES (?, ?, ?)";
+    private static final long PERSON_ID = 10001L;
+
+    private final List<Thread> connectionThreads = new CopyOnWriteArrayList<>();
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        connectionThreads.clear();
+        doInConnection(connection -> {
+            try {
+                PreparedStatement person = connection.prepareStatement(INSERT_PERSON);
+                person.setLong(1, PERSON_ID);
+                person.setString(2, "FirstName");
+                person.setString(3, "LastName");
+                person.executeUpdate();
+                PreparedStatement note = connection.prepareStatement(INSERT_NOTE);
+                for (long id = 10001L; id <= 10003L; id++) {
+                    note.setLong(1, id);
+                    note.setString(2, "body" + id);
+                    note.setLong(3, PERSON_ID);
+                    note.addBatch();
+                }
+                note.executeBatch();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        DataSource recordingDataSource = (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{DataSource.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("getConnection")) {
+                        connectionThreads.add(Thread.currentThread());
+                    }
+                    return method.invoke(dataSource, args);
+                });
+        entityManager = new EntityManagerImpl(recordingDataSource);
+    }
+
+    @AfterEach
+    void destroy() {
+        doInConnection(connection -> {
+            try {
+                connection.prepareStatement(CLEAN_NOTE_TABLE).execute();
+                connection.prepareStatement(CLEAN_PERSON_TABLE).execute();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        entityManager.close();
+    }
+
+    @Test
+    @DisplayName("Prefetched collection is loaded by a separate connection and published on first access")
+    public void testPrefetch() {
+        entityManager.getTransaction().begin();
+        var person = entityManager.find(PersonWithoutGeneratedValue.class, PERSON_ID);
+        var managedNote = entityManager.find(NoteWithoutGeneratedValue.class, 10002L);
+
+        entityManager.prefetch(person, "notes");
+
+        assertFalse(((LazyList<?>) person.getNotes()).isLoaded());
+        assertEquals(3, person.getNotes().size());
+        assertTrue(person.getNotes().stream().anyMatch(note -> note == managedNote));
+        person.getNotes().forEach(note -> assertTrue(entityManager.contains(note)));
+        assertEquals(2, connectionThreads.size());
+        assertNotSame(Thread.currentThread(), connectionThreads.get(1));
+        entityManager.getTransaction().commit();
+    }
+
+    @Test
+    @DisplayName("Prefetch skips loaded collections and rejects unknown attributes")
+    public void testPrefetchValidation() {
+        entityManager.getTransaction().begin();
+        var person = entityManager.find(PersonWithoutGeneratedValue.class, PERSON_ID);
+        assertEquals(3, person.getNotes().size());
+
+        entityManager.prefetch(person, "notes");
+
+        assertEquals(1, connectionThreads.size());
+        assertThrows(EntityManagerException.class, () -> entityManager.prefetch(person, "firstName"));
+        entityManager.getTransaction().commit();
+    }
+}
@@ -0,0 +1,203 @@
+package com.breskul.bibernate.persistence;
+
+import com.breskul.bibernate.AbstractDataSourceTest;
+import com.breskul.bibernate.persistence.metrics.Statistics;
+import com.breskul.bibernate.persistence.test_model.Account;
+import com.breskul.bibernate.persistence.test_model.NoteComplex;
+import com.breskul.bibernate.persistence.test_model.Person;
+import com.breskul.bibernate.persistence.util.QueryUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatisticsTest extends AbstractDataSourceTest {
+
+    private static final String INSERT_PERSON = "INSERT INTO users (id, first_name, last_name) VALUES (?, ?, ?)";
+    private static final String INSERT_NOTE = "INSERT INTO notes (id, body, person_id) VALUES (?, ?, ?)";
+    private static final long PERSON_ID = 16001L;
+    private static final long ACCOUNT_ID = 16001L;
+
+    private EntityManagerFactory entityManagerFactory;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        doInConnection(connection -> {
+            try {
+                PreparedStatement person = connection.prepareStatement(INSERT_PERSON);
+                person.setLong(1, PERSON_ID);
+                person.setString(2, "FirstName");
+                person.setString(3, "LastName");
+                person.executeUpdate();
+                PreparedStatement note = connection.prepareStatement(INSERT_NOTE);
+                for (long noteId = 16001L; noteId <= 16002L; noteId++) {
+                    note.setLong(1, noteId);
+                    note.setString(2, "body");
+                    note.setLong(3, PERSON_ID);
+                    note.executeUpdate();
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        entityManagerFactory = new EntityManagerFactoryImpl(dataSource);
+        statistics = entityManagerFactory.getStatistics();
+        statistics.setEnabled(true);
+    }
+
+    @AfterEach
+    void destroy() {
+        entityManagerFactory.close();
+        doInConnection(connection -> {
+            try {
+                connection.prepareStatement(CLEAN_NOTE_TABLE).execute();
+                connection.prepareStatement(CLEAN_PERSON_TABLE).execute();
+                connection.prepareStatement(CLEAN_ACCOUNT_TABLE).execute();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Reads are counted per factory and per entity")
+    public void testReadStatistics() {
+        inTransaction(entityManager -> {
+            Person person = entityManager.find(Person.class, PERSON_ID);
+            assertSame(person, entityManager.find(Person.class, PERSON_ID));
+            assertEquals(2, person.getNotes().size());
+        });
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getExecuteStatementCount());
+        assertEquals(3, statistics.getRowReadCount());
+        assertEquals(3, statistics.getEntityLoadCount());
+        assertEquals(1, statistics.getEntityStatistics(Person.class).getLoadCount());
+        assertEquals(2, statistics.getEntityStatistics(NoteComplex.class).getLoadCount());
+        assertEquals(1, statistics.getCacheHitCount());
+        assertEquals(1, statistics.getCacheMissCount());
+        assertEquals(1, statistics.getCollectionInitializationCount());
+        assertEquals(1, statistics.getFlushCount());
+        assertEquals(1, statistics.getConnectionAcquisitionCount());
+        assertTrue(statistics.getConnectionAcquisitionTime().toNanos() > 0);
+    }
+
+    @Test
+    @DisplayName("Inserts, updates and deletes are counted per entity")
+    public void testWriteStatistics() {
+        inTransaction(entityManager -> {
+            var account = new Account();
+            account.setId(ACCOUNT_ID);
+            account.setOwner("owner");
+            account.setBalance(100L);
+            entityManager.persist(account);
+        });
+        inTransaction(entityManager -> entityManager.find(Account.class, ACCOUNT_ID).setBalance(50L));
+        inTransaction(entityManager -> entityManager.remove(entityManager.find(Account.class, ACCOUNT_ID)));
+
+        var accountStatistics = statistics.getEntityStatistics(Account.class);
+        assertEquals(1, accountStatistics.getInsertCount());
+        assertEquals(1, accountStatistics.getUpdateCount());
+        assertEquals(1, accountStatistics.getDeleteCount());
+        assertEquals(2, accountStatistics.getLoadCount());
+        assertEquals(1, statistics.getEntityInsertCount());
+        assertEquals(3, statistics.getFlushCount());
+    }
+
+    @Test
+    @DisplayName("Disabled statistics do not count, clear resets the counters")
+    public void testDisabledAndClear() {
+        inTransaction(entityManager -> entityManager.find(Person.class, PERSON_ID));
+        assertEquals(1, statistics.getEntityLoadCount());
+
+        statistics.clear();
+        statistics.setEnabled(false);
+        inTransaction(entityManager -> entityManager.find(Person.class, PERSON_ID));
+
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getEntityStatistics().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Execute and fetch latencies are recorded per SQL shape")
+    public void testQueryLatencies() {
+        statistics.setSlowQueryThreshold(Duration.ZERO);
+        inTransaction(entityManager -> entityManager.find(Person.class, PERSON_ID));
+        inTransaction(entityManager -> entityManager.find(Person.class, PERSON_ID));
+
+        var queryStatistics = statistics.getQueryStatistics("SELECT u.* FROM users u WHERE u.id = ?");
+        assertNotNull(queryStatistics);
+        var executeTime = queryStatistics.getExecuteTime();
+        assertEquals(2, executeTime.count());
+        assertTrue(executeTime.p50Nanos() > 0);
+        assertTrue(executeTime.p99Nanos() <= executeTime.maxNanos());
+        assertEquals(2, queryStatistics.getFetchTime().count());
+        assertTrue(statistics.isSlowQuery(0));
+
+        statistics.setSlowQueryThreshold(null);
+        assertFalse(statistics.isSlowQuery(Long.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Statements with inlined values are recorded by their shape")
+    public void testWriteShapes() {
+        for (long id = ACCOUNT_ID; id < ACCOUNT_ID + 2; id++) {
+            long accountId = id;
+            inTransaction(entityManager -> {
+                var account = new Account();
+                account.setId(accountId);
+                account.setOwner("owner" + accountId);
+                account.setBalance(accountId);
+                entityManager.persist(account);
+            });
+        }
+
+        var insertShape = "INSERT INTO accounts (id,owner,balance,version) VALUES (?,?,?,?)";
+        assertEquals(2, statistics.getQueryStatistics(insertShape).getExecuteTime().count());
+        assertEquals(0, statistics.getQueryStatistics(insertShape).getFetchTime().count());
+    }
+
+    @Test
+    @DisplayName("Updates of several entity classes flushed together are recorded by the shape of each class")
+    public void testUpdateShapes() {
+        inTransaction(entityManager -> {
+            var account = new Account();
+            account.setId(ACCOUNT_ID);
+            account.setOwner("owner");
+            account.setBalance(100L);
+            entityManager.persist(account);
+        });
+        var updated = new Object[2];
+        inTransaction(entityManager -> {
+            var account = entityManager.find(Account.class, ACCOUNT_ID);
+            account.setBalance(50L);
+            var person = entityManager.find(Person.class, PERSON_ID);
+            person.setFirstName("Changed");
+            updated[0] = account;
+            updated[1] = person;
+        });
+
+        var accountShape = QueryUtils.buildUpdateShape(updated[0], "version");
+        var personShape = QueryUtils.buildUpdateShape(updated[1], null);
+        assertEquals("UPDATE accounts SET owner = ?, balance = ?, version = ? WHERE id = ? AND version = ?", accountShape);
+        assertEquals(1, statistics.getQueryStatistics(accountShape).getExecuteTime().count());
+        assertEquals(1, statistics.getQueryStatistics(personShape).getExecuteTime().count());
+    }
+
+    private void inTransaction(Consumer<EntityManager> consumer) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        consumer.accept(entityManager);
+        entityManager.getTransaction().commit();
+        entityManager.close();
+    }
+}
@@ -0,0 +1,148 @@
+package com.breskul.bibernate.persistence.diagnostics;
+
+import com.breskul.bibernate.AbstractDataSourceTest;
+import com.breskul.bibernate.exception.EntityManagerException;
+import com.breskul.bibernate.exception.NPlusOneQueryException;
+import com.breskul.bibernate.persistence.query.Query;
+import com.breskul.bibernate.persistence.test_model.NoteWithLazyPerson;
+import com.breskul.bibernate.persistence.test_model.Person;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NPlusOneDetectorTest extends AbstractDataSourceTest {
+
+    private static final String INSERT_PERSON = "INSERT INTO users (id, first_name, last_name) VALUES (?, ?, ?)";
+    private static final String INSERT_NOTE = "INSERT INTO notes (id, body, person_id) VALUES (?, ?, ?)";
+    private static final int PERSON_COUNT = 6;
+
+    @BeforeEach
+    void setUp() {
+        doInConnection(connection -> {
+            try {
+                PreparedStatement person = connection.prepareStatement(INSERT_PERSON);
+                PreparedStatement note = connection.prepareStatement(INSERT_NOTE);
+                for (long id = 17101L; id < 17101L + PERSON_COUNT; id++) {
+                    person.setLong(1, id);
+                    person.setString(2, "FirstName");
+                    person.setString(3, "LastName" + id);
+                    person.executeUpdate();
+                    note.setLong(1, id);
+                    note.setString(2, "body");
+                    note.setLong(3, id);
+                    note.executeUpdate();
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    @AfterEach
+    void destroy() {
+        doInConnection(connection -> {
+            try {
+                connection.prepareStatement(CLEAN_NOTE_TABLE).execute();
+                connection.prepareStatement(CLEAN_PERSON_TABLE).execute();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Lazy collections loaded in a loop are reported with the association and the caller")
+    public void testCollectionNPlusOne() {
+        doInLocalEntityManager(entityManager -> {
+            entityManager.getNPlusOneDetector().setEnabled(true);
+            var persons = entityManager.findAll(Query.from(Person.class));
+            persons.forEach(person -> assertEquals(1, person.getNotes().size()));
+
+            var report = entityManager.getNPlusOneDetector().getReport();
+            assertEquals(1, report.size());
+            var repeatedQuery = report.get(0);
+            assertEquals("SELECT n.* FROM notes n WHERE n.person_id = ?", repeatedQuery.sqlShape());
+            assertEquals("Person.notes", repeatedQuery.association());
+            assertEquals(PERSON_COUNT, repeatedQuery.executions());
+            assertEquals(PERSON_COUNT, repeatedQuery.distinctParameters());
+            assertTrue(repeatedQuery.caller().contains(NPlusOneDetectorTest.class.getName()));
+        });
+    }
+
+    @Test
+    @DisplayName("Lazy to-one associations loaded in a loop are reported")
+    public void testToOneNPlusOne() {
+        doInLocalEntityManager(entityManager -> {
+            entityManager.getNPlusOneDetector().setEnabled(true);
+            var notes = entityManager.findAll(Query.from(NoteWithLazyPerson.class));
+            notes.forEach(note -> assertEquals("FirstName", note.getPerson().getFirstName()));
+
+            var report = entityManager.getNPlusOneDetector().getReport();
+            assertEquals(1, report.size());
+            assertEquals("NoteWithLazyPerson.person", report.get(0).association());
+            assertEquals(PERSON_COUNT, report.get(0).distinctParameters());
+            assertTrue(report.get(0).caller().contains(NPlusOneDetectorTest.class.getName()));
+        });
+    }
+
+    @Test
+    @DisplayName("Query repeated with the same parameters is not reported")
+    public void testSameParameters() {
+        doInLocalEntityManager(entityManager -> {
+            entityManager.getNPlusOneDetector().setEnabled(true);
+            for (int i = 0; i < PERSON_COUNT; i++) {
+                entityManager.findAll(Query.from(Person.class).where("firstName", "FirstName"));
+            }
+            assertTrue(entityManager.getNPlusOneDetector().getReport().isEmpty());
+        });
+    }
+
+    @Test
+    @DisplayName("Strict mode fails the query which exceeds the budget")
+    public void testStrictBudget() {
+        doInLocalEntityManager(entityManager -> {
+            entityManager.getNPlusOneDetector().setStrictBudget(3);
+            var persons = entityManager.findAll(Query.from(Person.class));
+            for (int i = 0; i < 3; i++) {
+                persons.get(i).getNotes().size();
+            }
+            var exception = assertThrows(NPlusOneQueryException.class, () -> persons.get(3).getNotes().size());
+            assertTrue(exception.getMessage().contains("Person.notes"));
+        });
+    }
+
+    @Test
+    @DisplayName("Invalid threshold or strict budget throws an exception")
+    public void testInvalidSettings() {
+        var detector = new NPlusOneDetector();
+        assertThrows(EntityManagerException.class, () -> detector.setThreshold(1));
+        assertThrows(EntityManagerException.class, () -> detector.setStrictBudget(-1));
+        assertFalse(detector.isRecording());
+        detector.setStrictBudget(3);
+        assertTrue(detector.isRecording());
+    }
+
+    @Test
+    @DisplayName("Detector is disabled by default and reset at the beginning of the transaction")
+    public void testDisabledAndReset() {
+        doInLocalEntityManager(entityManager -> {
+            entityManager.findAll(Query.from(Person.class)).forEach(person -> person.getNotes().size());
+            assertTrue(entityManager.getNPlusOneDetector().getReport().isEmpty());
+        });
+        doInLocalEntityManager(entityManager -> {
+            var detector = entityManager.getNPlusOneDetector();
+            detector.setEnabled(true);
+            entityManager.findAll(Query.from(Person.class)).forEach(person -> person.getNotes().size());
+            entityManager.getTransaction().commit();
+            assertFalse(detector.getReport().isEmpty());
+            entityManager.getTransaction().begin();
+            assertTrue(detector.getReport().isEmpty());
+        });
+    }
+}
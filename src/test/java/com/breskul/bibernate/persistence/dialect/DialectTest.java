@@ -0,0 +1,121 @@
+package com.breskul.bibernate.persistence.dialect;
+
+import com.breskul.bibernate.AbstractDataSourceTest;
+import com.breskul.bibernate.exception.JdbcDaoException;
+import com.breskul.bibernate.persistence.EntityManagerFactoryImpl;
+import com.breskul.bibernate.persistence.lock.LockMode;
+import com.breskul.bibernate.persistence.test_model.cascadepersist.NoteComplexCascadePersist;
+import com.breskul.bibernate.persistence.test_model.cascadepersist.PersonCascadePersist;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DialectTest extends AbstractDataSourceTest {
+
+    @AfterEach
+    void destroy() {
+        doInConnection(connection -> {
+            try {
+                connection.prepareStatement(CLEAN_NOTE_TABLE).execute();
+                connection.prepareStatement(CLEAN_PERSON_TABLE).execute();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Dialect is resolved by property or database product")
+    public void resolveDialect() {
+        assertInstanceOf(PostgreSQLDialect.class, DialectResolver.fromProperty(" PostgreSQL "));
+        assertThrows(JdbcDaoException.class, () -> DialectResolver.fromProperty("mariadb"));
+        assertInstanceOf(H2Dialect.class, DialectResolver.fromProperty(H2Dialect.class.getName()));
+        assertThrows(JdbcDaoException.class, () -> DialectResolver.fromProperty("java.lang.String"));
+        assertThrows(JdbcDaoException.class, () -> DialectResolver.fromProperty("oracle"));
+        assertInstanceOf(MySQLDialect.class, DialectResolver.fromDatabaseProduct("MySQL"));
+        assertInstanceOf(StandardDialect.class, DialectResolver.fromDatabaseProduct("MariaDB"));
+        assertInstanceOf(StandardDialect.class, DialectResolver.fromDatabaseProduct("Oracle"));
+        doInConnection(connection -> assertInstanceOf(H2Dialect.class, DialectResolver.resolve(connection)));
+    }
+
+    @Test
+    @DisplayName("Get sequence queries")
+    public void getSequenceQueries() {
+        assertEquals("VALUES NEXT VALUE FOR notes_seq", new H2Dialect().buildSequenceQuery("notes_seq"));
+        assertEquals("SELECT NEXT VALUE FOR notes_seq FROM SYSTEM_RANGE(1, 3)", new H2Dialect().buildSequenceBatchQuery("notes_seq", 3));
+        assertEquals("SELECT nextval('notes_seq')", new PostgreSQLDialect().buildSequenceQuery("notes_seq"));
+        assertEquals("SELECT nextval('notes_seq') FROM generate_series(1, 3)", new PostgreSQLDialect().buildSequenceBatchQuery("notes_seq", 3));
+        assertEquals("VALUES (NEXT VALUE FOR notes_seq)", new StandardDialect().buildSequenceQuery("notes_seq"));
+        assertNull(new StandardDialect().buildSequenceBatchQuery("notes_seq", 3));
+        assertThrows(JdbcDaoException.class, () -> new MySQLDialect().buildSequenceQuery("notes_seq"));
+    }
+
+    @Test
+    @DisplayName("Get insert queries")
+    public void getInsertQueries() {
+        var insertQuery = "INSERT INTO users (first_name) VALUES ('John')";
+        assertEquals("SELECT id FROM FINAL TABLE (" + insertQuery + ")", new H2Dialect().buildInsertReturningQuery(insertQuery, "id"));
+        assertEquals(insertQuery + " RETURNING id", new PostgreSQLDialect().buildInsertReturningQuery(insertQuery, "id"));
+        assertNull(new MySQLDialect().buildInsertReturningQuery(insertQuery, "id"));
+        assertTrue(new MySQLDialect().isMultiRowIdentityInsertSupported());
+        assertFalse(new StandardDialect().isMultiRowIdentityInsertSupported());
+        assertEquals("INSERT INTO users (first_name,last_name) VALUES ('John','Doe'), ('Jane','Roe')",
+                new MySQLDialect().buildMultiRowInsertQuery("users", "first_name,last_name", List.of("'John','Doe'", "'Jane','Roe'")));
+    }
+
+    @Test
+    @DisplayName("Get lock clause")
+    public void getLockClause() {
+        assertEquals("FOR UPDATE OF t0 SKIP LOCKED", new PostgreSQLDialect().buildLockClause(LockMode.SKIP_LOCKED, "t0"));
+        assertEquals("FOR SHARE OF t0", new MySQLDialect().buildLockClause(LockMode.PESSIMISTIC_READ, "t0"));
+        assertEquals("FOR UPDATE", new H2Dialect().buildLockClause(LockMode.NOWAIT, "t0"));
+    }
+
+    @Test
+    @DisplayName("Get lock timeout statement")
+    public void getLockTimeoutStatement() {
+        assertEquals("SET LOCAL lock_timeout = 250", new PostgreSQLDialect().buildLockTimeoutStatement(Duration.ofMillis(250)));
+        assertEquals("SET SESSION innodb_lock_wait_timeout = 1", new MySQLDialect().buildLockTimeoutStatement(Duration.ofMillis(250)));
+        assertEquals("SET LOCK_TIMEOUT 1", new H2Dialect().buildLockTimeoutStatement(Duration.ZERO));
+        assertEquals("SET LOCK_TIMEOUT 2000", new H2Dialect().buildLockTimeoutResetStatement(2000));
+        assertNull(new StandardDialect().buildLockTimeoutStatement(Duration.ZERO));
+    }
+
+    @Test
+    @DisplayName("Sequence identifiers of the persisted tree are fetched in one query per table")
+    public void persistFetchesSequenceIdentifiersInBatch() {
+        var person = new PersonCascadePersist();
+        person.setFirstName("John");
+        person.setLastName("Doe");
+        for (int i = 0; i < 3; i++) {
+            var note = new NoteComplexCascadePersist();
+            note.setBody("note " + i);
+            person.addNote(note);
+        }
+        var entityManagerFactory = new EntityManagerFactoryImpl(dataSource);
+        var statistics = entityManagerFactory.getStatistics();
+        statistics.setEnabled(true);
+        try {
+            var entityManager = entityManagerFactory.createEntityManager();
+            entityManager.getTransaction().begin();
+            entityManager.persist(person);
+            entityManager.getTransaction().commit();
+            entityManager.close();
+        } finally {
+            entityManagerFactory.close();
+        }
+
+        var ids = person.getNotes().stream().map(NoteComplexCascadePersist::getId).toList();
+        assertEquals(3, ids.stream().distinct().count());
+        assertEquals(ids.get(0) + 2, ids.get(2));
+        var batchQuery = new H2Dialect().buildSequenceBatchQuery("notes_seq", 3);
+        assertEquals(1, statistics.getQueryStatistics(batchQuery).getExecuteTime().count());
+        assertNull(statistics.getQueryStatistics(new H2Dialect().buildSequenceQuery("notes_seq")));
+    }
+}
@@ -0,0 +1,144 @@
+package com.breskul.bibernate.persistence.graph;
+
+import com.breskul.bibernate.AbstractDataSourceTest;
+import com.breskul.bibernate.collection.LazyList;
+import com.breskul.bibernate.exception.EntityManagerException;
+import com.breskul.bibernate.persistence.EntityManager;
+import com.breskul.bibernate.persistence.EntityManagerImpl;
+import com.breskul.bibernate.persistence.query.QueryPlanCache;
+import com.breskul.bibernate.persistence.test_model.NoteWithLazyPerson;
+import com.breskul.bibernate.persistence.test_model.NoteWithoutGeneratedValue;
+import com.breskul.bibernate.persistence.test_model.PersonWithoutGeneratedValue;
+import com.breskul.bibernate.proxy.EntityProxy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EntityGraphTest extends AbstractDataSourceTest {
+
+    private static final String INSERT_PERSON = "INSERT INTO users (id, first_name, last_name) VALUES (?, ?, ?)";
+    private static final String INSERT_NOTE = "INSERT INTO notes (id, body, person_id) VALUES (?, ?, ?)";
+    private static final Long PERSON_ID = 5001L;
+    private static final Long FIRST_NOTE_ID = 5001L;
+    private static final Long SECOND_NOTE_ID = 5002L;
+
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        doInConnection(connection -> {
+            try {
+                PreparedStatement person = connection.prepareStatement(INSERT_PERSON);
+                person.setLong(1, PERSON_ID);
+                person.setString(2, "FirstName");
+                person.setString(3, "LastName");
+                person.executeUpdate();
+
+                PreparedStatement note = connection.prepareStatement(INSERT_NOTE);
+                for (Long noteId : new Long[]{FIRST_NOTE_ID, SECOND_NOTE_ID}) {
+                    note.setLong(1, noteId);
+                    note.setString(2, "body" + noteId);
+                    note.setLong(3, PERSON_ID);
+                    note.executeUpdate();
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        entityManager = new EntityManagerImpl(dataSource);
+    }
+
+    @AfterEach
+    void destroy() {
+        doInConnection(connection -> {
+            try {
+                connection.prepareStatement(CLEAN_NOTE_TABLE).execute();
+                connection.prepareStatement(CLEAN_PERSON_TABLE).execute();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        entityManager.close();
+    }
+
+    @Test
+    @DisplayName("Join fetched collection is loaded by the same query")
+    public void testFetchJoinCollection() {
+        var graph = EntityGraph.create(PersonWithoutGeneratedValue.class).fetchJoin("notes");
+        entityManager.getTransaction().begin();
+        var person = entityManager.find(PersonWithoutGeneratedValue.class, PERSON_ID, graph);
+        entityManager.getTransaction().commit();
+
+        assertFalse(person.getNotes() instanceof LazyList<?>);
+        assertEquals(2, person.getNotes().size());
+        person.getNotes().forEach(note -> assertSame(person, note.getPerson()));
+        assertTrue(entityManager.contains(person.getNotes().get(0)));
+    }
+
+    @Test
+    @DisplayName("Join fetched to-one association replaces the lazy proxy")
+    public void testFetchJoinToOne() {
+        var graph = EntityGraph.create(NoteWithLazyPerson.class).fetchJoin("person");
+        entityManager.getTransaction().begin();
+        var note = entityManager.find(NoteWithLazyPerson.class, FIRST_NOTE_ID, graph);
+        entityManager.getTransaction().commit();
+
+        assertFalse(note.getPerson() instanceof EntityProxy);
+        assertEquals("FirstName", note.getPerson().getFirstName());
+        assertEquals("body" + FIRST_NOTE_ID, note.getBody());
+    }
+
+    @Test
+    @DisplayName("Eager to-one association is left lazy by the graph")
+    public void testFetchLazyToOne() {
+        var graph = EntityGraph.create(NoteWithoutGeneratedValue.class).fetchLazy("person");
+        entityManager.getTransaction().begin();
+        var note = entityManager.find(NoteWithoutGeneratedValue.class, FIRST_NOTE_ID, graph);
+        assertInstanceOf(EntityProxy.class, note.getPerson());
+        assertEquals("FirstName", note.getPerson().getFirstName());
+        entityManager.getTransaction().commit();
+    }
+
+    @Test
+    @DisplayName("Batch fetched collection is a lazy list")
+    public void testFetchBatchCollection() {
+        var graph = EntityGraph.create(PersonWithoutGeneratedValue.class).fetchBatch("notes", 10);
+        entityManager.getTransaction().begin();
+        var person = entityManager.find(PersonWithoutGeneratedValue.class, PERSON_ID, graph);
+        assertFalse(((LazyList<?>) person.getNotes()).isLoaded());
+        assertEquals(2, person.getNotes().size());
+        entityManager.getTransaction().commit();
+    }
+
+    @Test
+    @DisplayName("Fetch plans are compiled once per graph and the least recently used one is evicted")
+    public void testFetchPlanCache() {
+        var cache = new QueryPlanCache(1);
+        var first = cache.getFetchPlan(EntityGraph.create(PersonWithoutGeneratedValue.class).fetchJoin("notes"));
+        var second = cache.getFetchPlan(EntityGraph.create(PersonWithoutGeneratedValue.class).fetchJoin("notes"));
+        assertSame(first, second);
+        assertTrue(first.selectQuery().startsWith("SELECT t0.id AS t0_id"));
+        assertTrue(first.selectQuery().endsWith("FROM users t0 LEFT JOIN notes t1 ON t1.person_id = t0.id"));
+
+        cache.getFetchPlan(EntityGraph.create(NoteWithoutGeneratedValue.class).fetchJoin("person"));
+        assertEquals(1, cache.getFetchPlanCount());
+        assertNotSame(first, cache.getFetchPlan(EntityGraph.create(PersonWithoutGeneratedValue.class).fetchJoin("notes")));
+    }
+
+    @Test
+    @DisplayName("Graph with unknown attribute is rejected")
+    public void testUnknownAttribute() {
+        var graph = EntityGraph.create(PersonWithoutGeneratedValue.class).fetchJoin("firstName");
+        entityManager.getTransaction().begin();
+        assertThrows(EntityManagerException.class, () -> entityManager.find(PersonWithoutGeneratedValue.class, PERSON_ID, graph));
+        var batchToOne = EntityGraph.create(NoteWithoutGeneratedValue.class).fetchBatch("person");
+        assertThrows(EntityManagerException.class, () -> entityManager.find(NoteWithoutGeneratedValue.class, FIRST_NOTE_ID, batchToOne));
+        entityManager.getTransaction().rollback();
+    }
+}
@@ -0,0 +1,141 @@
+package com.breskul.bibernate.persistence.jfr;
+
+import com.breskul.bibernate.AbstractDataSourceTest;
+import com.breskul.bibernate.persistence.EntityManager;
+import com.breskul.bibernate.persistence.EntityManagerImpl;
+import com.breskul.bibernate.persistence.test_model.Account;
+import com.breskul.bibernate.persistence.test_model.NoteComplex;
+import com.breskul.bibernate.persistence.test_model.Person;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JfrEventsTest extends AbstractDataSourceTest {
+
+    private static final String INSERT_PERSON = "INSERT INTO users (id, first_name, last_name) VALUES (?, ?, ?)";
+    private static final String INSERT_NOTE = "INSERT INTO notes (id, body, person_id) VALUES (?, ?, ?)";
+    private static final long PERSON_ID = 17001L;
+    private static final long ACCOUNT_ID = 17001L;
+
+    @BeforeEach
+    void setUp() {
+        doInConnection(connection -> {
+            try {
+                PreparedStatement person = connection.prepareStatement(INSERT_PERSON);
+                person.setLong(1, PERSON_ID);
+                person.setString(2, "FirstName");
+                person.setString(3, "LastName");
+                person.executeUpdate();
+                PreparedStatement note = connection.prepareStatement(INSERT_NOTE);
+                for (long noteId = 17001L; noteId <= 17003L; noteId++) {
+                    note.setLong(1, noteId);
+                    note.setString(2, "body");
+                    note.setLong(3, PERSON_ID);
+                    note.executeUpdate();
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    @AfterEach
+    void destroy() {
+        doInConnection(connection -> {
+            try {
+                connection.prepareStatement(CLEAN_NOTE_TABLE).execute();
+                connection.prepareStatement(CLEAN_PERSON_TABLE).execute();
+                connection.prepareStatement(CLEAN_ACCOUNT_TABLE).execute();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Entity manager operations emit events with entity type and row counts")
+    public void testEntityManagerEvents() throws IOException {
+        List<RecordedEvent> events = record(entityManager -> {
+            Person person = entityManager.find(Person.class, PERSON_ID);
+            assertEquals(3, person.getNotes().size());
+            var account = new Account();
+            account.setId(ACCOUNT_ID);
+            account.setOwner("owner");
+            account.setBalance(100L);
+            entityManager.persist(account);
+            account.setBalance(50L);
+        });
+
+        var find = single(events, "bibernate.EntityOperation", "find");
+        assertEquals(Person.class.getName(), find.getClass("entityType").getName());
+        var persist = single(events, "bibernate.EntityOperation", "persist");
+        assertEquals(Account.class.getName(), persist.getClass("entityType").getName());
+
+        var collection = events(events, "bibernate.CollectionInitialization").get(0);
+        assertEquals(NoteComplex.class.getName(), collection.getClass("elementType").getName());
+        assertEquals(3, collection.getInt("elementCount"));
+
+        var hydrations = events(events, "bibernate.Hydration");
+        assertTrue(hydrations.stream().anyMatch(event -> event.getInt("rowCount") == 3
+                && event.getClass("entityType").getName().equals(NoteComplex.class.getName())));
+
+        var statements = events(events, "bibernate.StatementExecution");
+        assertTrue(statements.stream().anyMatch(event -> event.getString("sql").startsWith("INSERT INTO accounts")
+                && event.getLong("updatedRows") == 1));
+
+        var flush = events(events, "bibernate.Flush").get(0);
+        assertEquals(1, flush.getInt("updatedEntityCount"));
+        assertTrue(flush.getInt("managedEntityCount") >= 5);
+    }
+
+    private List<RecordedEvent> record(Consumer<EntityManager> consumer) throws IOException {
+        try (Recording recording = new Recording()) {
+            for (String name : List.of("bibernate.EntityOperation", "bibernate.Flush", "bibernate.CollectionInitialization",
+                    "bibernate.StatementExecution", "bibernate.Hydration")) {
+                recording.enable(name).withoutThreshold();
+            }
+            recording.start();
+            EntityManager entityManager = new EntityManagerImpl(dataSource);
+            entityManager.getTransaction().begin();
+            consumer.accept(entityManager);
+            entityManager.getTransaction().commit();
+            entityManager.close();
+            recording.stop();
+            return read(recording);
+        }
+    }
+
+    private static List<RecordedEvent> read(Recording recording) throws IOException {
+        Path file = Files.createTempFile("bibernate", ".jfr");
+        try {
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<RecordedEvent> events(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name)).toList();
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name, String operation) {
+        var matching = events(events, name).stream().filter(event -> operation.equals(event.getString("operation"))).toList();
+        assertEquals(1, matching.size());
+        return matching.get(0);
+    }
+}
@@ -0,0 +1,126 @@
+package com.breskul.bibernate.persistence.jmx;
+
+import com.breskul.bibernate.AbstractDataSourceTest;
+import com.breskul.bibernate.exception.EntityManagerException;
+import com.breskul.bibernate.persistence.EntityManager;
+import com.breskul.bibernate.persistence.EntityManagerFactoryImpl;
+import com.breskul.bibernate.persistence.query.Query;
+import com.breskul.bibernate.persistence.test_model.Person;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.management.Attribute;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EntityManagerFactoryMonitorTest extends AbstractDataSourceTest {
+
+    private static final String INSERT_PERSON = "INSERT INTO users (id, first_name, last_name) VALUES (?, ?, ?)";
+    private static final long PERSON_ID = 17201L;
+
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    private EntityManagerFactoryImpl entityManagerFactory;
+    private ObjectName objectName;
+
+    @BeforeEach
+    void setUp() {
+        doInConnection(connection -> {
+            try {
+                PreparedStatement person = connection.prepareStatement(INSERT_PERSON);
+                person.setLong(1, PERSON_ID);
+                person.setString(2, "FirstName");
+                person.setString(3, "LastName");
+                person.executeUpdate();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        entityManagerFactory = new EntityManagerFactoryImpl(dataSource);
+        objectName = entityManagerFactory.registerMBean("monitor-test");
+    }
+
+    @AfterEach
+    void destroy() {
+        entityManagerFactory.close();
+        doInConnection(connection -> {
+            try {
+                connection.prepareStatement(CLEAN_PERSON_TABLE).execute();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("MBean exposes entity managers, caches, statements and pool state")
+    public void testAttributes() throws JMException {
+        mBeanServer.setAttribute(objectName, new Attribute("StatisticsEnabled", true));
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        entityManager.find(Person.class, PERSON_ID);
+        entityManager.find(Person.class, PERSON_ID);
+        entityManager.findAll(Query.from(Person.class).where("firstName", "FirstName"));
+        entityManager.findAll(Query.from(Person.class).where("firstName", "Other"));
+
+        assertEquals(1L, mBeanServer.getAttribute(objectName, "OpenEntityManagerCount"));
+        assertEquals(1L, mBeanServer.getAttribute(objectName, "ManagedEntityCount"));
+        assertEquals(1L, mBeanServer.getAttribute(objectName, "CacheHitCount"));
+        assertEquals(0.5, mBeanServer.getAttribute(objectName, "CacheHitRatio"));
+        assertEquals(1, mBeanServer.getAttribute(objectName, "QueryPlanCacheSize"));
+        assertEquals(1L, mBeanServer.getAttribute(objectName, "QueryPlanCacheHitCount"));
+        assertEquals(1L, mBeanServer.getAttribute(objectName, "QueryPlanCacheMissCount"));
+        assertEquals(3L, mBeanServer.getAttribute(objectName, "ExecuteStatementCount"));
+        assertTrue((int) mBeanServer.getAttribute(objectName, "PoolActiveConnections") >= 1);
+        assertTrue((int) mBeanServer.getAttribute(objectName, "PoolTotalConnections") >= 1);
+
+        entityManager.getTransaction().commit();
+        entityManager.close();
+        assertEquals(0L, mBeanServer.getAttribute(objectName, "OpenEntityManagerCount"));
+        assertEquals(1L, mBeanServer.getAttribute(objectName, "FlushCount"));
+        assertEquals(1L, mBeanServer.getAttribute(objectName, "TransactionCount"));
+    }
+
+    @Test
+    @DisplayName("MBean operations dump the slowest SQL shapes and reset the counters")
+    public void testOperations() throws JMException {
+        entityManagerFactory.getStatistics().setEnabled(true);
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        entityManager.find(Person.class, PERSON_ID);
+        entityManager.findAll(Query.from(Person.class).where("firstName", "FirstName"));
+        entityManager.getTransaction().commit();
+        entityManager.close();
+
+        var slowest = (String[]) mBeanServer.invoke(objectName, "dumpSlowestQueries", new Object[]{1}, new String[]{"int"});
+        assertEquals(1, slowest.length);
+        assertTrue(slowest[0].startsWith("count=1 p50="));
+        var all = (String[]) mBeanServer.invoke(objectName, "dumpSlowestQueries", new Object[]{10}, new String[]{"int"});
+        assertEquals(2, all.length);
+
+        mBeanServer.invoke(objectName, "resetStatistics", new Object[0], new String[0]);
+        assertEquals(0L, mBeanServer.getAttribute(objectName, "ExecuteStatementCount"));
+        assertEquals(0L, mBeanServer.getAttribute(objectName, "QueryPlanCacheMissCount"));
+        assertEquals(0, ((String[]) mBeanServer.invoke(objectName, "dumpSlowestQueries", new Object[]{10}, new String[]{"int"})).length);
+    }
+
+    @Test
+    @DisplayName("MBean is unregistered when the factory is closed and can not be registered twice")
+    public void testRegistration() {
+        assertTrue(mBeanServer.isRegistered(objectName));
+        assertThrows(EntityManagerException.class, () -> entityManagerFactory.registerMBean("other"));
+        var otherFactory = new EntityManagerFactoryImpl(dataSource);
+        assertThrows(EntityManagerException.class, () -> otherFactory.registerMBean("monitor-test"));
+        otherFactory.close();
+
+        entityManagerFactory.close();
+        assertFalse(mBeanServer.isRegistered(objectName));
+    }
+}
@@ -0,0 +1,45 @@
+package com.breskul.bibernate.persistence.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Bucket of a value reports it with less than 6.25% error")
+    public void testBucketPrecision() {
+        for (long value : new long[]{0, 15, 16, 17, 1_000, 123_456, 987_654_321, 1L << 39}) {
+            long reported = LatencyHistogram.highestValueInBucket(LatencyHistogram.bucketIndex(value));
+            assertTrue(reported >= value, "Reported " + reported + " for " + value);
+            assertTrue(reported - value <= value / 16, "Reported " + reported + " for " + value);
+        }
+        assertEquals(LatencyHistogram.bucketIndex(Long.MAX_VALUE), LatencyHistogram.bucketIndex(1L << 45));
+    }
+
+    @Test
+    @DisplayName("Snapshot computes percentiles of the recorded latencies")
+    public void testSnapshot() {
+        var histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1_000L);
+        }
+
+        var snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.count());
+        assertEquals(500_500, snapshot.meanNanos());
+        assertEquals(500_000, snapshot.p50Nanos(), 500_000 / 16);
+        assertEquals(990_000, snapshot.p99Nanos(), 990_000 / 16);
+        assertEquals(999_000, snapshot.p999Nanos(), 999_000 / 16);
+        assertEquals(1_000_000, snapshot.maxNanos());
+        assertTrue(snapshot.p999Nanos() <= snapshot.maxNanos());
+    }
+
+    @Test
+    @DisplayName("Snapshot of empty histogram is zero")
+    public void testEmptySnapshot() {
+        var snapshot = new LatencyHistogram().snapshot();
+        assertEquals(new LatencySnapshot(0, 0, 0, 0, 0, 0), snapshot);
+    }
+}
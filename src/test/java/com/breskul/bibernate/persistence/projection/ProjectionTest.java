@@ -0,0 +1,156 @@
+package com.breskul.bibernate.persistence.projection;
+
+import com.breskul.bibernate.AbstractDataSourceTest;
+import com.breskul.bibernate.exception.EntityManagerException;
+import com.breskul.bibernate.exception.InternalException;
+import com.breskul.bibernate.exception.JdbcDaoException;
+import com.breskul.bibernate.persistence.EntityManager;
+import com.breskul.bibernate.persistence.EntityManagerImpl;
+import com.breskul.bibernate.persistence.JdbcDao;
+import com.breskul.bibernate.persistence.PersistenceContext;
+import com.breskul.bibernate.persistence.test_model.PersonWithoutGeneratedValue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProjectionTest extends AbstractDataSourceTest {
+
+    private static final String INSERT_PERSON = "INSERT INTO users (id, first_name, last_name, birthday) VALUES (?, ?, ?, ?)";
+    private static final LocalDate BIRTHDAY = LocalDate.of(1990, 5, 17);
+
+    public record PersonName(Long id, String firstName) {
+    }
+
+    public record PersonBirthday(String lastName, LocalDate birthday) {
+    }
+
+    public static class PersonView {
+        private final long id;
+        private final String lastName;
+
+        public PersonView(long id, String lastName) {
+            this.id = id;
+            this.lastName = lastName;
+        }
+    }
+
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        doInConnection(connection -> {
+            try {
+                PreparedStatement person = connection.prepareStatement(INSERT_PERSON);
+                for (long id = 6001L; id <= 6003L; id++) {
+                    person.setLong(1, id);
+                    person.setString(2, "FirstName" + id);
+                    person.setString(3, id == 6003L ? "Other" : "LastName");
+                    person.setDate(4, Date.valueOf(BIRTHDAY));
+                    person.addBatch();
+                }
+                person.executeBatch();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        entityManager = new EntityManagerImpl(dataSource);
+    }
+
+    @AfterEach
+    void destroy() {
+        doInConnection(connection -> {
+            try {
+                connection.prepareStatement(CLEAN_PERSON_TABLE).execute();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        entityManager.close();
+    }
+
+    @Test
+    @DisplayName("Project all rows to a record by its component names")
+    public void testRecordProjection() {
+        entityManager.getTransaction().begin();
+        var names = entityManager.findProjections(Projection.of(PersonWithoutGeneratedValue.class, PersonName.class));
+        entityManager.getTransaction().commit();
+
+        var sorted = names.stream().sorted(Comparator.comparing(PersonName::id)).toList();
+        assertEquals(List.of(new PersonName(6001L, "FirstName6001"), new PersonName(6002L, "FirstName6002"),
+                new PersonName(6003L, "FirstName6003")), sorted);
+    }
+
+    @Test
+    @DisplayName("Project filtered rows and convert column types")
+    public void testFilteredProjection() {
+        entityManager.getTransaction().begin();
+        var birthdays = entityManager.findProjections(Projection.of(PersonWithoutGeneratedValue.class, PersonBirthday.class),
+                "lastName", "Other");
+        entityManager.getTransaction().commit();
+
+        assertEquals(List.of(new PersonBirthday("Other", BIRTHDAY)), birthdays);
+    }
+
+    @Test
+    @DisplayName("Project to a class constructor with primitive parameters")
+    public void testConstructorProjection() {
+        entityManager.getTransaction().begin();
+        var views = entityManager.findProjections(Projection.of(PersonWithoutGeneratedValue.class, PersonView.class,
+                "id", "lastName"), "id", 6002L);
+        entityManager.getTransaction().commit();
+
+        assertEquals(1, views.size());
+        assertEquals(6002L, views.get(0).id);
+        assertEquals("LastName", views.get(0).lastName);
+    }
+
+    @Test
+    @DisplayName("Projection results are not registered in the persistence context")
+    public void testProjectionBypassesPersistenceContext() {
+        var persistenceContext = new PersistenceContext();
+        var jdbcDao = new JdbcDao(persistenceContext);
+        var mapper = ProjectionMapper.of(Projection.of(PersonWithoutGeneratedValue.class, PersonName.class));
+        doInConnection(connection -> {
+            jdbcDao.setConnection(connection);
+            assertEquals(3, jdbcDao.findAllProjected(mapper, "users", null, null).size());
+        });
+        assertTrue(persistenceContext.getCache().isEmpty());
+        assertTrue(persistenceContext.getSnapshots().isEmpty());
+    }
+
+    @Test
+    @DisplayName("NULL column projected to a primitive parameter throws an exception naming the column")
+    public void testNullToPrimitive() {
+        var mapper = ProjectionMapper.of(Projection.of(PersonWithoutGeneratedValue.class, PersonView.class, "id", "lastName"));
+        doInConnection(connection -> {
+            try (var resultSet = connection.prepareStatement("SELECT CAST(NULL AS BIGINT), 'LastName'").executeQuery()) {
+                resultSet.next();
+                var exception = assertThrows(JdbcDaoException.class, () -> mapper.map(resultSet));
+                assertTrue(exception.getMessage().contains("'id'"));
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Projection on unknown or collection attribute throws an exception")
+    public void testUnknownAttribute() {
+        assertThrows(InternalException.class, () -> ProjectionMapper.of(
+                Projection.of(PersonWithoutGeneratedValue.class, PersonView.class, "id", "nickname")));
+        entityManager.getTransaction().begin();
+        assertThrows(EntityManagerException.class, () -> entityManager.findProjections(
+                Projection.of(PersonWithoutGeneratedValue.class, PersonName.class), "notes", 1L));
+        entityManager.getTransaction().rollback();
+    }
+}
@@ -0,0 +1,166 @@
+package com.breskul.bibernate.persistence.query;
+
+import com.breskul.bibernate.AbstractDataSourceTest;
+import com.breskul.bibernate.collection.LazyList;
+import com.breskul.bibernate.exception.EntityManagerException;
+import com.breskul.bibernate.persistence.EntityManager;
+import com.breskul.bibernate.persistence.EntityManagerFactoryImpl;
+import com.breskul.bibernate.persistence.EntityManagerImpl;
+import com.breskul.bibernate.persistence.test_model.PersonWithBatchNotes;
+import com.breskul.bibernate.persistence.test_model.PersonWithoutGeneratedValue;
+import com.breskul.bibernate.persistence.test_model.PersonWithoutGeneratedValueWithEagerFetch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeysetPaginationTest extends AbstractDataSourceTest {
+
+    private static final String INSERT_PERSON = "INSERT INTO users (id, first_name, last_name) VALUES (?, ?, ?)";
+    private static final String INSERT_NOTE = "INSERT INTO notes (id, body, person_id) VALUES (?, ?, ?)";
+    private static final long FIRST_ID = 8001L;
+    private static final long LAST_ID = 8025L;
+
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        doInConnection(connection -> {
+            try {
+                PreparedStatement person = connection.prepareStatement(INSERT_PERSON);
+                for (long id = LAST_ID; id >= FIRST_ID; id--) {
+                    person.setLong(1, id);
+                    person.setString(2, "FirstName" + id);
+                    person.setString(3, id % 2 == 0 ? "Even" : "Odd");
+                    person.addBatch();
+                }
+                person.executeBatch();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        entityManager = new EntityManagerImpl(dataSource);
+    }
+
+    @AfterEach
+    void destroy() {
+        doInConnection(connection -> {
+            try {
+                connection.prepareStatement(CLEAN_NOTE_TABLE).execute();
+                connection.prepareStatement(CLEAN_PERSON_TABLE).execute();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        entityManager.close();
+    }
+
+    @Test
+    @DisplayName("Pages by identifier follow each other until the last page")
+    public void testPagesById() {
+        var query = Query.from(PersonWithoutGeneratedValue.class).where("id", Operator.GREATER_THAN_OR_EQUAL, FIRST_ID);
+        entityManager.getTransaction().begin();
+        var first = entityManager.findPage(query, Keyset.byId(), 10);
+        var second = entityManager.findPage(query, first.next(), 10);
+        var third = entityManager.findPage(query, second.next(), 10);
+
+        assertEquals(LongStream.rangeClosed(8001L, 8010L).boxed().toList(), ids(first.content()));
+        assertEquals(List.of(8010L), first.next().values());
+        assertEquals(LongStream.rangeClosed(8011L, 8020L).boxed().toList(), ids(second.content()));
+        assertEquals(5, third.content().size());
+        assertFalse(third.hasNext());
+        assertFalse(entityManager.contains(first.content().get(0)));
+        entityManager.getTransaction().commit();
+    }
+
+    @Test
+    @DisplayName("Page by composite keyset starts after the given key values")
+    public void testCompositeKeyset() {
+        var query = Query.from(PersonWithoutGeneratedValue.class).where("id", Operator.LESS_THAN_OR_EQUAL, LAST_ID);
+        entityManager.getTransaction().begin();
+        var page = entityManager.findPage(query, Keyset.of("lastName", "id").withValues("Even", 8020L), 4);
+        entityManager.getTransaction().commit();
+
+        assertEquals(List.of(8022L, 8024L, 8001L, 8003L), ids(page.content()));
+        assertEquals(List.of("Odd", 8003L), page.next().values());
+    }
+
+    @Test
+    @DisplayName("Stream loads all entities page by page without keeping them managed")
+    public void testStream() {
+        var query = Query.from(PersonWithoutGeneratedValue.class).where("lastName", "Odd");
+        entityManager.getTransaction().begin();
+        var managed = entityManager.find(PersonWithoutGeneratedValue.class, 8005L);
+        var persons = entityManager.stream(query, Keyset.byId(), 5).toList();
+        entityManager.getTransaction().commit();
+
+        assertEquals(LongStream.rangeClosed(FIRST_ID, LAST_ID).filter(id -> id % 2 == 1).boxed().toList(), ids(persons));
+        assertSame(managed, persons.get(2));
+        assertEquals(1, persons.stream().filter(entityManager::contains).count());
+    }
+
+    @Test
+    @DisplayName("Stream of several pages leaves the associations of the streamed entities out of the persistence context")
+    public void testStreamKeepsPersistenceContextEmpty() {
+        doInConnection(connection -> {
+            try {
+                PreparedStatement note = connection.prepareStatement(INSERT_NOTE);
+                for (long id = FIRST_ID; id <= LAST_ID; id++) {
+                    note.setLong(1, id);
+                    note.setString(2, "Note" + id);
+                    note.setLong(3, id);
+                    note.addBatch();
+                }
+                note.executeBatch();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        var entityManagerFactory = new EntityManagerFactoryImpl(dataSource);
+        try {
+            var streamingEntityManager = entityManagerFactory.createEntityManager();
+            streamingEntityManager.getTransaction().begin();
+            var batchPersons = streamingEntityManager.stream(Query.from(PersonWithBatchNotes.class)
+                    .where("id", Operator.GREATER_THAN_OR_EQUAL, FIRST_ID), Keyset.byId(), 4).toList();
+            var eagerPersons = streamingEntityManager.stream(Query.from(PersonWithoutGeneratedValueWithEagerFetch.class)
+                    .where("id", Operator.GREATER_THAN_OR_EQUAL, FIRST_ID),
+                    Keyset.byId(), 4).toList();
+            assertEquals(0, entityManagerFactory.getManagedEntityCount());
+
+            var managed = streamingEntityManager.find(PersonWithBatchNotes.class, FIRST_ID);
+            assertEquals(1, managed.getNotes().size());
+            assertFalse(((LazyList<?>) batchPersons.get(1).getNotes()).isLoaded());
+            assertEquals(2, entityManagerFactory.getManagedEntityCount());
+            assertEquals(25, batchPersons.size());
+            assertEquals(25, eagerPersons.stream().mapToInt(person -> person.getNotes().size()).sum());
+            assertEquals(2, entityManagerFactory.getManagedEntityCount());
+            streamingEntityManager.getTransaction().commit();
+            streamingEntityManager.close();
+        } finally {
+            entityManagerFactory.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Keyset query with ordering or unknown attribute throws an exception")
+    public void testInvalidKeyset() {
+        entityManager.getTransaction().begin();
+        assertThrows(EntityManagerException.class, () -> entityManager.findPage(Query.from(PersonWithoutGeneratedValue.class)
+                .orderBy(Order.desc("id")), Keyset.byId(), 10));
+        assertThrows(EntityManagerException.class, () -> entityManager.findPage(Query.from(PersonWithoutGeneratedValue.class),
+                Keyset.of("nickname"), 10));
+        assertThrows(EntityManagerException.class, () -> Keyset.of("lastName", "id").withValues("Odd"));
+        entityManager.getTransaction().rollback();
+    }
+
+    private static List<Long> ids(List<PersonWithoutGeneratedValue> persons) {
+        return persons.stream().map(PersonWithoutGeneratedValue::getId).toList();
+    }
+}
@@ -0,0 +1,186 @@
+package com.breskul.bibernate.persistence.query;
+
+import com.breskul.bibernate.AbstractDataSourceTest;
+import com.breskul.bibernate.collection.LazyList;
+import com.breskul.bibernate.exception.EntityManagerException;
+import com.breskul.bibernate.persistence.EntityManager;
+import com.breskul.bibernate.persistence.EntityManagerImpl;
+import com.breskul.bibernate.persistence.graph.EntityGraph;
+import com.breskul.bibernate.persistence.test_model.NoteWithoutGeneratedValue;
+import com.breskul.bibernate.persistence.test_model.PersonWithoutGeneratedValue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryTest extends AbstractDataSourceTest {
+
+    private static final String INSERT_PERSON = "INSERT INTO users (id, first_name, last_name) VALUES (?, ?, ?)";
+    private static final String INSERT_NOTE = "INSERT INTO notes (id, body, person_id) VALUES (?, ?, ?)";
+
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        doInConnection(connection -> {
+            try {
+                PreparedStatement person = connection.prepareStatement(INSERT_PERSON);
+                for (long id = 7001L; id <= 7004L; id++) {
+                    person.setLong(1, id);
+                    person.setString(2, "FirstName" + id);
+                    person.setString(3, id == 7004L ? "Other" : "LastName");
+                    person.addBatch();
+                }
+                person.executeBatch();
+                PreparedStatement note = connection.prepareStatement(INSERT_NOTE);
+                addNote(note, 7001L, "java streams", 7001L);
+                addNote(note, 7002L, "java records", 7001L);
+                addNote(note, 7003L, "sql joins", 7002L);
+                addNote(note, 7004L, "java modules", 7003L);
+                note.executeBatch();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        entityManager = new EntityManagerImpl(dataSource);
+    }
+
+    private static void addNote(PreparedStatement note, long id, String body, long personId) throws SQLException {
+        note.setLong(1, id);
+        note.setString(2, body);
+        note.setLong(3, personId);
+        note.addBatch();
+    }
+
+    @AfterEach
+    void destroy() {
+        doInConnection(connection -> {
+            try {
+                connection.prepareStatement(CLEAN_NOTE_TABLE).execute();
+                connection.prepareStatement(CLEAN_PERSON_TABLE).execute();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        entityManager.close();
+    }
+
+    @Test
+    @DisplayName("Query with predicate, ordering, limit and offset")
+    public void testPagedQuery() {
+        entityManager.getTransaction().begin();
+        var persons = entityManager.findAll(Query.from(PersonWithoutGeneratedValue.class)
+                .where("lastName", "LastName")
+                .orderBy(Order.desc("id"))
+                .limit(2)
+                .offset(1));
+        entityManager.getTransaction().commit();
+
+        assertEquals(List.of(7002L, 7001L), persons.stream().map(PersonWithoutGeneratedValue::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Query by attribute of to-one association")
+    public void testToOneAssociationQuery() {
+        entityManager.getTransaction().begin();
+        var notes = entityManager.findAll(Query.from(NoteWithoutGeneratedValue.class)
+                .where("person.firstName", "FirstName7001")
+                .where("body", Operator.LIKE, "java%")
+                .orderBy(Order.asc("person.lastName"))
+                .orderBy(Order.asc("id")));
+        entityManager.getTransaction().commit();
+
+        assertEquals(List.of(7001L, 7002L), notes.stream().map(NoteWithoutGeneratedValue::getId).toList());
+        assertSame(notes.get(0).getPerson(), notes.get(1).getPerson());
+    }
+
+    @Test
+    @DisplayName("Query by attribute of collection returns every entity once")
+    public void testCollectionQuery() {
+        entityManager.getTransaction().begin();
+        var persons = entityManager.findAll(Query.from(PersonWithoutGeneratedValue.class)
+                .where("notes.body", Operator.LIKE, "java%")
+                .orderBy(Order.asc("id")));
+        var withoutNotes = entityManager.findAll(Query.from(PersonWithoutGeneratedValue.class)
+                .where("notes.body", Operator.IS_NOT_NULL)
+                .where("lastName", Operator.NOT_EQUAL, "LastName"));
+        entityManager.getTransaction().commit();
+
+        assertEquals(List.of(7001L, 7003L), persons.stream().map(PersonWithoutGeneratedValue::getId).toList());
+        assertTrue(withoutNotes.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Query returns managed entities and makes found entities managed")
+    public void testQueryUsesPersistenceContext() {
+        entityManager.getTransaction().begin();
+        var managed = entityManager.find(PersonWithoutGeneratedValue.class, 7001L);
+        managed.setFirstName("Changed");
+        var persons = entityManager.findAll(Query.from(PersonWithoutGeneratedValue.class)
+                .where("id", Operator.LESS_THAN_OR_EQUAL, 7002L)
+                .orderBy(Order.asc("id")));
+
+        assertSame(managed, persons.get(0));
+        assertEquals("Changed", persons.get(0).getFirstName());
+        assertTrue(entityManager.contains(persons.get(1)));
+        assertSame(persons.get(1), entityManager.find(PersonWithoutGeneratedValue.class, 7002L));
+        entityManager.getTransaction().rollback();
+    }
+
+    @Test
+    @DisplayName("Query fetches the result entities as defined by the graph")
+    public void testQueryWithGraph() {
+        var graph = EntityGraph.create(PersonWithoutGeneratedValue.class).fetchJoin("notes");
+        entityManager.getTransaction().begin();
+        var persons = entityManager.findAll(Query.from(PersonWithoutGeneratedValue.class)
+                .where("lastName", "LastName")
+                .orderBy(Order.asc("id"))
+                .fetch(graph));
+        entityManager.getTransaction().commit();
+
+        assertEquals(3, persons.size());
+        assertFalse(persons.get(0).getNotes() instanceof LazyList<?>);
+        assertEquals(2, persons.get(0).getNotes().size());
+        assertEquals(1, persons.get(1).getNotes().size());
+        assertThrows(EntityManagerException.class, () -> entityManager.findAll(Query.from(PersonWithoutGeneratedValue.class)
+                .fetch(graph)
+                .limit(1)));
+    }
+
+    @Test
+    @DisplayName("Queries of the same shape share the compiled plan")
+    public void testPlanCache() {
+        var cache = new QueryPlanCache(2);
+        var first = Query.from(PersonWithoutGeneratedValue.class).where("lastName", "A").limit(1);
+        var second = Query.from(PersonWithoutGeneratedValue.class).where("lastName", "B").limit(5);
+
+        var plan = cache.getPlan(first.getShape());
+        assertSame(plan, cache.getPlan(second.getShape()));
+        assertEquals("SELECT t0.id AS t0_id, t0.first_name AS t0_first_name, t0.last_name AS t0_last_name, "
+                + "t0.birthday AS t0_birthday FROM users t0 WHERE t0.last_name = ? LIMIT ?", plan.sql());
+        assertArrayEquals(new Object[]{"B", 5}, second.getParameterValues());
+
+        cache.getPlan(Query.from(PersonWithoutGeneratedValue.class).getShape());
+        cache.getPlan(Query.from(NoteWithoutGeneratedValue.class).getShape());
+        assertEquals(2, cache.size());
+        assertNotSame(plan, cache.getPlan(first.getShape()));
+    }
+
+    @Test
+    @DisplayName("Query on unknown attribute throws an exception")
+    public void testUnknownAttribute() {
+        var cache = new QueryPlanCache();
+        assertThrows(EntityManagerException.class, () -> cache.getPlan(Query.from(PersonWithoutGeneratedValue.class)
+                .where("nickname", "A").getShape()));
+        assertThrows(EntityManagerException.class, () -> cache.getPlan(Query.from(PersonWithoutGeneratedValue.class)
+                .orderBy(Order.asc("notes.body")).getShape()));
+        assertThrows(EntityManagerException.class, () -> Query.from(PersonWithoutGeneratedValue.class)
+                .where("lastName", Operator.EQUAL, null));
+    }
+}
@@ -0,0 +1,18 @@
+package com.breskul.bibernate.persistence.test_model;
+
+import com.breskul.bibernate.annotation.*;
+import lombok.Data;
+
+@Entity
+@Data
+@Table(name = "accounts")
+public class Account {
+
+    @Id
+    private Long id;
+    private String owner;
+    private Long balance;
+
+    @Version
+    private Long version;
+}
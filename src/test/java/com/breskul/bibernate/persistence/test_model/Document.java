@@ -0,0 +1,20 @@
+package com.breskul.bibernate.persistence.test_model;
+
+import com.breskul.bibernate.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@Table(name = "documents")
+public class Document {
+
+    @Id
+    private Long id;
+    private String title;
+
+    @Version
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,28 @@
+package com.breskul.bibernate.persistence.test_model;
+
+import com.breskul.bibernate.annotation.*;
+import com.breskul.bibernate.annotation.enums.FetchType;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@Table(name = "notes")
+@EqualsAndHashCode(exclude = "person")
+@ToString(exclude = "person")
+public class NoteWithLazyPerson {
+
+    @Id
+    private Long id;
+    private String body;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "person_id")
+    private PersonWithoutGeneratedValue person;
+}
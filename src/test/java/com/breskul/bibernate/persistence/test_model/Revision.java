@@ -0,0 +1,20 @@
+package com.breskul.bibernate.persistence.test_model;
+
+import com.breskul.bibernate.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@Table(name = "revisions")
+public class Revision {
+
+    @Id
+    private Long id;
+    private String title;
+
+    @Version(precision = 0)
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,16 @@
+package com.breskul.bibernate.persistence.test_model;
+
+import com.breskul.bibernate.annotation.Entity;
+import com.breskul.bibernate.annotation.Id;
+import com.breskul.bibernate.annotation.Table;
+import lombok.Data;
+
+@Entity
+@Data
+@Table(name = "tasks")
+public class Task {
+
+    @Id
+    private Long id;
+    private String status;
+}
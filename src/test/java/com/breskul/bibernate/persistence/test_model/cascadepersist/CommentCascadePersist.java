@@ -0,0 +1,24 @@
+package com.breskul.bibernate.persistence.test_model.cascadepersist;
+
+import com.breskul.bibernate.annotation.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import static com.breskul.bibernate.annotation.enums.Strategy.IDENTITY;
+
+@Entity
+@Data
+@Table(name = "comments")
+@EqualsAndHashCode(exclude = "person")
+@ToString(exclude = "person")
+public class CommentCascadePersist {
+    @Id
+    @GeneratedValue(strategy = IDENTITY)
+    private Long id;
+    private String body;
+
+    @ManyToOne
+    @JoinColumn(name = "person_id")
+    private PersonWithCommentsCascadePersist person;
+}
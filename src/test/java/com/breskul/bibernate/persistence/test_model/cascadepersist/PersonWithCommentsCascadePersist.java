@@ -0,0 +1,33 @@
+package com.breskul.bibernate.persistence.test_model.cascadepersist;
+
+import com.breskul.bibernate.annotation.*;
+import com.breskul.bibernate.annotation.enums.CascadeType;
+import com.breskul.bibernate.annotation.enums.Strategy;
+import lombok.Data;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+@Data
+@ToString(exclude = "comments")
+@Table(name = "users")
+public class PersonWithCommentsCascadePersist {
+
+    @Id
+    @GeneratedValue(strategy = Strategy.IDENTITY)
+    private Long id;
+    @Column(name = "first_name")
+    private String firstName;
+    @Column(name = "last_name")
+    private String lastName;
+
+    @OneToMany(cascade = CascadeType.PERSIST)
+    private List<CommentCascadePersist> comments = new ArrayList<>();
+
+    public void addComment(CommentCascadePersist comment) {
+        comment.setPerson(this);
+        comments.add(comment);
+    }
+}
@@ -1,5 +1,6 @@
 package com.breskul.bibernate.persistence.util;
 
+import com.breskul.bibernate.persistence.metrics.Statistics;
 import com.breskul.bibernate.persistence.model.EntityKey;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -22,8 +23,13 @@ public class CacheUtilsTest {
         Map<EntityKey<?>, Object> cache = new HashMap<>();
         cache.put(entityKey, testEntity);
 
-        TestEntity result = (TestEntity) CacheUtils.processCache(entityKey, cache, () -> new TestEntity(2L));
+        Statistics statistics = new Statistics();
+        statistics.setEnabled(true);
+
+        TestEntity result = (TestEntity) CacheUtils.processCache(entityKey, cache, statistics, () -> new TestEntity(2L));
         assertEquals(testEntity, result);
+        assertEquals(1, statistics.getCacheHitCount());
+        assertEquals(1, statistics.getEntityStatistics(TestEntity.class).getCacheHitCount());
     }
 
     @Test
@@ -34,7 +40,12 @@ public class CacheUtilsTest {
 
         Map<EntityKey<?>, Object> cache = new HashMap<>();
 
-        TestEntity result = (TestEntity) CacheUtils.processCache(entityKey, cache, () -> testEntity);
+        Statistics statistics = new Statistics();
+        statistics.setEnabled(true);
+
+        TestEntity result = (TestEntity) CacheUtils.processCache(entityKey, cache, statistics, () -> testEntity);
         assertEquals(testEntity, result);
+        assertEquals(1, statistics.getCacheMissCount());
+        assertEquals(0, statistics.getCacheHitCount());
     }
 }
@@ -4,6 +4,8 @@ import com.breskul.bibernate.persistence.util.test_model.UpdateQueryTest;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class QueryUtilsTest {
@@ -24,6 +26,32 @@ public class QueryUtilsTest {
         assertEquals(selectQuery, result);
     }
 
+    @Test
+    @DisplayName("Get select in query")
+    public void getSelectInQuery() {
+        String selectQuery = "SELECT t.* FROM table t WHERE t.column IN (?, ?, ?)";
+        String result = QueryUtils.buildSelectInQuery("table", "column", 3);
+        assertEquals(selectQuery, result);
+    }
+
+    @Test
+    @DisplayName("Get filter query")
+    public void getFilterQuery() {
+        String selectQuery = "SELECT t0.* FROM users t0 LEFT JOIN companies j1 ON j1.id = t0.company_id "
+                + "WHERE t0.last_name = ? AND j1.name = ? ORDER BY t0.id DESC LIMIT ? OFFSET ?";
+        String result = QueryUtils.buildFilterQuery("SELECT t0.* FROM users t0",
+                List.of("LEFT JOIN companies j1 ON j1.id = t0.company_id"), List.of("t0.last_name = ?", "j1.name = ?"),
+                List.of("t0.id DESC"), true, true);
+        assertEquals(selectQuery, result);
+    }
+
+    @Test
+    @DisplayName("Get keyset condition")
+    public void getKeysetCondition() {
+        assertEquals("t0.id > ?", QueryUtils.buildKeysetCondition(List.of("t0.id")));
+        assertEquals("(t0.last_name, t0.id) > (?, ?)", QueryUtils.buildKeysetCondition(List.of("t0.last_name", "t0.id")));
+    }
+
     @Test
     @DisplayName("Get delete query")
     public void getDeleteQuery() {
@@ -44,10 +72,16 @@ public class QueryUtilsTest {
     }
 
     @Test
-    @DisplayName("Get sequence query")
-    public void getSequenceQuery() {
-        String sequenceQuery = "SELECT nextval('table_seq')";
-        String result = QueryUtils.buildSequenceQuery("table");
-        assertEquals(sequenceQuery, result);
+    @DisplayName("Get update shape")
+    public void getUpdateShape() {
+        assertEquals("UPDATE test SET first_name = ?, last_name = ? WHERE id = ?", QueryUtils.buildUpdateShape(new UpdateQueryTest(), null));
+        assertEquals("UPDATE test SET first_name = ?, last_name = ? WHERE id = ? AND version = ?",
+                QueryUtils.buildUpdateShape(new UpdateQueryTest(), "version"));
+    }
+
+    @Test
+    @DisplayName("Get insert shape")
+    public void getInsertShape() {
+        assertEquals("INSERT INTO users (first_name,last_name) VALUES (?,?)", QueryUtils.buildInsertShape("users", "first_name,last_name"));
     }
 }
@@ -0,0 +1,192 @@
+package com.breskul.bibernate.repository;
+
+import com.breskul.bibernate.AbstractDataSourceTest;
+import com.breskul.bibernate.configuration.PersistenceProperties;
+import com.breskul.bibernate.exception.PersistencePropertiesException;
+import com.breskul.bibernate.exception.TransactionException;
+import com.breskul.bibernate.persistence.EntityManager;
+import com.breskul.bibernate.persistence.EntityManagerImpl;
+import com.breskul.bibernate.persistence.EntityTransaction;
+import com.breskul.bibernate.persistence.test_model.PersonWithoutGeneratedValue;
+import com.zaxxer.hikari.HikariDataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RoutingDataSourceTest extends AbstractDataSourceTest {
+
+    private static final String INSERT_PERSON = "INSERT INTO users (id, first_name, last_name) VALUES (?, ?, ?)";
+    private static final long PERSON_ID = 13001L;
+
+    private List<DataSource> replicas;
+    private RoutingDataSource routingDataSource;
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        replicas = List.of(createReplica("replica1"), createReplica("replica2"));
+        insertPerson(dataSource, "Primary");
+        insertPerson(replicas.get(0), "Replica1");
+        insertPerson(replicas.get(1), "Replica2");
+        routingDataSource = new RoutingDataSource(dataSource, replicas, ReplicaSelection.ROUND_ROBIN);
+        entityManager = new EntityManagerImpl(routingDataSource);
+    }
+
+    @AfterEach
+    void destroy() throws SQLException {
+        entityManager.close();
+        cleanPersons(dataSource);
+        for (DataSource replica : replicas) {
+            cleanPersons(replica);
+        }
+    }
+
+    @Test
+    @DisplayName("Read-only transactions and reads outside of transaction go to the replicas in turn")
+    public void testRoundRobinReads() {
+        EntityTransaction transaction = entityManager.getTransaction();
+        transaction.setReadOnly(true);
+        transaction.begin();
+        assertEquals("Replica1", entityManager.find(PersonWithoutGeneratedValue.class, PERSON_ID).getFirstName());
+        transaction.commit();
+
+        entityManager.clear();
+        assertEquals("Replica2", entityManager.find(PersonWithoutGeneratedValue.class, PERSON_ID).getFirstName());
+
+        assertEquals(0, routingDataSource.getPrimaryConnectionCount());
+        assertEquals(1, routingDataSource.getReplicaConnectionCount(0));
+        assertEquals(1, routingDataSource.getReplicaConnectionCount(1));
+        assertEquals(0, routingDataSource.getActiveReplicaConnectionCount(0));
+    }
+
+    @Test
+    @DisplayName("Read-write transactions go to the primary and read-only ones reject writes")
+    public void testWritesGoToPrimary() {
+        EntityTransaction transaction = entityManager.getTransaction();
+        transaction.begin();
+        var person = entityManager.find(PersonWithoutGeneratedValue.class, PERSON_ID);
+        assertEquals("Primary", person.getFirstName());
+        person.setLastName("Changed");
+        transaction.commit();
+        assertEquals(1, routingDataSource.getPrimaryConnectionCount());
+
+        entityManager.clear();
+        transaction.setReadOnly(true);
+        transaction.begin();
+        var replicaPerson = entityManager.find(PersonWithoutGeneratedValue.class, PERSON_ID);
+        replicaPerson.setLastName("Ignored");
+        var newPerson = new PersonWithoutGeneratedValue();
+        newPerson.setId(13002L);
+        newPerson.setFirstName("FirstName");
+        newPerson.setLastName("LastName");
+        assertThrows(TransactionException.class, () -> entityManager.persist(newPerson));
+        transaction.commit();
+
+        transaction.setReadOnly(false);
+        transaction.begin();
+        entityManager.clear();
+        assertEquals("Changed", entityManager.find(PersonWithoutGeneratedValue.class, PERSON_ID).getLastName());
+        transaction.commit();
+    }
+
+    @Test
+    @DisplayName("Prefetch inside a read-write transaction reads the collection from a replica")
+    public void testPrefetchReadsFromReplica() {
+        EntityTransaction transaction = entityManager.getTransaction();
+        transaction.begin();
+        var person = entityManager.find(PersonWithoutGeneratedValue.class, PERSON_ID);
+        entityManager.prefetch(person, "notes");
+        assertTrue(person.getNotes().isEmpty());
+        transaction.commit();
+
+        assertEquals(1, routingDataSource.getPrimaryConnectionCount());
+        assertEquals(1, routingDataSource.getReplicaConnectionCount(0));
+        assertEquals(0, routingDataSource.getActiveReplicaConnectionCount(0));
+    }
+
+    @Test
+    @DisplayName("Least-active selection prefers the replica with fewer connections in use")
+    public void testLeastActive() throws SQLException {
+        var leastActive = new RoutingDataSource(dataSource, replicas, ReplicaSelection.LEAST_ACTIVE);
+        try (Connection first = leastActive.getReadConnection()) {
+            try (Connection second = leastActive.getReadConnection()) {
+                assertEquals(1, leastActive.getActiveReplicaConnectionCount(0));
+                assertEquals(1, leastActive.getActiveReplicaConnectionCount(1));
+            }
+            try (Connection third = leastActive.getReadConnection()) {
+                assertEquals(2, leastActive.getReplicaConnectionCount(1));
+            }
+        }
+        assertEquals(0, leastActive.getActiveReplicaConnectionCount(0));
+        assertEquals(0, leastActive.getActiveReplicaConnectionCount(1));
+    }
+
+    @Test
+    @DisplayName("Replicas are configured by the persistence properties")
+    public void testDataSourceFactoryReplicas() {
+        PersistenceProperties.clear();
+        try {
+            PersistenceProperties.initialize("replica.properties");
+            var configured = DataSourceFactory.createDataSource(PersistenceProperties.getInstance());
+
+            var routing = assertInstanceOf(RoutingDataSource.class, configured);
+            assertEquals(2, routing.getReplicaCount());
+            assertEquals("jdbc:h2:mem:replica2", ((HikariDataSource) routing.getReplicas().get(1)).getJdbcUrl());
+            assertEquals("replica", ((HikariDataSource) routing.getReplicas().get(1)).getUsername());
+            assertEquals("test", ((HikariDataSource) routing.getReplicas().get(0)).getUsername());
+            assertEquals(ReplicaSelection.LEAST_ACTIVE, ReplicaSelection.fromProperty("least-active"));
+            var exception = assertThrows(PersistencePropertiesException.class, () -> ReplicaSelection.fromProperty("least-activ"));
+            assertTrue(exception.getMessage().contains("round-robin, least-active"));
+        } finally {
+            PersistenceProperties.clear();
+            PersistenceProperties.initialize();
+        }
+    }
+
+    @Test
+    @DisplayName("Replica selection is resolved independently of the default locale")
+    public void testReplicaSelectionLocale() {
+        var defaultLocale = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+            assertEquals(ReplicaSelection.LEAST_ACTIVE, ReplicaSelection.fromProperty("least-active"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    private static DataSource createReplica(String name) {
+        var replica = new JdbcDataSource();
+        replica.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1;INIT=runscript from 'classpath:/sql/init.sql'");
+        replica.setUser("test");
+        replica.setPassword("test");
+        return replica;
+    }
+
+    private static void insertPerson(DataSource dataSource, String firstName) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            PreparedStatement person = connection.prepareStatement(INSERT_PERSON);
+            person.setLong(1, PERSON_ID);
+            person.setString(2, firstName);
+            person.setString(3, "LastName");
+            person.executeUpdate();
+        }
+    }
+
+    private static void cleanPersons(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.prepareStatement(CLEAN_PERSON_TABLE).execute();
+        }
+    }
+}
@@ -6,7 +6,7 @@ CREATE TABLE IF NOT EXISTS users
     birthday   TIMESTAMP
 );
 
-CREATE TABLE notes
+CREATE TABLE IF NOT EXISTS notes
 (
     id         BIGINT                                 NOT NULL PRIMARY KEY,
     body       VARCHAR(255)                           NOT NULL,
@@ -15,22 +15,58 @@ CREATE TABLE notes
         CONSTRAINT person_FK references users (id)
 );
 
-CREATE SEQUENCE notes_seq;
+CREATE SEQUENCE IF NOT EXISTS notes_seq;
 
-CREATE TABLE companies
+CREATE TABLE IF NOT EXISTS companies
 (
     id         BIGINT                                 NOT NULL PRIMARY KEY,
     name       VARCHAR(255)                           NOT NULL,
     note_id  BIGINT
         CONSTRAINT notes_FK references notes (id)
 );
-CREATE SEQUENCE companies_seq;
+CREATE SEQUENCE IF NOT EXISTS companies_seq;
 
-CREATE TABLE profiles
+CREATE TABLE IF NOT EXISTS profiles
 (
     id         BIGINT                                 NOT NULL PRIMARY KEY,
     profile    VARCHAR(255)                           NOT NULL,
     person_id  BIGINT
 CONSTRAINT profiles_person_FK references users (id)
 );
-CREATE SEQUENCE profiles_seq;
+CREATE SEQUENCE IF NOT EXISTS profiles_seq;
+
+CREATE TABLE IF NOT EXISTS accounts
+(
+    id      BIGINT       NOT NULL PRIMARY KEY,
+    owner   VARCHAR(255) NOT NULL,
+    balance BIGINT       NOT NULL,
+    version BIGINT       NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS documents
+(
+    id         BIGINT       NOT NULL PRIMARY KEY,
+    title      VARCHAR(255) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS revisions
+(
+    id         BIGINT       NOT NULL PRIMARY KEY,
+    title      VARCHAR(255) NOT NULL,
+    updated_at TIMESTAMP(0) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS tasks
+(
+    id     BIGINT       NOT NULL PRIMARY KEY,
+    status VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS comments
+(
+    id        BIGINT AUTO_INCREMENT NOT NULL PRIMARY KEY,
+    body      VARCHAR(255)          NOT NULL,
+    person_id BIGINT
+        CONSTRAINT comments_person_FK references users (id)
+);